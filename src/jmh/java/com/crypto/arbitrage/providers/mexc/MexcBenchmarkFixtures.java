@@ -0,0 +1,251 @@
+package com.crypto.arbitrage.providers.mexc;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcProtobufWriter;
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.crypto.arbitrage.providers.mexc.service.MexcMarketDataService;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderManager;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataListener;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataProcessor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDepthDecoder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDepthSnapshotDiffer;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLatencyRecorder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLivenessMonitor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcInstrumentRegistry;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcProtobufDecoder;
+import com.crypto.arbitrage.utilite.HashedWheelTimer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+import velox.api.layer1.data.BalanceInfo;
+import velox.api.layer1.data.ExecutionInfo;
+import velox.api.layer1.data.OrderInfoUpdate;
+import velox.api.layer1.data.TradeInfo;
+
+/** Payloads and wiring shared by the MEXC ingestion benchmarks. */
+public final class MexcBenchmarkFixtures {
+
+  public static final String SYMBOL = "BTCUSDT";
+  public static final long EVENT_TIME = 1736417034399L;
+
+  private static final double PIPS = 0.01;
+  private static final double SIZE_MULTIPLIER = 100_000;
+
+  private MexcBenchmarkFixtures() {}
+
+  /** Configured like the application's mapper, which ignores unknown properties. */
+  public static ObjectMapper objectMapper() {
+    return new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  /** A registry with {@link #SYMBOL} subscribed. */
+  public static MexcInstrumentRegistry registry(MexcDepthMode depthMode) {
+    MexcInstrumentRegistry registry = new MexcInstrumentRegistry();
+    registry.subscribe(MexcProvider.createInstrumentInfo(SYMBOL, PIPS, SIZE_MULTIPLIER), depthMode);
+    return registry;
+  }
+
+  /** A processor over {@code registry} whose listener feeds {@code blackhole}. */
+  public static MexcDataProcessor processor(Blackhole blackhole, MexcInstrumentRegistry registry) {
+    MexcDataProcessor processor =
+        new MexcDataProcessor(
+            event -> {},
+            new MexcDepthSnapshotDiffer(),
+            new OfflineMarketDataService(),
+            registry,
+            new MexcOrderManager(60000),
+            new MexcOrderLatencyTracer(true, 50, 60000));
+    processor.setDataListener(new BlackholeListener(blackhole));
+    return processor;
+  }
+
+  public static MexcMessageDispatcher dispatcher(
+      ObjectMapper objectMapper,
+      MexcDataProcessor processor,
+      MexcInstrumentRegistry registry,
+      boolean recordLatency) {
+    return new MexcMessageDispatcher(
+        objectMapper,
+        processor,
+        registry,
+        new MexcDepthDecoder(),
+        new MexcProtobufDecoder(),
+        new MexcFeedLatencyRecorder(recordLatency, registry),
+        livenessMonitor(registry));
+  }
+
+  /** A liveness monitor whose checks never run, so frames only pay for the bookkeeping. */
+  public static MexcFeedLivenessMonitor livenessMonitor(MexcInstrumentRegistry registry) {
+    HashedWheelTimer timer =
+        new HashedWheelTimer("BenchmarkTimer", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+    return new MexcFeedLivenessMonitor(true, 10, 500, 5000, 100, registry, timer, event -> {});
+  }
+
+  public static String tradeJson() {
+    return "{\"c\":\"spot@public.deals.v3.api@BTCUSDT\",\"d\":{\"deals\":["
+        + "{\"S\":1,\"p\":\"60000.00\",\"t\":1736417034399,\"v\":\"0.00123\"},"
+        + "{\"S\":2,\"p\":\"60000.01\",\"t\":1736417034399,\"v\":\"0.04560\"}],"
+        + "\"e\":\"spot@public.deals.v3.api\"},\"s\":\"BTCUSDT\",\"t\":1736417034399}";
+  }
+
+  /**
+   * A limited depth snapshot. Snapshots of different {@code variant}s differ in every level, so
+   * alternating them makes each message produce updates.
+   */
+  public static String depthJson(int levels, int variant) {
+    StringBuilder asks = new StringBuilder();
+    StringBuilder bids = new StringBuilder();
+    for (int i = 0; i < levels; i++) {
+      String separator = i > 0 ? "," : "";
+      asks.append(separator).append(level(askPrice(i), quantity(i, variant)));
+      bids.append(separator).append(level(bidPrice(i), quantity(i, variant)));
+    }
+    return "{\"c\":\"spot@public.limit.depth.v3.api@BTCUSDT@"
+        + levels
+        + "\",\"d\":{\"asks\":["
+        + asks
+        + "],\"bids\":["
+        + bids
+        + "],\"e\":\"spot@public.limit.depth.v3.api\",\"r\":\"3407459756\"},"
+        + "\"s\":\"BTCUSDT\",\"t\":1736417034399}";
+  }
+
+  public static String orderJson() {
+    return "{\"c\":\"spot@private.orders.v3.api\",\"d\":{\"A\":8.0,\"O\":1661938138000,\"S\":1,"
+        + "\"V\":10,\"a\":8,\"c\":\"\",\"i\":\"e03a5c7441e44ed899466a7140b71391\",\"m\":0,"
+        + "\"o\":1,\"p\":0.8,\"s\":1,\"v\":10,\"ap\":0,\"cv\":0,\"ca\":0},"
+        + "\"s\":\"BTCUSDT\",\"t\":1661938138193}";
+  }
+
+  public static String balanceJson() {
+    return "{\"c\":\"spot@private.account.v3.api\",\"d\":{\"a\":\"USDT\",\"c\":1678185928428,"
+        + "\"f\":\"302.185113007893323\",\"fd\":\"-4.58\",\"l\":\"4.58\",\"ld\":\"4.58\","
+        + "\"o\":\"ENTRUST\"},\"t\":1678185928435}";
+  }
+
+  /** The {@link #tradeJson()} deals as a protobuf {@code PushDataV3ApiWrapper}. */
+  public static byte[] tradeProtobuf() {
+    MexcProtobufWriter deals = new MexcProtobufWriter();
+    deals.bytes(1, deal("60000.00", "0.00123", 1));
+    deals.bytes(1, deal("60000.01", "0.04560", 2));
+    deals.string(2, "spot@public.deals.v3.api.pb");
+    return wrapper("spot@public.deals.v3.api.pb@BTCUSDT", 301, deals.toByteArray());
+  }
+
+  /** The {@link #depthJson(int, int)} snapshot as a protobuf {@code PushDataV3ApiWrapper}. */
+  public static byte[] depthProtobuf(int levels, int variant) {
+    MexcProtobufWriter depth = new MexcProtobufWriter();
+    for (int i = 0; i < levels; i++) {
+      depth.bytes(1, pbLevel(askPrice(i), quantity(i, variant)));
+    }
+    for (int i = 0; i < levels; i++) {
+      depth.bytes(2, pbLevel(bidPrice(i), quantity(i, variant)));
+    }
+    depth.string(3, "spot@public.limit.depth.v3.api.pb");
+    depth.string(4, "3407459756");
+    return wrapper(
+        "spot@public.limit.depth.v3.api.pb@BTCUSDT@" + levels, 303, depth.toByteArray());
+  }
+
+  private static String askPrice(int level) {
+    return String.format(Locale.ROOT, "%.2f", 60000.01 + level * 0.01);
+  }
+
+  private static String bidPrice(int level) {
+    return String.format(Locale.ROOT, "%.2f", 60000.00 - level * 0.01);
+  }
+
+  private static String quantity(int level, int variant) {
+    return "0." + (100_000 + level * 37 + variant * 11);
+  }
+
+  private static String level(String price, String quantity) {
+    return "{\"p\":\"" + price + "\",\"v\":\"" + quantity + "\"}";
+  }
+
+  private static byte[] deal(String price, String quantity, int tradeType) {
+    MexcProtobufWriter deal = new MexcProtobufWriter();
+    deal.string(1, price);
+    deal.string(2, quantity);
+    deal.varint(3, tradeType);
+    deal.varint(4, EVENT_TIME);
+    return deal.toByteArray();
+  }
+
+  private static byte[] pbLevel(String price, String quantity) {
+    MexcProtobufWriter level = new MexcProtobufWriter();
+    level.string(1, price);
+    level.string(2, quantity);
+    return level.toByteArray();
+  }
+
+  private static byte[] wrapper(String channel, int bodyField, byte[] body) {
+    MexcProtobufWriter wrapper = new MexcProtobufWriter();
+    wrapper.string(1, channel);
+    wrapper.string(3, SYMBOL);
+    wrapper.varint(6, EVENT_TIME);
+    wrapper.bytes(bodyField, body);
+    return wrapper.toByteArray();
+  }
+
+  /**
+   * Fails every depth snapshot request: the benchmarks stay off the network, and the limited depth
+   * streams they dispatch never ask for a snapshot.
+   */
+  private static final class OfflineMarketDataService extends MexcMarketDataService {
+
+    private OfflineMarketDataService() {
+      // The overrides below never reach the REST client or the rate limiter
+      super("http://localhost", 1000, null, objectMapper(), new MexcDepthDecoder(), null);
+    }
+
+    @Override
+    public CompletableFuture<MexcDepthSnapshot> getDepthSnapshotAsync(
+        String symbol, MexcTickScale tickScale) {
+      return CompletableFuture.failedFuture(
+          new UnsupportedOperationException("No depth snapshots in benchmarks"));
+    }
+
+    @Override
+    public MexcDepthSnapshot getDepthSnapshot(String symbol, MexcTickScale tickScale) {
+      throw new UnsupportedOperationException("No depth snapshots in benchmarks");
+    }
+  }
+
+  /** Consumes every callback so that the JIT cannot drop the delivery path. */
+  private record BlackholeListener(Blackhole blackhole) implements MexcDataListener {
+
+    @Override
+    public void onTrade(String symbol, double price, int size, TradeInfo tradeInfo) {
+      blackhole.consume(price);
+      blackhole.consume(size);
+    }
+
+    @Override
+    public void onDepth(String symbol, boolean isBid, int price, int size) {
+      blackhole.consume(price);
+      blackhole.consume(size);
+    }
+
+    @Override
+    public void onBalance(BalanceInfo balanceInfo) {
+      blackhole.consume(balanceInfo);
+    }
+
+    @Override
+    public void onOrderExecuted(ExecutionInfo executionInfo) {
+      blackhole.consume(executionInfo);
+    }
+
+    @Override
+    public void onOrderUpdated(OrderInfoUpdate orderInfoUpdate) {
+      blackhole.consume(orderInfoUpdate);
+    }
+  }
+}
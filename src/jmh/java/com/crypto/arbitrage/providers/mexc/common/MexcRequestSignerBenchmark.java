@@ -0,0 +1,38 @@
+package com.crypto.arbitrage.providers.mexc.common;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Signing a typical new order with a pre-keyed signer, against the one-off {@link
+ * MexcSignatureUtil} of {@link MexcSignatureUtilBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MexcRequestSignerBenchmark {
+
+  private static final String URL = "https://api.mexc.com/api/v3/order";
+
+  private MexcRequestSigner signer;
+
+  @Setup
+  public void setUp() {
+    signer = new MexcRequestSigner("mx0vglBqh6abc123", "45d0b3c26f2644f19bfb98b07741b2f5");
+  }
+
+  @Benchmark
+  public String signedOrderUrl() {
+    return signer
+        .query(URL)
+        .add("symbol", "BTCUSDT")
+        .add("side", "BUY")
+        .add("type", "LIMIT")
+        .add("quantity", 1)
+        .add("price", 60000)
+        .add("newClientOrderId", "bm-1736417034399-1")
+        .add("recvWindow", 10000)
+        .add("timestamp", 1644489390087L)
+        .toSignedUrl();
+  }
+}
@@ -0,0 +1,21 @@
+package com.crypto.arbitrage.providers.mexc.common;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** HMAC-SHA256 signing of a typical new order query string. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MexcSignatureUtilBenchmark {
+
+  private static final String API_SECRET = "45d0b3c26f2644f19bfb98b07741b2f5";
+  private static final String QUERY =
+      "symbol=BTCUSDT&side=BUY&type=LIMIT&quantity=1&price=11&recvWindow=10000"
+          + "&timestamp=1644489390087";
+
+  @Benchmark
+  public String createSignature() {
+    return MexcSignatureUtil.createSignature(API_SECRET, QUERY);
+  }
+}
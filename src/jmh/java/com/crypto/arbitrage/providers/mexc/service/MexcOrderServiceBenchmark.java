@@ -0,0 +1,50 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import com.crypto.arbitrage.providers.mexc.model.order.MexcLoginData;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderSide;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Building the signed new order URL: parameters, signature and URL encoding. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MexcOrderServiceBenchmark {
+
+  private MexcOrderService orderService;
+  private MexcNewOrderReq request;
+
+  @Setup
+  public void setUp() {
+    // A clock that never syncs, so it stamps the local time
+    MexcClock clock = new MexcClock(null, 0, 1, 1000, null, null, null);
+    orderService =
+        new MexcOrderService(
+            "https://api.mexc.com",
+            1000,
+            null,
+            new MexcOrderManager(60000),
+            clock,
+            new MexcOrderLatencyTracer(false, 50, 60000));
+    MexcLoginData loginData = new MexcLoginData();
+    loginData.setApiKey("mx0vglBqh6abc123");
+    loginData.setApiSecret("45d0b3c26f2644f19bfb98b07741b2f5");
+    orderService.setLoginData(loginData);
+    request =
+        MexcNewOrderReq.builder()
+            .symbol("BTCUSDT")
+            .side(MexcOrderSide.BUY)
+            .type(MexcOrderType.LIMIT)
+            .quantity(1)
+            .price(60000)
+            .newClientOrderId("bm-1736417034399-1")
+            .build();
+  }
+
+  @Benchmark
+  public String signedNewOrderUrl() {
+    return orderService.signedNewOrderUrl(request);
+  }
+}
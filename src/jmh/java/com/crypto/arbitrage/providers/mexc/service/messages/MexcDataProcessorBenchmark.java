@@ -0,0 +1,72 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import static com.crypto.arbitrage.providers.mexc.MexcBenchmarkFixtures.*;
+
+import com.crypto.arbitrage.providers.mexc.model.MexcData;
+import com.crypto.arbitrage.providers.mexc.model.account.MexcAccountBalance;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderResponse;
+import com.crypto.arbitrage.providers.mexc.model.trade.MexcTradeStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link MexcDataProcessor} on already decoded messages, i.e. the dispatcher cost without JSON
+ * parsing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MexcDataProcessorBenchmark {
+
+  @Param({"trade", "depth", "order", "balance"})
+  public String payload;
+
+  private MexcInstrumentRegistry registry;
+  private MexcDataProcessor processor;
+  private MexcData[] messages;
+  private MexcDepthSnapshot[] snapshots;
+  private int next;
+
+  @Setup
+  public void setUp(Blackhole blackhole) throws IOException {
+    ObjectMapper objectMapper = objectMapper();
+    registry = registry(MexcDepthMode.LIMIT_20);
+    processor = processor(blackhole, registry);
+    switch (payload) {
+      case "trade" -> messages = decode(objectMapper, tradeJson(), MexcTradeStream.class);
+      case "order" -> messages = decode(objectMapper, orderJson(), MexcOrderResponse.class);
+      case "balance" -> messages = decode(objectMapper, balanceJson(), MexcAccountBalance.class);
+      case "depth" -> {
+        // Decode through the dispatcher, which fills the registry's per-symbol snapshot
+        MexcMessageDispatcher dispatcher = dispatcher(objectMapper, processor, registry, false);
+        snapshots = new MexcDepthSnapshot[2];
+        for (int variant = 0; variant < snapshots.length; variant++) {
+          dispatcher.dispatchMessage(depthJson(20, variant));
+          snapshots[variant] = registry.getDepthSnapshot(registry.idOf(SYMBOL)).copy();
+        }
+      }
+      default -> throw new IllegalArgumentException("Unknown payload: " + payload);
+    }
+  }
+
+  @Benchmark
+  public void process() {
+    int index = next++ & 1;
+    if (snapshots != null) {
+      processor.processDepth(snapshots[index]);
+    } else {
+      processor.process(messages[index]);
+    }
+  }
+
+  private static MexcData[] decode(
+      ObjectMapper objectMapper, String json, Class<? extends MexcData> type) throws IOException {
+    MexcData message = objectMapper.readValue(json, type);
+    return new MexcData[] {message, message};
+  }
+}
@@ -0,0 +1,49 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import static com.crypto.arbitrage.providers.mexc.MexcBenchmarkFixtures.*;
+
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Text frames through {@link MexcMessageDispatcher#dispatchMessage(String)}: routing, decoding,
+ * processing and delivery to a listener. Two depth snapshots alternate so that every message
+ * changes the book.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MexcMessageDispatcherBenchmark {
+
+  @Param({"trade", "depth", "order", "balance"})
+  public String payload;
+
+  @Param({"false", "true"})
+  public boolean recordLatency;
+
+  private MexcMessageDispatcher dispatcher;
+  private String[] messages;
+  private int next;
+
+  @Setup
+  public void setUp(Blackhole blackhole) {
+    MexcInstrumentRegistry registry = registry(MexcDepthMode.LIMIT_20);
+    dispatcher =
+        dispatcher(objectMapper(), processor(blackhole, registry), registry, recordLatency);
+    messages =
+        switch (payload) {
+          case "trade" -> new String[] {tradeJson(), tradeJson()};
+          case "depth" -> new String[] {depthJson(20, 0), depthJson(20, 1)};
+          case "order" -> new String[] {orderJson(), orderJson()};
+          case "balance" -> new String[] {balanceJson(), balanceJson()};
+          default -> throw new IllegalArgumentException("Unknown payload: " + payload);
+        };
+  }
+
+  @Benchmark
+  public void dispatchMessage() {
+    dispatcher.dispatchMessage(messages[next++ & 1]);
+  }
+}
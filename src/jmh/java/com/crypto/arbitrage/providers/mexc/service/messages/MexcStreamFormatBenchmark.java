@@ -0,0 +1,77 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import static com.crypto.arbitrage.providers.mexc.MexcBenchmarkFixtures.*;
+
+import com.crypto.arbitrage.providers.mexc.model.common.MexcStreamFormat;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The same public market data dispatched as JSON text frames and as protobuf binary frames. The
+ * {@code bytes} counter reports the frame bytes dispatched per second next to the score.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MexcStreamFormatBenchmark {
+
+  @Param({"deals", "depth"})
+  public String channel;
+
+  @Param({"JSON", "PROTOBUF"})
+  public MexcStreamFormat format;
+
+  private MexcMessageDispatcher dispatcher;
+  private String[] textFrames;
+  private byte[][] binaryFrames;
+  private int[] frameSizes;
+  private int next;
+
+  /** Frame bytes dispatched, reported by JMH at the benchmark's throughput unit. */
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class FrameBytes {
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      bytes = 0;
+    }
+  }
+
+  @Setup
+  public void setUp(Blackhole blackhole) {
+    MexcInstrumentRegistry registry = registry(MexcDepthMode.LIMIT_20);
+    dispatcher = dispatcher(objectMapper(), processor(blackhole, registry), registry, false);
+    boolean deals = "deals".equals(channel);
+    textFrames =
+        deals
+            ? new String[] {tradeJson(), tradeJson()}
+            : new String[] {depthJson(20, 0), depthJson(20, 1)};
+    binaryFrames =
+        deals
+            ? new byte[][] {tradeProtobuf(), tradeProtobuf()}
+            : new byte[][] {depthProtobuf(20, 0), depthProtobuf(20, 1)};
+    frameSizes = new int[2];
+    for (int i = 0; i < frameSizes.length; i++) {
+      frameSizes[i] =
+          format == MexcStreamFormat.PROTOBUF
+              ? binaryFrames[i].length
+              : textFrames[i].getBytes(StandardCharsets.UTF_8).length;
+    }
+  }
+
+  @Benchmark
+  public void dispatch(FrameBytes frameBytes) {
+    int index = next++ & 1;
+    frameBytes.bytes += frameSizes[index];
+    if (format == MexcStreamFormat.PROTOBUF) {
+      dispatcher.dispatchBinaryMessage(binaryFrames[index]);
+    } else {
+      dispatcher.dispatchMessage(textFrames[index]);
+    }
+  }
+}
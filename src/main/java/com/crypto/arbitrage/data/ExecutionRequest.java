@@ -9,12 +9,19 @@ public class ExecutionRequest {
     private final int lastTradeSize;
     private final boolean isBuyTrade;
     private final boolean isTriggeredByBbo;
+    /** System.nanoTime() of the book update or trade that triggered this request. */
+    private final long triggerNanos;
+    /** System.nanoTime() when this request was published. */
+    private final long publishNanos;
 
-    public ExecutionRequest(String alias, double executionPrice, int lastTradeSize, boolean isBuyTrade, boolean isTriggeredByBbo) {
+    public ExecutionRequest(String alias, double executionPrice, int lastTradeSize, boolean isBuyTrade, boolean isTriggeredByBbo,
+                            long triggerNanos, long publishNanos) {
         this.alias = alias;
         this.executionPrice = executionPrice;
         this.lastTradeSize = lastTradeSize;
         this.isBuyTrade = isBuyTrade;
         this.isTriggeredByBbo = isTriggeredByBbo;
+        this.triggerNanos = triggerNanos;
+        this.publishNanos = publishNanos;
     }
 }
\ No newline at end of file
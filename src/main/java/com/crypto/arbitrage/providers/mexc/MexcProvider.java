@@ -1,21 +1,28 @@
 package com.crypto.arbitrage.providers.mexc;
 
+import com.crypto.arbitrage.data.ExecutionRequest;
 import com.crypto.arbitrage.providers.mexc.common.MexcMapper;
-import com.crypto.arbitrage.providers.mexc.model.account.MexcBalanceEvent;
-import com.crypto.arbitrage.providers.mexc.model.event.MexcDepthEvent;
-import com.crypto.arbitrage.providers.mexc.model.event.MexcExchangeEvent;
-import com.crypto.arbitrage.providers.mexc.model.event.MexcTradeEvent;
+import com.crypto.arbitrage.providers.mexc.model.common.MexcStreamFormat;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.model.event.MexcFeedStaleEvent;
 import com.crypto.arbitrage.providers.mexc.model.event.MexcWebSocketSessionStatusEvent;
 import com.crypto.arbitrage.providers.mexc.model.instrument.MexcSubscribedInstrumentEvent;
 import com.crypto.arbitrage.providers.mexc.model.instrument.MexcUnsubscribedInstrumentEvent;
-import com.crypto.arbitrage.providers.mexc.model.order.MexcExecutionEvent;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcLoginData;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
-import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderInfoEvent;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderResp;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderAck;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer;
 import com.crypto.arbitrage.providers.mexc.service.MexcOrderService;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataListener;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataProcessor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcInstrumentRegistry;
 import com.crypto.arbitrage.providers.mexc.websocket.MexcWebSocketManager;
-import java.util.HashMap;
-import java.util.Map;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -25,21 +32,29 @@ import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import velox.api.layer0.live.ExternalLiveBaseProvider;
+import velox.api.layer1.Layer1ApiDataListener;
+import velox.api.layer1.Layer1ApiTradingListener;
 import velox.api.layer1.data.*;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class MexcProvider extends ExternalLiveBaseProvider {
+public class MexcProvider extends ExternalLiveBaseProvider implements MexcDataListener {
 
   public static final String NAME = "MEXC";
 
   private final MexcOrderService mexcOrderService;
   private final ApplicationEventPublisher publisher;
   private final MexcWebSocketManager mexcWebSocketManager;
-  private final Map<String, InstrumentInfo> subscribedInstrumentInfo = new HashMap<>();
+  private final MexcDataProcessor mexcDataProcessor;
+  private final MexcInstrumentRegistry instrumentRegistry;
   @Getter private final AtomicBoolean isLoggedIn = new AtomicBoolean(false);
 
+  @PostConstruct
+  public void registerDataListener() {
+    mexcDataProcessor.setDataListener(this);
+  }
+
   @Override
   public void login(@NonNull LoginData loginData) {
     if (isLoggedIn.get()) {
@@ -47,6 +62,7 @@ public class MexcProvider extends ExternalLiveBaseProvider {
       return;
     }
     if (isLoginDataValid(loginData)) {
+      mexcOrderService.setLoginData((MexcLoginData) loginData);
       mexcWebSocketManager.setLoginData((MexcLoginData) loginData);
       mexcWebSocketManager.openWebSocket();
     } else {
@@ -72,6 +88,20 @@ public class MexcProvider extends ExternalLiveBaseProvider {
 
   @Override
   public void subscribe(@NonNull SubscribeInfo subscribeInfo) {
+    if (subscribeInfo.symbol == null) {
+      log.error("SubscribeInfo symbol is null.");
+      return;
+    }
+    subscribe(
+        subscribeInfo,
+        mexcWebSocketManager.resolveDepthMode(subscribeInfo.symbol),
+        mexcWebSocketManager.resolveStreamFormat(subscribeInfo.symbol));
+  }
+
+  public void subscribe(
+      @NonNull SubscribeInfo subscribeInfo,
+      @NonNull MexcDepthMode depthMode,
+      @NonNull MexcStreamFormat streamFormat) {
     if (!isLoggedIn.get()) {
       log.warn("Method subscribe: MexcWebSocket session is not active.");
       return;
@@ -80,46 +110,54 @@ public class MexcProvider extends ExternalLiveBaseProvider {
       log.error("SubscribeInfo symbol is null.");
       return;
     }
-    if (subscribedInstrumentInfo.containsKey(subscribeInfo.symbol)) {
-      log.warn("Already subscribed to symbol {}", subscribeInfo.symbol);
-      return;
-    }
 
     SubscribeInfoCrypto subscribeInfoCrypto = (SubscribeInfoCrypto) subscribeInfo;
-    double sizeMultiplier = subscribeInfoCrypto.sizeMultiplier;
-    double pips = subscribeInfoCrypto.pips;
     InstrumentInfo instrumentInfo =
-        new InstrumentInfo(
+        createInstrumentInfo(
             subscribeInfoCrypto.symbol,
-            NAME,
-            null,
-            pips,
-            1.,
-            subscribeInfo.symbol,
-            true,
-            sizeMultiplier,
-            true);
-
-    // TODO: possibility of data inconsistency if we put instrument info to the map before getting
+            subscribeInfoCrypto.pips,
+            subscribeInfoCrypto.sizeMultiplier);
+
+    // TODO: possibility of data inconsistency if we register the instrument before getting
     // message from server that we subscribed
-    subscribedInstrumentInfo.put(subscribeInfo.symbol, instrumentInfo);
-    mexcWebSocketManager.subscribeToTopic(subscribeInfo.symbol);
-    publisher.publishEvent(new MexcSubscribedInstrumentEvent(instrumentInfo));
+    // The depth book has to exist before the first depth message arrives
+    if (instrumentRegistry.subscribe(instrumentInfo, depthMode) == MexcInstrumentRegistry.UNKNOWN) {
+      log.warn("Already subscribed to symbol {}", subscribeInfo.symbol);
+      return;
+    }
+    publisher.publishEvent(new MexcSubscribedInstrumentEvent(instrumentInfo, depthMode));
+    mexcWebSocketManager.subscribeToTopic(subscribeInfo.symbol, depthMode, streamFormat);
     instrumentListeners.forEach(
         listener -> listener.onInstrumentAdded(instrumentInfo.symbol, instrumentInfo));
   }
 
+  /**
+   * Makes an instrument known to the data processor and the instrument listeners without
+   * subscribing to it on the exchange, so that captured frames of the symbol can be replayed.
+   */
+  public void addOfflineInstrument(
+      @NonNull InstrumentInfo instrumentInfo, @NonNull MexcDepthMode depthMode) {
+    instrumentRegistry.register(instrumentInfo, depthMode);
+    publisher.publishEvent(new MexcSubscribedInstrumentEvent(instrumentInfo, depthMode));
+    instrumentListeners.forEach(
+        listener -> listener.onInstrumentAdded(instrumentInfo.symbol, instrumentInfo));
+  }
+
+  public static InstrumentInfo createInstrumentInfo(
+      @NonNull String symbol, double pips, double sizeMultiplier) {
+    return new InstrumentInfo(symbol, NAME, null, pips, 1., symbol, true, sizeMultiplier, true);
+  }
+
   @Override
   public void unsubscribe(@NonNull String symbol) {
     if (!isLoggedIn.get()) {
       log.warn("Method unsubscribe: MexcWebSocket session is not active.");
       return;
     }
-    if (!subscribedInstrumentInfo.containsKey(symbol)) {
+    if (!instrumentRegistry.unsubscribe(symbol)) {
       log.warn("Not subscribed to symbol {}", symbol);
       return;
     }
-    subscribedInstrumentInfo.remove(symbol);
     mexcWebSocketManager.unsubscribeFromTopic(symbol);
     publisher.publishEvent(new MexcUnsubscribedInstrumentEvent(symbol));
     instrumentListeners.forEach(listener -> listener.onInstrumentRemoved(symbol));
@@ -127,10 +165,23 @@ public class MexcProvider extends ExternalLiveBaseProvider {
 
   @Override
   public void sendOrder(@NonNull OrderSendParameters orderSendParameters) {
+    sendOrder(orderSendParameters, null);
+  }
+
+  /**
+   * Sends the order placed for an {@link ExecutionRequest}, whose stamps let the {@link
+   * MexcOrderLatencyTracer} trace the order from the book update that triggered it.
+   */
+  public void sendOrder(
+      @NonNull OrderSendParameters orderSendParameters, ExecutionRequest executionRequest) {
     if (orderSendParameters instanceof SimpleOrderSendParameters parameters) {
       MexcNewOrderReq mexcNewOrderReq = MexcMapper.toMexcNewOrderReq(parameters);
-      mexcOrderService.sendOrder(MexcMapper.toMexcNewOrderReq(parameters));
+      if (executionRequest != null) {
+        mexcNewOrderReq.setTriggerNanos(executionRequest.getTriggerNanos());
+        mexcNewOrderReq.setRequestNanos(executionRequest.getPublishNanos());
+      }
       log.info("OrderSendParameters: {}", mexcNewOrderReq);
+      logOrderResult(mexcNewOrderReq, mexcOrderService.sendOrder(mexcNewOrderReq));
     } else {
       log.warn(
           "Method sendOrder: Unsupported orderSendParameters type {}",
@@ -138,6 +189,45 @@ public class MexcProvider extends ExternalLiveBaseProvider {
     }
   }
 
+  /**
+   * Sends several orders at once, e.g. the legs of an arbitrage signal or a ladder, batched per
+   * symbol by {@link MexcOrderService#sendOrders}. Unsupported parameter types are skipped.
+   */
+  public void sendOrders(@NonNull List<? extends OrderSendParameters> orderSendParameters) {
+    List<MexcNewOrderReq> requests = new ArrayList<>(orderSendParameters.size());
+    for (OrderSendParameters sendParameters : orderSendParameters) {
+      if (sendParameters instanceof SimpleOrderSendParameters parameters) {
+        requests.add(MexcMapper.toMexcNewOrderReq(parameters));
+      } else {
+        log.warn(
+            "Method sendOrders: Unsupported orderSendParameters type {}",
+            sendParameters.getClass());
+      }
+    }
+    log.info("OrderSendParameters: {}", requests);
+    List<CompletableFuture<MexcOrderAck<MexcNewOrderResp>>> results =
+        mexcOrderService.sendOrders(requests);
+    for (int i = 0; i < requests.size(); i++) {
+      logOrderResult(requests.get(i), results.get(i));
+    }
+  }
+
+  private void logOrderResult(
+      @NonNull MexcNewOrderReq request,
+      @NonNull CompletableFuture<MexcOrderAck<MexcNewOrderResp>> result) {
+    result.whenComplete(
+        (ack, error) -> {
+          if (error != null) {
+            log.error("Method sendOrder: order {} failed: {}", request, error.getMessage());
+          } else {
+            log.info(
+                "Method sendOrder: order {} acknowledged in {} us",
+                ack.response().getOrderId(),
+                TimeUnit.NANOSECONDS.toMicros(ack.roundTripNanos()));
+          }
+        });
+  }
+
   @Override
   public void updateOrder(@NonNull OrderUpdateParameters orderUpdateParameters) {
     log.info("Not implemented.");
@@ -152,40 +242,58 @@ public class MexcProvider extends ExternalLiveBaseProvider {
     }
   }
 
+  /**
+   * A symbol whose data went silent is subscribed again, and the data listeners see its market as
+   * closed so they stop trusting the BBO they hold; it is open again once its frames resume. The
+   * books themselves are left to the decoding thread: the depth that follows the resubscription,
+   * or the resync after a version gap, brings them back in line.
+   */
   @EventListener
-  public void onMexcEvent(@NonNull MexcExchangeEvent event) {
-    if (event instanceof MexcTradeEvent tradeEvent) {
-      log.info("Method handleMexcEvent: MexcTradeEvent {}", tradeEvent);
-      dataListeners.forEach(
-          listener ->
-              listener.onTrade(
-                  tradeEvent.getSymbol(),
-                  tradeEvent.getPrice(),
-                  tradeEvent.getSize(),
-                  tradeEvent.getTradeInfo()));
-    } else if (event instanceof MexcDepthEvent depthEvent) {
-      log.info("Method handleMexcEvent: MexcDepthEvent {}", depthEvent);
-      dataListeners.forEach(
-          listener ->
-              listener.onDepth(
-                  depthEvent.getSymbol(),
-                  depthEvent.isBid(),
-                  depthEvent.getPrice(),
-                  depthEvent.getSize()));
-    } else if (event instanceof MexcBalanceEvent balanceEvent) {
-      log.info("Method handleMexcEvent: MexcBalanceEvent {}", balanceEvent);
-      tradingListeners.forEach(listener -> listener.onBalance(balanceEvent.getBalanceInfo()));
-    } else if (event instanceof MexcExecutionEvent executionEvent) {
-      log.info("Method handleMexcEvent: MexcExecutionEvent {}", executionEvent.getExecutionInfo());
-      tradingListeners.forEach(
-          listener -> listener.onOrderExecuted(executionEvent.getExecutionInfo()));
-    } else if (event instanceof MexcOrderInfoEvent mexcOrderInfoEvent) {
-      log.info(
-          "Method handleMexcEvent: MexcOrderInfoEvent {}", mexcOrderInfoEvent.getOrderInfoUpdate());
-      tradingListeners.forEach(
-          listener -> listener.onOrderUpdated(mexcOrderInfoEvent.getOrderInfoUpdate()));
-    } else {
-      log.warn("Method handleMexcEvent: Unsupported event type {}", event.getClass());
+  public void onFeedStaleEvent(@NonNull MexcFeedStaleEvent event) {
+    if (event.stale()) {
+      mexcWebSocketManager.resubscribe(event.symbol());
+    }
+    MarketMode marketMode = event.stale() ? MarketMode.CLOSED : MarketMode.OPEN;
+    for (Layer1ApiDataListener listener : dataListeners) {
+      listener.onMarketMode(event.symbol(), marketMode);
+    }
+  }
+
+  @Override
+  public void onTrade(String symbol, double price, int size, TradeInfo tradeInfo) {
+    for (Layer1ApiDataListener listener : dataListeners) {
+      listener.onTrade(symbol, price, size, tradeInfo);
+    }
+  }
+
+  @Override
+  public void onDepth(String symbol, boolean isBid, int price, int size) {
+    for (Layer1ApiDataListener listener : dataListeners) {
+      listener.onDepth(symbol, isBid, price, size);
+    }
+  }
+
+  @Override
+  public void onBalance(BalanceInfo balanceInfo) {
+    log.info("Method onBalance: {}", balanceInfo);
+    for (Layer1ApiTradingListener listener : tradingListeners) {
+      listener.onBalance(balanceInfo);
+    }
+  }
+
+  @Override
+  public void onOrderExecuted(ExecutionInfo executionInfo) {
+    log.info("Method onOrderExecuted: {}", executionInfo);
+    for (Layer1ApiTradingListener listener : tradingListeners) {
+      listener.onOrderExecuted(executionInfo);
+    }
+  }
+
+  @Override
+  public void onOrderUpdated(OrderInfoUpdate orderInfoUpdate) {
+    log.info("Method onOrderUpdated: {}", orderInfoUpdate);
+    for (Layer1ApiTradingListener listener : tradingListeners) {
+      listener.onOrderUpdated(orderInfoUpdate);
     }
   }
 
@@ -0,0 +1,277 @@
+package com.crypto.arbitrage.providers.mexc.common;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free parser for the plain ASCII decimals MEXC sends as JSON or protobuf strings
+ * ("20290.89", "0.00100000"), and for JSON numbers, which may also carry an exponent ("1.0E-5").
+ *
+ * <p>A parsed value is returned as a single packed {@code long}: the decimal mantissa in the upper
+ * bits and the number of fraction digits in the lower {@value #SCALE_BITS} bits, so that {@code
+ * value = mantissa(packed) / 10^scale(packed)}. Trailing fraction zeros are dropped while parsing,
+ * which keeps the mantissa small and the result unique for equal values.
+ */
+public final class MexcDecimal {
+
+  public static final int SCALE_BITS = 5;
+  public static final int MAX_SCALE = (1 << SCALE_BITS) - 1;
+  private static final long SCALE_MASK = MAX_SCALE;
+  private static final long MAX_MANTISSA = Long.MAX_VALUE >> SCALE_BITS;
+  // Exponents beyond this never fit, and are rejected before they can overflow the scale
+  private static final int MAX_EXPONENT_DIGITS = 3;
+  private static final long INVALID = Long.MIN_VALUE;
+  private static final int INVALID_EXPONENT = Integer.MIN_VALUE;
+
+  private static final long[] POWERS_OF_TEN = new long[19];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private MexcDecimal() {}
+
+  /**
+   * Parses {@code length} characters of {@code chars} starting at {@code offset}.
+   *
+   * @return the packed mantissa and scale
+   * @throws NumberFormatException if the text is not a decimal or does not fit
+   */
+  public static long parse(char[] chars, int offset, int length) {
+    if (length <= 0) {
+      throw new NumberFormatException("Empty decimal");
+    }
+    int end = offset + length;
+    int i = offset;
+    boolean negative = chars[i] == '-';
+    if (negative || chars[i] == '+') {
+      i++;
+    }
+    long mantissa = 0;
+    int scale = 0;
+    int pendingZeros = 0;
+    boolean fraction = false;
+    boolean hasDigits = false;
+    int exponent = 0;
+    for (; i < end; i++) {
+      char c = chars[i];
+      if (c == '.' && !fraction) {
+        fraction = true;
+        continue;
+      }
+      if ((c == 'e' || c == 'E') && hasDigits) {
+        exponent = parseExponent(chars, i + 1, end);
+        break;
+      }
+      int digit = c - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("Invalid decimal: " + new String(chars, offset, length));
+      }
+      hasDigits = true;
+      if (fraction) {
+        if (digit == 0) {
+          pendingZeros++;
+          continue;
+        }
+        scale += pendingZeros + 1;
+        mantissa = appendDigits(mantissa, pendingZeros, digit);
+        pendingZeros = 0;
+      } else {
+        mantissa = appendDigits(mantissa, 0, digit);
+      }
+      if (mantissa < 0) {
+        throw new NumberFormatException(
+            "Decimal out of range: " + new String(chars, offset, length));
+      }
+    }
+    long packed = hasDigits ? pack(mantissa, scale, exponent, negative) : INVALID;
+    if (packed == INVALID) {
+      throw new NumberFormatException("Invalid decimal: " + new String(chars, offset, length));
+    }
+    return packed;
+  }
+
+  /**
+   * Parses {@code length} ASCII bytes of {@code bytes} starting at {@code offset}, e.g. a string
+   * field of a protobuf frame.
+   *
+   * @return the packed mantissa and scale
+   * @throws NumberFormatException if the text is not a decimal or does not fit
+   */
+  public static long parse(byte[] bytes, int offset, int length) {
+    if (length <= 0) {
+      throw new NumberFormatException("Empty decimal");
+    }
+    int end = offset + length;
+    int i = offset;
+    boolean negative = bytes[i] == '-';
+    if (negative || bytes[i] == '+') {
+      i++;
+    }
+    long mantissa = 0;
+    int scale = 0;
+    int pendingZeros = 0;
+    boolean fraction = false;
+    boolean hasDigits = false;
+    int exponent = 0;
+    for (; i < end; i++) {
+      byte b = bytes[i];
+      if (b == '.' && !fraction) {
+        fraction = true;
+        continue;
+      }
+      if ((b == 'e' || b == 'E') && hasDigits) {
+        exponent = parseExponent(bytes, i + 1, end);
+        break;
+      }
+      int digit = b - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("Invalid decimal: " + asciiString(bytes, offset, length));
+      }
+      hasDigits = true;
+      if (fraction) {
+        if (digit == 0) {
+          pendingZeros++;
+          continue;
+        }
+        scale += pendingZeros + 1;
+        mantissa = appendDigits(mantissa, pendingZeros, digit);
+        pendingZeros = 0;
+      } else {
+        mantissa = appendDigits(mantissa, 0, digit);
+      }
+      if (mantissa < 0) {
+        throw new NumberFormatException(
+            "Decimal out of range: " + asciiString(bytes, offset, length));
+      }
+    }
+    long packed = hasDigits ? pack(mantissa, scale, exponent, negative) : INVALID;
+    if (packed == INVALID) {
+      throw new NumberFormatException("Invalid decimal: " + asciiString(bytes, offset, length));
+    }
+    return packed;
+  }
+
+  /** Parses a {@link CharSequence}; convenient off the hot path (REST payloads, configuration). */
+  public static long parse(CharSequence text) {
+    char[] chars = new char[text.length()];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = text.charAt(i);
+    }
+    return parse(chars, 0, chars.length);
+  }
+
+  public static long pack(long mantissa, int scale) {
+    return (mantissa << SCALE_BITS) | scale;
+  }
+
+  public static long mantissa(long packed) {
+    return packed >> SCALE_BITS;
+  }
+
+  public static int scale(long packed) {
+    return (int) (packed & SCALE_MASK);
+  }
+
+  public static long powerOfTen(int exponent) {
+    return POWERS_OF_TEN[exponent];
+  }
+
+  /**
+   * Returns the value as a mantissa of the fixed {@code scale}, truncating extra fraction digits,
+   * so values of different scales can be added and compared as plain {@code long}s.
+   */
+  public static long toMantissa(long packed, int scale) {
+    int exponent = scale - scale(packed);
+    return exponent >= 0
+        ? mantissa(packed) * POWERS_OF_TEN[exponent]
+        : mantissa(packed) / POWERS_OF_TEN[-exponent];
+  }
+
+  public static double toDouble(long packed) {
+    return (double) mantissa(packed) / POWERS_OF_TEN[scale(packed)];
+  }
+
+  /**
+   * Packs {@code mantissa / 10^scale * 10^exponent}, or returns {@link #INVALID} if it does not
+   * fit. An exponent is not normalized away: "1.5E2" packs as 150, with scale 0.
+   */
+  private static long pack(long mantissa, int scale, int exponent, boolean negative) {
+    if (exponent == INVALID_EXPONENT) {
+      return INVALID;
+    }
+    int shiftedScale = scale - exponent;
+    if (shiftedScale < 0) {
+      if (-shiftedScale >= POWERS_OF_TEN.length
+          || mantissa > MAX_MANTISSA / POWERS_OF_TEN[-shiftedScale]) {
+        return INVALID;
+      }
+      mantissa *= POWERS_OF_TEN[-shiftedScale];
+      shiftedScale = 0;
+    } else if (shiftedScale > MAX_SCALE) {
+      return INVALID;
+    }
+    return pack(negative ? -mantissa : mantissa, shiftedScale);
+  }
+
+  /** Parses the signed exponent at {@code chars[from, end)}, or returns INVALID_EXPONENT. */
+  private static int parseExponent(char[] chars, int from, int end) {
+    int i = from;
+    boolean negative = i < end && chars[i] == '-';
+    if (i < end && (negative || chars[i] == '+')) {
+      i++;
+    }
+    if (i == end || end - i > MAX_EXPONENT_DIGITS) {
+      return INVALID_EXPONENT;
+    }
+    int exponent = 0;
+    for (; i < end; i++) {
+      int digit = chars[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return INVALID_EXPONENT;
+      }
+      exponent = exponent * 10 + digit;
+    }
+    return negative ? -exponent : exponent;
+  }
+
+  /** Parses the signed exponent at {@code bytes[from, end)}, or returns INVALID_EXPONENT. */
+  private static int parseExponent(byte[] bytes, int from, int end) {
+    int i = from;
+    boolean negative = i < end && bytes[i] == '-';
+    if (i < end && (negative || bytes[i] == '+')) {
+      i++;
+    }
+    if (i == end || end - i > MAX_EXPONENT_DIGITS) {
+      return INVALID_EXPONENT;
+    }
+    int exponent = 0;
+    for (; i < end; i++) {
+      int digit = bytes[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return INVALID_EXPONENT;
+      }
+      exponent = exponent * 10 + digit;
+    }
+    return negative ? -exponent : exponent;
+  }
+
+  /** Shifts {@code zeros} zeros and {@code digit} into the mantissa, or returns -1 on overflow. */
+  private static long appendDigits(long mantissa, int zeros, int digit) {
+    if (mantissa == 0) {
+      // Leading fraction zeros, however many, leave nothing to shift
+      return digit;
+    }
+    if (zeros + 1 >= POWERS_OF_TEN.length
+        || mantissa > (MAX_MANTISSA - digit) / POWERS_OF_TEN[zeros + 1]) {
+      return -1;
+    }
+    return mantissa * POWERS_OF_TEN[zeros + 1] + digit;
+  }
+
+  private static String asciiString(byte[] bytes, int offset, int length) {
+    return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,133 @@
+package com.crypto.arbitrage.providers.mexc.common;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal protobuf wire-format reader over a byte array, enough for the MEXC push messages. It
+ * reads tags, varints, fixed-width fields and length-delimited fields in place; nested messages
+ * are read by narrowing the limit with {@link #pushLimit()} instead of copying bytes.
+ */
+public final class MexcProtobufReader {
+
+  public static final int WIRE_VARINT = 0;
+  public static final int WIRE_FIXED64 = 1;
+  public static final int WIRE_LENGTH_DELIMITED = 2;
+  public static final int WIRE_FIXED32 = 5;
+
+  private final byte[] buffer;
+  private int position;
+  private int limit;
+
+  public MexcProtobufReader(byte[] buffer) {
+    this(buffer, 0, buffer.length);
+  }
+
+  public MexcProtobufReader(byte[] buffer, int offset, int length) {
+    this.buffer = buffer;
+    this.position = offset;
+    this.limit = offset + length;
+  }
+
+  public int getPosition() {
+    return position;
+  }
+
+  public boolean hasRemaining() {
+    return position < limit;
+  }
+
+  /** Reads the next field tag, or returns 0 at the current limit. */
+  public int readTag() {
+    if (position >= limit) {
+      return 0;
+    }
+    return (int) readVarint();
+  }
+
+  public static int fieldNumber(int tag) {
+    return tag >>> 3;
+  }
+
+  public static int wireType(int tag) {
+    return tag & 7;
+  }
+
+  public long readVarint() {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (position >= limit) {
+        throw new IllegalStateException("Truncated varint at " + position);
+      }
+      byte b = buffer[position++];
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+    throw new IllegalStateException("Malformed varint at " + position);
+  }
+
+  /** Reads the length prefix of a length-delimited field and checks it against the limit. */
+  public int readLength() {
+    int length = (int) readVarint();
+    if (length < 0 || length > limit - position) {
+      throw new IllegalStateException("Invalid length " + length + " at " + position);
+    }
+    return length;
+  }
+
+  public String readString() {
+    int length = readLength();
+    String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+    position += length;
+    return value;
+  }
+
+  /** Reads a string field holding a decimal without creating a {@link String}. */
+  public long readDecimal() {
+    int length = readLength();
+    long value = MexcDecimal.parse(buffer, position, length);
+    position += length;
+    return value;
+  }
+
+  /**
+   * Enters an embedded message: reads its length and restricts reading to it.
+   *
+   * @return the previous limit, to be passed to {@link #popLimit(int)}
+   */
+  public int pushLimit() {
+    int length = readLength();
+    int previousLimit = limit;
+    limit = position + length;
+    return previousLimit;
+  }
+
+  /** Leaves an embedded message, skipping whatever was not read. */
+  public void popLimit(int previousLimit) {
+    position = limit;
+    limit = previousLimit;
+  }
+
+  public void seek(int position) {
+    this.position = position;
+  }
+
+  public void skipField(int tag) {
+    switch (wireType(tag)) {
+      case WIRE_VARINT -> readVarint();
+      case WIRE_FIXED64 -> skipBytes(8);
+      case WIRE_LENGTH_DELIMITED -> skipBytes(readLength());
+      case WIRE_FIXED32 -> skipBytes(4);
+      default -> throw new IllegalStateException(
+          "Unsupported wire type " + wireType(tag) + " at " + position);
+    }
+  }
+
+  private void skipBytes(int count) {
+    if (count > limit - position) {
+      throw new IllegalStateException("Truncated field at " + position);
+    }
+    position += count;
+  }
+}
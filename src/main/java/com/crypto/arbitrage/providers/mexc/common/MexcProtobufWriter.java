@@ -0,0 +1,60 @@
+package com.crypto.arbitrage.providers.mexc.common;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal protobuf wire-format writer, the counterpart of {@link MexcProtobufReader}. Enough to
+ * build MEXC push messages for the exchange simulator and the benchmarks; nested messages are
+ * written from the byte array of a separate writer.
+ */
+public final class MexcProtobufWriter {
+
+  private final ByteArrayOutputStream out;
+
+  public MexcProtobufWriter() {
+    this(64);
+  }
+
+  public MexcProtobufWriter(int initialCapacity) {
+    this.out = new ByteArrayOutputStream(initialCapacity);
+  }
+
+  public MexcProtobufWriter varint(int field, long value) {
+    tag(field, MexcProtobufReader.WIRE_VARINT);
+    rawVarint(value);
+    return this;
+  }
+
+  public MexcProtobufWriter string(int field, String value) {
+    return bytes(field, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Writes a length-delimited field: an embedded message, a string or raw bytes. */
+  public MexcProtobufWriter bytes(int field, byte[] value) {
+    tag(field, MexcProtobufReader.WIRE_LENGTH_DELIMITED);
+    rawVarint(value.length);
+    out.writeBytes(value);
+    return this;
+  }
+
+  public byte[] toByteArray() {
+    return out.toByteArray();
+  }
+
+  public void reset() {
+    out.reset();
+  }
+
+  private void tag(int field, int wireType) {
+    rawVarint((long) field << 3 | wireType);
+  }
+
+  private void rawVarint(long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+}
@@ -6,8 +6,15 @@ import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 
+/**
+ * One-off HMAC SHA256 signing. Signed requests of an account go through its {@link
+ * MexcRequestSigner}, which keeps its keyed {@link Mac}s.
+ */
 public class MexcSignatureUtil {
 
+    static final String HMAC_SHA256 = "HmacSHA256";
+    static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
     /**
      * Creates an HMAC SHA256 signature based on the parameter string.
      *
@@ -16,31 +23,37 @@ public class MexcSignatureUtil {
      * @return The signature as a hexadecimal string.
      */
     public static String createSignature(String apiSecret, String rawQueryString) {
+        Mac sha256_HMAC = newMac(apiSecret);
+        byte[] hash = sha256_HMAC.doFinal(rawQueryString.getBytes(StandardCharsets.UTF_8));
+        return bytesToHex(hash);
+    }
+
+    /** Creates a {@link Mac} keyed with {@code apiSecret}. */
+    static Mac newMac(String apiSecret) {
         try {
-            Mac sha256_HMAC = Mac.getInstance("HmacSHA256");
+            Mac sha256_HMAC = Mac.getInstance(HMAC_SHA256);
             SecretKeySpec secretKey = new SecretKeySpec(apiSecret.getBytes(StandardCharsets.UTF_8),
-                    "HmacSHA256");
+                    HMAC_SHA256);
             sha256_HMAC.init(secretKey);
-            byte[] hash = sha256_HMAC.doFinal(rawQueryString.getBytes(StandardCharsets.UTF_8));
-            return bytesToHex(hash);
+            return sha256_HMAC;
         } catch (NoSuchAlgorithmException | InvalidKeyException e) {
             throw new RuntimeException("Error creating HMAC SHA256 HMAC", e);
         }
     }
 
     /**
-     * Converts a byte array to a hexadecimal string.
+     * Converts a byte array to a lower case hexadecimal string, two digits per byte looked up in
+     * {@link #HEX_DIGITS}.
      *
      * @param bytes The byte array.
      * @return The hexadecimal string.
      */
     private static String bytesToHex(byte[] bytes) {
-        StringBuilder hexString = new StringBuilder(2 * bytes.length);
-        for (byte b : bytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) hexString.append('0');
-            hexString.append(hex);
+        byte[] hex = new byte[2 * bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
         }
-        return hexString.toString();
+        return new String(hex, StandardCharsets.US_ASCII);
     }
 }
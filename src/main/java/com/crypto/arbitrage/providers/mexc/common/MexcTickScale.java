@@ -0,0 +1,156 @@
+package com.crypto.arbitrage.providers.mexc.common;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+import velox.api.layer1.data.InstrumentInfo;
+
+/**
+ * Exact conversion of {@link MexcDecimal} values into the integer price ticks and size units of an
+ * instrument. The instrument pips and size multiplier are turned into decimals once, so the
+ * per-level conversion is pure {@code long} arithmetic instead of a lossy {@code double} division.
+ * Results are truncated towards zero and saturate at the {@code int} range, as the previous {@code
+ * (int)} casts of a {@code double} did. Values whose arithmetic would overflow a {@code long}, or
+ * need a power of ten beyond it, take an exact {@link BigDecimal} path instead.
+ */
+@Getter
+public final class MexcTickScale {
+
+  // The largest exponent whose power of ten fits a long
+  private static final int MAX_EXPONENT = 18;
+  private static final BigDecimal MIN_INT = BigDecimal.valueOf(Integer.MIN_VALUE);
+  private static final BigDecimal MAX_INT = BigDecimal.valueOf(Integer.MAX_VALUE);
+
+  private final double pips;
+  private final double sizeMultiplier;
+  private final long pipsMantissa;
+  private final int pipsScale;
+  private final long sizeMultiplierMantissa;
+  private final int sizeMultiplierScale;
+
+  public MexcTickScale(double pips, double sizeMultiplier) {
+    if (!(pips > 0) || !(sizeMultiplier > 0)) {
+      throw new IllegalArgumentException(
+          "pips and sizeMultiplier must be positive: " + pips + ", " + sizeMultiplier);
+    }
+    this.pips = pips;
+    this.sizeMultiplier = sizeMultiplier;
+    long packedPips = toPacked(pips);
+    long packedMultiplier = toPacked(sizeMultiplier);
+    this.pipsMantissa = MexcDecimal.mantissa(packedPips);
+    this.pipsScale = MexcDecimal.scale(packedPips);
+    this.sizeMultiplierMantissa = MexcDecimal.mantissa(packedMultiplier);
+    this.sizeMultiplierScale = MexcDecimal.scale(packedMultiplier);
+  }
+
+  public static MexcTickScale of(@NonNull InstrumentInfo instrumentInfo) {
+    return new MexcTickScale(instrumentInfo.pips, instrumentInfo.sizeMultiplier);
+  }
+
+  /** Converts a packed decimal price into a number of pips. */
+  public int toPriceTicks(long packedPrice) {
+    long mantissa = MexcDecimal.mantissa(packedPrice);
+    int scale = MexcDecimal.scale(packedPrice);
+    if (pipsScale >= scale) {
+      int exponent = pipsScale - scale;
+      if (exponent > MAX_EXPONENT || overflows(mantissa, MexcDecimal.powerOfTen(exponent))) {
+        return exactPriceTicks(mantissa, scale);
+      }
+      return saturate(mantissa * MexcDecimal.powerOfTen(exponent) / pipsMantissa);
+    }
+    int exponent = scale - pipsScale;
+    if (exponent > MAX_EXPONENT || overflows(pipsMantissa, MexcDecimal.powerOfTen(exponent))) {
+      return exactPriceTicks(mantissa, scale);
+    }
+    long divisor = pipsMantissa * MexcDecimal.powerOfTen(exponent);
+    return saturate(mantissa / divisor);
+  }
+
+  /**
+   * Returns whether a packed decimal price is a whole number of pips, so that {@link
+   * #toPriceTicks} does not truncate it. A price between ticks means the instrument's real tick
+   * size is finer than its pips.
+   */
+  public boolean isOnTick(long packedPrice) {
+    long mantissa = MexcDecimal.mantissa(packedPrice);
+    int scale = MexcDecimal.scale(packedPrice);
+    if (pipsScale >= scale) {
+      int exponent = pipsScale - scale;
+      if (exponent > MAX_EXPONENT || overflows(mantissa, MexcDecimal.powerOfTen(exponent))) {
+        return isExactlyOnTick(mantissa, scale);
+      }
+      return mantissa * MexcDecimal.powerOfTen(exponent) % pipsMantissa == 0;
+    }
+    int exponent = scale - pipsScale;
+    if (exponent > MAX_EXPONENT || overflows(pipsMantissa, MexcDecimal.powerOfTen(exponent))) {
+      return isExactlyOnTick(mantissa, scale);
+    }
+    return mantissa % (pipsMantissa * MexcDecimal.powerOfTen(exponent)) == 0;
+  }
+
+  /** Converts a packed decimal quantity into size units ({@code quantity * sizeMultiplier}). */
+  public int toSizeUnits(long packedQuantity) {
+    long mantissa = MexcDecimal.mantissa(packedQuantity);
+    int scale = MexcDecimal.scale(packedQuantity);
+    int exponent = scale + sizeMultiplierScale;
+    if (exponent > MAX_EXPONENT) {
+      return exactSizeUnits(mantissa, scale);
+    }
+    long divisor = MexcDecimal.powerOfTen(exponent);
+    // mantissa = q * divisor + r, so mantissa * m / divisor = q * m + r * m / divisor
+    long quotient = mantissa / divisor;
+    long remainder = mantissa % divisor;
+    if (overflows(quotient, sizeMultiplierMantissa)
+        || overflows(remainder, sizeMultiplierMantissa)) {
+      return exactSizeUnits(mantissa, scale);
+    }
+    long units = quotient * sizeMultiplierMantissa;
+    long fraction = remainder * sizeMultiplierMantissa / divisor;
+    long sum = units + fraction;
+    if (((units ^ sum) & (fraction ^ sum)) < 0) {
+      return exactSizeUnits(mantissa, scale);
+    }
+    return saturate(sum);
+  }
+
+  private int exactPriceTicks(long mantissa, int scale) {
+    BigDecimal pipsDecimal = BigDecimal.valueOf(pipsMantissa, pipsScale);
+    return saturate(BigDecimal.valueOf(mantissa, scale).divide(pipsDecimal, 0, RoundingMode.DOWN));
+  }
+
+  private boolean isExactlyOnTick(long mantissa, int scale) {
+    BigDecimal pipsDecimal = BigDecimal.valueOf(pipsMantissa, pipsScale);
+    return BigDecimal.valueOf(mantissa, scale).remainder(pipsDecimal).signum() == 0;
+  }
+
+  private int exactSizeUnits(long mantissa, int scale) {
+    BigDecimal multiplier = BigDecimal.valueOf(sizeMultiplierMantissa, sizeMultiplierScale);
+    BigDecimal units = BigDecimal.valueOf(mantissa, scale).multiply(multiplier);
+    return saturate(units.setScale(0, RoundingMode.DOWN));
+  }
+
+  private static boolean overflows(long a, long b) {
+    return Math.multiplyHigh(a, b) != (a * b) >> 63;
+  }
+
+  private static int saturate(long value) {
+    return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+  }
+
+  private static int saturate(BigDecimal value) {
+    return value.max(MIN_INT).min(MAX_INT).intValueExact();
+  }
+
+  private static long toPacked(double value) {
+    BigDecimal decimal = BigDecimal.valueOf(value).stripTrailingZeros();
+    if (decimal.scale() < 0) {
+      decimal = decimal.setScale(0);
+    }
+    if (decimal.unscaledValue().bitLength() > Long.SIZE - 1 - MexcDecimal.SCALE_BITS
+        || decimal.scale() > MexcDecimal.MAX_SCALE) {
+      throw new IllegalArgumentException("Not a supported pips or size multiplier: " + value);
+    }
+    return MexcDecimal.pack(decimal.unscaledValue().longValue(), decimal.scale());
+  }
+}
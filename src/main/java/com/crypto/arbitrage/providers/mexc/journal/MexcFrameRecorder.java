@@ -0,0 +1,200 @@
+package com.crypto.arbitrage.providers.mexc.journal;
+
+import com.crypto.arbitrage.providers.mexc.websocket.MexcFrameSink;
+import com.crypto.arbitrage.utilite.SpscRingBuffer;
+import com.crypto.arbitrage.utilite.WaitStrategy;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every raw WebSocket frame, with its receive time and connection, into rolling
+ * memory-mapped journal files (see {@link MexcJournal}).
+ *
+ * <p>Each connection gets a {@link Tap} with its own {@link SpscRingBuffer}, so the I/O thread
+ * only enqueues the frame and never waits: when the ring is full the frame is dropped from the
+ * journal and counted. One writer thread drains all taps into a {@link MexcJournalWriter}. If a
+ * journal file cannot be created, recording stops and the feed is not affected.
+ */
+@Slf4j
+@Component
+public class MexcFrameRecorder {
+
+  private static final int BATCH_SIZE = 256;
+  private static final int DROP_LOG_INTERVAL = 1000;
+  private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+  @Getter private final boolean enabled;
+  private final Path directory;
+  private final int fileSize;
+  private final int maxFiles;
+  private final int queueCapacity;
+  private final List<Tap> taps = new CopyOnWriteArrayList<>();
+  private volatile boolean running;
+  private Thread writerThread;
+  // Writer thread only
+  private int announcedTaps;
+
+  @Autowired
+  public MexcFrameRecorder(
+      @Value("${mexc.journal.enabled:false}") boolean enabled,
+      @Value("${mexc.journal.directory:journal}") String directory,
+      @Value("${mexc.journal.fileSizeMb:256}") int fileSizeMb,
+      @Value("${mexc.journal.maxFiles:0}") int maxFiles,
+      @Value("${mexc.journal.queueCapacity:65536}") int queueCapacity) {
+    this.enabled = enabled;
+    this.directory = Path.of(directory);
+    this.fileSize = (int) Math.min(Integer.MAX_VALUE, fileSizeMb * BYTES_PER_MEGABYTE);
+    this.maxFiles = maxFiles;
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Returns the tap to feed with the frames of the named connection, or {@code null} when
+   * recording is disabled.
+   */
+  public synchronized Tap register(@NonNull String connectionName) {
+    if (!enabled) {
+      return null;
+    }
+    Tap tap = new Tap((short) taps.size(), connectionName, new SpscRingBuffer<>(queueCapacity));
+    taps.add(tap);
+    if (writerThread == null) {
+      running = true;
+      writerThread = new Thread(this::drain, "MexcFrameRecorder");
+      writerThread.setDaemon(true);
+      writerThread.start();
+    }
+    return tap;
+  }
+
+  public List<Tap> getTaps() {
+    return taps;
+  }
+
+  private void drain() {
+    try (MexcJournalWriter writer =
+        new MexcJournalWriter(directory, fileSize, maxFiles, this::writeConnections)) {
+      writer.roll();
+      int idleCount = 0;
+      while (running) {
+        if (drainOnce(writer) == 0) {
+          WaitStrategy.SLEEPING.idle(idleCount);
+          if (idleCount < Integer.MAX_VALUE) {
+            idleCount++;
+          }
+        } else {
+          idleCount = 0;
+        }
+      }
+      while (drainOnce(writer) > 0) {
+        // Flush what the taps still hold on shutdown
+      }
+    } catch (RuntimeException e) {
+      log.error("Method drain: frame recording to {} stopped", directory, e);
+      running = false;
+    }
+  }
+
+  private int drainOnce(@NonNull MexcJournalWriter writer) {
+    int tapCount = taps.size();
+    while (announcedTaps < tapCount) {
+      Tap tap = taps.get(announcedTaps++);
+      writer.append(MexcJournal.CONNECTION, tap.id, System.nanoTime(), tap.name);
+    }
+    int written = 0;
+    // A tap registered since the snapshot is drained once it has been announced
+    for (int t = 0; t < tapCount; t++) {
+      Tap tap = taps.get(t);
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        Object frame = tap.ringBuffer.poll();
+        if (frame == null) {
+          break;
+        }
+        long receivedNanos = tap.ringBuffer.polledStamp();
+        boolean appended =
+            frame instanceof byte[] binaryFrame
+                ? writer.append(MexcJournal.BINARY_FRAME, tap.id, receivedNanos, binaryFrame)
+                : writer.append(MexcJournal.TEXT_FRAME, tap.id, receivedNanos, (String) frame);
+        if (!appended) {
+          log.warn("Method drain: frame of connection {} is larger than a journal file", tap.name);
+        }
+        written++;
+      }
+    }
+    return written;
+  }
+
+  /**
+   * Starts every journal file with the id and name of each connection; connections registered
+   * later are announced by {@link #drainOnce} before their first frame.
+   */
+  private void writeConnections(@NonNull MexcJournalWriter writer) {
+    announcedTaps = taps.size();
+    for (int i = 0; i < announcedTaps; i++) {
+      Tap tap = taps.get(i);
+      writer.append(MexcJournal.CONNECTION, tap.id, System.nanoTime(), tap.name);
+    }
+  }
+
+  @PreDestroy
+  public void onShutdown() {
+    running = false;
+    if (writerThread != null) {
+      try {
+        writerThread.join(5000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** Receives the raw frames of one connection on its I/O thread. */
+  @Getter
+  public class Tap implements MexcFrameSink {
+
+    private final short id;
+    private final String name;
+    private final SpscRingBuffer<Object> ringBuffer;
+    private final AtomicLong recordedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private Tap(short id, @NonNull String name, @NonNull SpscRingBuffer<Object> ringBuffer) {
+      this.id = id;
+      this.name = name;
+      this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public void onText(@NonNull String message, long receivedNanos) {
+      enqueue(message, receivedNanos);
+    }
+
+    @Override
+    public void onBinary(byte[] message, long receivedNanos) {
+      enqueue(message, receivedNanos);
+    }
+
+    private void enqueue(@NonNull Object frame, long receivedNanos) {
+      if (running && ringBuffer.offer(frame, receivedNanos)) {
+        recordedCount.incrementAndGet();
+        return;
+      }
+      long dropped = droppedCount.incrementAndGet();
+      if (running && dropped % DROP_LOG_INTERVAL == 1) {
+        log.warn(
+            "Method enqueue: journal queue of {} is full, {} frames not recorded so far",
+            name,
+            dropped);
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.crypto.arbitrage.providers.mexc.journal;
+
+/**
+ * Layout of the raw frame journal files written by {@link MexcJournalWriter}.
+ *
+ * <p>A file starts with a {@value #FILE_HEADER_LENGTH}-byte header: magic, version, the wall clock
+ * in epoch nanoseconds and the {@link System#nanoTime()} taken right after it, so that receive
+ * stamps can be mapped back to wall clock time. Records follow, each starting at an 8-byte
+ * boundary:
+ *
+ * <pre>
+ *   int   record length, header included; written last, 0 marks the end of the data
+ *   short record type
+ *   short connection id
+ *   long  receive time, System.nanoTime()
+ *   byte[] payload: UTF-8 text, binary frame, or the connection name
+ * </pre>
+ *
+ * <p>A connection record maps a connection id to its name. It is written at the start of every
+ * file before the first frame of that connection, so each file can be read on its own. All values
+ * are big-endian.
+ */
+public final class MexcJournal {
+
+  public static final int MAGIC = 0x4D584A31; // "MXJ1"
+  public static final int VERSION = 1;
+  public static final int FILE_HEADER_LENGTH = 32;
+  public static final int RECORD_HEADER_LENGTH = 16;
+  public static final int RECORD_ALIGNMENT = 8;
+  public static final String FILE_SUFFIX = ".journal";
+
+  // File header offsets
+  public static final int MAGIC_OFFSET = 0;
+  public static final int VERSION_OFFSET = 4;
+  public static final int EPOCH_NANOS_OFFSET = 8;
+  public static final int NANO_TIME_OFFSET = 16;
+
+  // Record header offsets, relative to the record start
+  public static final int LENGTH_OFFSET = 0;
+  public static final int TYPE_OFFSET = 4;
+  public static final int CONNECTION_OFFSET = 6;
+  public static final int RECEIVED_NANOS_OFFSET = 8;
+
+  public static final short TEXT_FRAME = 1;
+  public static final short BINARY_FRAME = 2;
+  public static final short CONNECTION = 3;
+
+  private MexcJournal() {}
+
+  public static int align(int position) {
+    return (position + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+  }
+}
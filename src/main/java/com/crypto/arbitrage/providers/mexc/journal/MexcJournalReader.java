@@ -0,0 +1,79 @@
+package com.crypto.arbitrage.providers.mexc.journal;
+
+import static com.crypto.arbitrage.providers.mexc.journal.MexcJournal.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.NonNull;
+
+/** Reads the frames of a journal file written by {@link MexcJournalWriter}. */
+public final class MexcJournalReader {
+
+  private static final String UNKNOWN_CONNECTION = "unknown";
+
+  public interface FrameConsumer {
+
+    /**
+     * Called for each frame in file order. The payload is only valid during the call.
+     *
+     * @param receivedEpochNanos receive time mapped to epoch nanoseconds with the file's anchor
+     */
+    void onFrame(String connection, long receivedEpochNanos, boolean binary, ByteBuffer payload);
+  }
+
+  private MexcJournalReader() {}
+
+  /**
+   * Passes every frame of {@code file} to {@code consumer} and returns the number of frames. A
+   * partially written record at the end of the file is treated as the end of the data.
+   */
+  public static long read(@NonNull Path file, @NonNull FrameConsumer consumer)
+      throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.limit() < FILE_HEADER_LENGTH || buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+      throw new IOException("Not a MEXC frame journal: " + file);
+    }
+    if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+      throw new IOException(
+          "Unsupported journal version " + buffer.getInt(VERSION_OFFSET) + " in " + file);
+    }
+    long epochOffsetNanos = buffer.getLong(EPOCH_NANOS_OFFSET) - buffer.getLong(NANO_TIME_OFFSET);
+    Map<Short, String> connections = new HashMap<>();
+    long frames = 0;
+    int position = FILE_HEADER_LENGTH;
+    while (position + RECORD_HEADER_LENGTH <= buffer.limit()) {
+      int length = buffer.getInt(position + LENGTH_OFFSET);
+      if (length < RECORD_HEADER_LENGTH || position + length > buffer.limit()) {
+        break;
+      }
+      short type = buffer.getShort(position + TYPE_OFFSET);
+      short connectionId = buffer.getShort(position + CONNECTION_OFFSET);
+      ByteBuffer payload =
+          buffer.slice(position + RECORD_HEADER_LENGTH, length - RECORD_HEADER_LENGTH);
+      if (type == CONNECTION) {
+        byte[] name = new byte[payload.remaining()];
+        payload.get(name);
+        connections.put(connectionId, new String(name, StandardCharsets.UTF_8));
+      } else if (type == TEXT_FRAME || type == BINARY_FRAME) {
+        consumer.onFrame(
+            connections.getOrDefault(connectionId, UNKNOWN_CONNECTION),
+            buffer.getLong(position + RECEIVED_NANOS_OFFSET) + epochOffsetNanos,
+            type == BINARY_FRAME,
+            payload);
+        frames++;
+      }
+      position = align(position + length);
+    }
+    return frames;
+  }
+}
@@ -0,0 +1,180 @@
+package com.crypto.arbitrage.providers.mexc.journal;
+
+import static com.crypto.arbitrage.providers.mexc.journal.MexcJournal.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends records to fixed-size memory-mapped journal files in the {@link MexcJournal} format and
+ * rolls over to a new file when the current one is full.
+ *
+ * <p>Right after a file header is written, {@code fileStartListener} is called so that it can
+ * append the records every file must start with. Text is encoded straight into the mapped file. A
+ * record's length is written after the rest of the record, so a crash leaves at most a partial
+ * record that readers treat as the end of the file. When {@code maxFiles} is positive, the oldest
+ * files written by this instance are deleted as new ones are created. Not thread-safe: used by the
+ * single recorder thread.
+ */
+@Slf4j
+public class MexcJournalWriter implements AutoCloseable {
+
+  private static final DateTimeFormatter FILE_TIME_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+  private final Path directory;
+  private final int fileSize;
+  private final int maxFiles;
+  private final Consumer<MexcJournalWriter> fileStartListener;
+  private final Deque<Path> files = new ArrayDeque<>();
+  private final CharsetEncoder encoder =
+      StandardCharsets.UTF_8
+          .newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private MappedByteBuffer buffer;
+  private int position;
+  private int fileSequence;
+
+  public MexcJournalWriter(
+      @NonNull Path directory,
+      int fileSize,
+      int maxFiles,
+      @NonNull Consumer<MexcJournalWriter> fileStartListener) {
+    if (fileSize < FILE_HEADER_LENGTH + RECORD_HEADER_LENGTH) {
+      throw new IllegalArgumentException("Journal file size is too small: " + fileSize);
+    }
+    this.directory = directory;
+    this.fileSize = fileSize;
+    this.maxFiles = maxFiles;
+    this.fileStartListener = fileStartListener;
+  }
+
+  /**
+   * Appends a binary payload.
+   *
+   * @return {@code false} if the record is larger than a journal file and was not written
+   */
+  public boolean append(short type, short connectionId, long receivedNanos, byte[] payload) {
+    int length = RECORD_HEADER_LENGTH + payload.length;
+    if (FILE_HEADER_LENGTH + length > fileSize) {
+      return false;
+    }
+    if (buffer == null || position + length > fileSize) {
+      roll();
+      if (position + length > fileSize) {
+        return false;
+      }
+    }
+    buffer.put(position + RECORD_HEADER_LENGTH, payload);
+    commit(type, connectionId, receivedNanos, length);
+    return true;
+  }
+
+  /** Appends a text payload encoded as UTF-8, see {@link #append(short, short, long, byte[])}. */
+  public boolean append(
+      short type, short connectionId, long receivedNanos, @NonNull CharSequence text) {
+    boolean rolled = false;
+    if (buffer == null || position + RECORD_HEADER_LENGTH > fileSize) {
+      roll();
+      rolled = true;
+    }
+    while (true) {
+      buffer.position(position + RECORD_HEADER_LENGTH);
+      encoder.reset();
+      CoderResult result = encoder.encode(CharBuffer.wrap(text), buffer, true);
+      if (!result.isOverflow()) {
+        result = encoder.flush(buffer);
+      }
+      if (!result.isOverflow()) {
+        commit(type, connectionId, receivedNanos, buffer.position() - position);
+        return true;
+      }
+      if (rolled) {
+        return false;
+      }
+      roll();
+      rolled = true;
+    }
+  }
+
+  private void commit(short type, short connectionId, long receivedNanos, int length) {
+    buffer.putShort(position + TYPE_OFFSET, type);
+    buffer.putShort(position + CONNECTION_OFFSET, connectionId);
+    buffer.putLong(position + RECEIVED_NANOS_OFFSET, receivedNanos);
+    buffer.putInt(position + LENGTH_OFFSET, length);
+    position = align(position + length);
+  }
+
+  /** Starts a new file; appending also does this when the current file is full. */
+  public void roll() {
+    closeFile();
+    Instant now = Instant.now();
+    long nanoTime = System.nanoTime();
+    Path file =
+        directory.resolve(
+            String.format(
+                "mexc-%s-%04d%s", FILE_TIME_FORMAT.format(now), fileSequence, FILE_SUFFIX));
+    try {
+      Files.createDirectories(directory);
+      try (FileChannel channel =
+          FileChannel.open(
+              file,
+              StandardOpenOption.CREATE_NEW,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE)) {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot create journal file " + file, e);
+    }
+    buffer.putInt(MAGIC_OFFSET, MAGIC);
+    buffer.putInt(VERSION_OFFSET, VERSION);
+    buffer.putLong(EPOCH_NANOS_OFFSET, now.getEpochSecond() * 1_000_000_000L + now.getNano());
+    buffer.putLong(NANO_TIME_OFFSET, nanoTime);
+    position = FILE_HEADER_LENGTH;
+    fileSequence++;
+    log.info("Method roll: recording MEXC frames to {}", file);
+
+    files.addLast(file);
+    while (maxFiles > 0 && files.size() > maxFiles) {
+      Path oldest = files.pollFirst();
+      try {
+        Files.deleteIfExists(oldest);
+      } catch (IOException e) {
+        log.warn("Method roll: cannot delete old journal file {}: {}", oldest, e.getMessage());
+      }
+    }
+    fileStartListener.accept(this);
+  }
+
+  private void closeFile() {
+    if (buffer != null) {
+      buffer.force();
+      buffer = null;
+    }
+  }
+
+  @Override
+  public void close() {
+    closeFile();
+  }
+}
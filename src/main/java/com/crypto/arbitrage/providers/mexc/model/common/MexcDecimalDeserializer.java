@@ -0,0 +1,24 @@
+package com.crypto.arbitrage.providers.mexc.model.common;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import java.io.IOException;
+
+/**
+ * Reads a MEXC decimal, sent as a JSON string or number, into a packed {@link MexcDecimal} straight
+ * from the parser's buffer, without an intermediate {@code String}, {@code double} or {@code
+ * BigDecimal}. Used for the {@code long} price, quantity and amount fields of the MEXC models.
+ */
+public class MexcDecimalDeserializer extends JsonDeserializer<Long> {
+
+  @Override
+  public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    try {
+      return MexcDecimal.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+    } catch (NumberFormatException e) {
+      throw new IOException("Invalid decimal value: " + p.getText(), e);
+    }
+  }
+}
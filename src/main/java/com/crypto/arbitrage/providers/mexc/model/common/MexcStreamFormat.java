@@ -0,0 +1,29 @@
+package com.crypto.arbitrage.providers.mexc.model.common;
+
+import lombok.Getter;
+
+/**
+ * Wire format of a public market data subscription. Protobuf channels are the JSON channel names
+ * with a {@code .pb} suffix and are pushed as binary frames.
+ */
+@Getter
+public enum MexcStreamFormat {
+  JSON(""),
+  PROTOBUF(".pb");
+
+  private final String channelSuffix;
+
+  MexcStreamFormat(String channelSuffix) {
+    this.channelSuffix = channelSuffix;
+  }
+
+  public static MexcStreamFormat fromValue(String value) {
+    for (MexcStreamFormat format : MexcStreamFormat.values()) {
+      if (format.name().equalsIgnoreCase(value)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException(
+        "Unknown stream format: " + value + ", expected json or protobuf");
+  }
+}
@@ -0,0 +1,35 @@
+package com.crypto.arbitrage.providers.mexc.model.depth;
+
+import lombok.Getter;
+
+/**
+ * Order book depth requested for a symbol. The limited modes use the {@code limit.depth} snapshot
+ * stream, {@link #FULL} uses the incremental {@code increase.depth} stream bootstrapped from a REST
+ * snapshot.
+ */
+@Getter
+public enum MexcDepthMode {
+  LIMIT_5("5"),
+  LIMIT_10("10"),
+  LIMIT_20("20"),
+  FULL("full");
+
+  private final String value;
+
+  MexcDepthMode(String value) {
+    this.value = value;
+  }
+
+  public boolean isIncremental() {
+    return this == FULL;
+  }
+
+  public static MexcDepthMode fromValue(String value) {
+    for (MexcDepthMode mode : MexcDepthMode.values()) {
+      if (mode.value.equalsIgnoreCase(value)) {
+        return mode;
+      }
+    }
+    throw new IllegalArgumentException("Unknown depth: " + value + ", expected 5, 10, 20 or full");
+  }
+}
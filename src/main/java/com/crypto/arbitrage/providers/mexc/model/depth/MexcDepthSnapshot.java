@@ -0,0 +1,134 @@
+package com.crypto.arbitrage.providers.mexc.model.depth;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reusable per-symbol buffer for one decoded depth message. Prices are stored as pips and sizes as
+ * size units in primitive arrays that are cleared and refilled for every message, so decoding does
+ * not create per-level objects. The levels of the previously published message are kept as well
+ * and swapped in by {@link #rotate()}, which lets consecutive snapshots be diffed. Not thread-safe:
+ * a snapshot is owned by the thread that decodes the symbol's stream.
+ */
+@Getter
+public class MexcDepthSnapshot {
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private final String symbol;
+  private final MexcTickScale tickScale;
+  private Side bids = new Side();
+  private Side asks = new Side();
+  private Side lastBids = new Side();
+  private Side lastAsks = new Side();
+  @Setter private long version;
+  @Setter private long eventTime;
+  // Levels dropped because their price fell between two ticks
+  private long offTickLevels;
+
+  public MexcDepthSnapshot(String symbol, MexcTickScale tickScale) {
+    this.symbol = symbol;
+    this.tickScale = tickScale;
+  }
+
+  public Side side(boolean isBid) {
+    return isBid ? bids : asks;
+  }
+
+  public Side lastSide(boolean isBid) {
+    return isBid ? lastBids : lastAsks;
+  }
+
+  /** Clears the levels of the message being decoded; the last published levels are kept. */
+  public void clear() {
+    bids.clear();
+    asks.clear();
+    version = 0;
+    eventTime = 0;
+  }
+
+  /**
+   * Converts a level of packed decimals and adds it to the decoded levels. A price between two
+   * ticks is dropped and counted instead: truncated, it would land on the tick of another price
+   * and merge the two levels.
+   *
+   * @return {@code false} if the level was dropped
+   */
+  public boolean addLevel(boolean isBid, long packedPrice, long packedQuantity) {
+    if (!tickScale.isOnTick(packedPrice)) {
+      offTickLevels++;
+      return false;
+    }
+    side(isBid).add(tickScale.toPriceTicks(packedPrice), tickScale.toSizeUnits(packedQuantity));
+    return true;
+  }
+
+  /** Makes the current levels the last published ones and recycles the old buffers. */
+  public void rotate() {
+    Side publishedBids = bids;
+    Side publishedAsks = asks;
+    bids = lastBids;
+    asks = lastAsks;
+    lastBids = publishedBids;
+    lastAsks = publishedAsks;
+    bids.clear();
+    asks.clear();
+  }
+
+  /** Returns a detached copy of the decoded levels, version and event time. */
+  public MexcDepthSnapshot copy() {
+    MexcDepthSnapshot copy = new MexcDepthSnapshot(symbol, tickScale);
+    copy.bids.copyFrom(bids);
+    copy.asks.copyFrom(asks);
+    copy.version = version;
+    copy.eventTime = eventTime;
+    return copy;
+  }
+
+  /** Levels of one book side in the order they were received. */
+  public static class Side {
+    private int[] prices = new int[INITIAL_CAPACITY];
+    private int[] sizes = new int[INITIAL_CAPACITY];
+    @Getter private int count;
+
+    public int price(int index) {
+      return prices[index];
+    }
+
+    public int size(int index) {
+      return sizes[index];
+    }
+
+    /** Returns the index of the level at {@code price}, or -1 if there is none. */
+    public int indexOf(int price) {
+      for (int i = 0; i < count; i++) {
+        if (prices[i] == price) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    public void add(int price, int size) {
+      if (count == prices.length) {
+        prices = Arrays.copyOf(prices, count * 2);
+        sizes = Arrays.copyOf(sizes, count * 2);
+      }
+      prices[count] = price;
+      sizes[count] = size;
+      count++;
+    }
+
+    public void clear() {
+      count = 0;
+    }
+
+    private void copyFrom(Side other) {
+      prices = Arrays.copyOf(other.prices, Math.max(INITIAL_CAPACITY, other.count));
+      sizes = Arrays.copyOf(other.sizes, Math.max(INITIAL_CAPACITY, other.count));
+      count = other.count;
+    }
+  }
+}
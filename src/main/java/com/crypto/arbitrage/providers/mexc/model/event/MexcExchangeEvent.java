@@ -1,4 +0,0 @@
-package com.crypto.arbitrage.providers.mexc.model.event;
-
-public interface MexcExchangeEvent {
-}
@@ -0,0 +1,9 @@
+package com.crypto.arbitrage.providers.mexc.model.event;
+
+/**
+ * A symbol's market data went silent for longer than its liveness budget, or resumed.
+ *
+ * @param silentMs how long the symbol had been silent when it was flagged or resumed
+ */
+public record MexcFeedStaleEvent(String symbol, boolean stale, long silentMs) {
+}
@@ -1,5 +1,6 @@
 package com.crypto.arbitrage.providers.mexc.model.instrument;
 
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import velox.api.layer1.data.InstrumentInfo;
@@ -8,4 +9,5 @@ import velox.api.layer1.data.InstrumentInfo;
 @AllArgsConstructor
 public class MexcSubscribedInstrumentEvent implements MexcInstrumentEvent {
     private InstrumentInfo instrumentInfo;
+    private MexcDepthMode depthMode;
 }
@@ -0,0 +1,20 @@
+package com.crypto.arbitrage.providers.mexc.model.order;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One entry of a {@code /api/v3/batchOrders} answer: the placed order, or {@code code} and {@code
+ * msg} if MEXC rejected it. Either way it carries the order's {@code newClientOrderId}.
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MexcBatchOrderResp extends MexcNewOrderResp {
+  private String newClientOrderId;
+  private Integer code;
+  private String msg;
+}
@@ -1,6 +1,8 @@
 package com.crypto.arbitrage.providers.mexc.model.order;
 
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
 import com.crypto.arbitrage.providers.mexc.model.MexcData;
+import com.crypto.arbitrage.providers.mexc.model.common.MexcDecimalDeserializer;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
@@ -17,6 +19,7 @@ public class MexcExecutionInfo implements MexcData {
     @JsonProperty("d")
     private DealsInfo dealsInfo;
 
+    /** Price, quantity, amount and fee are packed {@link MexcDecimal}s. */
     @Data
     public static class DealsInfo {
 
@@ -36,7 +39,8 @@ public class MexcExecutionInfo implements MexcData {
         private int isMaker; // Typically a boolean flag represented as int (0 or 1)
 
         @JsonProperty("p")
-        private double price;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long price;
 
         @JsonProperty("st")
         private byte isSelfTrade; // Byte for small integer flag
@@ -45,13 +49,16 @@ public class MexcExecutionInfo implements MexcData {
         private String tradeId;
 
         @JsonProperty("v")
-        private double quantity;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long quantity;
 
         @JsonProperty("a")
-        private double dealsAmount;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long dealsAmount;
 
         @JsonProperty("n")
-        private double commissionFee;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long commissionFee;
 
         @JsonProperty("N")
         private String commissionAsset;
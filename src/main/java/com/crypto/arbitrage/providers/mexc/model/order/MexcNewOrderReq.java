@@ -1,5 +1,6 @@
 package com.crypto.arbitrage.providers.mexc.model.order;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -8,7 +9,7 @@ import velox.api.layer1.data.OrderSendParameters;
 
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,4 +32,10 @@ public class MexcNewOrderReq implements OrderSendParameters {
   private long recvWindow;
   private long timestamp;
   private String signature;
+
+  /** System.nanoTime() of the book update behind the order, or 0; not sent to MEXC. */
+  @JsonIgnore private long triggerNanos;
+
+  /** System.nanoTime() of the execution request behind the order, or 0; not sent to MEXC. */
+  @JsonIgnore private long requestNanos;
 }
@@ -0,0 +1,7 @@
+package com.crypto.arbitrage.providers.mexc.model.order;
+
+/**
+ * The parsed acknowledgement of an order request together with its round-trip, measured from
+ * handing the request to the HTTP client until the response body was received.
+ */
+public record MexcOrderAck<T>(T response, long roundTripNanos) {}
@@ -1,9 +1,10 @@
 package com.crypto.arbitrage.providers.mexc.model.order;
 
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
 import com.crypto.arbitrage.providers.mexc.model.MexcData;
+import com.crypto.arbitrage.providers.mexc.model.common.MexcDecimalDeserializer;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
-import java.math.BigDecimal;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
@@ -23,12 +24,13 @@ public class MexcOrderResponse implements MexcData {
     @JsonProperty("t")
     private long eventTime;
 
+    /** Prices, quantities and amounts are packed {@link MexcDecimal}s. */
     @Data
     public static class MexcOrderInfo {
 
         @JsonProperty("A")
-        @JsonDeserialize(using = BigDecimalDeserializer.class)
-        private BigDecimal remainAmount;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long remainAmount;
 
         @JsonProperty("O")
         private long createTime;
@@ -37,12 +39,12 @@ public class MexcOrderResponse implements MexcData {
         private int tradeType; // 1: buy, 2: sell
 
         @JsonProperty("V")
-        @JsonDeserialize(using = BigDecimalDeserializer.class)
-        private BigDecimal remainQuantity;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long remainQuantity;
 
         @JsonProperty("a")
-        @JsonDeserialize(using = BigDecimalDeserializer.class)
-        private BigDecimal amount;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long amount;
 
         @JsonProperty("c")
         private String clientOrderId;
@@ -57,26 +59,26 @@ public class MexcOrderResponse implements MexcData {
         private int orderType; // LIMIT_ORDER(1), POST_ONLY(2), etc.
 
         @JsonProperty("p")
-        @JsonDeserialize(using = BigDecimalDeserializer.class)
-        private BigDecimal price;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long price;
 
         @JsonProperty("s")
         private int status;
 
         @JsonProperty("v")
-        @JsonDeserialize(using = BigDecimalDeserializer.class)
-        private BigDecimal quantity;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long quantity;
 
         @JsonProperty("ap")
-        @JsonDeserialize(using = BigDecimalDeserializer.class)
-        private BigDecimal avgPrice;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long avgPrice;
 
         @JsonProperty("cv")
-        @JsonDeserialize(using = BigDecimalDeserializer.class)
-        private BigDecimal cumulativeQuantity;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long cumulativeQuantity;
 
         @JsonProperty("ca")
-        @JsonDeserialize(using = BigDecimalDeserializer.class)
-        private BigDecimal cumulativeAmount;
+        @JsonDeserialize(using = MexcDecimalDeserializer.class)
+        private long cumulativeAmount;
     }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.crypto.arbitrage.providers.mexc.model.order;
+
+/**
+ * Where a tracked order is in its life cycle. States only move forward, by {@link #getRank()}, so
+ * a REST answer or WebSocket push that arrives late cannot undo a newer one; the terminal states
+ * are final.
+ */
+public enum MexcOrderState {
+  /** Sent, not yet acknowledged by REST or WebSocket. */
+  PENDING_NEW(0),
+  /** Working on the book without fills. */
+  NEW(1),
+  PARTIALLY_FILLED(2),
+  /** Cancel sent, not yet confirmed. */
+  PENDING_CANCEL(3),
+  FILLED(4),
+  /** Canceled or expired, possibly after partial fills. */
+  CANCELED(4),
+  /** Never placed. */
+  REJECTED(4);
+
+  private final int rank;
+
+  MexcOrderState(int rank) {
+    this.rank = rank;
+  }
+
+  public int getRank() {
+    return rank;
+  }
+
+  public boolean isTerminal() {
+    return rank == FILLED.rank;
+  }
+
+  /** Maps the order status of a {@code spot@private.orders.v3.api} push. */
+  public static MexcOrderState fromPushStatus(int status) {
+    return switch (status) {
+      case 1 -> NEW;
+      case 2 -> FILLED;
+      case 3 -> PARTIALLY_FILLED;
+      case 4, 5 -> CANCELED; // 5: partially filled, then canceled
+      default -> throw new IllegalArgumentException("Unknown status: " + status);
+    };
+  }
+
+  /** Maps the order status of a REST answer. */
+  public static MexcOrderState fromStatus(MexcOrderStatus status) {
+    return switch (status) {
+      case NEW -> NEW;
+      case PARTIALLY_FILLED -> PARTIALLY_FILLED;
+      case FILLED -> FILLED;
+      case PENDING_CANCEL -> PENDING_CANCEL;
+      case CANCELED, EXPIRED -> CANCELED;
+      case REJECTED -> REJECTED;
+    };
+  }
+}
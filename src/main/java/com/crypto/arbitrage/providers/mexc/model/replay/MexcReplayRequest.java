@@ -0,0 +1,36 @@
+package com.crypto.arbitrage.providers.mexc.model.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class MexcReplayRequest {
+
+  /**
+   * A journal file, a directory of journal files or an NDJSON capture, inside the replay
+   * directory. Relative paths are resolved against it.
+   */
+  private String source;
+
+  /** 1 replays at the captured pace, N at N times that pace, 0 or less as fast as possible. */
+  private double speed = 0;
+
+  /** Number of times the capture is replayed. */
+  private int repeat = 1;
+
+  /** Instruments of the captured symbols, registered before the replay starts. */
+  private List<Instrument> instruments = new ArrayList<>();
+
+  @Getter
+  @Setter
+  public static class Instrument {
+    private String symbol;
+    private double pips;
+    private double sizeMultiplier;
+    /** 5, 10, 20 or full, as subscribed when the capture was recorded. */
+    private String depth = "20";
+  }
+}
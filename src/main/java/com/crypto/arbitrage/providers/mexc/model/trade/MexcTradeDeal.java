@@ -1,11 +1,15 @@
 package com.crypto.arbitrage.providers.mexc.model.trade;
 
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.model.common.MexcDecimalDeserializer;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+/** Price and quantity are packed {@link MexcDecimal}s. */
 @Getter
 @Setter
 @ToString
@@ -15,11 +19,13 @@ public class MexcTradeDeal {
     private int tradeType;   // 1 = buy, 2 = sell
 
     @JsonProperty("p")
-    private double price;
+    @JsonDeserialize(using = MexcDecimalDeserializer.class)
+    private long price;
 
     @JsonProperty("t")
     private long dealTime;
 
     @JsonProperty("v")
-    private double quantity;
+    @JsonDeserialize(using = MexcDecimalDeserializer.class)
+    private long quantity;
 }
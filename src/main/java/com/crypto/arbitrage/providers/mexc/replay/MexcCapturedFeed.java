@@ -0,0 +1,133 @@
+package com.crypto.arbitrage.providers.mexc.replay;
+
+import com.crypto.arbitrage.providers.mexc.journal.MexcJournal;
+import com.crypto.arbitrage.providers.mexc.journal.MexcJournalReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.NonNull;
+
+/**
+ * Captured raw MEXC frames loaded into memory for replay, so that reading the capture does not
+ * count against the pipeline being measured.
+ *
+ * <p>Two capture formats are read. Frame journals recorded by the frame recorder are read from a
+ * {@code *.journal} file, or from a directory of them in name order. Any other file is read as
+ * newline-delimited JSON with one frame per line:
+ *
+ * <pre>
+ * {"ts":1736417034399123456,"conn":"public-0","text":"{\"c\":\"spot@public.deals.v3.api@...}"}
+ * {"ts":1736417034401123456,"conn":"public-1","bin":"CilzcG90QHB1YmxpYy5saW1pdC5kZXB0aC52..."}
+ * </pre>
+ *
+ * <p>{@code ts} is the receive time in epoch nanoseconds, {@code text} a text frame and {@code bin}
+ * a base64 encoded binary frame; {@code conn} is optional. Only public market data frames are
+ * kept: pongs, subscription acks and private channels refer to sessions and orders that do not
+ * exist during a replay.
+ */
+public class MexcCapturedFeed {
+
+  private static final String PUBLIC_CHANNEL = "\"c\":\"spot@public.";
+  private static final String TIMESTAMP_FIELD = "ts";
+  private static final String TEXT_FIELD = "text";
+  private static final String BINARY_FIELD = "bin";
+
+  // String text frames and byte[] binary frames
+  private final List<Object> frames = new ArrayList<>();
+  private long[] receivedEpochNanos = new long[1024];
+  private long skipped;
+
+  private MexcCapturedFeed() {}
+
+  public static MexcCapturedFeed load(@NonNull Path source, @NonNull ObjectMapper objectMapper)
+      throws IOException {
+    MexcCapturedFeed feed = new MexcCapturedFeed();
+    if (Files.isDirectory(source)) {
+      try (Stream<Path> files = Files.list(source)) {
+        for (Path file :
+            files.filter(f -> f.toString().endsWith(MexcJournal.FILE_SUFFIX)).sorted().toList()) {
+          MexcJournalReader.read(file, feed::addJournalFrame);
+        }
+      }
+    } else if (source.toString().endsWith(MexcJournal.FILE_SUFFIX)) {
+      MexcJournalReader.read(source, feed::addJournalFrame);
+    } else {
+      feed.readNdjson(source, objectMapper);
+    }
+    return feed;
+  }
+
+  public int size() {
+    return frames.size();
+  }
+
+  /** Returns the frame at {@code index}, a {@code String} or a {@code byte[]}. */
+  public Object getFrame(int index) {
+    return frames.get(index);
+  }
+
+  public long getReceivedEpochNanos(int index) {
+    return receivedEpochNanos[index];
+  }
+
+  /** Number of frames in the capture that are not replayed. */
+  public long getSkippedCount() {
+    return skipped;
+  }
+
+  private void addJournalFrame(
+      String connection, long receivedEpochNanos, boolean binary, ByteBuffer payload) {
+    byte[] bytes = new byte[payload.remaining()];
+    payload.get(bytes);
+    add(binary ? bytes : new String(bytes, StandardCharsets.UTF_8), receivedEpochNanos);
+  }
+
+  private void readNdjson(@NonNull Path source, @NonNull ObjectMapper objectMapper)
+      throws IOException {
+    try (Reader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8);
+        JsonParser parser = objectMapper.getFactory().createParser(reader)) {
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        long timestamp = 0;
+        Object frame = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName();
+          parser.nextToken();
+          switch (field) {
+            case TIMESTAMP_FIELD -> timestamp = parser.getLongValue();
+            case TEXT_FIELD -> frame = parser.getText();
+            case BINARY_FIELD -> frame = parser.getBinaryValue();
+            default -> parser.skipChildren();
+          }
+        }
+        if (frame == null) {
+          throw new IOException(
+              "Capture line without text or bin frame at " + parser.currentLocation());
+        }
+        add(frame, timestamp);
+      }
+    }
+  }
+
+  private void add(@NonNull Object frame, long receivedAt) {
+    if (frame instanceof String text && !text.contains(PUBLIC_CHANNEL)) {
+      skipped++;
+      return;
+    }
+    int index = frames.size();
+    if (index == receivedEpochNanos.length) {
+      receivedEpochNanos = Arrays.copyOf(receivedEpochNanos, index * 2);
+    }
+    receivedEpochNanos[index] = receivedAt;
+    frames.add(frame);
+  }
+}
@@ -0,0 +1,253 @@
+package com.crypto.arbitrage.providers.mexc.replay;
+
+import com.crypto.arbitrage.providers.mexc.MexcProvider;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.model.replay.MexcReplayRequest;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLatencyRecorder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcInstrumentRegistry;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
+import com.crypto.arbitrage.utilite.DeadlineWait;
+import com.crypto.arbitrage.utilite.LatencyHistogram;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Replays a {@link MexcCapturedFeed} into {@link MexcMessageDispatcher} on a dedicated thread, so
+ * captured production traffic runs through the processor, the provider listeners and {@code
+ * CEXEngine}.
+ *
+ * <p>Frames are dispatched at the captured pace, at a multiple of it, or back to back. The time a
+ * frame was due is passed to the dispatcher as its receive time, so the queue wait stage of {@link
+ * MexcFeedLatencyRecorder} shows how far the replay fell behind the capture. The recorder is reset
+ * when a replay starts; its exchange stage only reflects the age of the capture.
+ *
+ * <p>Instruments are registered with {@link MexcProvider#addOfflineInstrument} and nothing is
+ * subscribed on the exchange. Incremental depth books still bootstrap from a live REST snapshot,
+ * which does not line up with an older capture, so captures of limited depth streams replay best.
+ *
+ * <p>Sources are resolved inside the configured capture directory and may not leave it. Symbols
+ * subscribed live are refused: replayed frames would overwrite their depth state and reach {@code
+ * CEXEngine} as if they were current.
+ */
+@Slf4j
+@Service
+public class MexcReplayDriver {
+
+  public enum Status {
+    IDLE,
+    LOADING,
+    RUNNING,
+    FINISHED,
+    STOPPED,
+    FAILED
+  }
+
+  private final MexcMessageDispatcher dispatcher;
+  private final MexcFeedLatencyRecorder latencyRecorder;
+  private final MexcProvider mexcProvider;
+  private final ObjectMapper objectMapper;
+  private final MexcInstrumentRegistry instrumentRegistry;
+  private final Path captureDirectory;
+
+  @Getter private volatile Status status = Status.IDLE;
+  @Getter private volatile String source;
+  @Getter private volatile double speed;
+  @Getter private volatile String failure;
+  @Getter private volatile long totalFrames;
+  @Getter private volatile long skippedFrames;
+  @Getter private volatile long dispatchedFrames;
+  /** Time spent in the dispatcher per frame, in nanoseconds. */
+  @Getter private volatile LatencyHistogram dispatchHistogram = new LatencyHistogram();
+  /** How late frames were dispatched against the captured pace, in nanoseconds. */
+  @Getter private volatile LatencyHistogram lagHistogram = new LatencyHistogram();
+  private volatile long startNanos;
+  private volatile long endNanos;
+  private volatile boolean stopRequested;
+  private Thread replayThread;
+
+  @Autowired
+  public MexcReplayDriver(
+      MexcMessageDispatcher dispatcher,
+      MexcFeedLatencyRecorder latencyRecorder,
+      MexcProvider mexcProvider,
+      ObjectMapper objectMapper,
+      MexcInstrumentRegistry instrumentRegistry,
+      @Value("${mexc.replay.directory:journal}") String captureDirectory) {
+    this.dispatcher = dispatcher;
+    this.latencyRecorder = latencyRecorder;
+    this.mexcProvider = mexcProvider;
+    this.objectMapper = objectMapper;
+    this.instrumentRegistry = instrumentRegistry;
+    this.captureDirectory = Path.of(captureDirectory);
+  }
+
+  /**
+   * Starts a replay unless one is already loading or running.
+   *
+   * @throws IllegalArgumentException if the source is not a capture in the capture directory
+   * @throws IllegalStateException if one of the instruments is subscribed live
+   */
+  public synchronized boolean start(@NonNull MexcReplayRequest request) {
+    if (status == Status.LOADING || status == Status.RUNNING) {
+      return false;
+    }
+    Path sourcePath = resolveSource(request.getSource());
+    checkNotLive(request);
+    source = request.getSource();
+    speed = request.getSpeed();
+    failure = null;
+    totalFrames = 0;
+    skippedFrames = 0;
+    dispatchedFrames = 0;
+    dispatchHistogram = new LatencyHistogram();
+    lagHistogram = new LatencyHistogram();
+    startNanos = 0;
+    endNanos = 0;
+    stopRequested = false;
+    status = Status.LOADING;
+    replayThread = new Thread(() -> run(request, sourcePath), "MexcReplay");
+    replayThread.setDaemon(true);
+    replayThread.start();
+    return true;
+  }
+
+  public void stop() {
+    stopRequested = true;
+  }
+
+  /** Frames dispatched per second since the replay started. */
+  public double getMessagesPerSecond() {
+    long start = startNanos;
+    if (start == 0) {
+      return 0;
+    }
+    long end = endNanos != 0 ? endNanos : System.nanoTime();
+    return end > start ? dispatchedFrames * 1e9 / (end - start) : 0;
+  }
+
+  public long getElapsedMillis() {
+    long start = startNanos;
+    if (start == 0) {
+      return 0;
+    }
+    long end = endNanos != 0 ? endNanos : System.nanoTime();
+    return TimeUnit.NANOSECONDS.toMillis(end - start);
+  }
+
+  /** Resolves {@code source} against the capture directory, following links before checking. */
+  private Path resolveSource(@NonNull String source) {
+    Path directory;
+    Path path;
+    try {
+      directory = captureDirectory.toRealPath();
+      path = directory.resolve(source).toRealPath();
+    } catch (IOException e) {
+      throw new IllegalArgumentException(
+          "Capture " + source + " not found in " + captureDirectory.toAbsolutePath());
+    }
+    if (!path.startsWith(directory)) {
+      throw new IllegalArgumentException(
+          "Capture " + source + " is outside of " + captureDirectory.toAbsolutePath());
+    }
+    return path;
+  }
+
+  private void checkNotLive(@NonNull MexcReplayRequest request) {
+    for (MexcReplayRequest.Instrument instrument : request.getInstruments()) {
+      if (instrumentRegistry.isSubscribed(instrument.getSymbol())) {
+        throw new IllegalStateException(
+            "Symbol " + instrument.getSymbol() + " is subscribed live, unsubscribe it first");
+      }
+    }
+  }
+
+  private void run(@NonNull MexcReplayRequest request, @NonNull Path sourcePath) {
+    try {
+      MexcCapturedFeed feed = MexcCapturedFeed.load(sourcePath, objectMapper);
+      skippedFrames = feed.getSkippedCount();
+      totalFrames = (long) feed.size() * Math.max(1, request.getRepeat());
+      log.info(
+          "Method run: replaying {} frames of {} ({} skipped) at speed {}",
+          feed.size(),
+          request.getSource(),
+          feed.getSkippedCount(),
+          request.getSpeed());
+      registerInstruments(request);
+      latencyRecorder.reset();
+      status = Status.RUNNING;
+      startNanos = System.nanoTime();
+      for (int i = 0; i < Math.max(1, request.getRepeat()) && !stopRequested; i++) {
+        replay(feed, request.getSpeed());
+      }
+      endNanos = System.nanoTime();
+      status = stopRequested ? Status.STOPPED : Status.FINISHED;
+      log.info(
+          "Method run: replay of {} {} after {} frames, {} frames/s",
+          request.getSource(),
+          status,
+          dispatchedFrames,
+          Math.round(getMessagesPerSecond()));
+    } catch (Exception e) {
+      log.error("Method run: replay of {} failed", request.getSource(), e);
+      failure = e.toString();
+      endNanos = System.nanoTime();
+      status = Status.FAILED;
+    }
+  }
+
+  private void registerInstruments(@NonNull MexcReplayRequest request) {
+    // Checked again, a symbol may have been subscribed while the capture was loading
+    checkNotLive(request);
+    for (MexcReplayRequest.Instrument instrument : request.getInstruments()) {
+      mexcProvider.addOfflineInstrument(
+          MexcProvider.createInstrumentInfo(
+              instrument.getSymbol(), instrument.getPips(), instrument.getSizeMultiplier()),
+          MexcDepthMode.fromValue(instrument.getDepth()));
+    }
+  }
+
+  private void replay(@NonNull MexcCapturedFeed feed, double speed) {
+    if (feed.size() == 0) {
+      return;
+    }
+    boolean paced = speed > 0;
+    long replayStart = System.nanoTime();
+    long captureStart = feed.getReceivedEpochNanos(0);
+    for (int i = 0; i < feed.size() && !stopRequested; i++) {
+      long receivedNanos;
+      long dispatchStart;
+      if (paced) {
+        receivedNanos =
+            replayStart + (long) ((feed.getReceivedEpochNanos(i) - captureStart) / speed);
+        DeadlineWait.until(receivedNanos);
+        dispatchStart = System.nanoTime();
+        lagHistogram.record(dispatchStart - receivedNanos);
+      } else {
+        dispatchStart = System.nanoTime();
+        receivedNanos = dispatchStart;
+      }
+      Object frame = feed.getFrame(i);
+      if (frame instanceof byte[] binaryFrame) {
+        dispatcher.dispatchBinaryMessage(binaryFrame, receivedNanos);
+      } else {
+        dispatcher.dispatchMessage((String) frame, receivedNanos);
+      }
+      dispatchHistogram.record(System.nanoTime() - dispatchStart);
+      dispatchedFrames = dispatchedFrames + 1;
+    }
+  }
+
+  @PreDestroy
+  public void onShutdown() {
+    stop();
+  }
+}
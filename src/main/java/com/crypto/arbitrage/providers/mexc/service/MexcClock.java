@@ -0,0 +1,189 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.TIME;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * The MEXC server clock as seen from here, for the {@code timestamp} of signed requests.
+ *
+ * <p>Once the application is ready, every {@code syncIntervalMs} (0 disables syncing) a background
+ * thread asks {@code /api/v3/time} {@code samplesPerSync} times in a row. Each sample estimates
+ * the offset as the server time minus the local time halfway through the round-trip, which is only
+ * as accurate as the round-trip is symmetric, so only the sample with the shortest round-trip of a
+ * burst is used, and a burst whose best round-trip is much longer than the best seen recently is
+ * discarded. Accepted offsets are smoothed, except that a change of more than {@code
+ * stepThresholdMs}, e.g. after the local clock was set, is taken at once.
+ *
+ * <p>Until the first sync succeeds the offset is 0 and {@link #isSynced()} is false.
+ */
+@Slf4j
+@Component
+public class MexcClock {
+
+  private static final String TIME_ENDPOINT = "/api/v3/time";
+  private static final double SMOOTHING = 0.25;
+  // A burst is discarded if its best round-trip exceeds the recent best by both
+  private static final long MAX_ROUND_TRIP_FACTOR = 3;
+  private static final long MAX_ROUND_TRIP_SLACK_MS = 20;
+
+  private final String timeUrl;
+  private final long syncIntervalMs;
+  private final int samplesPerSync;
+  private final long stepThresholdMs;
+  private final RestClient restClient;
+  private final MexcRateLimiter rateLimiter;
+  private final ObjectMapper objectMapper;
+  private final ScheduledExecutorService syncExecutor =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "MexcClockSync");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  // Written only by the sync thread
+  private double filteredOffsetMs;
+  private long bestRoundTripMs = Long.MAX_VALUE;
+
+  @Getter private volatile long offsetMs;
+  /** Round-trip of the sample behind the last accepted offset. */
+  @Getter private volatile long roundTripMs;
+
+  @Getter private volatile boolean synced;
+  @Getter private volatile long lastSyncTime;
+
+  @Autowired
+  public MexcClock(
+      @Value("${mexc.api.url}") String mexcApiUrl,
+      @Value("${mexc.clock.syncIntervalMs:30000}") long syncIntervalMs,
+      @Value("${mexc.clock.samplesPerSync:5}") int samplesPerSync,
+      @Value("${mexc.clock.stepThresholdMs:1000}") long stepThresholdMs,
+      RestClient restClient,
+      MexcRateLimiter rateLimiter,
+      ObjectMapper objectMapper) {
+    this.timeUrl = mexcApiUrl == null ? null : mexcApiUrl + TIME_ENDPOINT;
+    this.syncIntervalMs = syncIntervalMs;
+    this.samplesPerSync = samplesPerSync;
+    this.stepThresholdMs = stepThresholdMs;
+    this.restClient = restClient;
+    this.rateLimiter = rateLimiter;
+    this.objectMapper = objectMapper;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (timeUrl != null && syncIntervalMs > 0) {
+      syncExecutor.scheduleWithFixedDelay(this::sync, 0, syncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** The current MEXC server time in milliseconds. */
+  public long currentTimeMillis() {
+    return System.currentTimeMillis() + offsetMs;
+  }
+
+  /** Samples the server time and updates the offset; runs on the sync thread. */
+  void sync() {
+    long sampleOffsetMs = 0;
+    long sampleRoundTripMs = Long.MAX_VALUE;
+    for (int i = 0; i < samplesPerSync; i++) {
+      try {
+        TimedResponse response = fetchServerTime();
+        long serverTime = parseServerTime(response.body());
+        long roundTrip = TimeUnit.NANOSECONDS.toMillis(response.roundTripNanos());
+        if (roundTrip < sampleRoundTripMs) {
+          sampleRoundTripMs = roundTrip;
+          sampleOffsetMs = serverTime - (response.sentMs() + roundTrip / 2);
+        }
+      } catch (Exception e) {
+        log.warn("Method sync: MEXC server time request failed: {}", e.getMessage());
+      }
+    }
+    if (sampleRoundTripMs == Long.MAX_VALUE) {
+      return;
+    }
+    accept(sampleOffsetMs, sampleRoundTripMs);
+  }
+
+  private void accept(long sampleOffsetMs, long sampleRoundTripMs) {
+    if (synced
+        && sampleRoundTripMs > bestRoundTripMs * MAX_ROUND_TRIP_FACTOR
+        && sampleRoundTripMs > bestRoundTripMs + MAX_ROUND_TRIP_SLACK_MS) {
+      log.info(
+          "Method sync: discarded offset {} ms with round-trip {} ms, best is {} ms",
+          sampleOffsetMs,
+          sampleRoundTripMs,
+          bestRoundTripMs);
+      // Lets the best round-trip recover if the route got slower for good
+      bestRoundTripMs = Math.min(Long.MAX_VALUE / 2, bestRoundTripMs * 2);
+      return;
+    }
+    bestRoundTripMs = Math.min(bestRoundTripMs, Math.max(1, sampleRoundTripMs));
+    if (!synced || Math.abs(sampleOffsetMs - filteredOffsetMs) > stepThresholdMs) {
+      filteredOffsetMs = sampleOffsetMs;
+    } else {
+      filteredOffsetMs += (sampleOffsetMs - filteredOffsetMs) * SMOOTHING;
+    }
+    offsetMs = Math.round(filteredOffsetMs);
+    roundTripMs = sampleRoundTripMs;
+    lastSyncTime = System.currentTimeMillis();
+    if (!synced) {
+      synced = true;
+      log.info(
+          "Method sync: MEXC clock offset {} ms, round-trip {} ms", offsetMs, sampleRoundTripMs);
+    }
+  }
+
+  /**
+   * Requests the server time. The round-trip is timed inside the rate limiter's admission, so
+   * time spent queueing for weight does not skew the offset.
+   */
+  private TimedResponse fetchServerTime() {
+    return rateLimiter
+        .execute(
+            TIME,
+            () -> {
+              long sentMs = System.currentTimeMillis();
+              long sentNanos = System.nanoTime();
+              ResponseEntity<String> response =
+                  restClient.get().uri(timeUrl).retrieve().toEntity(String.class);
+              long roundTripNanos = System.nanoTime() - sentNanos;
+              return new ResponseEntity<>(
+                  new TimedResponse(response.getBody(), sentMs, roundTripNanos),
+                  response.getHeaders(),
+                  response.getStatusCode());
+            })
+        .getBody();
+  }
+
+  private long parseServerTime(String body) throws IOException {
+    JsonNode serverTime = body == null ? null : objectMapper.readTree(body).get("serverTime");
+    if (serverTime == null) {
+      throw new IOException("No serverTime in " + body);
+    }
+    return serverTime.asLong();
+  }
+
+  private record TimedResponse(String body, long sentMs, long roundTripNanos) {}
+
+  @PreDestroy
+  public void onShutdown() {
+    syncExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,91 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.DEPTH;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDepthDecoder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+/** Public MEXC REST market data used to bootstrap and resync the WebSocket streams. */
+@Slf4j
+@Service
+public class MexcMarketDataService {
+
+  private static final String DEPTH_URL = "/api/v3/depth?symbol=%s&limit=%d";
+
+  private final String mexcApiUrl;
+  private final int depthSnapshotLimit;
+  private final RestClient restClient;
+  private final ObjectMapper objectMapper;
+  private final MexcDepthDecoder depthDecoder;
+  private final MexcRateLimiter rateLimiter;
+  private final ExecutorService snapshotExecutor =
+      Executors.newSingleThreadExecutor(r -> new Thread(r, "DepthSnapshotExecutor"));
+
+  @Autowired
+  public MexcMarketDataService(
+      @Value("${mexc.api.url}") String mexcApiUrl,
+      @Value("${mexc.depth.snapshotLimit:1000}") int depthSnapshotLimit,
+      RestClient restClient,
+      ObjectMapper objectMapper,
+      MexcDepthDecoder depthDecoder,
+      MexcRateLimiter rateLimiter) {
+    this.mexcApiUrl = mexcApiUrl;
+    this.depthSnapshotLimit = depthSnapshotLimit;
+    this.restClient = restClient;
+    this.objectMapper = objectMapper;
+    this.depthDecoder = depthDecoder;
+    this.rateLimiter = rateLimiter;
+  }
+
+  /** Fetches {@code /api/v3/depth} off the caller's thread and decodes it into ticks. */
+  public CompletableFuture<MexcDepthSnapshot> getDepthSnapshotAsync(
+      @NonNull String symbol, @NonNull MexcTickScale tickScale) {
+    return CompletableFuture.supplyAsync(
+        () -> getDepthSnapshot(symbol, tickScale), snapshotExecutor);
+  }
+
+  public MexcDepthSnapshot getDepthSnapshot(
+      @NonNull String symbol, @NonNull MexcTickScale tickScale) {
+    String url = mexcApiUrl + String.format(DEPTH_URL, symbol, depthSnapshotLimit);
+    String body =
+        rateLimiter
+            .execute(DEPTH, () -> restClient.get().uri(url).retrieve().toEntity(String.class))
+            .getBody();
+    if (body == null) {
+      throw new IllegalStateException("Empty depth snapshot response for " + symbol);
+    }
+    MexcDepthSnapshot snapshot = new MexcDepthSnapshot(symbol, tickScale);
+    try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+      depthDecoder.decodeRestSnapshot(parser, snapshot);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error parsing depth snapshot for " + symbol, e);
+    }
+    log.info(
+        "Fetched depth snapshot for {}: lastUpdateId {}, {} bids, {} asks",
+        symbol,
+        snapshot.getVersion(),
+        snapshot.getBids().getCount(),
+        snapshot.getAsks().getCount());
+    return snapshot;
+  }
+
+  @PreDestroy
+  public void onShutdown() {
+    snapshotExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,215 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.PING;
+
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderAck;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends signed order requests to the MEXC REST API without blocking the caller.
+ *
+ * <p>Orders go through their own HTTP/1.1 client, separate from the shared {@code RestClient}, so
+ * that market data requests never queue in front of them. The client keeps its connections alive
+ * in a pool; once the application is ready {@code warmUpConnections} concurrent pings open that
+ * many connections, and the same pings repeat every {@code keepAliveIntervalMs} so the first order
+ * after a quiet period does not pay for DNS, TCP and TLS; 0 disables either. At most {@code
+ * maxInFlight} requests are outstanding, further ones fail at once instead of queueing behind a
+ * slow exchange, and each one times out after {@code requestTimeoutMs}. Every request, pings
+ * included, first takes its weight from the {@link MexcRateLimiter} and reports its response back
+ * to it.
+ */
+@Slf4j
+@Component
+public class MexcOrderGateway {
+
+  private static final String PING_ENDPOINT = "/api/v3/ping";
+  private static final String MEXC_API_KEY_HEADER = "X-MEXC-APIKEY";
+  private static final String CONTENT_TYPE_HEADER = "Content-Type";
+  private static final String CONTENT_TYPE_APPLICATION_JSON = "application/json";
+
+  private final String mexcApiUrl;
+  private final ObjectMapper objectMapper;
+  private final MexcRateLimiter rateLimiter;
+  private final int maxInFlight;
+  private final Semaphore inFlight;
+  private final Duration requestTimeout;
+  private final int warmUpConnections;
+  private final long keepAliveIntervalMs;
+  private final ExecutorService clientExecutor;
+  private final ScheduledExecutorService keepAliveScheduler;
+  private final HttpClient httpClient;
+
+  @Autowired
+  public MexcOrderGateway(
+      @Value("${mexc.api.url}") String mexcApiUrl,
+      @Value("${mexc.order.maxInFlight:64}") int maxInFlight,
+      @Value("${mexc.order.connectTimeoutMs:2000}") long connectTimeoutMs,
+      @Value("${mexc.order.requestTimeoutMs:3000}") long requestTimeoutMs,
+      @Value("${mexc.order.warmUpConnections:4}") int warmUpConnections,
+      @Value("${mexc.order.keepAliveIntervalMs:15000}") long keepAliveIntervalMs,
+      ObjectMapper objectMapper,
+      MexcRateLimiter rateLimiter) {
+    this.mexcApiUrl = mexcApiUrl;
+    this.objectMapper = objectMapper;
+    this.rateLimiter = rateLimiter;
+    this.maxInFlight = maxInFlight;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    this.warmUpConnections = warmUpConnections;
+    this.keepAliveIntervalMs = keepAliveIntervalMs;
+    AtomicInteger threadCount = new AtomicInteger();
+    this.clientExecutor =
+        Executors.newFixedThreadPool(
+            2,
+            r -> {
+              Thread thread = new Thread(r, "MexcOrderGateway-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.keepAliveScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "MexcOrderGatewayKeepAlive");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .executor(clientExecutor)
+            .build();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    warmUp();
+    if (keepAliveIntervalMs > 0) {
+      keepAliveScheduler.scheduleAtFixedRate(
+          this::warmUp, keepAliveIntervalMs, keepAliveIntervalMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Sends a signed request to {@code endpoint} once the rate limiter admits it and parses the
+   * response body into {@code responseType}. The future fails with {@link
+   * MexcOrderRejectedException} on a non-2xx answer, with {@link RejectedExecutionException} if
+   * the rate limiter rejects the request or {@code maxInFlight} requests are already outstanding,
+   * and with {@link java.net.http.HttpTimeoutException} after the request time-out.
+   */
+  public <T> CompletableFuture<MexcOrderAck<T>> send(
+      @NonNull MexcRateLimiter.Endpoint endpoint,
+      @NonNull String signedUrl,
+      @NonNull String apiKey,
+      @NonNull Class<T> responseType) {
+    return rateLimiter
+        .acquire(endpoint)
+        .thenCompose(admitted -> dispatch(endpoint.getMethod(), signedUrl, apiKey, responseType));
+  }
+
+  private <T> CompletableFuture<MexcOrderAck<T>> dispatch(
+      String method, String signedUrl, String apiKey, Class<T> responseType) {
+    if (!inFlight.tryAcquire()) {
+      return CompletableFuture.failedFuture(
+          new RejectedExecutionException(maxInFlight + " order requests already in flight"));
+    }
+    HttpRequest request;
+    try {
+      request =
+          HttpRequest.newBuilder(URI.create(signedUrl))
+              .method(method, HttpRequest.BodyPublishers.noBody())
+              .header(MEXC_API_KEY_HEADER, apiKey)
+              .header(CONTENT_TYPE_HEADER, CONTENT_TYPE_APPLICATION_JSON)
+              .timeout(requestTimeout)
+              .build();
+    } catch (IllegalArgumentException e) {
+      inFlight.release();
+      return CompletableFuture.failedFuture(e);
+    }
+    long startNanos = System.nanoTime();
+    CompletableFuture<HttpResponse<String>> response;
+    try {
+      response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    } catch (RuntimeException e) {
+      inFlight.release();
+      return CompletableFuture.failedFuture(e);
+    }
+    return response
+        .whenComplete((ignored, error) -> inFlight.release())
+        .thenApply(
+            httpResponse -> toAck(httpResponse, System.nanoTime() - startNanos, responseType));
+  }
+
+  private <T> MexcOrderAck<T> toAck(
+      HttpResponse<String> response, long roundTripNanos, Class<T> responseType) {
+    onResponse(response);
+    if (response.statusCode() / 100 != 2) {
+      throw new MexcOrderRejectedException(response.statusCode(), response.body());
+    }
+    try {
+      T ack = objectMapper.readValue(response.body(), responseType);
+      return new MexcOrderAck<>(ack, roundTripNanos);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error parsing order response: " + response.body(), e);
+    }
+  }
+
+  /** Opens, or keeps open, {@code warmUpConnections} pooled connections with concurrent pings. */
+  private void warmUp() {
+    if (mexcApiUrl == null) {
+      return;
+    }
+    HttpRequest ping =
+        HttpRequest.newBuilder(URI.create(mexcApiUrl + PING_ENDPOINT))
+            .GET()
+            .timeout(requestTimeout)
+            .build();
+    for (int i = 0; i < warmUpConnections && rateLimiter.tryAcquire(PING); i++) {
+      httpClient
+          .sendAsync(ping, HttpResponse.BodyHandlers.discarding())
+          .whenComplete(
+              (response, error) -> {
+                if (response != null) {
+                  onResponse(response);
+                }
+                if (error != null) {
+                  log.warn("Method warmUp: ping to {} failed: {}", mexcApiUrl, error.getMessage());
+                }
+              });
+    }
+  }
+
+  private void onResponse(HttpResponse<?> response) {
+    rateLimiter.onResponse(
+        response.statusCode(), name -> response.headers().firstValue(name).orElse(null));
+  }
+
+  @PreDestroy
+  public void onShutdown() {
+    keepAliveScheduler.shutdownNow();
+    clientExecutor.shutdownNow();
+  }
+}
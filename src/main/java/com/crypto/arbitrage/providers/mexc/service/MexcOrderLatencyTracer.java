@@ -0,0 +1,216 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
+import com.crypto.arbitrage.utilite.LatencyHistogram;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Traces the latency of each order from the book update behind it to its first fill, with {@link
+ * System#nanoTime()} stamps correlated by {@code newClientOrderId}.
+ *
+ * <p>An order is stamped at each {@link Point} it passes. The book update and execution request
+ * stamps travel with the {@link MexcNewOrderReq} of an order sent for an {@code ExecutionRequest};
+ * other orders are traced from the order build. Each point's latency from the point before it,
+ * and for the exchange's answers from the HTTP send, goes into a histogram per point. An order
+ * acknowledged more than {@code slowOrderMs} after its first stamp is logged with all its stages.
+ *
+ * <p>A trace ends with the first fill, or is dropped {@code maxAgeMs} after it began.
+ */
+@Slf4j
+@Component
+public class MexcOrderLatencyTracer {
+
+  /** The stamped points of an order's way, in order. */
+  public enum Point {
+    BOOK_UPDATE(null),
+    EXECUTION_REQUEST(BOOK_UPDATE),
+    ORDER_BUILT(EXECUTION_REQUEST),
+    SIGNED(ORDER_BUILT),
+    /** Leaves on the wire, after any rate limiter queueing. */
+    SENT(SIGNED),
+    REST_ACK(SENT),
+    WS_ORDER_UPDATE(SENT),
+    FIRST_FILL(SENT);
+
+    private final Point from;
+
+    Point(Point from) {
+      this.from = from;
+    }
+
+    /** The point this one's latency is measured from, or {@code null} for the first. */
+    public Point getFrom() {
+      return from;
+    }
+  }
+
+  private static final Point[] POINTS = Point.values();
+
+  private static final class Trace {
+    private final String clientOrderId;
+    private final long[] stamps = new long[POINTS.length];
+    private int stamped;
+    private int recorded;
+    private long beginNanos;
+
+    private Trace(String clientOrderId) {
+      this.clientOrderId = clientOrderId;
+    }
+  }
+
+  private final boolean enabled;
+  private final long slowOrderNanos;
+  private final long maxAgeNanos;
+  private final LatencyHistogram[] histograms = new LatencyHistogram[POINTS.length];
+  private final LatencyHistogram tickToAck = new LatencyHistogram();
+  private final Map<String, Trace> traces = new ConcurrentHashMap<>();
+  private final Queue<Trace> traceQueue = new ConcurrentLinkedQueue<>();
+
+  @Autowired
+  public MexcOrderLatencyTracer(
+      @Value("${mexc.trace.enabled:true}") boolean enabled,
+      @Value("${mexc.trace.slowOrderMs:50}") long slowOrderMs,
+      @Value("${mexc.trace.maxAgeMs:60000}") long maxAgeMs) {
+    this.enabled = enabled;
+    this.slowOrderNanos = TimeUnit.MILLISECONDS.toNanos(slowOrderMs);
+    this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    for (Point point : POINTS) {
+      histograms[point.ordinal()] = new LatencyHistogram();
+    }
+  }
+
+  /** Starts the trace of a built order, with the upstream stamps it carries. */
+  public void onOrderBuilt(@NonNull MexcNewOrderReq request) {
+    if (!enabled || request.getNewClientOrderId() == null) {
+      return;
+    }
+    long now = System.nanoTime();
+    Trace trace = new Trace(request.getNewClientOrderId());
+    trace.beginNanos = now;
+    if (traces.putIfAbsent(trace.clientOrderId, trace) != null) {
+      return;
+    }
+    traceQueue.add(trace);
+    evictOldTraces(now);
+    synchronized (trace) {
+      if (request.getTriggerNanos() != 0) {
+        stamp(trace, Point.BOOK_UPDATE, request.getTriggerNanos());
+      }
+      if (request.getRequestNanos() != 0) {
+        stamp(trace, Point.EXECUTION_REQUEST, request.getRequestNanos());
+      }
+      stamp(trace, Point.ORDER_BUILT, now);
+    }
+  }
+
+  /** Stamps {@code point} of the order now. */
+  public void stamp(@NonNull String clientOrderId, @NonNull Point point) {
+    stamp(clientOrderId, point, System.nanoTime());
+  }
+
+  /** Stamps {@code point} of the order at {@code nanos}; only the first stamp of a point counts. */
+  public void stamp(@NonNull String clientOrderId, @NonNull Point point, long nanos) {
+    if (!enabled) {
+      return;
+    }
+    Trace trace = traces.get(clientOrderId);
+    if (trace == null) {
+      return;
+    }
+    synchronized (trace) {
+      stamp(trace, point, nanos);
+    }
+    if (point == Point.FIRST_FILL) {
+      traces.remove(clientOrderId, trace);
+    }
+  }
+
+  /** Stamps the HTTP send and the REST answer of an order from the answer's round-trip. */
+  public void onRestAck(@NonNull String clientOrderId, long roundTripNanos) {
+    long now = System.nanoTime();
+    stamp(clientOrderId, Point.SENT, now - roundTripNanos);
+    stamp(clientOrderId, Point.REST_ACK, now);
+  }
+
+  public LatencyHistogram getHistogram(@NonNull Point point) {
+    return histograms[point.ordinal()];
+  }
+
+  /** From the first stamp of an order to its REST answer. */
+  public LatencyHistogram getTickToAck() {
+    return tickToAck;
+  }
+
+  /** Records every latency both ends of which are known now, once. */
+  private void stamp(Trace trace, Point point, long nanos) {
+    int bit = 1 << point.ordinal();
+    if ((trace.stamped & bit) != 0) {
+      return;
+    }
+    trace.stamps[point.ordinal()] = nanos;
+    trace.stamped |= bit;
+    for (Point to : POINTS) {
+      int toBit = 1 << to.ordinal();
+      Point from = to.getFrom();
+      if (from != null
+          && (trace.recorded & toBit) == 0
+          && (trace.stamped & toBit) != 0
+          && (trace.stamped & (1 << from.ordinal())) != 0) {
+        trace.recorded |= toBit;
+        record(histograms[to.ordinal()], trace.stamps[to.ordinal()] - trace.stamps[from.ordinal()]);
+      }
+    }
+    if (point == Point.REST_ACK) {
+      long total = nanos - trace.stamps[Integer.numberOfTrailingZeros(trace.stamped)];
+      record(tickToAck, total);
+      if (total > slowOrderNanos) {
+        log.warn(
+            "Method onRestAck: slow order {}: {} us to the REST answer, {}",
+            trace.clientOrderId,
+            TimeUnit.NANOSECONDS.toMicros(total),
+            describe(trace));
+      }
+    }
+  }
+
+  private static String describe(Trace trace) {
+    StringBuilder stages = new StringBuilder();
+    for (Point point : POINTS) {
+      Point from = point.getFrom();
+      if (from != null && (trace.recorded & (1 << point.ordinal())) != 0) {
+        if (stages.length() > 0) {
+          stages.append(", ");
+        }
+        long latency = trace.stamps[point.ordinal()] - trace.stamps[from.ordinal()];
+        stages.append(point).append(' ');
+        stages.append(TimeUnit.NANOSECONDS.toMicros(latency)).append(" us");
+      }
+    }
+    return stages.toString();
+  }
+
+  // LatencyHistogram takes one writer; order paths stamp from several threads
+  private static void record(LatencyHistogram histogram, long nanos) {
+    synchronized (histogram) {
+      histogram.record(nanos);
+    }
+  }
+
+  private void evictOldTraces(long now) {
+    Trace trace;
+    while ((trace = traceQueue.peek()) != null && now - trace.beginNanos >= maxAgeNanos) {
+      if (traceQueue.remove(trace)) {
+        traces.remove(trace.clientOrderId, trace);
+      }
+    }
+  }
+}
@@ -0,0 +1,415 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcCancelOrderReq;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcCancelOrderResp;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcExecutionInfo;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderResp;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderResponse;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderSide;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks our orders from the moment they are sent until they are filled, canceled or rejected,
+ * indexed by client order id and, once known, by MEXC order id.
+ *
+ * <p>Each order hears about itself twice: from the REST answers of {@link MexcOrderService} and
+ * from the {@code spot@private.orders.v3.api} and {@code spot@private.deals.v3.api} pushes, in
+ * either order. Updates are merged rather than applied in sequence: the state only moves forward
+ * (see {@link MexcOrderState}), and the filled quantity is the larger of the highest cumulative
+ * quantity pushed and the sum of the deals, each deal counted once by its trade id. Orders pushed
+ * for the account but not sent through us are tracked from their first order push.
+ *
+ * <p>The open quantity of every symbol is kept as running totals updated with each change, so
+ * {@link #getExposure} is a map lookup. Terminal orders are forgotten {@code
+ * terminalRetentionMs} after they end.
+ */
+@Slf4j
+@Component
+public class MexcOrderManager {
+
+  /** Fraction digits of the tracked quantities; MEXC quotes at most 8 for spot. */
+  public static final int QUANTITY_SCALE = 8;
+
+  /** Open quantities of one symbol, mantissas with {@link #QUANTITY_SCALE} fraction digits. */
+  public static final class Exposure {
+    private final AtomicLong openBuyQuantity = new AtomicLong();
+    private final AtomicLong openSellQuantity = new AtomicLong();
+    private final AtomicInteger openOrders = new AtomicInteger();
+
+    public long getOpenBuyQuantity() {
+      return openBuyQuantity.get();
+    }
+
+    public long getOpenSellQuantity() {
+      return openSellQuantity.get();
+    }
+
+    /** Open buy minus open sell quantity. */
+    public long getNetOpenQuantity() {
+      return openBuyQuantity.get() - openSellQuantity.get();
+    }
+
+    public int getOpenOrders() {
+      return openOrders.get();
+    }
+  }
+
+  private static final Exposure NO_EXPOSURE = new Exposure();
+
+  private final long terminalRetentionNanos;
+  private final Map<String, MexcTrackedOrder> ordersByClientId = new ConcurrentHashMap<>();
+  private final Map<String, MexcTrackedOrder> ordersByOrderId = new ConcurrentHashMap<>();
+  private final Map<String, Exposure> exposures = new ConcurrentHashMap<>();
+  private final Queue<MexcTrackedOrder> terminalOrders = new ConcurrentLinkedQueue<>();
+
+  @Autowired
+  public MexcOrderManager(
+      @Value("${mexc.orders.terminalRetentionMs:60000}") long terminalRetentionMs) {
+    this.terminalRetentionNanos = TimeUnit.MILLISECONDS.toNanos(terminalRetentionMs);
+  }
+
+  /** Starts tracking a new order as PENDING_NEW; the request must have its client order id. */
+  public MexcTrackedOrder onNewOrder(@NonNull MexcNewOrderReq request) {
+    MexcTrackedOrder order =
+        new MexcTrackedOrder(
+            request.getNewClientOrderId(),
+            request.getSymbol(),
+            request.getSide(),
+            MexcOrderState.PENDING_NEW,
+            MexcTrackedOrder.toQuantity(MexcDecimal.pack(request.getQuantity(), 0)),
+            MexcDecimal.pack(request.getPrice(), 0),
+            System.currentTimeMillis());
+    MexcTrackedOrder previous = ordersByClientId.putIfAbsent(order.getClientOrderId(), order);
+    if (previous != null) {
+      log.warn("Method onNewOrder: client order id {} is already tracked", previous);
+      return previous;
+    }
+    addOpen(order, order.getOpenQuantity());
+    return order;
+  }
+
+  public void onNewOrderAck(@NonNull String clientOrderId, @NonNull MexcNewOrderResp response) {
+    MexcTrackedOrder order = ordersByClientId.get(clientOrderId);
+    if (order == null) {
+      return;
+    }
+    update(
+        order,
+        tracked -> {
+          setOrderId(tracked, response.getOrderId());
+          long quantity = parse(response.getOrigQty());
+          if (quantity > 0) {
+            tracked.setQuantity(MexcTrackedOrder.toQuantity(quantity));
+          }
+          long price = parse(response.getPrice());
+          if (price != 0) {
+            tracked.setPrice(price);
+          }
+          if (response.getTransactTime() > tracked.getUpdateTime()) {
+            tracked.setUpdateTime(response.getTransactTime());
+          }
+          tracked.advance(MexcOrderState.NEW);
+        });
+  }
+
+  /**
+   * Rejects a PENDING_NEW order if the request certainly did not place it: MEXC refused it, or it
+   * was never sent. After a time-out or a server error the order stays PENDING_NEW until a push
+   * tells what became of it.
+   */
+  public void onNewOrderFailed(@NonNull String clientOrderId, @NonNull Throwable error) {
+    MexcTrackedOrder order = ordersByClientId.get(clientOrderId);
+    if (order == null) {
+      return;
+    }
+    Throwable cause = unwrap(error);
+    if (isNotPlaced(cause)) {
+      update(order, MexcTrackedOrder::reject);
+    } else {
+      log.warn(
+          "Method onNewOrderFailed: order {} in unknown state: {}",
+          clientOrderId,
+          cause.getMessage());
+    }
+  }
+
+  public void onCancelSent(@NonNull MexcCancelOrderReq request) {
+    MexcTrackedOrder order = find(request.getOrigClientOrderId(), request.getOrderId());
+    if (order != null) {
+      update(order, tracked -> tracked.advance(MexcOrderState.PENDING_CANCEL));
+    }
+  }
+
+  public void onCancelAck(
+      @NonNull MexcCancelOrderReq request, @NonNull MexcCancelOrderResp response) {
+    MexcTrackedOrder order = find(request.getOrigClientOrderId(), request.getOrderId());
+    if (order == null) {
+      return;
+    }
+    update(
+        order,
+        tracked -> {
+          setOrderId(tracked, response.getOrderId());
+          long executed = parse(response.getExecutedQty());
+          if (executed > 0) {
+            tracked.fillTo(MexcTrackedOrder.toQuantity(executed));
+          }
+          tracked.advance(
+              response.getStatus() == null
+                  ? MexcOrderState.CANCELED
+                  : MexcOrderState.fromStatus(response.getStatus()));
+        });
+  }
+
+  /** Returns an order from PENDING_CANCEL to where it was, e.g. if it filled before the cancel. */
+  public void onCancelFailed(@NonNull MexcCancelOrderReq request, @NonNull Throwable error) {
+    MexcTrackedOrder order = find(request.getOrigClientOrderId(), request.getOrderId());
+    if (order != null) {
+      log.warn(
+          "Method onCancelFailed: cancel of {} failed: {}",
+          order.getClientOrderId(),
+          unwrap(error).getMessage());
+      update(order, MexcTrackedOrder::revertCancel);
+    }
+  }
+
+  /** Merges a {@code spot@private.orders.v3.api} push. */
+  public void onOrderUpdate(@NonNull MexcOrderResponse update) {
+    MexcOrderResponse.MexcOrderInfo info = update.getOrderInfo();
+    if (info == null) {
+      return;
+    }
+    MexcTrackedOrder order = find(info.getClientOrderId(), info.getOrderId());
+    if (order == null) {
+      order = adopt(update.getSymbol(), info);
+      if (order == null) {
+        return;
+      }
+    }
+    MexcOrderState state;
+    try {
+      state = MexcOrderState.fromPushStatus(info.getStatus());
+    } catch (IllegalArgumentException e) {
+      log.warn("Method onOrderUpdate: {} of order {}", e.getMessage(), info.getOrderId());
+      return;
+    }
+    update(
+        order,
+        tracked -> {
+          setOrderId(tracked, info.getOrderId());
+          if (info.getQuantity() != 0) {
+            tracked.setQuantity(MexcTrackedOrder.toQuantity(info.getQuantity()));
+          }
+          if (info.getPrice() != 0) {
+            tracked.setPrice(info.getPrice());
+          }
+          tracked.fillTo(MexcTrackedOrder.toQuantity(info.getCumulativeQuantity()));
+          if (update.getEventTime() > tracked.getUpdateTime()) {
+            tracked.setUpdateTime(update.getEventTime());
+          }
+          tracked.advance(state);
+          tracked.advanceByFills();
+        });
+  }
+
+  /** Merges a {@code spot@private.deals.v3.api} push. */
+  public void onDeal(@NonNull MexcExecutionInfo execution) {
+    MexcExecutionInfo.DealsInfo deal = execution.getDealsInfo();
+    if (deal == null) {
+      return;
+    }
+    MexcTrackedOrder order = find(deal.getClientOrderId(), deal.getOrderId());
+    if (order == null) {
+      // The order push that follows carries the cumulative quantity
+      log.debug("Method onDeal: deal {} of an untracked order {}", deal.getTradeId(), deal);
+      return;
+    }
+    update(
+        order,
+        tracked -> {
+          setOrderId(tracked, deal.getOrderId());
+          tracked.fill(deal.getTradeId(), MexcTrackedOrder.toQuantity(deal.getQuantity()));
+          if (execution.getEventTime() > tracked.getUpdateTime()) {
+            tracked.setUpdateTime(execution.getEventTime());
+          }
+          tracked.advanceByFills();
+        });
+  }
+
+  public MexcTrackedOrder getByClientOrderId(@NonNull String clientOrderId) {
+    return ordersByClientId.get(clientOrderId);
+  }
+
+  public MexcTrackedOrder getByOrderId(@NonNull String orderId) {
+    return ordersByOrderId.get(orderId);
+  }
+
+  /** The open quantities of {@code symbol}, all zero if it has no tracked orders. */
+  public Exposure getExposure(@NonNull String symbol) {
+    return exposures.getOrDefault(symbol, NO_EXPOSURE);
+  }
+
+  /** A snapshot of the orders not yet in a terminal state. */
+  public List<MexcTrackedOrder> getOpenOrders() {
+    List<MexcTrackedOrder> openOrders = new ArrayList<>();
+    for (MexcTrackedOrder order : ordersByClientId.values()) {
+      if (order.isOpen()) {
+        openOrders.add(order);
+      }
+    }
+    for (MexcTrackedOrder order : ordersByOrderId.values()) {
+      if (order.isOpen() && order.getClientOrderId() == null) {
+        openOrders.add(order);
+      }
+    }
+    return openOrders;
+  }
+
+  private MexcTrackedOrder find(String clientOrderId, String orderId) {
+    MexcTrackedOrder order = null;
+    if (clientOrderId != null && !clientOrderId.isEmpty()) {
+      order = ordersByClientId.get(clientOrderId);
+    }
+    if (order == null && orderId != null && !orderId.isEmpty()) {
+      order = ordersByOrderId.get(orderId);
+    }
+    return order;
+  }
+
+  /** Starts tracking an order first seen in a push, e.g. one placed on the website. */
+  private MexcTrackedOrder adopt(String symbol, MexcOrderResponse.MexcOrderInfo info) {
+    if (symbol == null || info.getOrderId() == null) {
+      return null;
+    }
+    String clientOrderId =
+        info.getClientOrderId() == null || info.getClientOrderId().isEmpty()
+            ? null
+            : info.getClientOrderId();
+    MexcTrackedOrder order =
+        new MexcTrackedOrder(
+            clientOrderId,
+            symbol,
+            info.getTradeType() == 1 ? MexcOrderSide.BUY : MexcOrderSide.SELL,
+            MexcOrderState.NEW,
+            0,
+            info.getPrice(),
+            0);
+    MexcTrackedOrder previous =
+        clientOrderId == null
+            ? ordersByOrderId.putIfAbsent(info.getOrderId(), order)
+            : ordersByClientId.putIfAbsent(clientOrderId, order);
+    if (previous != null) {
+      return previous;
+    }
+    order.setOrderId(info.getOrderId());
+    ordersByOrderId.putIfAbsent(info.getOrderId(), order);
+    addOpen(order, 0);
+    return order;
+  }
+
+  private void setOrderId(MexcTrackedOrder order, String orderId) {
+    if (order.getOrderId() == null && orderId != null && !orderId.isEmpty()) {
+      order.setOrderId(orderId);
+      ordersByOrderId.putIfAbsent(orderId, order);
+    }
+  }
+
+  /** Applies {@code change} under the order's lock and moves the difference into the exposure. */
+  private void update(MexcTrackedOrder order, Consumer<MexcTrackedOrder> change) {
+    boolean ended;
+    synchronized (order) {
+      if (order.getState().isTerminal()) {
+        // Still learns late ids; a terminal order has no open quantity to change
+        change.accept(order);
+        return;
+      }
+      long openQuantity = order.getOpenQuantity();
+      change.accept(order);
+      ended = order.getState().isTerminal();
+      Exposure exposure = exposures.get(order.getSymbol());
+      addQuantity(exposure, order.getSide(), order.getOpenQuantity() - openQuantity);
+      if (ended) {
+        exposure.openOrders.decrementAndGet();
+      }
+    }
+    if (ended) {
+      long now = System.nanoTime();
+      order.terminalNanos = now;
+      terminalOrders.add(order);
+      evictTerminalOrders(now);
+    }
+  }
+
+  private void addOpen(MexcTrackedOrder order, long openQuantity) {
+    Exposure exposure = exposures.computeIfAbsent(order.getSymbol(), symbol -> new Exposure());
+    exposure.openOrders.incrementAndGet();
+    addQuantity(exposure, order.getSide(), openQuantity);
+  }
+
+  private static void addQuantity(Exposure exposure, MexcOrderSide side, long delta) {
+    if (delta != 0) {
+      (side == MexcOrderSide.BUY ? exposure.openBuyQuantity : exposure.openSellQuantity)
+          .addAndGet(delta);
+    }
+  }
+
+  private void evictTerminalOrders(long now) {
+    MexcTrackedOrder order;
+    while ((order = terminalOrders.peek()) != null
+        && now - order.terminalNanos >= terminalRetentionNanos) {
+      if (terminalOrders.remove(order)) {
+        if (order.getClientOrderId() != null) {
+          ordersByClientId.remove(order.getClientOrderId(), order);
+        }
+        if (order.getOrderId() != null) {
+          ordersByOrderId.remove(order.getOrderId(), order);
+        }
+      }
+    }
+  }
+
+  private static boolean isNotPlaced(Throwable cause) {
+    if (cause instanceof MexcOrderRejectedException rejected) {
+      return rejected.getStatusCode() < 500;
+    }
+    return cause instanceof RejectedExecutionException
+        || cause instanceof IllegalArgumentException
+        || cause instanceof IllegalStateException;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+
+  private static long parse(String decimal) {
+    if (decimal == null || decimal.isEmpty()) {
+      return 0;
+    }
+    try {
+      return MexcDecimal.parse(decimal);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+}
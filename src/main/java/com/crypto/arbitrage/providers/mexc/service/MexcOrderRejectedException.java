@@ -0,0 +1,17 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import lombok.Getter;
+
+/** A non-2xx answer of the MEXC order API; the body carries MEXC's {@code code} and {@code msg}. */
+@Getter
+public class MexcOrderRejectedException extends RuntimeException {
+
+  private final int statusCode;
+  private final String body;
+
+  public MexcOrderRejectedException(int statusCode, String body) {
+    super("MEXC rejected order request with status " + statusCode + ": " + body);
+    this.statusCode = statusCode;
+    this.body = body;
+  }
+}
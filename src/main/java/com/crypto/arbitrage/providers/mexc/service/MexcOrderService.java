@@ -1,138 +1,406 @@
 package com.crypto.arbitrage.providers.mexc.service;
 
-import com.crypto.arbitrage.providers.mexc.common.MexcSignatureUtil;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.BATCH_ORDERS;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.CANCEL_ORDER;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.NEW_ORDER;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcRequestSigner;
 import com.crypto.arbitrage.providers.mexc.model.order.*;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.time.Instant;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import lombok.Setter;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
 @Slf4j
 @Service
 public class MexcOrderService {
 
-  private static final String RECOVERY_WINDOW = "10000";
-  private static final String CONTENT_TYPE_HEADER = "Content-Type";
-  private static final String MEXC_API_KEY_HEADER = "X-MEXC-APIKEY";
-  private static final String CONTENT_TYPE_APPLICATION_JSON = "application/json";
+  private static final String ORDER_ENDPOINT = "/api/v3/order";
+  private static final String BATCH_ORDERS_ENDPOINT = "/api/v3/batchOrders";
+  /** MEXC takes at most this many orders, all of one symbol, per batchOrders call. */
+  static final int MAX_BATCH_SIZE = 20;
+  /** recvWindow of cancels, and of new orders while the clock is not synced. */
+  private static final long RECOVERY_WINDOW = 10000;
 
-  private final RestClient restClient;
+  private final MexcOrderGateway orderGateway;
+  private final MexcOrderManager orderManager;
+  private final MexcClock clock;
+  private final MexcOrderLatencyTracer tracer;
+  private final long orderRecvWindowMs;
 
-  @Setter private MexcLoginData loginData;
-  private final String mexcApiUrl;
+  private volatile MexcRequestSigner signer;
+  private final String orderUrl;
+  private final String batchOrdersUrl;
+  private final String clientOrderIdPrefix =
+      "mx" + Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + "-";
+  private final AtomicLong clientOrderIds = new AtomicLong();
 
   @Autowired
-  public MexcOrderService(@Value("${mexc.api.url}") String mexcApiUrl, RestClient restClient) {
-    this.mexcApiUrl = mexcApiUrl;
-    this.restClient = restClient;
+  public MexcOrderService(
+      @Value("${mexc.api.url}") String mexcApiUrl,
+      @Value("${mexc.order.recvWindowMs:1000}") long orderRecvWindowMs,
+      MexcOrderGateway orderGateway,
+      MexcOrderManager orderManager,
+      MexcClock clock,
+      MexcOrderLatencyTracer tracer) {
+    this.orderUrl = mexcApiUrl == null ? null : mexcApiUrl + ORDER_ENDPOINT;
+    this.batchOrdersUrl = mexcApiUrl == null ? null : mexcApiUrl + BATCH_ORDERS_ENDPOINT;
+    this.orderGateway = orderGateway;
+    this.orderManager = orderManager;
+    this.clock = clock;
+    this.tracer = tracer;
+    this.orderRecvWindowMs = orderRecvWindowMs;
+  }
+
+  /**
+   * Keys the request signer with the account's API key and secret; it stamps requests with the
+   * MEXC server time of the {@link MexcClock}.
+   */
+  public void setLoginData(@NonNull MexcLoginData loginData) {
+    signer =
+        new MexcRequestSigner(
+            loginData.getApiKey(), loginData.getApiSecret(), clock::currentTimeMillis);
+  }
+
+  /**
+   * Sends a new order, given a {@code newClientOrderId} if it has none, and tracks it in the {@link
+   * MexcOrderManager}. The caller's request is left as it is; an order given an id is a copy. The
+   * future completes with MEXC's acknowledgement and the round-trip, or fails with {@link
+   * IllegalArgumentException} if the request is invalid.
+   */
+  public CompletableFuture<MexcOrderAck<MexcNewOrderResp>> sendOrder(
+      @NonNull MexcNewOrderReq newOrderReq) {
+    MexcRequestSigner signer = this.signer;
+    if (signer == null) {
+      return CompletableFuture.failedFuture(new IllegalStateException("Not logged in to MEXC"));
+    }
+    MexcNewOrderReq request = withClientOrderId(newOrderReq);
+    tracer.onOrderBuilt(request);
+    String signedUrl = signedNewOrderUrl(signer, request);
+    if (signedUrl == null) {
+      log.error("Method sendOrder: Signed url is null.");
+      return CompletableFuture.failedFuture(
+          new IllegalArgumentException("Invalid new order request " + request));
+    }
+    tracer.stamp(request.getNewClientOrderId(), MexcOrderLatencyTracer.Point.SIGNED);
+    return track(
+        request,
+        orderGateway.send(NEW_ORDER, signedUrl, signer.getApiKey(), MexcNewOrderResp.class));
+  }
+
+  /** Builds the signed new order URL, or returns {@code null} if the request is invalid. */
+  String signedNewOrderUrl(@NonNull MexcNewOrderReq request) {
+    MexcRequestSigner signer = this.signer;
+    return signer == null ? null : signedNewOrderUrl(signer, request);
   }
 
-  public void sendOrder(@NonNull MexcNewOrderReq request) {
-    String endpoint = "/api/v3/order";
-    Map<String, String> parameters = new LinkedHashMap<>();
-    parameters.put("symbol", request.getSymbol());
-    parameters.put("side", request.getSide().name());
-    parameters.put("type", request.getType().name());
+  private String signedNewOrderUrl(
+      @NonNull MexcRequestSigner signer, @NonNull MexcNewOrderReq request) {
+    if (!isValid(request)) {
+      return null;
+    }
+    MexcRequestSigner.SignedQuery query = newQuery(signer);
+    if (query == null) {
+      return null;
+    }
+    query
+        .add("symbol", request.getSymbol())
+        .add("side", request.getSide().name())
+        .add("type", request.getType().name());
 
     if (request.getType() == MexcOrderType.LIMIT) {
-      parameters.put("quantity", String.valueOf(request.getQuantity()));
-      parameters.put("price", String.valueOf(request.getPrice()));
+      query.add("quantity", request.getQuantity());
+      query.add("price", request.getPrice());
     } else if (request.getType() == MexcOrderType.MARKET) {
-      if (request.getQuantity() == 0 && request.getQuoteOrderQty() == 0) {
-        log.error("Method sendOrder: MARKET order must have either quantity or quoteOrderQty.");
-        return;
-      }
       if (request.getQuantity() != 0) {
-        parameters.put("quantity", String.valueOf(request.getQuantity()));
+        query.add("quantity", request.getQuantity());
       }
       if (request.getQuoteOrderQty() != 0) {
-        parameters.put("quoteOrderQty", String.valueOf(request.getQuoteOrderQty()));
+        query.add("quoteOrderQty", request.getQuoteOrderQty());
       }
     }
 
-    if (request.getNewClientOrderId() != null && !request.getNewClientOrderId().isEmpty()) {
-      parameters.put("newClientOrderId", request.getNewClientOrderId());
+    if (hasClientOrderId(request)) {
+      query.add("newClientOrderId", request.getNewClientOrderId());
     }
-    if (request.getRecvWindow() != 0) {
-      parameters.put("recvWindow", String.valueOf(request.getRecvWindow()));
-    } else {
-      parameters.put("recvWindow", RECOVERY_WINDOW);
+    query.add(
+        "recvWindow", request.getRecvWindow() != 0 ? request.getRecvWindow() : orderRecvWindow());
+    return query.addTimestamp().toSignedUrl();
+  }
+
+  /**
+   * Sends several new orders in as few requests as possible: grouped by symbol, up to {@link
+   * #MAX_BATCH_SIZE} per {@code /api/v3/batchOrders} call, all calls at once. Each call costs the
+   * rate limit weight of one order.
+   *
+   * <p>Orders without a {@code newClientOrderId} are sent as copies given one, and the answer is
+   * matched back to the orders by it. Returns one future per request, in the same order. A future
+   * completes with the order's entry of the answer and the round-trip of its call, or fails with
+   * {@link MexcOrderRejectedException} if MEXC rejected that order, or with {@link
+   * IllegalArgumentException} if an earlier request of the call has the same client order id.
+   */
+  public List<CompletableFuture<MexcOrderAck<MexcNewOrderResp>>> sendOrders(
+      @NonNull List<MexcNewOrderReq> requests) {
+    List<CompletableFuture<MexcOrderAck<MexcNewOrderResp>>> results =
+        new ArrayList<>(requests.size());
+    MexcRequestSigner signer = this.signer;
+    Map<String, List<PendingOrder>> ordersBySymbol = new LinkedHashMap<>();
+    Set<String> batchClientOrderIds = new HashSet<>();
+    for (MexcNewOrderReq newOrderReq : requests) {
+      CompletableFuture<MexcOrderAck<MexcNewOrderResp>> result = new CompletableFuture<>();
+      results.add(result);
+      if (signer == null) {
+        result.completeExceptionally(new IllegalStateException("Not logged in to MEXC"));
+      } else if (batchOrdersUrl == null) {
+        result.completeExceptionally(new IllegalStateException("Mexc API url is null"));
+      } else if (!isValid(newOrderReq)) {
+        result.completeExceptionally(
+            new IllegalArgumentException("Invalid new order request " + newOrderReq));
+      } else if (hasClientOrderId(newOrderReq)
+          && !batchClientOrderIds.add(newOrderReq.getNewClientOrderId())) {
+        result.completeExceptionally(
+            new IllegalArgumentException(
+                "Duplicate newClientOrderId " + newOrderReq.getNewClientOrderId()));
+      } else {
+        MexcNewOrderReq request = withClientOrderId(newOrderReq);
+        tracer.onOrderBuilt(request);
+        ordersBySymbol
+            .computeIfAbsent(request.getSymbol(), symbol -> new ArrayList<>())
+            .add(new PendingOrder(request, result));
+        track(request, result);
+      }
+    }
+    for (List<PendingOrder> orders : ordersBySymbol.values()) {
+      for (int from = 0; from < orders.size(); from += MAX_BATCH_SIZE) {
+        sendBatch(signer, orders.subList(from, Math.min(orders.size(), from + MAX_BATCH_SIZE)));
+      }
     }
+    return results;
+  }
 
-    parameters.put("timestamp", String.valueOf(Instant.now().toEpochMilli()));
+  /**
+   * New orders arriving later than {@code orderRecvWindowMs} after they were stamped are rejected
+   * by MEXC instead of filled late. The window only fits once the timestamps follow the server
+   * clock; until then it is {@link #RECOVERY_WINDOW}, which covers the local clock's drift.
+   */
+  private long orderRecvWindow() {
+    return clock.isSynced() ? orderRecvWindowMs : RECOVERY_WINDOW;
+  }
 
-    String signedUrl = getSignedUrl(endpoint, parameters);
-    if (signedUrl == null) {
-      log.error("Method sendOrder: Signed url is null.");
-      return;
+  /** Returns the request if it has a client order id, or else a copy given a fresh one. */
+  private MexcNewOrderReq withClientOrderId(@NonNull MexcNewOrderReq request) {
+    if (hasClientOrderId(request)) {
+      return request;
     }
-    restClient
-        .put()
-        .uri(signedUrl)
-        .header(MEXC_API_KEY_HEADER, loginData.getApiKey())
-        .header(CONTENT_TYPE_HEADER, CONTENT_TYPE_APPLICATION_JSON)
-        .retrieve();
+    return request.toBuilder()
+        .newClientOrderId(clientOrderIdPrefix + clientOrderIds.incrementAndGet())
+        .build();
   }
 
-  public void cancelOrder(@NonNull MexcCancelOrderReq req) {
-    String endpoint = "/api/v3/order";
-    Map<String, String> parameters = new LinkedHashMap<>();
-    parameters.put("symbol", req.getSymbol());
+  private static boolean hasClientOrderId(@NonNull MexcNewOrderReq request) {
+    return request.getNewClientOrderId() != null && !request.getNewClientOrderId().isEmpty();
+  }
 
-    if (req.getOrderId() != null && !req.getOrderId().isEmpty()) {
-      parameters.put("orderId", req.getOrderId());
-    } else {
-      log.error("Either orderId or origClientOrderId must be provided.");
+  /**
+   * Registers a sent order with the order manager and hands it the REST answer, which also stamps
+   * the order's send and answer in the latency tracer.
+   */
+  private CompletableFuture<MexcOrderAck<MexcNewOrderResp>> track(
+      @NonNull MexcNewOrderReq request,
+      @NonNull CompletableFuture<MexcOrderAck<MexcNewOrderResp>> result) {
+    String clientOrderId = request.getNewClientOrderId();
+    orderManager.onNewOrder(request);
+    return result.whenComplete(
+        (ack, error) -> {
+          if (error != null) {
+            orderManager.onNewOrderFailed(clientOrderId, error);
+          } else {
+            tracer.onRestAck(clientOrderId, ack.roundTripNanos());
+            if (ack.response() != null) {
+              orderManager.onNewOrderAck(clientOrderId, ack.response());
+            }
+          }
+        });
+  }
+
+  private void sendBatch(@NonNull MexcRequestSigner signer, @NonNull List<PendingOrder> batch) {
+    StringBuilder batchOrders = new StringBuilder(128 * batch.size()).append('[');
+    for (PendingOrder order : batch) {
+      if (batchOrders.length() > 1) {
+        batchOrders.append(',');
+      }
+      appendOrderJson(batchOrders, order.request());
+    }
+    batchOrders.append(']');
+    String signedUrl =
+        signer
+            .query(batchOrdersUrl)
+            .add("batchOrders", batchOrders.toString())
+            .add("recvWindow", orderRecvWindow())
+            .addTimestamp()
+            .toSignedUrl();
+    long signedNanos = System.nanoTime();
+    for (PendingOrder order : batch) {
+      tracer.stamp(
+          order.request().getNewClientOrderId(), MexcOrderLatencyTracer.Point.SIGNED, signedNanos);
     }
+    orderGateway
+        .send(BATCH_ORDERS, signedUrl, signer.getApiKey(), MexcBatchOrderResp[].class)
+        .whenComplete(
+            (ack, error) -> {
+              if (error != null) {
+                Throwable cause =
+                    error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                batch.forEach(order -> order.result().completeExceptionally(cause));
+              } else {
+                completeBatch(batch, ack);
+              }
+            });
+  }
 
-    parameters.put("recvWindow", RECOVERY_WINDOW);
-    parameters.put("timestamp", String.valueOf(Instant.now().toEpochMilli()));
+  /** Hands each entry of a batchOrders answer to its order, by client order id or else position. */
+  private static void completeBatch(
+      @NonNull List<PendingOrder> batch, @NonNull MexcOrderAck<MexcBatchOrderResp[]> ack) {
+    Map<String, PendingOrder> ordersByClientId = new HashMap<>();
+    batch.forEach(order -> ordersByClientId.put(order.request().getNewClientOrderId(), order));
+    MexcBatchOrderResp[] entries =
+        ack.response() == null ? new MexcBatchOrderResp[0] : ack.response();
+    for (int i = 0; i < entries.length; i++) {
+      MexcBatchOrderResp entry = entries[i];
+      PendingOrder order =
+          entry.getNewClientOrderId() != null
+              ? ordersByClientId.get(entry.getNewClientOrderId())
+              : i < batch.size() ? batch.get(i) : null;
+      if (order == null) {
+        log.warn("Method sendOrders: batchOrders answer for an unknown order: {}", entry);
+      } else if (entry.getCode() != null && entry.getCode() != 0) {
+        StringBuilder body = new StringBuilder("{\"code\":").append(entry.getCode());
+        body.append(",\"msg\":");
+        appendJsonString(body, entry.getMsg() == null ? "" : entry.getMsg());
+        body.append('}');
+        order
+            .result()
+            .completeExceptionally(new MexcOrderRejectedException(200, body.toString()));
+      } else {
+        order.result().complete(new MexcOrderAck<>(entry, ack.roundTripNanos()));
+      }
+    }
+    for (PendingOrder order : batch) {
+      order
+          .result()
+          .completeExceptionally(
+              new IllegalStateException(
+                  "No batchOrders answer for order " + order.request().getNewClientOrderId()));
+    }
+  }
 
-    String signedUrl = getSignedUrl(endpoint, parameters);
+  private static void appendOrderJson(StringBuilder json, MexcNewOrderReq request) {
+    json.append("{\"symbol\":");
+    appendJsonString(json, request.getSymbol());
+    json.append(",\"side\":\"").append(request.getSide().name());
+    json.append("\",\"type\":\"").append(request.getType().name()).append('"');
+    if (request.getType() == MexcOrderType.LIMIT || request.getQuantity() != 0) {
+      json.append(",\"quantity\":\"").append(request.getQuantity()).append('"');
+    }
+    if (request.getType() == MexcOrderType.LIMIT) {
+      json.append(",\"price\":\"").append(request.getPrice()).append('"');
+    } else if (request.getQuoteOrderQty() != 0) {
+      json.append(",\"quoteOrderQty\":\"").append(request.getQuoteOrderQty()).append('"');
+    }
+    json.append(",\"newClientOrderId\":");
+    appendJsonString(json, request.getNewClientOrderId());
+    json.append('}');
+  }
 
-    if (signedUrl == null) {
+  private static void appendJsonString(StringBuilder json, String value) {
+    json.append('"');
+    JsonStringEncoder.getInstance().quoteAsString(value, json);
+    json.append('"');
+  }
+
+  /** An order needs symbol, side and type, and a MARKET order a quantity or quote quantity. */
+  private static boolean isValid(@NonNull MexcNewOrderReq request) {
+    if (request.getSymbol() == null || request.getSide() == null || request.getType() == null) {
+      log.error("Method sendOrder: Order must have symbol, side and type.");
+      return false;
+    }
+    if (request.getType() == MexcOrderType.MARKET
+        && request.getQuantity() == 0
+        && request.getQuoteOrderQty() == 0) {
+      log.error("Method sendOrder: MARKET order must have either quantity or quoteOrderQty.");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Cancels an order by {@code orderId}, or by {@code origClientOrderId} if it has none, moving it
+   * to PENDING_CANCEL in the {@link MexcOrderManager} until the answer. The future completes with
+   * MEXC's acknowledgement and the round-trip.
+   */
+  public CompletableFuture<MexcOrderAck<MexcCancelOrderResp>> cancelOrder(
+      @NonNull MexcCancelOrderReq req) {
+    MexcRequestSigner signer = this.signer;
+    if (signer == null) {
+      return CompletableFuture.failedFuture(new IllegalStateException("Not logged in to MEXC"));
+    }
+    boolean hasOrderId = req.getOrderId() != null && !req.getOrderId().isEmpty();
+    boolean hasClientOrderId =
+        req.getOrigClientOrderId() != null && !req.getOrigClientOrderId().isEmpty();
+    if (!hasOrderId && !hasClientOrderId) {
+      log.error("Method cancelOrder: Either orderId or origClientOrderId must be provided.");
+      return CompletableFuture.failedFuture(
+          new IllegalArgumentException("Cancel request without orderId or origClientOrderId"));
+    }
+    MexcRequestSigner.SignedQuery query = newQuery(signer);
+    if (query == null) {
       log.error("Method cancelOrder: Signed url is null.");
-      return;
+      return CompletableFuture.failedFuture(new IllegalStateException("Mexc API url is null"));
+    }
+    query.add("symbol", req.getSymbol());
+    if (hasOrderId) {
+      query.add("orderId", req.getOrderId());
+    } else {
+      query.add("origClientOrderId", req.getOrigClientOrderId());
     }
+    query.add("recvWindow", RECOVERY_WINDOW);
 
-    restClient
-        .put()
-        .uri(signedUrl)
-        .header(MEXC_API_KEY_HEADER, loginData.getApiKey())
-        .header(CONTENT_TYPE_HEADER, CONTENT_TYPE_APPLICATION_JSON)
-        .retrieve();
+    String signedUrl = query.addTimestamp().toSignedUrl();
+    orderManager.onCancelSent(req);
+    return orderGateway
+        .send(CANCEL_ORDER, signedUrl, signer.getApiKey(), MexcCancelOrderResp.class)
+        .whenComplete(
+            (ack, error) -> {
+              if (error != null) {
+                orderManager.onCancelFailed(req, error);
+              } else if (ack.response() != null) {
+                orderManager.onCancelAck(req, ack.response());
+              }
+            });
   }
 
-  private String getSignedUrl(@NonNull String endpoint, @NonNull Map<String, String> parameters) {
-    if (mexcApiUrl == null) {
+  private MexcRequestSigner.SignedQuery newQuery(@NonNull MexcRequestSigner signer) {
+    if (orderUrl == null) {
       log.error("Mexc API url is null");
       return null;
     }
-    String rawQueryString =
-        parameters.entrySet().stream()
-            .map(entry -> entry.getKey() + "=" + entry.getValue())
-            .collect(Collectors.joining("&"));
-
-    String signature = MexcSignatureUtil.createSignature(loginData.getApiSecret(), rawQueryString);
-    parameters.put("signature", signature);
-
-    String encodedQueryString =
-        parameters.entrySet().stream()
-            .map(entry -> encodeValue(entry.getKey()) + "=" + encodeValue(entry.getValue()))
-            .collect(Collectors.joining("&"));
-    return mexcApiUrl + endpoint + "?" + encodedQueryString;
+    return signer.query(orderUrl);
   }
 
-  private String encodeValue(String value) {
-    return URLEncoder.encode(value, StandardCharsets.UTF_8);
-  }
+  private record PendingOrder(
+      MexcNewOrderReq request, CompletableFuture<MexcOrderAck<MexcNewOrderResp>> result) {}
 }
@@ -0,0 +1,396 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+/**
+ * Keeps our MEXC REST calls within the exchange's request weight limit, {@code weightPerWindow}
+ * per {@code windowMs}, shared by all endpoints.
+ *
+ * <p>The limit is a token bucket kept as a single theoretical arrival time (GCRA): a request of
+ * weight {@code w} moves it {@code w} emission intervals forward and is admitted if it stays
+ * within one window of now. Admission is a CAS on that time and never locks.
+ *
+ * <p>Each endpoint belongs to a {@link Lane}. A lane leaves part of the bucket to the lanes above
+ * it, so when weight runs short cancels still go out after new orders stop, and new orders after
+ * listenKey and market data requests stop. A request that does not fit waits in its lane's queue
+ * up to the lane's maximum wait and is then rejected; queued requests are admitted strictly by
+ * lane, in arrival order within a lane, by a single scheduler thread.
+ *
+ * <p>Responses feed back into the bucket: a 429 or 418 pauses every lane for the {@code
+ * Retry-After} seconds, and the used weight reported in {@code usedWeightHeader}, if configured,
+ * is never undercounted locally.
+ */
+@Slf4j
+@Component
+public class MexcRateLimiter {
+
+  /** Priority lanes, highest first. */
+  public enum Lane {
+    CANCEL,
+    ORDER,
+    ACCOUNT,
+    MARKET_DATA
+  }
+
+  /** The rate limited REST endpoints with their HTTP method, MEXC request weight and lane. */
+  public enum Endpoint {
+    CANCEL_ORDER("DELETE", 1, Lane.CANCEL),
+    NEW_ORDER("POST", 1, Lane.ORDER),
+    BATCH_ORDERS("POST", 1, Lane.ORDER),
+    LISTEN_KEY("POST", 1, Lane.ACCOUNT),
+    LISTEN_KEY_KEEPALIVE("PUT", 1, Lane.ACCOUNT),
+    DEPTH("GET", 1, Lane.MARKET_DATA),
+    TIME("GET", 1, Lane.MARKET_DATA),
+    PING("GET", 1, Lane.MARKET_DATA);
+
+    @Getter private final String method;
+    @Getter private final int weight;
+    @Getter private final Lane lane;
+
+    Endpoint(String method, int weight, Lane lane) {
+      this.method = method;
+      this.weight = weight;
+      this.lane = lane;
+    }
+  }
+
+  /** Counters of the admission decisions of one lane. */
+  @Getter
+  public static final class LaneStats {
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queuedNanos = new LongAdder();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+  }
+
+  private record Waiter(
+      int weight, long enqueuedNanos, long deadlineNanos, CompletableFuture<Void> admission) {}
+
+  private static final Lane[] LANES = Lane.values();
+  private static final String RETRY_AFTER_HEADER = "Retry-After";
+  private static final CompletableFuture<Void> ADMITTED = CompletableFuture.completedFuture(null);
+
+  private final long nanosPerWeight;
+  private final long[] laneLimitNanos = new long[LANES.length];
+  private final long[] maxWaitNanos = new long[LANES.length];
+  private final long throttlePauseNanos;
+  private final String usedWeightHeader;
+  private final LongSupplier nanoTime;
+  private final AtomicLong theoreticalArrival;
+  private final AtomicLong pausedUntil;
+  @Getter private final LongAdder throttledCount = new LongAdder();
+  private final LaneStats[] stats = new LaneStats[LANES.length];
+  private final Queue<Waiter>[] queues;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "MexcRateLimiter");
+            thread.setDaemon(true);
+            return thread;
+          });
+  // Only touched on the scheduler thread
+  private ScheduledFuture<?> pendingDrain;
+
+  @Autowired
+  public MexcRateLimiter(
+      @Value("${mexc.rateLimit.weightPerWindow:500}") int weightPerWindow,
+      @Value("${mexc.rateLimit.windowMs:10000}") long windowMs,
+      @Value("${mexc.rateLimit.reservedForCancels:50}") int reservedForCancels,
+      @Value("${mexc.rateLimit.reservedForOrders:50}") int reservedForOrders,
+      @Value("${mexc.rateLimit.maxWaitMs.cancel:2000}") long cancelMaxWaitMs,
+      @Value("${mexc.rateLimit.maxWaitMs.order:200}") long orderMaxWaitMs,
+      @Value("${mexc.rateLimit.maxWaitMs.account:30000}") long accountMaxWaitMs,
+      @Value("${mexc.rateLimit.maxWaitMs.marketData:10000}") long marketDataMaxWaitMs,
+      @Value("${mexc.rateLimit.throttlePauseMs:10000}") long throttlePauseMs,
+      @Value("${mexc.rateLimit.usedWeightHeader:}") String usedWeightHeader) {
+    this(
+        weightPerWindow,
+        windowMs,
+        reservedForCancels,
+        reservedForOrders,
+        cancelMaxWaitMs,
+        orderMaxWaitMs,
+        accountMaxWaitMs,
+        marketDataMaxWaitMs,
+        throttlePauseMs,
+        usedWeightHeader,
+        System::nanoTime);
+  }
+
+  /** Creates a limiter that reads the time from {@code nanoTime}, e.g. a test clock. */
+  @SuppressWarnings("unchecked")
+  public MexcRateLimiter(
+      int weightPerWindow,
+      long windowMs,
+      int reservedForCancels,
+      int reservedForOrders,
+      long cancelMaxWaitMs,
+      long orderMaxWaitMs,
+      long accountMaxWaitMs,
+      long marketDataMaxWaitMs,
+      long throttlePauseMs,
+      @NonNull String usedWeightHeader,
+      @NonNull LongSupplier nanoTime) {
+    if (reservedForCancels + reservedForOrders >= weightPerWindow) {
+      throw new IllegalArgumentException(
+          "mexc.rateLimit reserves must leave weight for the lowest lanes: "
+              + (reservedForCancels + reservedForOrders)
+              + " of "
+              + weightPerWindow);
+    }
+    long windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    this.nanosPerWeight = windowNanos / weightPerWindow;
+    laneLimitNanos[Lane.CANCEL.ordinal()] = windowNanos;
+    laneLimitNanos[Lane.ORDER.ordinal()] = windowNanos - reservedForCancels * nanosPerWeight;
+    long lowLaneLimit = windowNanos - (reservedForCancels + reservedForOrders) * nanosPerWeight;
+    laneLimitNanos[Lane.ACCOUNT.ordinal()] = lowLaneLimit;
+    laneLimitNanos[Lane.MARKET_DATA.ordinal()] = lowLaneLimit;
+    maxWaitNanos[Lane.CANCEL.ordinal()] = TimeUnit.MILLISECONDS.toNanos(cancelMaxWaitMs);
+    maxWaitNanos[Lane.ORDER.ordinal()] = TimeUnit.MILLISECONDS.toNanos(orderMaxWaitMs);
+    maxWaitNanos[Lane.ACCOUNT.ordinal()] = TimeUnit.MILLISECONDS.toNanos(accountMaxWaitMs);
+    maxWaitNanos[Lane.MARKET_DATA.ordinal()] = TimeUnit.MILLISECONDS.toNanos(marketDataMaxWaitMs);
+    this.throttlePauseNanos = TimeUnit.MILLISECONDS.toNanos(throttlePauseMs);
+    this.usedWeightHeader = usedWeightHeader;
+    this.nanoTime = nanoTime;
+    long now = nanoTime.getAsLong();
+    this.theoreticalArrival = new AtomicLong(now);
+    this.pausedUntil = new AtomicLong(now);
+    this.queues = new Queue[LANES.length];
+    for (Lane lane : LANES) {
+      stats[lane.ordinal()] = new LaneStats();
+      queues[lane.ordinal()] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  /**
+   * Admits a request to {@code endpoint}. The future is already complete if the request fits now,
+   * completes once it is admitted from its lane's queue, or fails with {@link
+   * RejectedExecutionException} if it cannot be admitted within the lane's maximum wait.
+   */
+  public CompletableFuture<Void> acquire(@NonNull Endpoint endpoint) {
+    int lane = endpoint.getLane().ordinal();
+    LaneStats laneStats = stats[lane];
+    long now = nanoTime.getAsLong();
+    long wait = hasQueued(lane) ? -1 : tryAcquire(lane, endpoint.getWeight(), now);
+    if (wait == 0) {
+      laneStats.admitted.increment();
+      return ADMITTED;
+    }
+    if (wait > maxWaitNanos[lane] || maxWaitNanos[lane] == 0) {
+      return reject(endpoint.getLane(), endpoint.getWeight());
+    }
+    CompletableFuture<Void> admission = new CompletableFuture<>();
+    queues[lane].add(new Waiter(endpoint.getWeight(), now, now + maxWaitNanos[lane], admission));
+    laneStats.queueDepth.incrementAndGet();
+    laneStats.queued.increment();
+    scheduler.execute(this::drain);
+    return admission;
+  }
+
+  /** Admits a request to {@code endpoint} only if it fits now, without queueing. */
+  public boolean tryAcquire(@NonNull Endpoint endpoint) {
+    int lane = endpoint.getLane().ordinal();
+    if (!hasQueued(lane) && tryAcquire(lane, endpoint.getWeight(), nanoTime.getAsLong()) == 0) {
+      stats[lane].admitted.increment();
+      return true;
+    }
+    stats[lane].rejected.increment();
+    return false;
+  }
+
+  /**
+   * Runs a blocking {@code RestClient} request to {@code endpoint} once it is admitted and feeds
+   * its response, or its error response, back into the bucket.
+   *
+   * @throws RejectedExecutionException if the request is not admitted within its lane's maximum
+   *     wait
+   */
+  public <T> ResponseEntity<T> execute(
+      @NonNull Endpoint endpoint, @NonNull Supplier<ResponseEntity<T>> request) {
+    try {
+      acquire(endpoint).join();
+    } catch (CompletionException e) {
+      throw (RejectedExecutionException) e.getCause();
+    }
+    try {
+      ResponseEntity<T> response = request.get();
+      onResponse(response.getStatusCode().value(), response.getHeaders()::getFirst);
+      return response;
+    } catch (RestClientResponseException e) {
+      HttpHeaders headers = e.getResponseHeaders();
+      onResponse(
+          e.getStatusCode().value(), name -> headers == null ? null : headers.getFirst(name));
+      throw e;
+    }
+  }
+
+  /**
+   * Feeds a response back into the bucket.
+   *
+   * @param headers returns the first value of a response header, or {@code null}
+   */
+  public void onResponse(int statusCode, @NonNull Function<String, String> headers) {
+    long now = nanoTime.getAsLong();
+    if (!usedWeightHeader.isEmpty()) {
+      String usedWeight = headers.apply(usedWeightHeader);
+      if (usedWeight != null) {
+        try {
+          raiseTo(theoreticalArrival, now + Long.parseLong(usedWeight.trim()) * nanosPerWeight);
+        } catch (NumberFormatException e) {
+          log.warn("Method onResponse: Invalid {} header: {}", usedWeightHeader, usedWeight);
+        }
+      }
+    }
+    if (statusCode == 429 || statusCode == 418) {
+      long pauseNanos = throttlePauseNanos;
+      String retryAfter = headers.apply(RETRY_AFTER_HEADER);
+      if (retryAfter != null) {
+        try {
+          pauseNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+          log.warn("Method onResponse: Invalid Retry-After header: {}", retryAfter);
+        }
+      }
+      throttledCount.increment();
+      raiseTo(pausedUntil, now + pauseNanos);
+      log.warn(
+          "Method onResponse: MEXC answered {}, pausing REST calls for {} ms",
+          statusCode,
+          TimeUnit.NANOSECONDS.toMillis(pauseNanos));
+    }
+  }
+
+  public LaneStats getStats(@NonNull Lane lane) {
+    return stats[lane.ordinal()];
+  }
+
+  /** The weight {@code lane} could spend right now. */
+  public long getAvailableWeight(@NonNull Lane lane) {
+    long now = nanoTime.getAsLong();
+    if (pausedUntil.get() - now > 0) {
+      return 0;
+    }
+    long used = Math.max(0, theoreticalArrival.get() - now);
+    return Math.max(0, (laneLimitNanos[lane.ordinal()] - used) / nanosPerWeight);
+  }
+
+  /** Returns 0 if the weight was taken, else the nanoseconds until it could be. */
+  private long tryAcquire(int lane, int weight, long now) {
+    long paused = pausedUntil.get() - now;
+    if (paused > 0) {
+      return paused;
+    }
+    long cost = weight * nanosPerWeight;
+    while (true) {
+      long arrival = theoreticalArrival.get();
+      long next = (arrival - now > 0 ? arrival : now) + cost;
+      long excess = next - now - laneLimitNanos[lane];
+      if (excess > 0) {
+        return excess;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /** Whether {@code lane} or a lane above it has queued requests, which go first. */
+  private boolean hasQueued(int lane) {
+    for (int i = 0; i <= lane; i++) {
+      if (stats[i].queueDepth.get() > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private CompletableFuture<Void> reject(Lane lane, int weight) {
+    return CompletableFuture.failedFuture(rejection(lane, weight));
+  }
+
+  private RejectedExecutionException rejection(Lane lane, int weight) {
+    stats[lane.ordinal()].rejected.increment();
+    return new RejectedExecutionException(
+        "MEXC rate limit: no weight " + weight + " left for " + lane + " requests");
+  }
+
+  /** Admits queued requests by lane until one does not fit, then waits for it on a timer. */
+  private void drain() {
+    long now = nanoTime.getAsLong();
+    long nextDrain = Long.MAX_VALUE;
+    boolean blocked = false;
+    for (Lane lane : LANES) {
+      Queue<Waiter> queue = queues[lane.ordinal()];
+      LaneStats laneStats = stats[lane.ordinal()];
+      Waiter waiter;
+      while ((waiter = queue.peek()) != null) {
+        if (now - waiter.deadlineNanos() >= 0) {
+          queue.poll();
+          laneStats.queueDepth.decrementAndGet();
+          waiter.admission().completeExceptionally(rejection(lane, waiter.weight()));
+          continue;
+        }
+        long wait = blocked ? Long.MAX_VALUE : tryAcquire(lane.ordinal(), waiter.weight(), now);
+        if (wait == 0) {
+          queue.poll();
+          laneStats.queueDepth.decrementAndGet();
+          laneStats.admitted.increment();
+          laneStats.queuedNanos.add(now - waiter.enqueuedNanos());
+          waiter.admission().complete(null);
+          continue;
+        }
+        // Lower lanes wait behind this one, except to time out
+        blocked = true;
+        nextDrain = Math.min(nextDrain, Math.min(wait, waiter.deadlineNanos() - now));
+        break;
+      }
+    }
+    if (pendingDrain != null) {
+      pendingDrain.cancel(false);
+      pendingDrain = null;
+    }
+    if (nextDrain != Long.MAX_VALUE) {
+      pendingDrain = scheduler.schedule(this::drain, nextDrain, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static void raiseTo(AtomicLong nanoTime, long target) {
+    long current;
+    do {
+      current = nanoTime.get();
+      if (current - target >= 0) {
+        return;
+      }
+    } while (!nanoTime.compareAndSet(current, target));
+  }
+
+  @PreDestroy
+  public void onShutdown() {
+    scheduler.shutdownNow();
+  }
+}
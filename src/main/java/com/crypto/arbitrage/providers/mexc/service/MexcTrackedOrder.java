@@ -0,0 +1,142 @@
+package com.crypto.arbitrage.providers.mexc.service;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderSide;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderState;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * One order as {@link MexcOrderManager} knows it. Quantities are mantissas with {@link
+ * MexcOrderManager#QUANTITY_SCALE} fraction digits, the price a packed {@link MexcDecimal}.
+ *
+ * <p>Only the manager changes an order, holding the order's lock; the getters can be read from any
+ * thread.
+ */
+@Getter
+@ToString
+public final class MexcTrackedOrder {
+
+  private final String clientOrderId;
+  private final String symbol;
+  private final MexcOrderSide side;
+  private volatile String orderId;
+  private volatile MexcOrderState state;
+  private volatile long quantity;
+  private volatile long filledQuantity;
+  private volatile long price;
+  /** Exchange time of the last update in milliseconds, or the local time it was sent. */
+  private volatile long updateTime;
+
+  @ToString.Exclude @Getter(AccessLevel.NONE) private Set<String> tradeIds;
+  // The same fills seen twice: as cumulative quantities of order pushes and as single deals
+  @ToString.Exclude @Getter(AccessLevel.NONE) private long cumulativeQuantity;
+  @ToString.Exclude @Getter(AccessLevel.NONE) private long dealQuantity;
+  @ToString.Exclude @Getter(AccessLevel.NONE) long terminalNanos;
+
+  MexcTrackedOrder(
+      String clientOrderId,
+      String symbol,
+      MexcOrderSide side,
+      MexcOrderState state,
+      long quantity,
+      long price,
+      long updateTime) {
+    this.clientOrderId = clientOrderId;
+    this.symbol = symbol;
+    this.side = side;
+    this.state = state;
+    this.quantity = quantity;
+    this.price = price;
+    this.updateTime = updateTime;
+  }
+
+  /** The quantity still working on the book, or about to be; 0 once the order is terminal. */
+  public long getOpenQuantity() {
+    return state.isTerminal() ? 0 : Math.max(0, quantity - filledQuantity);
+  }
+
+  public boolean isOpen() {
+    return !state.isTerminal();
+  }
+
+  void setOrderId(String orderId) {
+    this.orderId = orderId;
+  }
+
+  void setQuantity(long quantity) {
+    this.quantity = quantity;
+  }
+
+  void setPrice(long price) {
+    this.price = price;
+  }
+
+  void setUpdateTime(long updateTime) {
+    this.updateTime = updateTime;
+  }
+
+  /** Raises the cumulative filled quantity of the order pushes, which arrive out of order. */
+  void fillTo(long cumulativeQuantity) {
+    if (cumulativeQuantity > this.cumulativeQuantity) {
+      this.cumulativeQuantity = cumulativeQuantity;
+      updateFilledQuantity();
+    }
+  }
+
+  /** Adds the quantity of a deal to the sum of the deals, unless the deal was counted already. */
+  void fill(String tradeId, long dealQuantity) {
+    if (tradeIds == null) {
+      tradeIds = new HashSet<>();
+    }
+    if (tradeId == null || tradeIds.add(tradeId)) {
+      this.dealQuantity += dealQuantity;
+      updateFilledQuantity();
+    }
+  }
+
+  /** The deals and the order pushes report the same fills; whichever is further along counts. */
+  private void updateFilledQuantity() {
+    filledQuantity = Math.max(cumulativeQuantity, dealQuantity);
+  }
+
+  /** Moves to {@code next} unless the order is further along already. */
+  void advance(MexcOrderState next) {
+    if (!state.isTerminal() && next.getRank() >= state.getRank()) {
+      state = next;
+    }
+  }
+
+  /** Moves to FILLED once a known quantity is filled, else to PARTIALLY_FILLED after a fill. */
+  void advanceByFills() {
+    if (quantity > 0 && filledQuantity >= quantity) {
+      advance(MexcOrderState.FILLED);
+    } else if (filledQuantity > 0) {
+      advance(MexcOrderState.PARTIALLY_FILLED);
+    }
+  }
+
+  /** Leaves PENDING_CANCEL for the state the order was in before, after a failed cancel. */
+  void revertCancel() {
+    if (state == MexcOrderState.PENDING_CANCEL) {
+      state =
+          filledQuantity > 0
+              ? MexcOrderState.PARTIALLY_FILLED
+              : orderId != null ? MexcOrderState.NEW : MexcOrderState.PENDING_NEW;
+    }
+  }
+
+  /** Moves a PENDING_NEW order to REJECTED; an acknowledged order stays as it is. */
+  void reject() {
+    if (state == MexcOrderState.PENDING_NEW) {
+      state = MexcOrderState.REJECTED;
+    }
+  }
+
+  static long toQuantity(long packed) {
+    return MexcDecimal.toMantissa(packed, MexcOrderManager.QUANTITY_SCALE);
+  }
+}
@@ -0,0 +1,25 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import velox.api.layer1.data.BalanceInfo;
+import velox.api.layer1.data.ExecutionInfo;
+import velox.api.layer1.data.OrderInfoUpdate;
+import velox.api.layer1.data.TradeInfo;
+
+/**
+ * Receives decoded market and account data from {@link MexcDataProcessor}. Called directly on the
+ * processing thread, so implementations must not block.
+ */
+public interface MexcDataListener {
+
+  MexcDataListener NO_OP = new MexcDataListener() {};
+
+  default void onTrade(String symbol, double price, int size, TradeInfo tradeInfo) {}
+
+  default void onDepth(String symbol, boolean isBid, int price, int size) {}
+
+  default void onBalance(BalanceInfo balanceInfo) {}
+
+  default void onOrderExecuted(ExecutionInfo executionInfo) {}
+
+  default void onOrderUpdated(OrderInfoUpdate orderInfoUpdate) {}
+}
@@ -1,31 +1,25 @@
 package com.crypto.arbitrage.providers.mexc.service.messages;
 
 import com.crypto.arbitrage.providers.mexc.MexcProvider;
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
 import com.crypto.arbitrage.providers.mexc.model.MexcData;
 import com.crypto.arbitrage.providers.mexc.model.account.BalanceChangeType;
 import com.crypto.arbitrage.providers.mexc.model.account.MexcAccountBalance;
-import com.crypto.arbitrage.providers.mexc.model.account.MexcBalanceEvent;
 import com.crypto.arbitrage.providers.mexc.model.common.MexcSubscriptionResp;
-import com.crypto.arbitrage.providers.mexc.model.depth.BookDepthResponse;
-import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthData;
-import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthEntry;
-import com.crypto.arbitrage.providers.mexc.model.event.MexcDepthEvent;
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.crypto.arbitrage.providers.mexc.service.MexcMarketDataService;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderManager;
 import com.crypto.arbitrage.providers.mexc.model.event.MexcSubscriptionEvent;
-import com.crypto.arbitrage.providers.mexc.model.event.MexcTradeEvent;
-import com.crypto.arbitrage.providers.mexc.model.event.MexcWebSocketSessionStatusEvent;
-import com.crypto.arbitrage.providers.mexc.model.instrument.MexcInstrumentEvent;
-import com.crypto.arbitrage.providers.mexc.model.instrument.MexcSubscribedInstrumentEvent;
-import com.crypto.arbitrage.providers.mexc.model.instrument.MexcUnsubscribedInstrumentEvent;
 import com.crypto.arbitrage.providers.mexc.model.order.*;
+import com.crypto.arbitrage.providers.mexc.model.trade.MexcTradeDeal;
 import com.crypto.arbitrage.providers.mexc.model.trade.MexcTradeStream;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import velox.api.layer1.data.*;
@@ -36,12 +30,16 @@ import velox.api.layer1.data.*;
 public class MexcDataProcessor {
 
   private final ApplicationEventPublisher publisher;
-  private final Map<String, InstrumentInfo> knowInstruments = new HashMap<>();
+  private final MexcDepthSnapshotDiffer depthSnapshotDiffer;
+  private final MexcMarketDataService marketDataService;
+  private final MexcInstrumentRegistry instrumentRegistry;
+  private final MexcOrderManager orderManager;
+  private final MexcOrderLatencyTracer tracer;
+  private final MexcDepthSnapshotDiffer.LevelConsumer depthLevelPublisher = this::publishDepthLevel;
+  @Setter private volatile MexcDataListener dataListener = MexcDataListener.NO_OP;
 
   public void process(MexcData mexcData) {
-    if (mexcData instanceof BookDepthResponse bookDepthResponse) {
-      processDepth(bookDepthResponse);
-    } else if (mexcData instanceof MexcTradeStream mexcTradeStream) {
+    if (mexcData instanceof MexcTradeStream mexcTradeStream) {
       processTrade(mexcTradeStream);
     } else if (mexcData instanceof MexcSubscriptionResp mexcSubscriptionResp) {
       processSubscriptionMessage(mexcSubscriptionResp);
@@ -50,7 +48,6 @@ public class MexcDataProcessor {
     } else if (mexcData instanceof MexcExecutionInfo mexcExecutionInfo) {
       processExecutionInfo(mexcExecutionInfo);
     } else if (mexcData instanceof MexcOrderResponse mexcOrderInfo) {
-      log.info(mexcOrderInfo.getOrderInfo().toString());
       processOrderInfo(mexcOrderInfo);
     } else {
       log.warn("Unknown MexcData type: {}", mexcData);
@@ -58,16 +55,39 @@ public class MexcDataProcessor {
   }
 
   private void processOrderInfo(MexcOrderResponse mexcOrderInfo) {
-    OrderInfo orderInfo = getOrderInfo(mexcOrderInfo);
+    if (mexcOrderInfo.getOrderInfo() != null
+        && mexcOrderInfo.getOrderInfo().getClientOrderId() != null) {
+      tracer.stamp(
+          mexcOrderInfo.getOrderInfo().getClientOrderId(),
+          MexcOrderLatencyTracer.Point.WS_ORDER_UPDATE);
+    }
+    orderManager.onOrderUpdate(mexcOrderInfo);
+    MexcTickScale tickScale = getTickScale(mexcOrderInfo.getSymbol());
+    if (tickScale == null) {
+      log.warn("Order update for unknown symbol {}", mexcOrderInfo.getSymbol());
+      return;
+    }
+    OrderInfo orderInfo = getOrderInfo(mexcOrderInfo, tickScale);
     log.info("Processing and publishing info: {}", orderInfo);
-    publisher.publishEvent(new MexcOrderInfoEvent(new OrderInfoUpdate(orderInfo)));
+    dataListener.onOrderUpdated(new OrderInfoUpdate(orderInfo));
   }
 
   private void processExecutionInfo(MexcExecutionInfo mexcExecutionInfo) {
-    InstrumentInfo instrumentInfo = knowInstruments.get(mexcExecutionInfo.getSymbol());
-    int size =
-        (int) (mexcExecutionInfo.getDealsInfo().getQuantity() * instrumentInfo.sizeMultiplier);
-    double price = mexcExecutionInfo.getDealsInfo().getPrice();
+    if (mexcExecutionInfo.getDealsInfo() != null
+        && mexcExecutionInfo.getDealsInfo().getClientOrderId() != null) {
+      tracer.stamp(
+          mexcExecutionInfo.getDealsInfo().getClientOrderId(),
+          MexcOrderLatencyTracer.Point.FIRST_FILL);
+    }
+    orderManager.onDeal(mexcExecutionInfo);
+    MexcTickScale tickScale = getTickScale(mexcExecutionInfo.getSymbol());
+    if (tickScale == null) {
+      log.warn("Execution for unknown symbol {}", mexcExecutionInfo.getSymbol());
+      return;
+    }
+    int size = tickScale.toSizeUnits(mexcExecutionInfo.getDealsInfo().getQuantity());
+    // Executions and orders carry prices, not ticks
+    double price = MexcDecimal.toDouble(mexcExecutionInfo.getDealsInfo().getPrice());
     ExecutionInfo executionInfo =
         new ExecutionInfo(
             mexcExecutionInfo.getDealsInfo().getOrderId(),
@@ -76,7 +96,7 @@ public class MexcDataProcessor {
             mexcExecutionInfo.getDealsInfo().getTradeId(),
             mexcExecutionInfo.getEventTime());
     log.info("Processing and publishing info: {}", executionInfo);
-    publisher.publishEvent(new MexcExecutionEvent(executionInfo));
+    dataListener.onOrderExecuted(executionInfo);
   }
 
   private void processBalance(MexcAccountBalance mexcAccountBalance) {
@@ -101,85 +121,125 @@ public class MexcDataProcessor {
       balanceInfoBuilder.setBalancesInCurrency(balanceInCurrencies);
 
       BalanceInfo balanceInfo = balanceInfoBuilder.build();
-      publisher.publishEvent(new MexcBalanceEvent(balanceInfo));
+      dataListener.onBalance(balanceInfo);
     }
   }
 
-  private void processDepth(BookDepthResponse bookDepthResponse) {
-    String symbol = bookDepthResponse.getSymbol();
-    MexcDepthData depthData = bookDepthResponse.getDepthData();
-    InstrumentInfo instrumentInfo = knowInstruments.get(symbol);
+  public void processDepth(@NonNull MexcDepthSnapshot snapshot) {
+    depthSnapshotDiffer.diff(snapshot, depthLevelPublisher);
+  }
 
-    processDepthLevels(depthData.getAsks(), symbol, instrumentInfo, false);
-    processDepthLevels(depthData.getBids(), symbol, instrumentInfo, true);
+  /** Applies a delta decoded into the depth snapshot of instrument {@code instrumentId}. */
+  public void processDepthDelta(int instrumentId, @NonNull MexcDepthSnapshot delta) {
+    MexcIncrementalDepthBook book = instrumentRegistry.getIncrementalBook(instrumentId);
+    if (book == null) {
+      log.warn("Incremental depth for symbol {} without a depth book", delta.getSymbol());
+      return;
+    }
+    if (book.onDelta(delta, depthLevelPublisher)) {
+      requestDepthSnapshot(book, delta.getTickScale());
+    }
   }
 
-  private void processDepthLevels(
-      List<MexcDepthEntry> levels, String symbol, InstrumentInfo instrumentInfo, boolean isBid) {
-    if (levels == null) return;
+  private void requestDepthSnapshot(
+      @NonNull MexcIncrementalDepthBook book, @NonNull MexcTickScale tickScale) {
+    marketDataService
+        .getDepthSnapshotAsync(book.getSymbol(), tickScale)
+        .whenComplete(
+            (snapshot, error) -> {
+              if (error != null) {
+                log.error(
+                    "Failed to fetch depth snapshot for {}: {}",
+                    book.getSymbol(),
+                    error.getMessage());
+                book.onSnapshotFailed();
+              } else if (book.onSnapshot(snapshot, depthLevelPublisher)) {
+                requestDepthSnapshot(book, tickScale);
+              }
+            });
+  }
 
-    levels.stream()
-        .map(
-            level ->
-                new MexcDepthEvent(
-                    symbol,
-                    isBid,
-                    (int) (level.getPrice() / instrumentInfo.pips),
-                    (int) (level.getQuantity() * instrumentInfo.sizeMultiplier)))
-        .forEach(publisher::publishEvent);
+  private void publishDepthLevel(String symbol, boolean isBid, int price, int size) {
+    dataListener.onDepth(symbol, isBid, price, size);
   }
 
   public void processTrade(@NonNull MexcTradeStream mexcTradeStream) {
-    String symbol = mexcTradeStream.getSymbol();
-    InstrumentInfo instrumentInfo = knowInstruments.get(symbol);
+    int instrumentId = instrumentRegistry.idOf(mexcTradeStream.getSymbol());
+    if (instrumentId == MexcInstrumentRegistry.UNKNOWN) {
+      log.warn("Trades for unknown symbol {}", mexcTradeStream.getSymbol());
+      return;
+    }
+    processTrade(instrumentId, mexcTradeStream);
+  }
+
+  /** Publishes the deals of a trade stream message of instrument {@code instrumentId}. */
+  public void processTrade(int instrumentId, @NonNull MexcTradeStream mexcTradeStream) {
     if (mexcTradeStream.getMexcTradeData() != null
         && mexcTradeStream.getMexcTradeData().getDeals() != null) {
-      mexcTradeStream.getMexcTradeData().getDeals().stream()
-          .map(
-              deal -> {
-                double price = deal.getPrice();
-                int size = (int) (deal.getQuantity() * instrumentInfo.sizeMultiplier);
-                // tradeType 1: buy (bid aggressive), 2: sell (bid not aggressive)
-                boolean isBidAggressor = isBid(deal.getTradeType());
-                TradeInfo tradeInfo = new TradeInfo(false, isBidAggressor);
-                return new MexcTradeEvent(symbol, price, size, tradeInfo);
-              })
-          .forEach(publisher::publishEvent);
+      startDeals(instrumentId);
+      for (MexcTradeDeal deal : mexcTradeStream.getMexcTradeData().getDeals()) {
+        processDeal(
+            instrumentId,
+            deal.getPrice(),
+            deal.getQuantity(),
+            deal.getTradeType(),
+            deal.getDealTime());
+      }
+    }
+  }
+
+  /** Marks the start of the deals of one frame, before they are passed to {@link #processDeal}. */
+  public void startDeals(int instrumentId) {
+    MexcDealDeduplicator deduplicator = instrumentRegistry.getDealDeduplicator(instrumentId);
+    if (deduplicator != null) {
+      deduplicator.startFrame();
+    }
+  }
+
+  /**
+   * Publishes one deal in price ticks and size units, like depth; shared by the JSON and protobuf
+   * trade streams. {@code price} and {@code quantity} are packed {@link MexcDecimal}s. A deal of a
+   * redundant symbol already received from another leg is dropped.
+   */
+  public void processDeal(int instrumentId, long price, long quantity, int tradeType, long time) {
+    MexcDealDeduplicator deduplicator = instrumentRegistry.getDealDeduplicator(instrumentId);
+    if (deduplicator != null && !deduplicator.isNew(price, quantity, tradeType, time)) {
+      return;
     }
+    MexcTickScale tickScale = instrumentRegistry.getTickScale(instrumentId);
+    // tradeType 1: buy (bid aggressive), 2: sell (bid not aggressive)
+    boolean isBidAggressor = isBid(tradeType);
+    dataListener.onTrade(
+        instrumentRegistry.getSymbol(instrumentId),
+        tickScale.toPriceTicks(price),
+        tickScale.toSizeUnits(quantity),
+        new TradeInfo(false, isBidAggressor));
   }
 
   private void processSubscriptionMessage(@NonNull MexcSubscriptionResp mexcSubscriptionResp) {
     MexcSubscriptionEvent event = new MexcSubscriptionEvent();
     event.setChannel(mexcSubscriptionResp.getMsg());
     publisher.publishEvent(event);
-    publisher.publishEvent(new MexcWebSocketSessionStatusEvent(true));
   }
 
-  @EventListener
-  public void onInstrumentEvent(@NonNull MexcInstrumentEvent event) {
-    if (event instanceof MexcSubscribedInstrumentEvent subscribedInstrumentEvent) {
-      knowInstruments.put(
-          subscribedInstrumentEvent.getInstrumentInfo().symbol,
-          subscribedInstrumentEvent.getInstrumentInfo());
-    } else if (event instanceof MexcUnsubscribedInstrumentEvent unsubscribedInstrumentEvent) {
-      // knowInstruments.remove(unsubscribedInstrumentEvent.getSymbol());
-    } else {
-      log.warn("Unknown MexcInstrumentEvent type: {}", event);
-    }
+  /** Resolves the symbol of an account message, which is rare enough to look up by name. */
+  private MexcTickScale getTickScale(String symbol) {
+    int instrumentId =
+        symbol == null ? MexcInstrumentRegistry.UNKNOWN : instrumentRegistry.idOf(symbol);
+    return instrumentId == MexcInstrumentRegistry.UNKNOWN
+        ? null
+        : instrumentRegistry.getTickScale(instrumentId);
   }
 
   // cant handle stp orders
-  private OrderInfo getOrderInfo(MexcOrderResponse mexcOrderInfoResponse) {
+  private OrderInfo getOrderInfo(
+      MexcOrderResponse mexcOrderInfoResponse, MexcTickScale tickScale) {
     String symbol = mexcOrderInfoResponse.getSymbol();
     long time = mexcOrderInfoResponse.getEventTime();
     MexcOrderResponse.MexcOrderInfo mexcOrderInfo = mexcOrderInfoResponse.getOrderInfo();
 
-    InstrumentInfo instrumentInfo = knowInstruments.get(symbol);
-
-    int filled =
-        (int) (mexcOrderInfo.getCumulativeQuantity().doubleValue() * instrumentInfo.sizeMultiplier);
-    int remaining =
-        (int) (mexcOrderInfo.getRemainQuantity().doubleValue() * instrumentInfo.sizeMultiplier);
+    int filled = tickScale.toSizeUnits(mexcOrderInfo.getCumulativeQuantity());
+    int remaining = tickScale.toSizeUnits(mexcOrderInfo.getRemainQuantity());
     boolean isBid = isBid(mexcOrderInfo.getTradeType());
     OrderType orderType = getOrderType(mexcOrderInfo.getOrderType());
 
@@ -193,10 +253,10 @@ public class MexcDataProcessor {
             false);
     orderInfoBuilder.setFilled(filled);
     orderInfoBuilder.setUnfilled(remaining);
-    orderInfoBuilder.setAverageFillPrice(mexcOrderInfo.getAvgPrice().doubleValue());
+    orderInfoBuilder.setAverageFillPrice(MexcDecimal.toDouble(mexcOrderInfo.getAvgPrice()));
     orderInfoBuilder.setDuration(OrderDuration.IOC);
     orderInfoBuilder.setStatus(fromMexcStatus(mexcOrderInfo.getStatus()));
-    orderInfoBuilder.setLimitPrice(mexcOrderInfo.getPrice().doubleValue());
+    orderInfoBuilder.setLimitPrice(MexcDecimal.toDouble(mexcOrderInfo.getPrice()));
     orderInfoBuilder.setModificationUtcTime(time);
     orderInfoBuilder.setExchangeId(MexcProvider.NAME);
 
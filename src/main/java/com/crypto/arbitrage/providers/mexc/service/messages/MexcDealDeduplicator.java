@@ -0,0 +1,50 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import com.crypto.arbitrage.utilite.LongFifoSet;
+
+/**
+ * Drops the deals of a redundantly subscribed symbol that were already published from another
+ * leg's copy of the stream.
+ *
+ * <p>Legs may batch the same deals into different frames, so deals frames cannot be deduplicated
+ * as a whole; each deal is keyed by its own time, price, quantity and side instead. Deals carry no
+ * id, so identical deals in a row within one frame are told apart by their position in that run.
+ * Keys of the last {@code window} deals are remembered. Only the thread decoding the symbol's
+ * frames may use an instance.
+ */
+public final class MexcDealDeduplicator {
+
+  private final LongFifoSet recentDeals;
+  private long lastDealKey;
+  private int repeat;
+
+  public MexcDealDeduplicator(int window) {
+    this.recentDeals = new LongFifoSet(window);
+  }
+
+  /** Called before the deals of each frame. */
+  public void startFrame() {
+    lastDealKey = 0;
+    repeat = 0;
+  }
+
+  /**
+   * Returns whether the deal was not seen before, and remembers it. {@code price} and {@code
+   * quantity} are packed {@link com.crypto.arbitrage.providers.mexc.common.MexcDecimal}s.
+   */
+  public boolean isNew(long price, long quantity, int tradeType, long time) {
+    long dealKey = mix(mix(mix(time, price), quantity), tradeType);
+    if (dealKey == lastDealKey) {
+      repeat++;
+    } else {
+      lastDealKey = dealKey;
+      repeat = 0;
+    }
+    return recentDeals.add(mix(dealKey, repeat));
+  }
+
+  private static long mix(long hash, long value) {
+    long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 29);
+  }
+}
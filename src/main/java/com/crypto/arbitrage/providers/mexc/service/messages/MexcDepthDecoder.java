@@ -0,0 +1,167 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decodes MEXC depth payloads from a streaming {@link JsonParser} straight into a {@link
+ * MexcDepthSnapshot}. The {@code p}/{@code v} strings are read from the parser's character buffer
+ * and scaled with the symbol's {@link MexcTickScale}, so no per-level objects or strings are
+ * created. Handles both the WebSocket depth channels and the REST {@code /api/v3/depth} snapshot.
+ * Levels priced between two ticks are dropped, see {@link MexcDepthSnapshot#addLevel}.
+ */
+@Slf4j
+@Component
+public class MexcDepthDecoder {
+
+  private static final String DATA_FIELD = "d";
+  private static final String EVENT_TIME_FIELD = "t";
+  private static final String ASKS_FIELD = "asks";
+  private static final String BIDS_FIELD = "bids";
+  private static final String VERSION_FIELD = "r";
+  private static final String PRICE_FIELD = "p";
+  private static final String QUANTITY_FIELD = "v";
+  private static final String LAST_UPDATE_ID_FIELD = "lastUpdateId";
+  private static final String TIMESTAMP_FIELD = "timestamp";
+  private static final int OFF_TICK_LOG_INTERVAL = 1000;
+
+  /**
+   * Decodes the remaining fields of a depth channel message. The parser must be positioned inside
+   * the top-level object, on a field name or on the closing brace.
+   */
+  public void decode(@NonNull JsonParser parser, @NonNull MexcDepthSnapshot snapshot)
+      throws IOException {
+    snapshot.clear();
+    while (parser.currentToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      if (DATA_FIELD.equals(field)) {
+        decodeDepthData(parser, snapshot);
+      } else if (EVENT_TIME_FIELD.equals(field)) {
+        snapshot.setEventTime(parser.getValueAsLong());
+      } else {
+        parser.skipChildren();
+      }
+      parser.nextToken();
+    }
+  }
+
+  /**
+   * Decodes a REST {@code /api/v3/depth} response, where levels are {@code [price, quantity]}
+   * arrays, into {@code snapshot}. The snapshot version is set to {@code lastUpdateId}.
+   */
+  public void decodeRestSnapshot(@NonNull JsonParser parser, @NonNull MexcDepthSnapshot snapshot)
+      throws IOException {
+    snapshot.clear();
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new IOException("Depth snapshot is not a JSON object");
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      if (ASKS_FIELD.equals(field)) {
+        decodeArrayLevels(parser, snapshot, false);
+      } else if (BIDS_FIELD.equals(field)) {
+        decodeArrayLevels(parser, snapshot, true);
+      } else if (LAST_UPDATE_ID_FIELD.equals(field)) {
+        snapshot.setVersion(parser.getValueAsLong());
+      } else if (TIMESTAMP_FIELD.equals(field)) {
+        snapshot.setEventTime(parser.getValueAsLong());
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private void decodeDepthData(@NonNull JsonParser parser, @NonNull MexcDepthSnapshot snapshot)
+      throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      if (ASKS_FIELD.equals(field)) {
+        decodeLevels(parser, snapshot, false);
+      } else if (BIDS_FIELD.equals(field)) {
+        decodeLevels(parser, snapshot, true);
+      } else if (VERSION_FIELD.equals(field)) {
+        snapshot.setVersion(MexcDecimal.mantissa(parseDecimal(parser)));
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private void decodeLevels(
+      @NonNull JsonParser parser, @NonNull MexcDepthSnapshot snapshot, boolean isBid)
+      throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return;
+    }
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      long price = 0;
+      long quantity = 0;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        if (PRICE_FIELD.equals(field)) {
+          price = parseDecimal(parser);
+        } else if (QUANTITY_FIELD.equals(field)) {
+          quantity = parseDecimal(parser);
+        } else {
+          parser.skipChildren();
+        }
+      }
+      addLevel(snapshot, isBid, price, quantity);
+    }
+  }
+
+  private void decodeArrayLevels(
+      @NonNull JsonParser parser, @NonNull MexcDepthSnapshot snapshot, boolean isBid)
+      throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return;
+    }
+    while (parser.nextToken() == JsonToken.START_ARRAY) {
+      parser.nextToken();
+      long price = parseDecimal(parser);
+      parser.nextToken();
+      long quantity = parseDecimal(parser);
+      // Skip any trailing elements of the level array
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        parser.skipChildren();
+      }
+      addLevel(snapshot, isBid, price, quantity);
+    }
+  }
+
+  /** Adds a decoded level to {@code snapshot}, warning now and then about dropped ones. */
+  static void addLevel(
+      @NonNull MexcDepthSnapshot snapshot, boolean isBid, long price, long quantity) {
+    if (!snapshot.addLevel(isBid, price, quantity)
+        && snapshot.getOffTickLevels() % OFF_TICK_LOG_INTERVAL == 1) {
+      log.warn(
+          "Depth price {} of {} is between ticks of {}, {} levels dropped so far",
+          MexcDecimal.toDouble(price),
+          snapshot.getSymbol(),
+          snapshot.getTickScale().getPips(),
+          snapshot.getOffTickLevels());
+    }
+  }
+
+  private long parseDecimal(@NonNull JsonParser parser) throws IOException {
+    return MexcDecimal.parse(
+        parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+  }
+}
@@ -0,0 +1,60 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns consecutive top-N snapshots of the {@code limit.depth} stream into level updates. Only
+ * levels whose size changed, levels that appeared and levels that dropped out of the snapshot are
+ * reported; a dropped level is reported with size 0 so that the downstream order book removes it.
+ *
+ * <p>Snapshots hold at most 20 levels per side, so levels are matched with a linear scan instead
+ * of relying on the exchange's ordering.
+ */
+@Component
+public class MexcDepthSnapshotDiffer {
+
+  @FunctionalInterface
+  public interface LevelConsumer {
+    void onLevel(String symbol, boolean isBid, int price, int size);
+  }
+
+  /**
+   * Reports the difference between the decoded and the last published levels of {@code snapshot}
+   * and then makes the decoded levels the last published ones.
+   *
+   * @return the number of reported levels
+   */
+  public int diff(@NonNull MexcDepthSnapshot snapshot, @NonNull LevelConsumer consumer) {
+    int updates = diffSide(snapshot, false, consumer) + diffSide(snapshot, true, consumer);
+    snapshot.rotate();
+    return updates;
+  }
+
+  private int diffSide(
+      @NonNull MexcDepthSnapshot snapshot, boolean isBid, @NonNull LevelConsumer consumer) {
+    String symbol = snapshot.getSymbol();
+    MexcDepthSnapshot.Side current = snapshot.side(isBid);
+    MexcDepthSnapshot.Side last = snapshot.lastSide(isBid);
+    int updates = 0;
+
+    for (int i = 0; i < last.getCount(); i++) {
+      int price = last.price(i);
+      if (current.indexOf(price) < 0) {
+        consumer.onLevel(symbol, isBid, price, 0);
+        updates++;
+      }
+    }
+    for (int i = 0; i < current.getCount(); i++) {
+      int price = current.price(i);
+      int size = current.size(i);
+      int lastIndex = last.indexOf(price);
+      if (lastIndex < 0 || last.size(lastIndex) != size) {
+        consumer.onLevel(symbol, isBid, price, size);
+        updates++;
+      }
+    }
+    return updates;
+  }
+}
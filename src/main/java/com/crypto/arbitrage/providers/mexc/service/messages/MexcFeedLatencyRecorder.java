@@ -0,0 +1,137 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import com.crypto.arbitrage.utilite.LatencyHistogram;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-symbol, per-channel latency histograms of the public market data path.
+ *
+ * <p>Each dispatched frame is split into stages: exchange event time to socket receipt (wall
+ * clock, millisecond resolution, includes any clock offset to the exchange), waiting in the
+ * connection's message queue, decoding, and applying the update and delivering it to the
+ * listeners. Book updates and listener callbacks are interleaved level by level, so the last stage
+ * covers both. All values are recorded in nanoseconds.
+ *
+ * <p>A symbol is always read by a single consumer thread, which is the only writer of its
+ * histograms; readers may take percentiles at any time. Histograms are kept in an array indexed by
+ * the {@link MexcInstrumentRegistry} id, which is grown under a lock the first time an instrument
+ * records.
+ */
+@Component
+public class MexcFeedLatencyRecorder {
+
+  public enum Channel {
+    DEALS,
+    DEPTH,
+    INCREMENTAL_DEPTH
+  }
+
+  public enum Stage {
+    EXCHANGE_TO_RECEIPT,
+    QUEUE_WAIT,
+    DECODE,
+    DELIVERY,
+    RECEIPT_TO_DELIVERY
+  }
+
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+
+  @Getter private final boolean enabled;
+  private final MexcInstrumentRegistry instrumentRegistry;
+  private volatile LatencyHistogram[][][] histograms = new LatencyHistogram[0][][];
+
+  public MexcFeedLatencyRecorder(
+      @Value("${mexc.latency.enabled:true}") boolean enabled,
+      @NonNull MexcInstrumentRegistry instrumentRegistry) {
+    this.enabled = enabled;
+    this.instrumentRegistry = instrumentRegistry;
+  }
+
+  /**
+   * Records one frame. Time stamps are {@link System#nanoTime()} values, the exchange time is in
+   * epoch milliseconds and is ignored when not positive.
+   */
+  public void record(
+      int instrumentId,
+      @NonNull Channel channel,
+      long exchangeTimeMillis,
+      long receivedNanos,
+      long dispatchedNanos,
+      long decodedNanos,
+      long deliveredNanos) {
+    LatencyHistogram[][][] all = histograms;
+    LatencyHistogram[][] instrumentHistograms =
+        instrumentId < all.length ? all[instrumentId] : null;
+    if (instrumentHistograms == null) {
+      instrumentHistograms = addHistograms(instrumentId);
+    }
+    LatencyHistogram[] stages = instrumentHistograms[channel.ordinal()];
+    if (exchangeTimeMillis > 0) {
+      long receivedMillis =
+          System.currentTimeMillis() - (System.nanoTime() - receivedNanos) / NANOS_PER_MILLI;
+      stages[Stage.EXCHANGE_TO_RECEIPT.ordinal()].record(
+          (receivedMillis - exchangeTimeMillis) * NANOS_PER_MILLI);
+    }
+    stages[Stage.QUEUE_WAIT.ordinal()].record(dispatchedNanos - receivedNanos);
+    stages[Stage.DECODE.ordinal()].record(decodedNanos - dispatchedNanos);
+    stages[Stage.DELIVERY.ordinal()].record(deliveredNanos - decodedNanos);
+    stages[Stage.RECEIPT_TO_DELIVERY.ordinal()].record(deliveredNanos - receivedNanos);
+  }
+
+  private synchronized LatencyHistogram[][] addHistograms(int instrumentId) {
+    LatencyHistogram[][][] all = histograms;
+    if (instrumentId < all.length && all[instrumentId] != null) {
+      return all[instrumentId];
+    }
+    LatencyHistogram[][][] grown = Arrays.copyOf(all, Math.max(all.length, instrumentId + 1));
+    grown[instrumentId] = newHistograms();
+    histograms = grown;
+    return grown[instrumentId];
+  }
+
+  /** Drops all samples; a frame being recorded concurrently may be lost. */
+  public synchronized void reset() {
+    histograms = new LatencyHistogram[0][][];
+  }
+
+  /** The symbols that have samples, in instrument id order. */
+  public Set<String> getSymbols() {
+    LatencyHistogram[][][] all = histograms;
+    Set<String> symbols = new LinkedHashSet<>();
+    for (int id = 0; id < all.length; id++) {
+      if (all[id] != null) {
+        symbols.add(instrumentRegistry.getSymbol(id));
+      }
+    }
+    return symbols;
+  }
+
+  /** Returns the histogram of one stage, or {@code null} if the symbol has no samples yet. */
+  public LatencyHistogram getHistogram(
+      @NonNull String symbol, @NonNull Channel channel, @NonNull Stage stage) {
+    int id = instrumentRegistry.idOf(symbol);
+    LatencyHistogram[][][] all = histograms;
+    LatencyHistogram[][] symbolHistograms =
+        id == MexcInstrumentRegistry.UNKNOWN || id >= all.length ? null : all[id];
+    return symbolHistograms == null
+        ? null
+        : symbolHistograms[channel.ordinal()][stage.ordinal()];
+  }
+
+  private static LatencyHistogram[][] newHistograms() {
+    LatencyHistogram[][] result =
+        new LatencyHistogram[Channel.values().length][Stage.values().length];
+    for (LatencyHistogram[] stages : result) {
+      for (int i = 0; i < stages.length; i++) {
+        stages[i] = new LatencyHistogram();
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,230 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import com.crypto.arbitrage.providers.mexc.model.event.MexcFeedStaleEvent;
+import com.crypto.arbitrage.providers.mexc.model.instrument.MexcUnsubscribedInstrumentEvent;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcConnectionTimer;
+import com.crypto.arbitrage.utilite.HashedWheelTimer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flags symbols whose public market data has gone silent for longer than their own message rate
+ * makes plausible, e.g. behind a half-open socket or a dropped subscription.
+ *
+ * <p>Each symbol learns its expected gap between frames as a moving average, from its first frame
+ * on. A symbol is stale once it has been silent for {@code silenceFactor} expected gaps, but never
+ * less than {@code minSilenceMs} and never more than {@code maxSilenceMs}; until it has seen
+ * {@value #WARM_UP_FRAMES} frames its budget is {@code maxSilenceMs}. A check on the {@link
+ * MexcConnectionTimer} every {@code checkIntervalMs} publishes a {@link MexcFeedStaleEvent} when
+ * a symbol goes stale and when its frames resume; the {@code MexcProvider} then resubscribes the
+ * symbol and reports its market as closed until it resumes. Only subscribed symbols are checked,
+ * so replayed instruments are never flagged.
+ *
+ * <p>A symbol is always read by a single consumer thread, the only writer of its entry; entries
+ * are kept in an array indexed by the {@link MexcInstrumentRegistry} id, which is grown under a
+ * lock the first time a symbol is seen.
+ */
+@Slf4j
+@Component
+public class MexcFeedLivenessMonitor {
+
+  static final int WARM_UP_FRAMES = 16;
+  // The moving average takes 1/8 of each new gap
+  private static final int GAP_SMOOTHING_SHIFT = 3;
+
+  /** The liveness of one symbol. */
+  @Getter
+  public static final class SymbolLiveness {
+    private final String symbol;
+    private volatile long lastFrameNanos;
+    private volatile long meanGapNanos;
+    private volatile long frames;
+    private volatile boolean stale;
+    // Check thread only: the last frame before the symbol was flagged
+    @Getter(AccessLevel.NONE)
+    private long staleFrameNanos;
+
+    private SymbolLiveness(String symbol, long frameNanos) {
+      this.symbol = symbol;
+      this.lastFrameNanos = frameNanos;
+      this.frames = 1;
+    }
+  }
+
+  @Getter private final boolean enabled;
+  private final long silenceFactor;
+  private final long minSilenceNanos;
+  private final long maxSilenceNanos;
+  private final long checkIntervalMs;
+  private final MexcInstrumentRegistry instrumentRegistry;
+  private final HashedWheelTimer timer;
+  private final ApplicationEventPublisher publisher;
+  private volatile SymbolLiveness[] symbols = new SymbolLiveness[0];
+  private volatile HashedWheelTimer.Timeout checkTimeout;
+
+  @Autowired
+  public MexcFeedLivenessMonitor(
+      @Value("${mexc.ws.liveness.enabled:true}") boolean enabled,
+      @Value("${mexc.ws.liveness.silenceFactor:10}") long silenceFactor,
+      @Value("${mexc.ws.liveness.minSilenceMs:500}") long minSilenceMs,
+      @Value("${mexc.ws.liveness.maxSilenceMs:5000}") long maxSilenceMs,
+      @Value("${mexc.ws.liveness.checkIntervalMs:100}") long checkIntervalMs,
+      @NonNull MexcInstrumentRegistry instrumentRegistry,
+      @NonNull HashedWheelTimer timer,
+      @NonNull ApplicationEventPublisher publisher) {
+    this.enabled = enabled;
+    this.silenceFactor = silenceFactor;
+    this.minSilenceNanos = TimeUnit.MILLISECONDS.toNanos(minSilenceMs);
+    this.maxSilenceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(minSilenceMs, maxSilenceMs));
+    this.checkIntervalMs = checkIntervalMs;
+    this.instrumentRegistry = instrumentRegistry;
+    this.timer = timer;
+    this.publisher = publisher;
+  }
+
+  @PostConstruct
+  public void start() {
+    if (enabled && checkIntervalMs > 0) {
+      checkTimeout =
+          timer.scheduleWithFixedDelay(
+              this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Notes a market data frame of a symbol.
+   *
+   * @param receivedNanos {@link System#nanoTime()} at which the frame was read off the socket
+   */
+  public void onFrame(int instrumentId, long receivedNanos) {
+    if (!enabled) {
+      return;
+    }
+    SymbolLiveness[] all = symbols;
+    SymbolLiveness liveness = instrumentId < all.length ? all[instrumentId] : null;
+    if (liveness == null) {
+      addSymbol(instrumentId, receivedNanos);
+      return;
+    }
+    long gap = Math.min(receivedNanos - liveness.lastFrameNanos, maxSilenceNanos);
+    if (gap < 0) {
+      // Frames of redundant legs may be stamped out of order
+      return;
+    }
+    liveness.meanGapNanos =
+        liveness.frames == 1
+            ? gap
+            : liveness.meanGapNanos + ((gap - liveness.meanGapNanos) >> GAP_SMOOTHING_SHIFT);
+    liveness.frames = liveness.frames + 1;
+    liveness.lastFrameNanos = receivedNanos;
+  }
+
+  /** How long {@code liveness} may be silent before it is stale. */
+  public long getSilenceBudgetNanos(@NonNull SymbolLiveness liveness) {
+    if (liveness.frames < WARM_UP_FRAMES) {
+      return maxSilenceNanos;
+    }
+    long budget = liveness.meanGapNanos * silenceFactor;
+    return Math.max(minSilenceNanos, Math.min(maxSilenceNanos, budget));
+  }
+
+  /** Returns the liveness of a symbol, or {@code null} if it has had no frames. */
+  public SymbolLiveness getLiveness(@NonNull String symbol) {
+    int id = instrumentRegistry.idOf(symbol);
+    SymbolLiveness[] all = symbols;
+    return id == MexcInstrumentRegistry.UNKNOWN || id >= all.length ? null : all[id];
+  }
+
+  public boolean isStale(@NonNull String symbol) {
+    SymbolLiveness liveness = getLiveness(symbol);
+    return liveness != null && liveness.stale;
+  }
+
+  /** The symbols that have had frames, in instrument id order. */
+  public SymbolLiveness[] getSymbols() {
+    return Arrays.stream(symbols).filter(Objects::nonNull).toArray(SymbolLiveness[]::new);
+  }
+
+  /**
+   * Flags symbols silent beyond their budget and clears those whose frames resumed; runs every
+   * {@code checkIntervalMs} on the timer.
+   */
+  public void check() {
+    long now = System.nanoTime();
+    for (SymbolLiveness liveness : symbols) {
+      // Replayed and unsubscribed instruments are not expected to be live
+      if (liveness == null || !instrumentRegistry.isSubscribed(liveness.symbol)) {
+        continue;
+      }
+      long lastFrameNanos = liveness.lastFrameNanos;
+      long silentMs = TimeUnit.NANOSECONDS.toMillis(now - lastFrameNanos);
+      if (!liveness.stale && now - lastFrameNanos > getSilenceBudgetNanos(liveness)) {
+        liveness.stale = true;
+        liveness.staleFrameNanos = lastFrameNanos;
+        log.warn(
+            "Method check: no MEXC market data for {} in {} ms, expected a frame every {} us",
+            liveness.symbol,
+            silentMs,
+            TimeUnit.NANOSECONDS.toMicros(liveness.meanGapNanos));
+        publisher.publishEvent(new MexcFeedStaleEvent(liveness.symbol, true, silentMs));
+      } else if (liveness.stale && lastFrameNanos != liveness.staleFrameNanos) {
+        liveness.stale = false;
+        long resumedAfterMs =
+            TimeUnit.NANOSECONDS.toMillis(lastFrameNanos - liveness.staleFrameNanos);
+        log.info(
+            "Method check: MEXC market data for {} resumed after {} ms",
+            liveness.symbol,
+            resumedAfterMs);
+        publisher.publishEvent(new MexcFeedStaleEvent(liveness.symbol, false, resumedAfterMs));
+      }
+    }
+  }
+
+  @EventListener
+  public void onUnsubscribed(@NonNull MexcUnsubscribedInstrumentEvent event) {
+    int id = instrumentRegistry.idOf(event.getSymbol());
+    if (id != MexcInstrumentRegistry.UNKNOWN) {
+      removeSymbol(id);
+    }
+  }
+
+  private synchronized void addSymbol(int instrumentId, long frameNanos) {
+    SymbolLiveness[] all = symbols;
+    if (instrumentId < all.length && all[instrumentId] != null) {
+      return;
+    }
+    SymbolLiveness[] grown = Arrays.copyOf(all, Math.max(all.length, instrumentId + 1));
+    grown[instrumentId] =
+        new SymbolLiveness(instrumentRegistry.getSymbol(instrumentId), frameNanos);
+    symbols = grown;
+  }
+
+  private synchronized void removeSymbol(int instrumentId) {
+    SymbolLiveness[] all = symbols;
+    if (instrumentId < all.length && all[instrumentId] != null) {
+      SymbolLiveness[] copy = all.clone();
+      copy[instrumentId] = null;
+      symbols = copy;
+    }
+  }
+
+  @PreDestroy
+  public void onShutdown() {
+    HashedWheelTimer.Timeout timeout = checkTimeout;
+    if (timeout != null) {
+      timeout.cancel();
+    }
+  }
+}
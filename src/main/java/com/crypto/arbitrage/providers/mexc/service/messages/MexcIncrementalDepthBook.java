@@ -0,0 +1,177 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.crypto.arbitrage.utilite.IntIntHashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local book of one symbol fed by the incremental {@code increase.depth} stream.
+ *
+ * <p>Deltas carry a version that grows by one per message. Until a REST snapshot has been applied,
+ * or after a version gap, deltas are buffered and the caller is asked to fetch a snapshot. When the
+ * snapshot arrives, buffered deltas up to its {@code lastUpdateId} are dropped and the rest are
+ * replayed; the first one must continue the snapshot version, otherwise another snapshot is
+ * requested. Levels are kept so that a resync can report levels that disappeared with size 0.
+ *
+ * <p>Deltas arrive on the stream thread and snapshots on the REST thread, so all state changes are
+ * synchronized on the book.
+ */
+@Slf4j
+public class MexcIncrementalDepthBook {
+
+  private static final int INITIAL_LEVELS = 1024;
+  private static final int MAX_BUFFERED_DELTAS = 10_000;
+
+  public enum State {
+    AWAITING_SNAPSHOT,
+    SNAPSHOT_REQUESTED,
+    SYNCED
+  }
+
+  @Getter private final String symbol;
+  private final IntIntHashMap bids = new IntIntHashMap(INITIAL_LEVELS, 0);
+  private final IntIntHashMap asks = new IntIntHashMap(INITIAL_LEVELS, 0);
+  private final Deque<MexcDepthSnapshot> bufferedDeltas = new ArrayDeque<>();
+  @Getter private State state = State.AWAITING_SNAPSHOT;
+  @Getter private long lastVersion;
+  @Getter private long gapCount;
+
+  public MexcIncrementalDepthBook(@NonNull String symbol) {
+    this.symbol = symbol;
+  }
+
+  /**
+   * Applies a delta, or buffers it while the book is not in sync.
+   *
+   * @return {@code true} if the caller should fetch a new REST snapshot
+   */
+  public synchronized boolean onDelta(
+      @NonNull MexcDepthSnapshot delta, @NonNull MexcDepthSnapshotDiffer.LevelConsumer consumer) {
+    if (state != State.SYNCED) {
+      buffer(delta);
+      return requestSnapshot();
+    }
+    long version = delta.getVersion();
+    if (version <= lastVersion) {
+      return false;
+    }
+    if (version != lastVersion + 1) {
+      log.warn(
+          "Depth version gap for {}: expected {}, got {}. Resyncing from REST snapshot.",
+          symbol,
+          lastVersion + 1,
+          version);
+      gapCount++;
+      state = State.AWAITING_SNAPSHOT;
+      bufferedDeltas.clear();
+      buffer(delta);
+      return requestSnapshot();
+    }
+    apply(delta, consumer);
+    return false;
+  }
+
+  /**
+   * Replaces the book with a REST snapshot and replays the buffered deltas.
+   *
+   * @return {@code true} if the snapshot did not line up with the buffered deltas and a new one
+   *     should be fetched
+   */
+  public synchronized boolean onSnapshot(
+      @NonNull MexcDepthSnapshot snapshot,
+      @NonNull MexcDepthSnapshotDiffer.LevelConsumer consumer) {
+    replaceSide(bids, snapshot.getBids(), true, consumer);
+    replaceSide(asks, snapshot.getAsks(), false, consumer);
+    lastVersion = snapshot.getVersion();
+    state = State.SYNCED;
+
+    while (!bufferedDeltas.isEmpty()) {
+      MexcDepthSnapshot delta = bufferedDeltas.pollFirst();
+      long version = delta.getVersion();
+      if (version <= lastVersion) {
+        continue;
+      }
+      if (version != lastVersion + 1) {
+        log.warn(
+            "Depth snapshot {} for {} does not line up with buffered delta {}. Fetching again.",
+            lastVersion,
+            symbol,
+            version);
+        bufferedDeltas.addFirst(delta);
+        state = State.AWAITING_SNAPSHOT;
+        return requestSnapshot();
+      }
+      apply(delta, consumer);
+    }
+    log.info("Depth book for {} is in sync at version {}", symbol, lastVersion);
+    return false;
+  }
+
+  /** Allows the next delta to trigger another snapshot request after a failed fetch. */
+  public synchronized void onSnapshotFailed() {
+    if (state == State.SNAPSHOT_REQUESTED) {
+      state = State.AWAITING_SNAPSHOT;
+    }
+  }
+
+  private boolean requestSnapshot() {
+    if (state == State.AWAITING_SNAPSHOT) {
+      state = State.SNAPSHOT_REQUESTED;
+      return true;
+    }
+    return false;
+  }
+
+  private void buffer(@NonNull MexcDepthSnapshot delta) {
+    if (bufferedDeltas.size() == MAX_BUFFERED_DELTAS) {
+      bufferedDeltas.pollFirst();
+    }
+    bufferedDeltas.addLast(delta.copy());
+  }
+
+  private void apply(
+      @NonNull MexcDepthSnapshot delta, @NonNull MexcDepthSnapshotDiffer.LevelConsumer consumer) {
+    applySide(bids, delta.getBids(), true, consumer);
+    applySide(asks, delta.getAsks(), false, consumer);
+    lastVersion = delta.getVersion();
+  }
+
+  private void applySide(
+      @NonNull IntIntHashMap levels,
+      @NonNull MexcDepthSnapshot.Side updates,
+      boolean isBid,
+      @NonNull MexcDepthSnapshotDiffer.LevelConsumer consumer) {
+    for (int i = 0; i < updates.getCount(); i++) {
+      int price = updates.price(i);
+      int size = updates.size(i);
+      if (size == 0) {
+        levels.remove(price);
+      } else {
+        levels.put(price, size);
+      }
+      consumer.onLevel(symbol, isBid, price, size);
+    }
+  }
+
+  private void replaceSide(
+      @NonNull IntIntHashMap levels,
+      @NonNull MexcDepthSnapshot.Side snapshotSide,
+      boolean isBid,
+      @NonNull MexcDepthSnapshotDiffer.LevelConsumer consumer) {
+    levels.forEach(
+        (price, size) -> {
+          if (snapshotSide.indexOf(price) < 0) {
+            consumer.onLevel(symbol, isBid, price, 0);
+          }
+        });
+    levels.clear();
+    for (int i = 0; i < snapshotSide.getCount(); i++) {
+      levels.put(snapshotSide.price(i), snapshotSide.size(i));
+      consumer.onLevel(symbol, isBid, snapshotSide.price(i), snapshotSide.size(i));
+    }
+  }
+}
@@ -0,0 +1,282 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import velox.api.layer1.data.InstrumentInfo;
+
+/**
+ * The known MEXC instruments, each with a dense int id, and their tick scale and market data state
+ * in arrays indexed by that id.
+ *
+ * <p>A symbol gets the next id the first time it is registered and keeps it, also across
+ * unsubscribe and subscribe, so an id never changes its instrument. Registration is rare and
+ * publishes a new copy of the table under the registry's lock; lookups go through one volatile
+ * read and never lock. A frame resolves its symbol once, directly from the channel string or the
+ * protobuf bytes without extracting a substring, and everything after that is indexed by id.
+ *
+ * <p>Symbols subscribed on the legs of the redundant feed get a {@link MexcDealDeduplicator}, as
+ * every leg's copy of their deals reaches the decoder.
+ */
+@Component
+public class MexcInstrumentRegistry {
+
+  public static final int UNKNOWN = -1;
+  // Recent deals remembered per redundant symbol, far more than two legs are ever apart
+  static final int DEAL_DEDUP_WINDOW = 4096;
+
+  private final Set<String> redundantSymbols = new HashSet<>();
+  private volatile Table table = new Table(null, 0);
+
+  public MexcInstrumentRegistry() {
+    this("");
+  }
+
+  @Autowired
+  public MexcInstrumentRegistry(@Value("${mexc.ws.redundant.symbols:}") String redundantSymbols) {
+    for (String symbol : redundantSymbols.split(",")) {
+      if (!symbol.isBlank()) {
+        this.redundantSymbols.add(symbol.trim());
+      }
+    }
+  }
+
+  /**
+   * Registers an instrument for a live subscription, with fresh depth state.
+   *
+   * @return the instrument id, or {@link #UNKNOWN} if the symbol is already subscribed
+   */
+  public synchronized int subscribe(
+      @NonNull InstrumentInfo instrumentInfo, @NonNull MexcDepthMode depthMode) {
+    if (isSubscribed(instrumentInfo.symbol)) {
+      return UNKNOWN;
+    }
+    return put(instrumentInfo, depthMode, true);
+  }
+
+  /**
+   * Registers an instrument without subscribing to it, e.g. for replay, with fresh depth state.
+   * Leaves the subscription of the symbol as it is.
+   *
+   * @return the instrument id
+   */
+  public synchronized int register(
+      @NonNull InstrumentInfo instrumentInfo, @NonNull MexcDepthMode depthMode) {
+    return put(instrumentInfo, depthMode, isSubscribed(instrumentInfo.symbol));
+  }
+
+  /**
+   * Marks a symbol as no longer subscribed. Its id and state are kept, so that frames still in
+   * flight are decoded as before.
+   *
+   * @return {@code false} if the symbol was not subscribed
+   */
+  public synchronized boolean unsubscribe(@NonNull String symbol) {
+    int id = idOf(symbol);
+    if (id == UNKNOWN || !table.subscribed[id]) {
+      return false;
+    }
+    Table next = new Table(table, table.size);
+    next.subscribed[id] = false;
+    table = next;
+    return true;
+  }
+
+  private int put(
+      @NonNull InstrumentInfo instrumentInfo,
+      @NonNull MexcDepthMode depthMode,
+      boolean subscribed) {
+    String symbol = instrumentInfo.symbol;
+    Table current = table;
+    int id = current.find(symbol, 0, symbol.length());
+    Table next;
+    if (id == UNKNOWN) {
+      id = current.size;
+      next = new Table(current, current.size + 1);
+      next.symbols[id] = symbol;
+      next.index();
+    } else {
+      next = new Table(current, current.size);
+    }
+    MexcTickScale tickScale = MexcTickScale.of(instrumentInfo);
+    next.instruments[id] = instrumentInfo;
+    next.tickScales[id] = tickScale;
+    next.depthSnapshots[id] = new MexcDepthSnapshot(symbol, tickScale);
+    next.incrementalBooks[id] =
+        depthMode.isIncremental() ? new MexcIncrementalDepthBook(symbol) : null;
+    next.dealDeduplicators[id] =
+        redundantSymbols.contains(symbol) ? new MexcDealDeduplicator(DEAL_DEDUP_WINDOW) : null;
+    next.subscribed[id] = subscribed;
+    table = next;
+    return id;
+  }
+
+  /** Returns the id of {@code symbol}, or {@link #UNKNOWN}. */
+  public int idOf(@NonNull String symbol) {
+    return table.find(symbol, 0, symbol.length());
+  }
+
+  /**
+   * Returns the id of the symbol at {@code text[from, to)}, e.g. inside a channel name, or {@link
+   * #UNKNOWN}.
+   */
+  public int idOf(@NonNull String text, int from, int to) {
+    return table.find(text, from, to);
+  }
+
+  /** Returns the id of the ASCII symbol at {@code bytes[offset, offset + length)}, or UNKNOWN. */
+  public int idOf(@NonNull byte[] bytes, int offset, int length) {
+    return table.find(bytes, offset, length);
+  }
+
+  public boolean isSubscribed(@NonNull String symbol) {
+    Table current = table;
+    int id = current.find(symbol, 0, symbol.length());
+    return id != UNKNOWN && current.subscribed[id];
+  }
+
+  /** Ids are {@code 0} to {@code getInstrumentCount() - 1}. */
+  public int getInstrumentCount() {
+    return table.size;
+  }
+
+  public String getSymbol(int id) {
+    return table.symbols[id];
+  }
+
+  public InstrumentInfo getInstrumentInfo(int id) {
+    return table.instruments[id];
+  }
+
+  /** Converts the instrument's decimal prices and quantities into ticks and size units. */
+  public MexcTickScale getTickScale(int id) {
+    return table.tickScales[id];
+  }
+
+  /** The reusable depth buffer of the instrument, owned by the thread decoding its stream. */
+  public MexcDepthSnapshot getDepthSnapshot(int id) {
+    return table.depthSnapshots[id];
+  }
+
+  /** The incremental book of the instrument, or {@code null} if it uses limited depth. */
+  public MexcIncrementalDepthBook getIncrementalBook(int id) {
+    return table.incrementalBooks[id];
+  }
+
+  /** The deal filter of the instrument, or {@code null} if it is not on the redundant feed. */
+  public MexcDealDeduplicator getDealDeduplicator(int id) {
+    return table.dealDeduplicators[id];
+  }
+
+  /**
+   * An immutable snapshot of the registry once published. Symbols are found through an open
+   * addressing index whose hash is {@link String#hashCode()}, computed over the looked up range.
+   */
+  private static final class Table {
+
+    private static final int EMPTY = -1;
+
+    private final int size;
+    private final String[] symbols;
+    private final InstrumentInfo[] instruments;
+    private final MexcTickScale[] tickScales;
+    private final MexcDepthSnapshot[] depthSnapshots;
+    private final MexcIncrementalDepthBook[] incrementalBooks;
+    private final MexcDealDeduplicator[] dealDeduplicators;
+    private final boolean[] subscribed;
+    private int[] slots;
+    private int mask;
+
+    /** Copies {@code previous}, or starts empty, with room for {@code size} instruments. */
+    private Table(Table previous, int size) {
+      this.size = size;
+      if (previous == null) {
+        symbols = new String[size];
+        instruments = new InstrumentInfo[size];
+        tickScales = new MexcTickScale[size];
+        depthSnapshots = new MexcDepthSnapshot[size];
+        incrementalBooks = new MexcIncrementalDepthBook[size];
+        dealDeduplicators = new MexcDealDeduplicator[size];
+        subscribed = new boolean[size];
+        index();
+      } else {
+        symbols = Arrays.copyOf(previous.symbols, size);
+        instruments = Arrays.copyOf(previous.instruments, size);
+        tickScales = Arrays.copyOf(previous.tickScales, size);
+        depthSnapshots = Arrays.copyOf(previous.depthSnapshots, size);
+        incrementalBooks = Arrays.copyOf(previous.incrementalBooks, size);
+        dealDeduplicators = Arrays.copyOf(previous.dealDeduplicators, size);
+        subscribed = Arrays.copyOf(previous.subscribed, size);
+        slots = previous.slots;
+        mask = previous.mask;
+      }
+    }
+
+    /** Rebuilds the index after a symbol was added; kept at most half full. */
+    private void index() {
+      int capacity = 2;
+      while (capacity < size * 2) {
+        capacity <<= 1;
+      }
+      slots = new int[capacity];
+      Arrays.fill(slots, EMPTY);
+      mask = capacity - 1;
+      for (int id = 0; id < size; id++) {
+        int slot = spread(symbols[id].hashCode()) & mask;
+        while (slots[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = id;
+      }
+    }
+
+    private int find(String text, int from, int to) {
+      int hash = 0;
+      for (int i = from; i < to; i++) {
+        hash = 31 * hash + text.charAt(i);
+      }
+      int length = to - from;
+      for (int slot = spread(hash) & mask; slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+        String symbol = symbols[slots[slot]];
+        if (symbol.length() == length && text.regionMatches(from, symbol, 0, length)) {
+          return slots[slot];
+        }
+      }
+      return UNKNOWN;
+    }
+
+    private int find(byte[] bytes, int offset, int length) {
+      int hash = 0;
+      for (int i = offset; i < offset + length; i++) {
+        hash = 31 * hash + (bytes[i] & 0xFF);
+      }
+      for (int slot = spread(hash) & mask; slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+        String symbol = symbols[slots[slot]];
+        if (symbol.length() == length && matches(symbol, bytes, offset)) {
+          return slots[slot];
+        }
+      }
+      return UNKNOWN;
+    }
+
+    private static boolean matches(String symbol, byte[] bytes, int offset) {
+      for (int i = 0; i < symbol.length(); i++) {
+        if (symbol.charAt(i) != (bytes[offset + i] & 0xFF)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static int spread(int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
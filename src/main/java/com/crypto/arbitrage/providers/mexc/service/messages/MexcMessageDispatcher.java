@@ -1,43 +1,161 @@
 package com.crypto.arbitrage.providers.mexc.service.messages;
 
+import static com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader.fieldNumber;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader;
 import com.crypto.arbitrage.providers.mexc.model.account.MexcAccountBalance;
 import com.crypto.arbitrage.providers.mexc.model.common.MexcSubscriptionResp;
-import com.crypto.arbitrage.providers.mexc.model.depth.BookDepthResponse;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcExecutionInfo;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderResponse;
 import com.crypto.arbitrage.providers.mexc.model.trade.MexcTradeStream;
-import com.crypto.arbitrage.service.messaging.PublishSubscribeService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+/**
+ * Routes raw MEXC WebSocket frames to {@link MexcDataProcessor}.
+ *
+ * <p>The frame is read once with a streaming {@link JsonParser}: the top-level {@code c} field
+ * selects the channel and the same parser is then handed to a pre-built {@link ObjectReader}, so
+ * no intermediate {@code JsonNode} tree is created. MEXC always sends {@code c} as the first
+ * field; if it is not, the frame is re-read from the start with a fresh parser. Depth frames are
+ * decoded by {@link MexcDepthDecoder} into the symbol's reusable {@link MexcDepthSnapshot}.
+ *
+ * <p>Binary frames are protobuf {@code PushDataV3ApiWrapper} messages. The wrapper is scanned once
+ * for the symbol, send time and body, and the body is decoded by {@link MexcProtobufDecoder} into
+ * the same processor calls as the JSON channels.
+ *
+ * <p>The symbol of a market data frame is resolved once, from the channel or the protobuf bytes
+ * in place, to its {@link MexcInstrumentRegistry} id; decoding and processing go by that id.
+ *
+ * <p>Public market data frames are timed from socket receipt through decoding to the return of the
+ * processor call, which is after the listeners have been notified, and the stages are recorded in
+ * {@link MexcFeedLatencyRecorder}. Their receipt times also feed the {@link
+ * MexcFeedLivenessMonitor}.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class MexcMessageDispatcher {
-  private final PublishSubscribeService publishSubscribeService;
+
+  private static final String CHANNEL_FIELD = "c";
+  private static final String ID_FIELD = "id";
+  private static final String CODE_FIELD = "code";
+  private static final String MSG_FIELD = "msg";
+  private static final char CHANNEL_SEPARATOR = '@';
 
   private static final String DEAL_CHANNEL = "public.deals.v3.api";
   private static final String DEPTH_CHANNEL = "public.limit.depth.v3.api";
+  private static final String INCREMENTAL_DEPTH_CHANNEL = "public.increase.depth.v3.api";
   private static final String BALANCE_UPDATES_CHANNEL = "private.account.v3.api";
   private static final String ORDER_UPDATES_CHANNEL = "private.orders.v3.api";
   private static final String ACCOUNT_DEALS_CHANNEL = "private.deals.v3.api";
 
+  // PushDataV3ApiWrapper fields
+  private static final int PB_CHANNEL_FIELD = 1;
+  private static final int PB_SYMBOL_FIELD = 3;
+  private static final int PB_SEND_TIME_FIELD = 6;
+  private static final int PB_PUBLIC_DEALS_FIELD = 301;
+  private static final int PB_PUBLIC_INCREASE_DEPTHS_FIELD = 302;
+  private static final int PB_PUBLIC_LIMIT_DEPTHS_FIELD = 303;
+
   private final ObjectMapper objectMapper;
   private final MexcDataProcessor dataProcessor;
+  private final MexcInstrumentRegistry instrumentRegistry;
+  private final MexcDepthDecoder depthDecoder;
+  private final MexcProtobufDecoder protobufDecoder;
+  private final MexcFeedLatencyRecorder latencyRecorder;
+  private final MexcFeedLivenessMonitor livenessMonitor;
+  private final MexcProtobufDecoder.DealConsumer dealPublisher = this::publishDeal;
+  private final ObjectReader tradeStreamReader;
+  private final ObjectReader accountBalanceReader;
+  private final ObjectReader orderResponseReader;
+  private final ObjectReader executionInfoReader;
+  private final ObjectReader subscriptionRespReader;
+
+  @Autowired
+  public MexcMessageDispatcher(
+      ObjectMapper objectMapper,
+      MexcDataProcessor dataProcessor,
+      MexcInstrumentRegistry instrumentRegistry,
+      MexcDepthDecoder depthDecoder,
+      MexcProtobufDecoder protobufDecoder,
+      MexcFeedLatencyRecorder latencyRecorder,
+      MexcFeedLivenessMonitor livenessMonitor) {
+    this.objectMapper = objectMapper;
+    this.dataProcessor = dataProcessor;
+    this.instrumentRegistry = instrumentRegistry;
+    this.depthDecoder = depthDecoder;
+    this.protobufDecoder = protobufDecoder;
+    this.latencyRecorder = latencyRecorder;
+    this.livenessMonitor = livenessMonitor;
+    this.tradeStreamReader = objectMapper.readerFor(MexcTradeStream.class);
+    this.accountBalanceReader = objectMapper.readerFor(MexcAccountBalance.class);
+    this.orderResponseReader = objectMapper.readerFor(MexcOrderResponse.class);
+    this.executionInfoReader = objectMapper.readerFor(MexcExecutionInfo.class);
+    this.subscriptionRespReader = objectMapper.readerFor(MexcSubscriptionResp.class);
+  }
 
   public void dispatchMessage(@NonNull String message) {
-    try {
-      JsonNode root = objectMapper.readTree(message);
+    dispatchMessage(message, System.nanoTime());
+  }
+
+  /**
+   * Dispatches a text frame.
+   *
+   * @param receivedNanos {@link System#nanoTime()} at which the frame was read off the socket
+   */
+  public void dispatchMessage(@NonNull String message, long receivedNanos) {
+    long dispatchedNanos = latencyStamp();
+    try (JsonParser parser = objectMapper.getFactory().createParser(message)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        processUnrecognizedMessage(message);
+        return;
+      }
+
+      String channel = null;
+      boolean channelIsFirstField = true;
+      boolean hasId = false;
+      boolean hasCode = false;
+      boolean hasMsg = false;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        if (CHANNEL_FIELD.equals(field)) {
+          channel = parser.getValueAsString();
+          break;
+        }
+        channelIsFirstField = false;
+        switch (field) {
+          case ID_FIELD -> hasId = true;
+          case CODE_FIELD -> hasCode = true;
+          case MSG_FIELD -> hasMsg = true;
+          default -> {}
+        }
+        parser.skipChildren();
+      }
 
-      if (isChannelMessage(root)) {
-        processChannelMessage(root, message);
-      } else if (isSubscriptionMessage(root)) {
-        processSubscriptionMessage(root);
+      if (channel != null && !channel.isEmpty()) {
+        if (channelIsFirstField) {
+          // Position the parser on the field that follows "c"
+          parser.nextToken();
+          processChannelMessage(channel, parser, message, receivedNanos, dispatchedNanos);
+        } else {
+          try (JsonParser replayParser = objectMapper.getFactory().createParser(message)) {
+            replayParser.nextToken();
+            replayParser.nextToken();
+            processChannelMessage(
+                channel, replayParser, message, receivedNanos, dispatchedNanos);
+          }
+        }
+      } else if (hasId && hasCode && hasMsg) {
+        processSubscriptionMessage(message);
       } else {
         processUnrecognizedMessage(message);
       }
@@ -46,91 +164,240 @@ public class MexcMessageDispatcher {
     }
   }
 
-  private boolean isChannelMessage(@NonNull JsonNode root) {
-    return root.hasNonNull("c") && !root.get("c").asText().isEmpty();
+  public void dispatchBinaryMessage(byte[] message) {
+    dispatchBinaryMessage(message, System.nanoTime());
   }
 
-  private boolean isSubscriptionMessage(@NonNull JsonNode root) {
-    return root.has("id") && root.has("code") && root.has("msg");
+  /** Dispatches a binary frame, see {@link #dispatchMessage(String, long)}. */
+  public void dispatchBinaryMessage(byte[] message, long receivedNanos) {
+    long dispatchedNanos = latencyStamp();
+    try {
+      MexcProtobufReader reader = new MexcProtobufReader(message);
+      String channel = null;
+      int symbolOffset = -1;
+      int symbolLength = 0;
+      long sendTime = 0;
+      int bodyField = 0;
+      int bodyPosition = -1;
+      for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+        int field = fieldNumber(tag);
+        switch (field) {
+          case PB_CHANNEL_FIELD -> channel = reader.readString();
+          case PB_SYMBOL_FIELD -> {
+            // Resolved in place below, without creating a String
+            symbolLength = reader.readLength();
+            symbolOffset = reader.getPosition();
+            reader.seek(symbolOffset + symbolLength);
+          }
+          case PB_SEND_TIME_FIELD -> sendTime = reader.readVarint();
+          case PB_PUBLIC_DEALS_FIELD,
+              PB_PUBLIC_INCREASE_DEPTHS_FIELD,
+              PB_PUBLIC_LIMIT_DEPTHS_FIELD -> {
+            bodyField = field;
+            bodyPosition = reader.getPosition();
+            reader.skipField(tag);
+          }
+          default -> reader.skipField(tag);
+        }
+      }
+      if (bodyPosition < 0) {
+        log.warn("Unrecognized protobuf message on channel {}", channel);
+        return;
+      }
+      int instrumentId;
+      if (symbolOffset >= 0) {
+        instrumentId = instrumentRegistry.idOf(message, symbolOffset, symbolLength);
+      } else if (channel != null) {
+        // spot@<stream>@<SYMBOL>[@...]
+        int streamStart = channel.indexOf(CHANNEL_SEPARATOR) + 1;
+        instrumentId =
+            instrumentIdOf(channel, channel.indexOf(CHANNEL_SEPARATOR, streamStart) + 1);
+      } else {
+        instrumentId = MexcInstrumentRegistry.UNKNOWN;
+      }
+      if (instrumentId == MexcInstrumentRegistry.UNKNOWN) {
+        log.warn("Protobuf message for unknown symbol on channel {}", channel);
+        return;
+      }
+      livenessMonitor.onFrame(instrumentId, receivedNanos);
+      reader.seek(bodyPosition);
+      if (bodyField == PB_PUBLIC_DEALS_FIELD) {
+        // Deals are published while they are decoded, so the decode stage covers the wrapper only
+        long decodedNanos = latencyStamp();
+        dataProcessor.startDeals(instrumentId);
+        protobufDecoder.decodeDeals(reader, instrumentId, dealPublisher);
+        recordLatency(
+            instrumentId,
+            MexcFeedLatencyRecorder.Channel.DEALS,
+            sendTime,
+            receivedNanos,
+            dispatchedNanos,
+            decodedNanos);
+        return;
+      }
+      MexcDepthSnapshot snapshot = instrumentRegistry.getDepthSnapshot(instrumentId);
+      protobufDecoder.decodeDepth(reader, snapshot);
+      snapshot.setEventTime(sendTime);
+      long decodedNanos = latencyStamp();
+      MexcFeedLatencyRecorder.Channel latencyChannel;
+      if (bodyField == PB_PUBLIC_LIMIT_DEPTHS_FIELD) {
+        dataProcessor.processDepth(snapshot);
+        latencyChannel = MexcFeedLatencyRecorder.Channel.DEPTH;
+      } else {
+        dataProcessor.processDepthDelta(instrumentId, snapshot);
+        latencyChannel = MexcFeedLatencyRecorder.Channel.INCREMENTAL_DEPTH;
+      }
+      recordLatency(
+          instrumentId, latencyChannel, sendTime, receivedNanos, dispatchedNanos, decodedNanos);
+    } catch (Exception e) {
+      log.error("Error dispatching protobuf message of {} bytes", message.length, e);
+    }
   }
 
-  private void processChannelMessage(@NonNull JsonNode root, @NonNull String message) {
-    String channel = root.get("c").asText();
-    if (!channel.contains("@")) {
-      log.debug("Channel does not contain '@': {}", message);
-      return;
-    }
+  private void publishDeal(
+      int instrumentId, long price, long quantity, int tradeType, long time) {
+    dataProcessor.processDeal(instrumentId, price, quantity, tradeType, time);
+  }
 
-    String[] parts = channel.split("@");
-    if (parts.length < 2) {
-      log.debug("Channel split result has less than 2 parts: {}", message);
+  private void processChannelMessage(
+      @NonNull String channel,
+      @NonNull JsonParser parser,
+      @NonNull String message,
+      long receivedNanos,
+      long dispatchedNanos)
+      throws IOException {
+    int identifierStart = channel.indexOf(CHANNEL_SEPARATOR) + 1;
+    if (identifierStart == 0) {
+      log.debug("Channel does not contain '@': {}", message);
       return;
     }
 
-    String identifier = parts[1];
-    switch (identifier) {
-      case DEAL_CHANNEL -> {
-        MexcTradeStream mexcTradeStream;
-        try {
-          mexcTradeStream = objectMapper.treeToValue(root, MexcTradeStream.class);
-        } catch (JsonProcessingException e) {
-          log.error("Error parsing trade stream: {}", message, e);
-          throw new RuntimeException(e);
-        }
-        dataProcessor.process(mexcTradeStream);
+    if (isChannel(channel, identifierStart, DEAL_CHANNEL)) {
+      int instrumentId =
+          instrumentIdOf(channel, identifierStart + DEAL_CHANNEL.length() + 1);
+      if (instrumentId == MexcInstrumentRegistry.UNKNOWN) {
+        log.warn("Trades for unknown symbol: {}", message);
+        return;
       }
-      case DEPTH_CHANNEL -> {
-        BookDepthResponse bookDepthResponse;
-        try {
-          bookDepthResponse = objectMapper.treeToValue(root, BookDepthResponse.class);
-        } catch (JsonProcessingException e) {
-          log.error("Error parsing depth data: {}", message, e);
-          throw new RuntimeException(e);
-        }
-        dataProcessor.process(bookDepthResponse);
+      livenessMonitor.onFrame(instrumentId, receivedNanos);
+      MexcTradeStream mexcTradeStream = tradeStreamReader.readValue(parser);
+      mexcTradeStream.setChannel(channel);
+      long decodedNanos = latencyStamp();
+      dataProcessor.processTrade(instrumentId, mexcTradeStream);
+      recordLatency(
+          instrumentId,
+          MexcFeedLatencyRecorder.Channel.DEALS,
+          mexcTradeStream.getEventTime(),
+          receivedNanos,
+          dispatchedNanos,
+          decodedNanos);
+    } else if (isChannel(channel, identifierStart, DEPTH_CHANNEL)) {
+      int instrumentId =
+          instrumentIdOf(channel, identifierStart + DEPTH_CHANNEL.length() + 1);
+      MexcDepthSnapshot snapshot = decodeDepth(instrumentId, parser, message);
+      if (snapshot != null) {
+        livenessMonitor.onFrame(instrumentId, receivedNanos);
+        long decodedNanos = latencyStamp();
+        dataProcessor.processDepth(snapshot);
+        recordLatency(
+            instrumentId,
+            MexcFeedLatencyRecorder.Channel.DEPTH,
+            snapshot.getEventTime(),
+            receivedNanos,
+            dispatchedNanos,
+            decodedNanos);
       }
-      case BALANCE_UPDATES_CHANNEL -> {
-        MexcAccountBalance mexcAccountBalance;
-        try {
-          mexcAccountBalance = objectMapper.treeToValue(root, MexcAccountBalance.class);
-        } catch (JsonProcessingException e) {
-          log.error("Error parsing account balance: {}", message, e);
-          throw new RuntimeException(e);
-        }
-        dataProcessor.process(mexcAccountBalance);
-      }
-      case ORDER_UPDATES_CHANNEL -> {
-        MexcOrderResponse mexcOrderResponse;
-        try {
-          mexcOrderResponse = objectMapper.treeToValue(root, MexcOrderResponse.class);
-        } catch (JsonProcessingException e) {
-          throw new RuntimeException(e);
-        }
-        dataProcessor.process(mexcOrderResponse);
+    } else if (isChannel(channel, identifierStart, INCREMENTAL_DEPTH_CHANNEL)) {
+      int instrumentId =
+          instrumentIdOf(channel, identifierStart + INCREMENTAL_DEPTH_CHANNEL.length() + 1);
+      MexcDepthSnapshot delta = decodeDepth(instrumentId, parser, message);
+      if (delta != null) {
+        livenessMonitor.onFrame(instrumentId, receivedNanos);
+        long decodedNanos = latencyStamp();
+        dataProcessor.processDepthDelta(instrumentId, delta);
+        recordLatency(
+            instrumentId,
+            MexcFeedLatencyRecorder.Channel.INCREMENTAL_DEPTH,
+            delta.getEventTime(),
+            receivedNanos,
+            dispatchedNanos,
+            decodedNanos);
       }
-      case ACCOUNT_DEALS_CHANNEL -> {
-        MexcExecutionInfo mexcExecutionInfo;
-        try {
-          mexcExecutionInfo = objectMapper.treeToValue(root, MexcExecutionInfo.class);
-        } catch (JsonProcessingException e) {
-          throw new RuntimeException(e);
-        }
-        dataProcessor.process(mexcExecutionInfo);
-      }
-      default ->
-          log.warn("Unrecognized channel identifier: {} in message: {}", identifier, message);
+    } else if (isChannel(channel, identifierStart, BALANCE_UPDATES_CHANNEL)) {
+      MexcAccountBalance mexcAccountBalance = accountBalanceReader.readValue(parser);
+      mexcAccountBalance.setChannel(channel);
+      dataProcessor.process(mexcAccountBalance);
+    } else if (isChannel(channel, identifierStart, ORDER_UPDATES_CHANNEL)) {
+      MexcOrderResponse mexcOrderResponse = orderResponseReader.readValue(parser);
+      mexcOrderResponse.setChannel(channel);
+      dataProcessor.process(mexcOrderResponse);
+    } else if (isChannel(channel, identifierStart, ACCOUNT_DEALS_CHANNEL)) {
+      MexcExecutionInfo mexcExecutionInfo = executionInfoReader.readValue(parser);
+      dataProcessor.process(mexcExecutionInfo);
+    } else {
+      log.warn("Unrecognized channel: {} in message: {}", channel, message);
     }
   }
 
-  private void processSubscriptionMessage(@NonNull JsonNode root) {
-    try {
-      MexcSubscriptionResp subscriptionResp =
-          objectMapper.treeToValue(root, MexcSubscriptionResp.class);
-      if (subscriptionResp != null) {
-        dataProcessor.process(subscriptionResp);
-      }
-    } catch (JsonProcessingException e) {
-      throw new RuntimeException(e);
+  private long latencyStamp() {
+    return latencyRecorder.isEnabled() ? System.nanoTime() : 0;
+  }
+
+  /** Records a delivered frame; called right after the processor returns. */
+  private void recordLatency(
+      int instrumentId,
+      MexcFeedLatencyRecorder.Channel channel,
+      long exchangeTime,
+      long receivedNanos,
+      long dispatchedNanos,
+      long decodedNanos) {
+    if (latencyRecorder.isEnabled()) {
+      latencyRecorder.record(
+          instrumentId,
+          channel,
+          exchangeTime,
+          receivedNanos,
+          dispatchedNanos,
+          decodedNanos,
+          System.nanoTime());
+    }
+  }
+
+  private MexcDepthSnapshot decodeDepth(
+      int instrumentId, @NonNull JsonParser parser, @NonNull String message) throws IOException {
+    if (instrumentId == MexcInstrumentRegistry.UNKNOWN) {
+      log.warn("Depth message for unknown symbol: {}", message);
+      return null;
+    }
+    MexcDepthSnapshot snapshot = instrumentRegistry.getDepthSnapshot(instrumentId);
+    depthDecoder.decode(parser, snapshot);
+    return snapshot;
+  }
+
+  /**
+   * Checks whether the channel segment starting at {@code from} equals {@code identifier} without
+   * splitting the channel string.
+   */
+  private static boolean isChannel(
+      @NonNull String channel, int from, @NonNull String identifier) {
+    int end = from + identifier.length();
+    return channel.startsWith(identifier, from)
+        && (channel.length() == end || channel.charAt(end) == CHANNEL_SEPARATOR);
+  }
+
+  /**
+   * Resolves the channel segment starting at {@code from}, e.g. the symbol of a depth channel, to
+   * its instrument id without extracting it.
+   */
+  private int instrumentIdOf(@NonNull String channel, int from) {
+    int end = channel.indexOf(CHANNEL_SEPARATOR, from);
+    return instrumentRegistry.idOf(channel, from, end < 0 ? channel.length() : end);
+  }
+
+  private void processSubscriptionMessage(@NonNull String message) throws IOException {
+    MexcSubscriptionResp subscriptionResp = subscriptionRespReader.readValue(message);
+    if (subscriptionResp != null) {
+      dataProcessor.process(subscriptionResp);
     }
   }
 
@@ -0,0 +1,112 @@
+package com.crypto.arbitrage.providers.mexc.service.messages;
+
+import static com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader.fieldNumber;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decodes the bodies of MEXC protobuf push messages ({@code PublicDealsV3Api}, {@code
+ * PublicLimitDepthsV3Api}, {@code PublicIncreaseDepthsV3Api}). Prices and quantities are protobuf
+ * strings and are parsed in place with {@link MexcDecimal}, so depth levels reach the {@link
+ * MexcDepthSnapshot} without intermediate objects, as on the JSON path.
+ */
+@Component
+public class MexcProtobufDecoder {
+
+  // PublicLimitDepthsV3Api and PublicIncreaseDepthsV3Api
+  private static final int DEPTH_ASKS_FIELD = 1;
+  private static final int DEPTH_BIDS_FIELD = 2;
+  private static final int DEPTH_VERSION_FIELD = 4;
+  // Depth level items
+  private static final int LEVEL_PRICE_FIELD = 1;
+  private static final int LEVEL_QUANTITY_FIELD = 2;
+  // PublicDealsV3Api
+  private static final int DEALS_FIELD = 1;
+  // PublicDealsV3ApiItem
+  private static final int DEAL_PRICE_FIELD = 1;
+  private static final int DEAL_QUANTITY_FIELD = 2;
+  private static final int DEAL_TRADE_TYPE_FIELD = 3;
+  private static final int DEAL_TIME_FIELD = 4;
+
+  @FunctionalInterface
+  public interface DealConsumer {
+    /** Receives one deal; {@code price} and {@code quantity} are packed {@link MexcDecimal}s. */
+    void onDeal(int instrumentId, long price, long quantity, int tradeType, long time);
+  }
+
+  /**
+   * Decodes a depth body into {@code snapshot}. The reader must be positioned on the length prefix
+   * of the embedded message.
+   */
+  public void decodeDepth(@NonNull MexcProtobufReader reader, @NonNull MexcDepthSnapshot snapshot) {
+    snapshot.clear();
+    int previousLimit = reader.pushLimit();
+    for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+      switch (fieldNumber(tag)) {
+        case DEPTH_ASKS_FIELD -> decodeLevel(reader, snapshot, false);
+        case DEPTH_BIDS_FIELD -> decodeLevel(reader, snapshot, true);
+        case DEPTH_VERSION_FIELD -> snapshot.setVersion(
+            MexcDecimal.mantissa(reader.readDecimal()));
+        default -> reader.skipField(tag);
+      }
+    }
+    reader.popLimit(previousLimit);
+  }
+
+  /**
+   * Decodes a deals body and passes every deal to {@code consumer}. The reader must be positioned
+   * on the length prefix of the embedded message.
+   */
+  public void decodeDeals(
+      @NonNull MexcProtobufReader reader, int instrumentId, @NonNull DealConsumer consumer) {
+    int previousLimit = reader.pushLimit();
+    for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+      if (fieldNumber(tag) == DEALS_FIELD) {
+        decodeDeal(reader, instrumentId, consumer);
+      } else {
+        reader.skipField(tag);
+      }
+    }
+    reader.popLimit(previousLimit);
+  }
+
+  private void decodeLevel(
+      @NonNull MexcProtobufReader reader, @NonNull MexcDepthSnapshot snapshot, boolean isBid) {
+    long price = 0;
+    long quantity = 0;
+    int previousLimit = reader.pushLimit();
+    for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+      switch (fieldNumber(tag)) {
+        case LEVEL_PRICE_FIELD -> price = reader.readDecimal();
+        case LEVEL_QUANTITY_FIELD -> quantity = reader.readDecimal();
+        default -> reader.skipField(tag);
+      }
+    }
+    reader.popLimit(previousLimit);
+    MexcDepthDecoder.addLevel(snapshot, isBid, price, quantity);
+  }
+
+  private void decodeDeal(
+      @NonNull MexcProtobufReader reader, int instrumentId, @NonNull DealConsumer consumer) {
+    long price = 0;
+    long quantity = 0;
+    int tradeType = 0;
+    long time = 0;
+    int previousLimit = reader.pushLimit();
+    for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+      switch (fieldNumber(tag)) {
+        case DEAL_PRICE_FIELD -> price = reader.readDecimal();
+        case DEAL_QUANTITY_FIELD -> quantity = reader.readDecimal();
+        case DEAL_TRADE_TYPE_FIELD -> tradeType = (int) reader.readVarint();
+        case DEAL_TIME_FIELD -> time = reader.readVarint();
+        default -> reader.skipField(tag);
+      }
+    }
+    reader.popLimit(previousLimit);
+    consumer.onDeal(instrumentId, price, quantity, tradeType, time);
+  }
+}
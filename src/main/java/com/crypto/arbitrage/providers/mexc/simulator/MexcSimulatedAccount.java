@@ -0,0 +1,349 @@
+package com.crypto.arbitrage.providers.mexc.simulator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The single account of the simulator: listenKeys, open orders and the private pushes derived
+ * from them.
+ *
+ * <p>A new order is acknowledged on {@code spot@private.orders.v3.api} with status NEW. A MARKET
+ * order, or a LIMIT order that crosses the simulated book, fills at once as taker at the best
+ * opposite price; other LIMIT orders rest and fill as maker at their own price once the book
+ * moves through it (see {@link #matchResting}). Every fill is pushed on {@code
+ * spot@private.deals.v3.api} followed by the FILLED order update; a cancel pushes CANCELED. Fills
+ * are always complete and balances are not simulated. Symbols without a simulated market accept
+ * LIMIT orders, which rest until cancelled. Decimals are pushed as plain strings, never in
+ * exponent notation.
+ */
+@Slf4j
+class MexcSimulatedAccount {
+
+  static final String ORDERS_CHANNEL = "spot@private.orders.v3.api";
+  static final String DEALS_CHANNEL = "spot@private.deals.v3.api";
+
+  private static final int STATUS_NEW = 1;
+  private static final int STATUS_FILLED = 2;
+  private static final int STATUS_CANCELED = 4;
+  private static final int ORDER_TYPE_LIMIT = 1;
+  private static final int ORDER_TYPE_MARKET = 5;
+  private static final String COMMISSION_ASSET = "USDT";
+  private static final int AMOUNT_SCALE = 8;
+
+  private final ObjectMapper objectMapper;
+  private final Function<String, MexcSimulatedMarket> markets;
+  private final BiConsumer<String, String> publisher;
+  private final Set<String> listenKeys = ConcurrentHashMap.newKeySet();
+  private final Map<String, Order> openOrders = new LinkedHashMap<>();
+  private final AtomicLong orderIds = new AtomicLong(System.currentTimeMillis() * 1000);
+  private final AtomicLong tradeIds = new AtomicLong(System.currentTimeMillis() * 1000);
+
+  /**
+   * @param markets the simulated market of a symbol, or {@code null}
+   * @param publisher sends a push message to the sessions subscribed to its channel
+   */
+  MexcSimulatedAccount(
+      @NonNull ObjectMapper objectMapper,
+      @NonNull Function<String, MexcSimulatedMarket> markets,
+      @NonNull BiConsumer<String, String> publisher) {
+    this.objectMapper = objectMapper;
+    this.markets = markets;
+    this.publisher = publisher;
+  }
+
+  String createListenKey() {
+    String listenKey = UUID.randomUUID().toString().replace("-", "");
+    listenKeys.add(listenKey);
+    return listenKey;
+  }
+
+  boolean isListenKeyValid(String listenKey) {
+    return listenKey != null && listenKeys.contains(listenKey);
+  }
+
+  void deleteListenKey(String listenKey) {
+    if (listenKey != null) {
+      listenKeys.remove(listenKey);
+    }
+  }
+
+  Set<String> getListenKeys() {
+    return listenKeys;
+  }
+
+  synchronized int getOpenOrderCount() {
+    return openOrders.size();
+  }
+
+  synchronized MexcSimulatorRestServer.Response newOrder(@NonNull Map<String, String> params) {
+    String symbol = params.get("symbol");
+    String side = params.get("side");
+    String type = params.get("type");
+    if (symbol == null || side == null || type == null) {
+      return error(700004, "Mandatory parameter symbol, side or type was not sent");
+    }
+    if (!"BUY".equals(side) && !"SELL".equals(side)) {
+      return error(700004, "Invalid side " + side);
+    }
+    boolean market = "MARKET".equals(type);
+    if (!market && !"LIMIT".equals(type)) {
+      return error(700004, "Unsupported order type " + type);
+    }
+    MexcSimulatedMarket simulatedMarket = markets.apply(symbol);
+    if (market && simulatedMarket == null) {
+      return error(10007, "symbol not support api");
+    }
+    if (!market && params.get("price") == null) {
+      return error(700004, "Mandatory parameter price was not sent");
+    }
+    boolean buy = "BUY".equals(side);
+    BigDecimal price;
+    BigDecimal quantity;
+    try {
+      price =
+          market
+              ? new BigDecimal(
+                  simulatedMarket.formatPrice(
+                      buy ? simulatedMarket.getBestAsk() : simulatedMarket.getBestBid()))
+              : new BigDecimal(params.get("price"));
+      if (params.containsKey("quantity")) {
+        quantity = new BigDecimal(params.get("quantity"));
+      } else if (market && params.containsKey("quoteOrderQty")) {
+        quantity =
+            new BigDecimal(params.get("quoteOrderQty"))
+                .divide(price, AMOUNT_SCALE, RoundingMode.DOWN)
+                .stripTrailingZeros();
+      } else {
+        return error(700004, "Mandatory parameter quantity was not sent");
+      }
+    } catch (NumberFormatException e) {
+      return error(700004, "Invalid price or quantity");
+    }
+    if (quantity.signum() <= 0 || price.signum() <= 0) {
+      return error(30002, "Minimum transaction volume cannot be less than zero");
+    }
+
+    Order order =
+        new Order(
+            "C02__" + orderIds.incrementAndGet(),
+            params.getOrDefault("newClientOrderId", ""),
+            symbol,
+            buy,
+            market,
+            price,
+            quantity,
+            System.currentTimeMillis());
+    pushOrder(order, STATUS_NEW, BigDecimal.ZERO, BigDecimal.ZERO);
+    if (simulatedMarket != null && (market || crosses(order, simulatedMarket, true))) {
+      BigDecimal fillPrice =
+          market
+              ? price
+              : new BigDecimal(
+                  simulatedMarket.formatPrice(
+                      buy ? simulatedMarket.getBestAsk() : simulatedMarket.getBestBid()));
+      fill(order, fillPrice, false);
+    } else {
+      openOrders.put(order.orderId(), order);
+    }
+
+    ObjectNode response = objectMapper.createObjectNode();
+    response.put("symbol", symbol);
+    response.put("orderId", order.orderId());
+    response.put("orderListId", -1);
+    response.put("price", price.toPlainString());
+    response.put("origQty", quantity.toPlainString());
+    response.put("type", type);
+    response.put("side", side);
+    response.put("transactTime", order.createTime());
+    return new MexcSimulatorRestServer.Response(200, response.toString());
+  }
+
+  /**
+   * Places the orders of a {@code batchOrders} JSON array one by one, like MEXC at most 20 of one
+   * symbol. Answers one entry per order with its {@code newClientOrderId}, the placed order or its
+   * {@code code} and {@code msg}.
+   */
+  synchronized MexcSimulatorRestServer.Response batchOrders(@NonNull Map<String, String> params) {
+    JsonNode orders;
+    try {
+      orders = objectMapper.readTree(params.getOrDefault("batchOrders", ""));
+    } catch (JsonProcessingException e) {
+      return error(700004, "Invalid batchOrders");
+    }
+    if (orders == null || !orders.isArray() || orders.isEmpty() || orders.size() > 20) {
+      return error(700004, "batchOrders must hold 1 to 20 orders");
+    }
+    String symbol = orders.get(0).path("symbol").asText();
+    ArrayNode response = objectMapper.createArrayNode();
+    for (JsonNode order : orders) {
+      if (!symbol.equals(order.path("symbol").asText())) {
+        return error(700004, "batchOrders must be of one symbol");
+      }
+    }
+    for (JsonNode order : orders) {
+      Map<String, String> orderParams = new LinkedHashMap<>();
+      order
+          .fields()
+          .forEachRemaining(field -> orderParams.put(field.getKey(), field.getValue().asText()));
+      MexcSimulatorRestServer.Response placed = newOrder(orderParams);
+      try {
+        ObjectNode entry = (ObjectNode) objectMapper.readTree(placed.body());
+        entry.put("newClientOrderId", orderParams.getOrDefault("newClientOrderId", ""));
+        response.add(entry);
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException("Unreadable simulator order response", e);
+      }
+    }
+    return new MexcSimulatorRestServer.Response(200, response.toString());
+  }
+
+  synchronized MexcSimulatorRestServer.Response cancelOrder(@NonNull Map<String, String> params) {
+    String orderId = params.get("orderId");
+    String clientOrderId = params.get("origClientOrderId");
+    Order order = orderId != null ? openOrders.get(orderId) : null;
+    if (order == null && clientOrderId != null) {
+      order =
+          openOrders.values().stream()
+              .filter(o -> o.clientOrderId().equals(clientOrderId))
+              .findFirst()
+              .orElse(null);
+    }
+    if (order == null || !order.symbol().equals(params.get("symbol"))) {
+      return error(-2011, "Unknown order sent.");
+    }
+    openOrders.remove(order.orderId());
+    pushOrder(order, STATUS_CANCELED, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    ObjectNode response = objectMapper.createObjectNode();
+    response.put("symbol", order.symbol());
+    response.put("origClientOrderId", order.clientOrderId());
+    response.put("orderId", order.orderId());
+    response.put("clientOrderId", order.clientOrderId());
+    response.put("price", order.price().toPlainString());
+    response.put("origQty", order.quantity().toPlainString());
+    response.put("executedQty", "0");
+    response.put("cummulativeQuoteQty", "0");
+    response.put("status", "CANCELED");
+    response.put("timeInForce", "GTC");
+    response.put("type", order.market() ? "MARKET" : "LIMIT");
+    response.put("side", order.buy() ? "BUY" : "SELL");
+    return new MexcSimulatorRestServer.Response(200, response.toString());
+  }
+
+  /** Fills the resting orders of the market's symbol that the book has moved through. */
+  synchronized void matchResting(@NonNull MexcSimulatedMarket market) {
+    Iterator<Order> orders = openOrders.values().iterator();
+    while (orders.hasNext()) {
+      Order order = orders.next();
+      if (order.symbol().equals(market.getSymbol()) && crosses(order, market, false)) {
+        orders.remove();
+        fill(order, order.price(), true);
+      }
+    }
+  }
+
+  private static boolean crosses(
+      @NonNull Order order, @NonNull MexcSimulatedMarket market, boolean inclusive) {
+    long ticks = market.toTicks(order.price());
+    if (order.buy()) {
+      long bestAsk = market.getBestAsk();
+      return inclusive ? ticks >= bestAsk : ticks > bestAsk;
+    }
+    long bestBid = market.getBestBid();
+    return inclusive ? ticks <= bestBid : ticks < bestBid;
+  }
+
+  private void fill(@NonNull Order order, @NonNull BigDecimal fillPrice, boolean maker) {
+    BigDecimal amount = fillPrice.multiply(order.quantity());
+    long tradeTime = System.currentTimeMillis();
+    ObjectNode deal = objectMapper.createObjectNode();
+    deal.put("S", order.buy() ? MexcSimulatedMarket.BUY : MexcSimulatedMarket.SELL);
+    deal.put("T", tradeTime);
+    deal.put("c", order.clientOrderId());
+    deal.put("i", order.orderId());
+    deal.put("m", maker ? 1 : 0);
+    deal.put("p", fillPrice.toPlainString());
+    deal.put("st", 0);
+    deal.put("t", Long.toString(tradeIds.incrementAndGet()));
+    deal.put("v", order.quantity().toPlainString());
+    deal.put("a", amount.toPlainString());
+    deal.put("n", 0);
+    deal.put("N", COMMISSION_ASSET);
+    publisher.accept(DEALS_CHANNEL, push(DEALS_CHANNEL, deal, order.symbol(), tradeTime));
+    pushOrder(order, STATUS_FILLED, order.quantity(), amount);
+  }
+
+  private void pushOrder(
+      @NonNull Order order, int status, @NonNull BigDecimal filled, @NonNull BigDecimal amount) {
+    long time = System.currentTimeMillis();
+    BigDecimal remaining = status == STATUS_NEW ? order.quantity() : BigDecimal.ZERO;
+    ObjectNode data = objectMapper.createObjectNode();
+    data.put("A", remaining.multiply(order.price()).toPlainString());
+    data.put("O", order.createTime());
+    data.put("S", order.buy() ? MexcSimulatedMarket.BUY : MexcSimulatedMarket.SELL);
+    data.put("V", remaining.toPlainString());
+    data.put("a", order.quantity().multiply(order.price()).toPlainString());
+    data.put("c", order.clientOrderId());
+    data.put("i", order.orderId());
+    data.put("m", 0);
+    data.put("o", order.market() ? ORDER_TYPE_MARKET : ORDER_TYPE_LIMIT);
+    data.put("p", order.price().toPlainString());
+    data.put("s", status);
+    data.put("v", order.quantity().toPlainString());
+    data.put(
+        "ap",
+        filled.signum() > 0
+            ? amount
+                .divide(filled, AMOUNT_SCALE, RoundingMode.HALF_UP)
+                .stripTrailingZeros()
+                .toPlainString()
+            : "0");
+    data.put("cv", filled.toPlainString());
+    data.put("ca", amount.toPlainString());
+    publisher.accept(ORDERS_CHANNEL, push(ORDERS_CHANNEL, data, order.symbol(), time));
+  }
+
+  private String push(
+      @NonNull String channel, @NonNull ObjectNode data, @NonNull String symbol, long time) {
+    ObjectNode push = objectMapper.createObjectNode();
+    push.put("c", channel);
+    push.set("d", data);
+    push.put("s", symbol);
+    push.put("t", time);
+    return push.toString();
+  }
+
+  private MexcSimulatorRestServer.Response error(int code, @NonNull String message) {
+    ObjectNode error = objectMapper.createObjectNode();
+    error.put("code", code);
+    error.put("msg", message);
+    log.info("Method error: simulator rejected a request: {}", message);
+    return new MexcSimulatorRestServer.Response(400, error.toString());
+  }
+
+  private record Order(
+      String orderId,
+      String clientOrderId,
+      String symbol,
+      boolean buy,
+      boolean market,
+      BigDecimal price,
+      BigDecimal quantity,
+      long createTime) {}
+}
@@ -0,0 +1,345 @@
+package com.crypto.arbitrage.providers.mexc.simulator;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcProtobufWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Synthetic order book of one simulated symbol. Each {@link #step()} moves the book by at most one
+ * tick in a random walk: a move consumes the best level on one side and produces a deal, otherwise
+ * part of a best level trades. One random level per side is refreshed as well. The book keeps
+ * {@link #LEVELS} levels per side and a one tick spread.
+ *
+ * <p>The public channels are rendered from the last step: deals, limited depth snapshots and the
+ * incremental depth delta, whose version grows by one per step, in JSON or protobuf. All methods
+ * are synchronized; the market data thread steps the book while REST threads read snapshots and
+ * match orders.
+ */
+class MexcSimulatedMarket {
+
+  static final int LEVELS = 20;
+  static final int BUY = 1;
+  static final int SELL = 2;
+
+  private static final int QUANTITY_SCALE = 4;
+  private static final int MIN_QUANTITY = 100;
+  private static final int MAX_QUANTITY = 20_000;
+  private static final String DEALS_EVENT = "spot@public.deals.v3.api";
+  private static final String LIMIT_DEPTH_EVENT = "spot@public.limit.depth.v3.api";
+  private static final String INCREMENTAL_DEPTH_EVENT = "spot@public.increase.depth.v3.api";
+
+  // PushDataV3ApiWrapper
+  private static final int PB_CHANNEL_FIELD = 1;
+  private static final int PB_SYMBOL_FIELD = 3;
+  private static final int PB_SEND_TIME_FIELD = 6;
+  private static final int PB_DEALS_FIELD = 301;
+  private static final int PB_INCREASE_DEPTH_FIELD = 302;
+  private static final int PB_LIMIT_DEPTH_FIELD = 303;
+
+  @Getter private final String symbol;
+  private final long tickMantissa;
+  private final int priceScale;
+  private final Random random;
+  // Price in ticks to quantity in units of 10^-QUANTITY_SCALE
+  private final NavigableMap<Long, Long> bids = new TreeMap<>(Collections.reverseOrder());
+  private final NavigableMap<Long, Long> asks = new TreeMap<>();
+  private final Map<Long, Long> bidChanges = new LinkedHashMap<>();
+  private final Map<Long, Long> askChanges = new LinkedHashMap<>();
+  // {price ticks, quantity units, trade type} of the last step
+  private final List<long[]> deals = new ArrayList<>();
+  private long version = 1;
+  private long eventTime = System.currentTimeMillis();
+
+  MexcSimulatedMarket(
+      @NonNull String symbol,
+      @NonNull BigDecimal startPrice,
+      @NonNull BigDecimal tickSize,
+      long seed) {
+    this.symbol = symbol;
+    this.tickMantissa = tickSize.unscaledValue().longValueExact();
+    this.priceScale = Math.max(0, tickSize.scale());
+    this.random = new Random(seed);
+    long bestBid = startPrice.divideToIntegralValue(tickSize).longValueExact();
+    for (int i = 0; i < LEVELS; i++) {
+      bids.put(bestBid - i, randomQuantity());
+      asks.put(bestBid + 1 + i, randomQuantity());
+    }
+  }
+
+  synchronized void step() {
+    deals.clear();
+    bidChanges.clear();
+    askChanges.clear();
+    int move = random.nextInt(3) - 1;
+    if (move > 0) {
+      // Buyers lift the best ask, which becomes the best bid
+      Map.Entry<Long, Long> lifted = asks.pollFirstEntry();
+      askChanges.put(lifted.getKey(), 0L);
+      deals.add(new long[] {lifted.getKey(), lifted.getValue(), BUY});
+      setLevel(bids, bidChanges, lifted.getKey(), randomQuantity());
+    } else if (move < 0) {
+      Map.Entry<Long, Long> hit = bids.pollFirstEntry();
+      bidChanges.put(hit.getKey(), 0L);
+      deals.add(new long[] {hit.getKey(), hit.getValue(), SELL});
+      setLevel(asks, askChanges, hit.getKey(), randomQuantity());
+    } else {
+      boolean buy = random.nextBoolean();
+      NavigableMap<Long, Long> side = buy ? asks : bids;
+      Map.Entry<Long, Long> best = side.firstEntry();
+      long traded = 1 + random.nextLong(Math.max(1, best.getValue() / 2));
+      deals.add(new long[] {best.getKey(), traded, buy ? BUY : SELL});
+      setLevel(side, buy ? askChanges : bidChanges, best.getKey(), best.getValue() - traded);
+    }
+    resize(bids, bidChanges, -1);
+    resize(asks, askChanges, 1);
+    refreshRandomLevel(bids, bidChanges);
+    refreshRandomLevel(asks, askChanges);
+    version++;
+    eventTime = System.currentTimeMillis();
+  }
+
+  synchronized long getBestBid() {
+    return bids.firstKey();
+  }
+
+  synchronized long getBestAsk() {
+    return asks.firstKey();
+  }
+
+  /** Deals of the last step, or {@code null} if there were none. */
+  synchronized String dealsJson(@NonNull String channel) {
+    if (deals.isEmpty()) {
+      return null;
+    }
+    StringBuilder json = openPush(channel).append("{\"deals\":[");
+    for (int i = 0; i < deals.size(); i++) {
+      long[] deal = deals.get(i);
+      json.append(i > 0 ? "," : "").append("{\"S\":").append(deal[2]).append(",\"p\":\"");
+      appendPrice(json, deal[0]).append("\",\"t\":").append(eventTime).append(",\"v\":\"");
+      appendQuantity(json, deal[1]).append("\"}");
+    }
+    json.append("],\"e\":\"").append(DEALS_EVENT).append("\"}");
+    return closePush(json);
+  }
+
+  synchronized byte[] dealsProtobuf(@NonNull String channel) {
+    if (deals.isEmpty()) {
+      return null;
+    }
+    MexcProtobufWriter body = new MexcProtobufWriter(64 * deals.size());
+    MexcProtobufWriter item = new MexcProtobufWriter();
+    for (long[] deal : deals) {
+      item.reset();
+      item.string(1, formatPrice(deal[0]))
+          .string(2, formatQuantity(deal[1]))
+          .varint(3, deal[2])
+          .varint(4, eventTime);
+      body.bytes(1, item.toByteArray());
+    }
+    body.string(2, DEALS_EVENT + ".pb");
+    return wrap(channel, PB_DEALS_FIELD, body);
+  }
+
+  /** The best {@code levels} levels per side as a limited depth snapshot. */
+  synchronized String depthJson(@NonNull String channel, int levels) {
+    StringBuilder json = openPush(channel).append("{\"asks\":[");
+    appendLevels(json, asks, levels).append("],\"bids\":[");
+    appendLevels(json, bids, levels).append("],\"e\":\"").append(LIMIT_DEPTH_EVENT);
+    json.append("\",\"r\":\"").append(version).append("\"}");
+    return closePush(json);
+  }
+
+  synchronized byte[] depthProtobuf(@NonNull String channel, int levels) {
+    MexcProtobufWriter body = new MexcProtobufWriter(40 * levels);
+    writeLevels(body, 1, asks, levels);
+    writeLevels(body, 2, bids, levels);
+    body.string(3, LIMIT_DEPTH_EVENT + ".pb").string(4, Long.toString(version));
+    return wrap(channel, PB_LIMIT_DEPTH_FIELD, body);
+  }
+
+  /** The levels changed by the last step; a removed level has quantity zero. */
+  synchronized String depthDeltaJson(@NonNull String channel) {
+    StringBuilder json = openPush(channel).append('{');
+    if (!askChanges.isEmpty()) {
+      appendLevels(json.append("\"asks\":["), askChanges, askChanges.size()).append("],");
+    }
+    if (!bidChanges.isEmpty()) {
+      appendLevels(json.append("\"bids\":["), bidChanges, bidChanges.size()).append("],");
+    }
+    json.append("\"e\":\"").append(INCREMENTAL_DEPTH_EVENT);
+    json.append("\",\"r\":\"").append(version).append("\"}");
+    return closePush(json);
+  }
+
+  synchronized byte[] depthDeltaProtobuf(@NonNull String channel) {
+    MexcProtobufWriter body = new MexcProtobufWriter(256);
+    writeLevels(body, 1, askChanges, askChanges.size());
+    writeLevels(body, 2, bidChanges, bidChanges.size());
+    body.string(3, INCREMENTAL_DEPTH_EVENT + ".pb").string(4, Long.toString(version));
+    return wrap(channel, PB_INCREASE_DEPTH_FIELD, body);
+  }
+
+  /** The REST {@code /api/v3/depth} response at the current version. */
+  synchronized String restSnapshotJson(int limit) {
+    StringBuilder json = new StringBuilder(64 * LEVELS).append("{\"lastUpdateId\":");
+    json.append(version).append(",\"bids\":[");
+    appendArrayLevels(json, bids, limit).append("],\"asks\":[");
+    appendArrayLevels(json, asks, limit).append("],\"timestamp\":").append(eventTime);
+    return json.append('}').toString();
+  }
+
+  String formatPrice(long ticks) {
+    return appendPrice(new StringBuilder(16), ticks).toString();
+  }
+
+  static String formatQuantity(long units) {
+    return appendQuantity(new StringBuilder(16), units).toString();
+  }
+
+  /** Converts a price to ticks, rounding down to the tick grid. */
+  long toTicks(@NonNull BigDecimal price) {
+    return price
+        .movePointRight(priceScale)
+        .divideToIntegralValue(BigDecimal.valueOf(tickMantissa))
+        .longValue();
+  }
+
+  static long toQuantityUnits(@NonNull BigDecimal quantity) {
+    return quantity.movePointRight(QUANTITY_SCALE).longValue();
+  }
+
+  private StringBuilder appendPrice(@NonNull StringBuilder out, long ticks) {
+    return appendScaled(out, ticks * tickMantissa, priceScale);
+  }
+
+  private static StringBuilder appendQuantity(@NonNull StringBuilder out, long units) {
+    return appendScaled(out, units, QUANTITY_SCALE);
+  }
+
+  private static StringBuilder appendScaled(@NonNull StringBuilder out, long mantissa, int scale) {
+    if (mantissa < 0) {
+      out.append('-');
+      mantissa = -mantissa;
+    }
+    String digits = Long.toString(mantissa);
+    if (scale == 0) {
+      return out.append(digits);
+    }
+    int integerDigits = digits.length() - scale;
+    if (integerDigits <= 0) {
+      out.append("0.");
+      for (int i = integerDigits; i < 0; i++) {
+        out.append('0');
+      }
+      return out.append(digits);
+    }
+    return out.append(digits, 0, integerDigits)
+        .append('.')
+        .append(digits, integerDigits, digits.length());
+  }
+
+  private StringBuilder appendLevels(
+      @NonNull StringBuilder json, @NonNull Map<Long, Long> side, int levels) {
+    Iterator<Map.Entry<Long, Long>> iterator = side.entrySet().iterator();
+    for (int i = 0; i < levels && iterator.hasNext(); i++) {
+      Map.Entry<Long, Long> level = iterator.next();
+      json.append(i > 0 ? ",{\"p\":\"" : "{\"p\":\"");
+      appendPrice(json, level.getKey()).append("\",\"v\":\"");
+      appendQuantity(json, level.getValue()).append("\"}");
+    }
+    return json;
+  }
+
+  private StringBuilder appendArrayLevels(
+      @NonNull StringBuilder json, @NonNull Map<Long, Long> side, int levels) {
+    Iterator<Map.Entry<Long, Long>> iterator = side.entrySet().iterator();
+    for (int i = 0; i < levels && iterator.hasNext(); i++) {
+      Map.Entry<Long, Long> level = iterator.next();
+      json.append(i > 0 ? ",[\"" : "[\"");
+      appendPrice(json, level.getKey()).append("\",\"");
+      appendQuantity(json, level.getValue()).append("\"]");
+    }
+    return json;
+  }
+
+  private void writeLevels(
+      @NonNull MexcProtobufWriter body, int field, @NonNull Map<Long, Long> side, int levels) {
+    MexcProtobufWriter item = new MexcProtobufWriter(32);
+    Iterator<Map.Entry<Long, Long>> iterator = side.entrySet().iterator();
+    for (int i = 0; i < levels && iterator.hasNext(); i++) {
+      Map.Entry<Long, Long> level = iterator.next();
+      item.reset();
+      item.string(1, formatPrice(level.getKey())).string(2, formatQuantity(level.getValue()));
+      body.bytes(field, item.toByteArray());
+    }
+  }
+
+  private StringBuilder openPush(@NonNull String channel) {
+    return new StringBuilder(128 + 48 * LEVELS)
+        .append("{\"c\":\"")
+        .append(channel)
+        .append("\",\"d\":");
+  }
+
+  private String closePush(@NonNull StringBuilder json) {
+    json.append(",\"s\":\"").append(symbol).append("\",\"t\":").append(eventTime).append('}');
+    return json.toString();
+  }
+
+  private byte[] wrap(@NonNull String channel, int bodyField, @NonNull MexcProtobufWriter body) {
+    return new MexcProtobufWriter(64 + channel.length())
+        .string(PB_CHANNEL_FIELD, channel)
+        .string(PB_SYMBOL_FIELD, symbol)
+        .varint(PB_SEND_TIME_FIELD, eventTime)
+        .bytes(bodyField, body.toByteArray())
+        .toByteArray();
+  }
+
+  private static void setLevel(
+      @NonNull NavigableMap<Long, Long> side,
+      @NonNull Map<Long, Long> changes,
+      long price,
+      long quantity) {
+    if (quantity > 0) {
+      side.put(price, quantity);
+    } else {
+      side.remove(price);
+    }
+    changes.put(price, Math.max(0, quantity));
+  }
+
+  /** Trims or extends a side to {@link #LEVELS} at its far end; {@code direction} is away. */
+  private void resize(
+      @NonNull NavigableMap<Long, Long> side, @NonNull Map<Long, Long> changes, int direction) {
+    while (side.size() > LEVELS) {
+      changes.put(side.pollLastEntry().getKey(), 0L);
+    }
+    while (side.size() < LEVELS) {
+      setLevel(side, changes, side.lastKey() + direction, randomQuantity());
+    }
+  }
+
+  private void refreshRandomLevel(
+      @NonNull NavigableMap<Long, Long> side, @NonNull Map<Long, Long> changes) {
+    int index = random.nextInt(side.size());
+    Iterator<Long> prices = side.keySet().iterator();
+    for (int i = 0; i < index; i++) {
+      prices.next();
+    }
+    setLevel(side, changes, prices.next(), randomQuantity());
+  }
+
+  private long randomQuantity() {
+    return MIN_QUANTITY + random.nextInt(MAX_QUANTITY - MIN_QUANTITY);
+  }
+}
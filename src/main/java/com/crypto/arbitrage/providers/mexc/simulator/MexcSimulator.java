@@ -0,0 +1,414 @@
+package com.crypto.arbitrage.providers.mexc.simulator;
+
+import static com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader.fieldNumber;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader;
+import com.crypto.arbitrage.providers.mexc.replay.MexcCapturedFeed;
+import com.crypto.arbitrage.utilite.DeadlineWait;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for MEXC, for load, soak and tick-to-trade tests without network. Point {@code
+ * mexc.api.url} at {@code http://localhost:<restPort>} and {@code mexc.api.websocketBaseUrl} at
+ * {@code ws://localhost:<webSocketPort>/ws}.
+ *
+ * <p>The WebSocket side acknowledges SUBSCRIPTION and UNSUBSCRIPTION requests, answers PING with
+ * PONG and serves the public deals, limit depth and incremental depth channels in JSON and, for
+ * the {@code .pb} channels, protobuf. Market data is either synthetic, one {@link
+ * MexcSimulatedMarket} step per symbol {@code rate} times a second, or a {@link MexcCapturedFeed}
+ * replayed in a loop to the sessions subscribed to each frame's channel. Private channels need the
+ * connection URL to carry a listenKey obtained from {@code /api/v3/userDataStream}; they carry the
+ * order and deal pushes of {@link MexcSimulatedAccount}.
+ *
+ * <p>The REST side serves {@code /api/v3/order}, {@code /api/v3/batchOrders}, {@code
+ * /api/v3/userDataStream}, {@code /api/v3/depth}, {@code /api/v3/time} and {@code /api/v3/ping},
+ * see {@link MexcSimulatorRestServer}. Port 0 binds an ephemeral port, see {@link #getRestPort()}.
+ */
+@Slf4j
+@Component
+public class MexcSimulator {
+
+  private static final String METHOD_FIELD = "method";
+  private static final String PARAMS_FIELD = "params";
+  private static final String ID_FIELD = "id";
+  private static final String PRIVATE_PREFIX = "spot@private.";
+  private static final String PROTOBUF_SUFFIX = ".pb";
+  private static final String DEALS_STREAM = "public.deals.v3.api";
+  private static final String LIMIT_DEPTH_STREAM = "public.limit.depth.v3.api";
+  private static final String INCREMENTAL_DEPTH_STREAM = "public.increase.depth.v3.api";
+  private static final String CHANNEL_PREFIX = "\"c\":\"";
+  private static final int PB_CHANNEL_FIELD = 1;
+  private static final long MAX_LAG_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private enum Stream {
+    DEALS,
+    LIMIT_DEPTH,
+    INCREMENTAL_DEPTH,
+    OTHER
+  }
+
+  /** A subscribed channel and its sessions; the stream fields are parsed once. */
+  private record Route(
+      String channel,
+      Stream stream,
+      boolean protobuf,
+      int levels,
+      MexcSimulatedMarket market,
+      Set<MexcSimulatorSession> sessions) {}
+
+  @Getter private final boolean enabled;
+  private final int restPort;
+  private final int webSocketPort;
+  private final double rate;
+  private final String replaySource;
+  private final double replaySpeed;
+  private final ObjectMapper objectMapper;
+  private final Map<String, MexcSimulatedMarket> markets = new ConcurrentHashMap<>();
+  private final Map<String, Route> routes = new ConcurrentHashMap<>();
+  private final Set<MexcSimulatorSession> sessions = ConcurrentHashMap.newKeySet();
+  private final MexcSimulatedAccount account;
+  @Getter private final AtomicLong sentMessages = new AtomicLong();
+  private MexcSimulatorRestServer restServer;
+  private MexcSimulatorWebSocketServer webSocketServer;
+  private Thread marketDataThread;
+  private volatile boolean running;
+
+  /**
+   * @param symbols comma separated {@code SYMBOL:startPrice:tickSize} entries of the synthetic
+   *     markets
+   * @param rate synthetic market steps per symbol and second
+   * @param replaySource capture to replay instead of synthetic market data, blank for none
+   * @param replaySpeed multiple of the captured pace, 0 or less replays back to back
+   */
+  @Autowired
+  public MexcSimulator(
+      @Value("${mexc.simulator.enabled:false}") boolean enabled,
+      @Value("${mexc.simulator.restPort:18080}") int restPort,
+      @Value("${mexc.simulator.webSocketPort:18081}") int webSocketPort,
+      @Value("${mexc.simulator.symbols:BTCUSDT:60000:0.01}") String symbols,
+      @Value("${mexc.simulator.rate:10}") double rate,
+      @Value("${mexc.simulator.replaySource:}") String replaySource,
+      @Value("${mexc.simulator.replaySpeed:1}") double replaySpeed,
+      ObjectMapper objectMapper) {
+    this.enabled = enabled;
+    this.restPort = restPort;
+    this.webSocketPort = webSocketPort;
+    this.rate = rate;
+    this.replaySource = replaySource;
+    this.replaySpeed = replaySpeed;
+    this.objectMapper = objectMapper;
+    long seed = 1;
+    for (String entry : symbols.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      String[] fields = entry.trim().split(":");
+      if (fields.length != 3) {
+        throw new IllegalArgumentException(
+            "Simulator symbol must be SYMBOL:startPrice:tickSize, got " + entry);
+      }
+      markets.put(
+          fields[0],
+          new MexcSimulatedMarket(
+              fields[0], new BigDecimal(fields[1]), new BigDecimal(fields[2]), seed++));
+    }
+    this.account = new MexcSimulatedAccount(objectMapper, markets::get, this::publish);
+  }
+
+  @PostConstruct
+  public void onStartup() throws IOException {
+    if (enabled) {
+      start();
+    }
+  }
+
+  /** Binds both servers and starts serving market data. */
+  public synchronized void start() throws IOException {
+    if (running) {
+      return;
+    }
+    MexcCapturedFeed feed =
+        replaySource.isBlank() ? null : MexcCapturedFeed.load(Path.of(replaySource), objectMapper);
+    restServer = new MexcSimulatorRestServer(restPort, account, markets::get);
+    webSocketServer =
+        new MexcSimulatorWebSocketServer(
+            webSocketPort,
+            new MexcSimulatorWebSocketServer.Listener() {
+              @Override
+              public void onOpen(MexcSimulatorSession session) {
+                sessions.add(session);
+              }
+
+              @Override
+              public void onText(MexcSimulatorSession session, String message) {
+                onRequest(session, message);
+              }
+
+              @Override
+              public void onClose(MexcSimulatorSession session) {
+                removeSession(session);
+              }
+            });
+    running = true;
+    restServer.start();
+    webSocketServer.start();
+    marketDataThread =
+        new Thread(
+            feed == null ? this::runSynthetic : () -> runReplay(feed), "MexcSimulator-marketData");
+    marketDataThread.setDaemon(true);
+    marketDataThread.start();
+    log.info(
+        "Method start: MEXC simulator REST on port {}, WebSocket on port {}, {}",
+        restServer.getPort(),
+        webSocketServer.getPort(),
+        feed == null
+            ? "synthetic " + markets.keySet() + " at " + rate + "/s"
+            : "replaying " + feed.size() + " frames of " + replaySource);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    marketDataThread.interrupt();
+    webSocketServer.stop();
+    sessions.forEach(MexcSimulatorSession::close);
+    restServer.stop();
+    log.info("Method stop: MEXC simulator stopped after {} messages", sentMessages.get());
+  }
+
+  public int getRestPort() {
+    return restServer.getPort();
+  }
+
+  public int getWebSocketPort() {
+    return webSocketServer.getPort();
+  }
+
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  public int getOpenOrderCount() {
+    return account.getOpenOrderCount();
+  }
+
+  private void onRequest(@NonNull MexcSimulatorSession session, @NonNull String message) {
+    JsonNode request;
+    try {
+      request = objectMapper.readTree(message);
+    } catch (IOException e) {
+      log.warn(
+          "Method onRequest: simulator session {} sent invalid JSON: {}", session.getId(), message);
+      return;
+    }
+    int id = request.path(ID_FIELD).asInt(0);
+    switch (request.path(METHOD_FIELD).asText()) {
+      case "PING" -> reply(session, id, 0, "PONG");
+      case "SUBSCRIPTION" -> request
+          .path(PARAMS_FIELD)
+          .forEach(channel -> subscribe(session, id, channel.asText()));
+      case "UNSUBSCRIPTION" -> request
+          .path(PARAMS_FIELD)
+          .forEach(channel -> unsubscribe(session, id, channel.asText()));
+      default -> reply(session, id, 1, "Unknown method: " + request.path(METHOD_FIELD).asText());
+    }
+  }
+
+  private void subscribe(@NonNull MexcSimulatorSession session, int id, @NonNull String channel) {
+    if (channel.startsWith(PRIVATE_PREFIX) && !account.isListenKeyValid(session.getListenKey())) {
+      reply(session, id, 0, "Not Subscribed successfully! [" + channel + "].  Reason： Blocked! ");
+      return;
+    }
+    routes.computeIfAbsent(channel, this::newRoute).sessions().add(session);
+    session.getSubscriptions().add(channel);
+    reply(session, id, 0, channel);
+  }
+
+  private void unsubscribe(
+      @NonNull MexcSimulatorSession session, int id, @NonNull String channel) {
+    Route route = routes.get(channel);
+    if (route != null) {
+      route.sessions().remove(session);
+    }
+    session.getSubscriptions().remove(channel);
+    reply(session, id, 0, channel);
+  }
+
+  private void removeSession(@NonNull MexcSimulatorSession session) {
+    sessions.remove(session);
+    for (String channel : session.getSubscriptions()) {
+      Route route = routes.get(channel);
+      if (route != null) {
+        route.sessions().remove(session);
+      }
+    }
+  }
+
+  private void reply(@NonNull MexcSimulatorSession session, int id, int code, @NonNull String msg) {
+    session.sendText(
+        "{\"id\":" + id + ",\"code\":" + code + ",\"msg\":\"" + msg.replace("\"", "\\\"") + "\"}");
+  }
+
+  /** Sends a message to the sessions subscribed to {@code channel}. */
+  private void publish(@NonNull String channel, @NonNull Object message) {
+    Route route = routes.get(channel);
+    if (route != null) {
+      deliver(route, message);
+    }
+  }
+
+  private void deliver(@NonNull Route route, Object message) {
+    if (message == null) {
+      return;
+    }
+    for (MexcSimulatorSession session : route.sessions()) {
+      if (message instanceof byte[] binary) {
+        session.sendBinary(binary);
+      } else {
+        session.sendText((String) message);
+      }
+      sentMessages.incrementAndGet();
+    }
+  }
+
+  // spot@<stream>[.pb]@<SYMBOL>[@<levels>]
+  private Route newRoute(@NonNull String channel) {
+    String[] parts = channel.split("@");
+    String stream = parts.length > 1 ? parts[1] : "";
+    boolean protobuf = stream.endsWith(PROTOBUF_SUFFIX);
+    if (protobuf) {
+      stream = stream.substring(0, stream.length() - PROTOBUF_SUFFIX.length());
+    }
+    Stream kind =
+        switch (stream) {
+          case DEALS_STREAM -> Stream.DEALS;
+          case LIMIT_DEPTH_STREAM -> Stream.LIMIT_DEPTH;
+          case INCREMENTAL_DEPTH_STREAM -> Stream.INCREMENTAL_DEPTH;
+          default -> Stream.OTHER;
+        };
+    MexcSimulatedMarket market = parts.length > 2 ? markets.get(parts[2]) : null;
+    int levels = MexcSimulatedMarket.LEVELS;
+    if (kind == Stream.LIMIT_DEPTH && parts.length > 3) {
+      levels = Math.min(levels, Integer.parseInt(parts[3]));
+    }
+    return new Route(channel, kind, protobuf, levels, market, new CopyOnWriteArraySet<>());
+  }
+
+  private void runSynthetic() {
+    long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    long next = System.nanoTime();
+    List<Route> active = new ArrayList<>();
+    while (running) {
+      for (MexcSimulatedMarket market : markets.values()) {
+        market.step();
+        account.matchResting(market);
+      }
+      active.clear();
+      for (Route route : routes.values()) {
+        if (route.market() != null && !route.sessions().isEmpty()) {
+          active.add(route);
+        }
+      }
+      for (Route route : active) {
+        deliver(route, render(route));
+      }
+      next += periodNanos;
+      long now = System.nanoTime();
+      if (now - next > MAX_LAG_NANOS) {
+        // Fell behind, e.g. a slow client: do not burst to catch up
+        next = now;
+      }
+      if (!DeadlineWait.until(next)) {
+        // Interrupted by stop()
+        return;
+      }
+    }
+  }
+
+  private static Object render(@NonNull Route route) {
+    MexcSimulatedMarket market = route.market();
+    return switch (route.stream()) {
+      case DEALS -> route.protobuf()
+          ? market.dealsProtobuf(route.channel())
+          : market.dealsJson(route.channel());
+      case LIMIT_DEPTH -> route.protobuf()
+          ? market.depthProtobuf(route.channel(), route.levels())
+          : market.depthJson(route.channel(), route.levels());
+      case INCREMENTAL_DEPTH -> route.protobuf()
+          ? market.depthDeltaProtobuf(route.channel())
+          : market.depthDeltaJson(route.channel());
+      case OTHER -> null;
+    };
+  }
+
+  private void runReplay(@NonNull MexcCapturedFeed feed) {
+    if (feed.size() == 0) {
+      log.warn("Method runReplay: {} has no frames to replay", replaySource);
+      return;
+    }
+    String[] channels = new String[feed.size()];
+    for (int i = 0; i < channels.length; i++) {
+      channels[i] = channelOf(feed.getFrame(i));
+    }
+    long captureStart = feed.getReceivedEpochNanos(0);
+    while (running) {
+      long replayStart = System.nanoTime();
+      for (int i = 0; i < feed.size() && running; i++) {
+        if (replaySpeed > 0
+            && !DeadlineWait.until(
+                replayStart
+                    + (long) ((feed.getReceivedEpochNanos(i) - captureStart) / replaySpeed))) {
+          return;
+        }
+        if (channels[i] != null) {
+          publish(channels[i], feed.getFrame(i));
+        }
+      }
+    }
+  }
+
+  /** The {@code c} field of a text frame or the channel field of a protobuf wrapper. */
+  private static String channelOf(@NonNull Object frame) {
+    if (frame instanceof byte[] binary) {
+      MexcProtobufReader reader = new MexcProtobufReader(binary);
+      for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+        if (fieldNumber(tag) == PB_CHANNEL_FIELD) {
+          return reader.readString();
+        }
+        reader.skipField(tag);
+      }
+      return null;
+    }
+    String text = (String) frame;
+    int start = text.indexOf(CHANNEL_PREFIX);
+    if (start < 0) {
+      return null;
+    }
+    start += CHANNEL_PREFIX.length();
+    int end = text.indexOf('"', start);
+    return end < 0 ? null : text.substring(start, end);
+  }
+}
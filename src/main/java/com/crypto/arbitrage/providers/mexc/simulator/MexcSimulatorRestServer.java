@@ -0,0 +1,191 @@
+package com.crypto.arbitrage.providers.mexc.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The MEXC REST endpoints the client uses, on the JDK {@link HttpServer}. Parameters are read from
+ * the query string and from a form encoded body. Signed endpoints need the API key header and a
+ * {@code signature} parameter, but the signature itself is not verified.
+ */
+@Slf4j
+class MexcSimulatorRestServer {
+
+  record Response(int status, String body) {}
+
+  private static final String API_KEY_HEADER = "X-MEXC-APIKEY";
+  private static final String SIGNATURE_PARAMETER = "signature";
+  private static final int THREADS = 4;
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final MexcSimulatedAccount account;
+  private final Function<String, MexcSimulatedMarket> markets;
+
+  MexcSimulatorRestServer(
+      int port,
+      @NonNull MexcSimulatedAccount account,
+      @NonNull Function<String, MexcSimulatedMarket> markets)
+      throws IOException {
+    this.account = account;
+    this.markets = markets;
+    AtomicInteger threadIds = new AtomicInteger();
+    this.executor =
+        Executors.newFixedThreadPool(
+            THREADS, r -> new Thread(r, "MexcSimulator-rest-" + threadIds.incrementAndGet()));
+    this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    server.setExecutor(executor);
+    server.createContext("/api/v3/order", exchange -> handle(exchange, true, this::order));
+    server.createContext(
+        "/api/v3/batchOrders",
+        exchange ->
+            handle(
+                exchange,
+                true,
+                (method, params) ->
+                    "POST".equals(method)
+                        ? account.batchOrders(params)
+                        : new Response(405, "{\"code\":405,\"msg\":\"Method not allowed\"}")));
+    server.createContext(
+        "/api/v3/userDataStream", exchange -> handle(exchange, true, this::listenKey));
+    server.createContext("/api/v3/depth", exchange -> handle(exchange, false, this::depth));
+    server.createContext(
+        "/api/v3/time",
+        exchange ->
+            handle(
+                exchange,
+                false,
+                (method, params) ->
+                    new Response(200, "{\"serverTime\":" + System.currentTimeMillis() + "}")));
+    server.createContext(
+        "/api/v3/ping",
+        exchange -> handle(exchange, false, (method, params) -> new Response(200, "{}")));
+  }
+
+  int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  void start() {
+    server.start();
+  }
+
+  void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  @FunctionalInterface
+  private interface Endpoint {
+    Response handle(String method, Map<String, String> params);
+  }
+
+  private void handle(
+      @NonNull HttpExchange exchange, boolean signed, @NonNull Endpoint endpoint)
+      throws IOException {
+    Response response;
+    try {
+      Map<String, String> params = new HashMap<>();
+      parseParams(exchange.getRequestURI().getRawQuery(), params);
+      parseParams(
+          new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), params);
+      try {
+        response = signed ? checkSigned(exchange, params) : null;
+        if (response == null) {
+          response = endpoint.handle(exchange.getRequestMethod(), params);
+        }
+      } catch (RuntimeException e) {
+        log.error("Method handle: simulator failed on {}", exchange.getRequestURI(), e);
+        response = new Response(500, "{\"code\":500,\"msg\":\"Internal error\"}");
+      }
+      byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(response.status(), body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private Response order(@NonNull String method, @NonNull Map<String, String> params) {
+    return switch (method) {
+      case "POST" -> account.newOrder(params);
+      case "DELETE" -> account.cancelOrder(params);
+      // Older clients sent both new orders and cancels as PUT
+      case "PUT" -> params.containsKey("side")
+          ? account.newOrder(params)
+          : account.cancelOrder(params);
+      default -> new Response(405, "{\"code\":405,\"msg\":\"Method not allowed\"}");
+    };
+  }
+
+  private Response listenKey(@NonNull String method, @NonNull Map<String, String> params) {
+    String listenKey = params.get("listenKey");
+    return switch (method) {
+      case "POST" -> new Response(200, "{\"listenKey\":\"" + account.createListenKey() + "\"}");
+      case "PUT", "DELETE" -> {
+        if (!account.isListenKeyValid(listenKey)) {
+          yield new Response(400, "{\"code\":730707,\"msg\":\"listenKey does not exist\"}");
+        }
+        if ("DELETE".equals(method)) {
+          account.deleteListenKey(listenKey);
+        }
+        yield new Response(200, "{\"listenKey\":\"" + listenKey + "\"}");
+      }
+      case "GET" -> new Response(
+          200, "{\"listenKey\":[\"" + String.join("\",\"", account.getListenKeys()) + "\"]}");
+      default -> new Response(405, "{\"code\":405,\"msg\":\"Method not allowed\"}");
+    };
+  }
+
+  private Response depth(@NonNull String method, @NonNull Map<String, String> params) {
+    MexcSimulatedMarket market = markets.apply(params.getOrDefault("symbol", ""));
+    if (market == null) {
+      return new Response(400, "{\"code\":-1121,\"msg\":\"Invalid symbol.\"}");
+    }
+    int limit = Integer.parseInt(params.getOrDefault("limit", "100"));
+    return new Response(200, market.restSnapshotJson(limit));
+  }
+
+  /** Returns the error response of a signed request without key or signature, else null. */
+  private static Response checkSigned(
+      @NonNull HttpExchange exchange, @NonNull Map<String, String> params) {
+    if (exchange.getRequestHeaders().getFirst(API_KEY_HEADER) == null) {
+      return new Response(400, "{\"code\":700001,\"msg\":\"API-key format invalid.\"}");
+    }
+    if (!params.containsKey(SIGNATURE_PARAMETER) || !params.containsKey("timestamp")) {
+      return new Response(
+          400, "{\"code\":700002,\"msg\":\"Signature for this request is not valid.\"}");
+    }
+    return null;
+  }
+
+  private static void parseParams(String encoded, @NonNull Map<String, String> params) {
+    if (encoded == null || encoded.isEmpty()) {
+      return;
+    }
+    for (String pair : encoded.split("&")) {
+      int equals = pair.indexOf('=');
+      if (equals > 0) {
+        params.put(
+            URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+            URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+      }
+    }
+  }
+}
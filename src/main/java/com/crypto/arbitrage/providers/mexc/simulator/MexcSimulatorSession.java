@@ -0,0 +1,110 @@
+package com.crypto.arbitrage.providers.mexc.simulator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server side of one simulated WebSocket connection. Frames are written unmasked and unfragmented
+ * under a lock, so market data, private pushes and control replies can be sent from any thread. A
+ * slow client blocks the sending thread, like a full socket buffer on a real server would.
+ */
+@Slf4j
+public class MexcSimulatorSession {
+
+  static final int OPCODE_CONTINUATION = 0x0;
+  static final int OPCODE_TEXT = 0x1;
+  static final int OPCODE_BINARY = 0x2;
+  static final int OPCODE_CLOSE = 0x8;
+  static final int OPCODE_PING = 0x9;
+  static final int OPCODE_PONG = 0xA;
+
+  private static final int FIN = 0x80;
+  private static final int MAX_HEADER_LENGTH = 10;
+
+  @Getter private final int id;
+  /** The listenKey from the connection URL, {@code null} for public market data connections. */
+  @Getter private final String listenKey;
+  @Getter private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+  private final Socket socket;
+  private final OutputStream out;
+  private final byte[] header = new byte[MAX_HEADER_LENGTH];
+  private volatile boolean open = true;
+
+  MexcSimulatorSession(int id, String listenKey, @NonNull Socket socket) throws IOException {
+    this.id = id;
+    this.listenKey = listenKey;
+    this.socket = socket;
+    this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+  }
+
+  public boolean isOpen() {
+    return open;
+  }
+
+  public void sendText(@NonNull String message) {
+    send(OPCODE_TEXT, message.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public void sendBinary(@NonNull byte[] message) {
+    send(OPCODE_BINARY, message);
+  }
+
+  /** Sends a frame; on an I/O error the session is closed and the frame is lost. */
+  void send(int opcode, @NonNull byte[] payload) {
+    if (!open) {
+      return;
+    }
+    synchronized (out) {
+      try {
+        out.write(header, 0, writeHeader(opcode, payload.length));
+        out.write(payload);
+        out.flush();
+      } catch (IOException e) {
+        log.info("Method send: simulator session {} write failed: {}", id, e.getMessage());
+        close();
+      }
+    }
+  }
+
+  /** Sends a close frame echoing {@code payload} and closes the socket. */
+  void closeWith(@NonNull byte[] payload) {
+    send(OPCODE_CLOSE, payload);
+    close();
+  }
+
+  public void close() {
+    open = false;
+    try {
+      socket.close();
+    } catch (IOException e) {
+      log.debug("Method close: simulator session {}: {}", id, e.getMessage());
+    }
+  }
+
+  private int writeHeader(int opcode, int length) {
+    header[0] = (byte) (FIN | opcode);
+    if (length < 126) {
+      header[1] = (byte) length;
+      return 2;
+    }
+    if (length <= 0xFFFF) {
+      header[1] = 126;
+      header[2] = (byte) (length >>> 8);
+      header[3] = (byte) length;
+      return 4;
+    }
+    header[1] = 127;
+    for (int i = 0; i < 8; i++) {
+      header[2 + i] = (byte) ((long) length >>> (56 - 8 * i));
+    }
+    return MAX_HEADER_LENGTH;
+  }
+}
@@ -0,0 +1,258 @@
+package com.crypto.arbitrage.providers.mexc.simulator;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Just enough of an RFC 6455 server for the MEXC client: the HTTP upgrade handshake without
+ * extensions, masked client frames including fragments, and ping, pong and close control frames.
+ * Each connection is read by its own thread; everything else a session does is in {@link
+ * MexcSimulatorSession}.
+ */
+@Slf4j
+class MexcSimulatorWebSocketServer {
+
+  interface Listener {
+    void onOpen(MexcSimulatorSession session);
+
+    void onText(MexcSimulatorSession session, String message);
+
+    void onClose(MexcSimulatorSession session);
+  }
+
+  private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+  private static final String KEY_HEADER = "sec-websocket-key";
+  private static final String LISTEN_KEY_PARAMETER = "listenKey=";
+  private static final int MAX_HANDSHAKE_LENGTH = 16 * 1024;
+  private static final int MAX_MESSAGE_LENGTH = 16 * 1024 * 1024;
+
+  private final Listener listener;
+  private final ServerSocket serverSocket;
+  private final AtomicInteger sessionIds = new AtomicInteger();
+  private volatile boolean running;
+
+  MexcSimulatorWebSocketServer(int port, @NonNull Listener listener) throws IOException {
+    this.listener = listener;
+    this.serverSocket = new ServerSocket();
+    serverSocket.setReuseAddress(true);
+    serverSocket.bind(new InetSocketAddress(port));
+  }
+
+  int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  void start() {
+    running = true;
+    Thread acceptor = new Thread(this::accept, "MexcSimulator-ws-accept");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  void stop() {
+    running = false;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      log.debug("Method stop: {}", e.getMessage());
+    }
+  }
+
+  private void accept() {
+    while (running) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        int id = sessionIds.incrementAndGet();
+        Thread reader = new Thread(() -> serve(id, socket), "MexcSimulator-ws-" + id);
+        reader.setDaemon(true);
+        reader.start();
+      } catch (IOException e) {
+        if (running) {
+          log.error("Method accept: simulator WebSocket accept failed", e);
+        }
+      }
+    }
+  }
+
+  private void serve(int id, @NonNull Socket socket) {
+    MexcSimulatorSession session = null;
+    try (socket) {
+      InputStream in = new BufferedInputStream(socket.getInputStream());
+      String listenKey = handshake(in, socket.getOutputStream());
+      if (listenKey == null) {
+        return;
+      }
+      session = new MexcSimulatorSession(id, listenKey.isEmpty() ? null : listenKey, socket);
+      listener.onOpen(session);
+      readFrames(in, session);
+    } catch (EOFException | SocketException e) {
+      log.debug("Method serve: simulator session {} ended: {}", id, e.getMessage());
+    } catch (IOException e) {
+      log.warn("Method serve: simulator session {} failed: {}", id, e.getMessage());
+    } finally {
+      if (session != null) {
+        session.close();
+        listener.onClose(session);
+      }
+    }
+  }
+
+  /**
+   * Reads the upgrade request and answers it. Returns the listenKey of the request URL, an empty
+   * string without one, or {@code null} if the request was rejected.
+   */
+  private static String handshake(@NonNull InputStream in, @NonNull OutputStream out)
+      throws IOException {
+    String[] lines = readHeaderBlock(in).split("\r\n");
+    String key = null;
+    for (int i = 1; i < lines.length; i++) {
+      int colon = lines[i].indexOf(':');
+      if (colon > 0
+          && lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT).equals(KEY_HEADER)) {
+        key = lines[i].substring(colon + 1).trim();
+      }
+    }
+    if (key == null) {
+      out.write(
+          "HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\nConnection: close\r\n\r\n"
+              .getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+      return null;
+    }
+    out.write(
+        ("HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: "
+                + acceptKey(key)
+                + "\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII));
+    out.flush();
+    // GET /ws?listenKey=... HTTP/1.1
+    String target = lines[0].split(" ")[1];
+    int keyStart = target.indexOf(LISTEN_KEY_PARAMETER);
+    if (keyStart < 0) {
+      return "";
+    }
+    keyStart += LISTEN_KEY_PARAMETER.length();
+    int keyEnd = target.indexOf('&', keyStart);
+    return URLDecoder.decode(
+        keyEnd < 0 ? target.substring(keyStart) : target.substring(keyStart, keyEnd),
+        StandardCharsets.UTF_8);
+  }
+
+  private static String readHeaderBlock(@NonNull InputStream in) throws IOException {
+    ByteArrayOutputStream request = new ByteArrayOutputStream(512);
+    int matched = 0;
+    while (matched < 4) {
+      int b = in.read();
+      if (b < 0) {
+        throw new EOFException("Connection closed during handshake");
+      }
+      request.write(b);
+      if (request.size() > MAX_HANDSHAKE_LENGTH) {
+        throw new IOException("Handshake request too long");
+      }
+      // Counts the \r\n\r\n terminator
+      matched = b == (matched % 2 == 0 ? '\r' : '\n') ? matched + 1 : (b == '\r' ? 1 : 0);
+    }
+    return request.toString(StandardCharsets.US_ASCII);
+  }
+
+  private static String acceptKey(@NonNull String key) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-1")
+              .digest((key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 is not available", e);
+    }
+  }
+
+  private void readFrames(@NonNull InputStream in, @NonNull MexcSimulatorSession session)
+      throws IOException {
+    ByteArrayOutputStream fragments = new ByteArrayOutputStream();
+    int fragmentedOpcode = 0;
+    while (session.isOpen()) {
+      int first = readByte(in);
+      int second = readByte(in);
+      boolean fin = (first & 0x80) != 0;
+      int opcode = first & 0x0F;
+      long length = second & 0x7F;
+      if (length == 126) {
+        length = (long) readByte(in) << 8 | readByte(in);
+      } else if (length == 127) {
+        length = 0;
+        for (int i = 0; i < 8; i++) {
+          length = length << 8 | readByte(in);
+        }
+      }
+      // A 64-bit length with the most significant bit set reads as negative
+      if (length < 0 || length > MAX_MESSAGE_LENGTH) {
+        throw new IOException("Frame length " + length + " is negative or exceeds the limit");
+      }
+      byte[] mask = (second & 0x80) != 0 ? in.readNBytes(4) : null;
+      byte[] payload = in.readNBytes((int) length);
+      if (payload.length < length) {
+        throw new EOFException("Connection closed inside a frame");
+      }
+      if (mask != null) {
+        for (int i = 0; i < payload.length; i++) {
+          payload[i] ^= mask[i & 3];
+        }
+      }
+      switch (opcode) {
+        case MexcSimulatorSession.OPCODE_PING -> session.send(
+            MexcSimulatorSession.OPCODE_PONG, payload);
+        case MexcSimulatorSession.OPCODE_PONG -> {}
+        case MexcSimulatorSession.OPCODE_CLOSE -> {
+          session.closeWith(payload);
+          return;
+        }
+        case MexcSimulatorSession.OPCODE_TEXT,
+            MexcSimulatorSession.OPCODE_BINARY,
+            MexcSimulatorSession.OPCODE_CONTINUATION -> {
+          if (opcode != MexcSimulatorSession.OPCODE_CONTINUATION) {
+            fragmentedOpcode = opcode;
+            fragments.reset();
+          }
+          fragments.write(payload);
+          if (fragments.size() > MAX_MESSAGE_LENGTH) {
+            throw new IOException("Message exceeds the limit");
+          }
+          if (fin && fragmentedOpcode == MexcSimulatorSession.OPCODE_TEXT) {
+            listener.onText(session, fragments.toString(StandardCharsets.UTF_8));
+          }
+        }
+        default -> throw new IOException("Unknown opcode " + opcode);
+      }
+    }
+  }
+
+  private static int readByte(@NonNull InputStream in) throws IOException {
+    int b = in.read();
+    if (b < 0) {
+      throw new EOFException("Connection closed");
+    }
+    return b;
+  }
+}
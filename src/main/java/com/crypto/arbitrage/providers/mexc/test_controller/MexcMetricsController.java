@@ -0,0 +1,231 @@
+package com.crypto.arbitrage.providers.mexc.test_controller;
+
+import com.crypto.arbitrage.providers.mexc.journal.MexcFrameRecorder;
+import com.crypto.arbitrage.providers.mexc.service.MexcClock;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer;
+import com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLatencyRecorder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLivenessMonitor;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcMessagePipeline;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcRedundantFeed;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcWebSocketConnection;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcWebSocketConnectionPool;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcWebSocketStateService;
+import com.crypto.arbitrage.utilite.LatencyHistogram;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/v1/mexc/metrics")
+@RequiredArgsConstructor
+public class MexcMetricsController {
+
+  private static final String MESSAGE_QUEUE = "/message-queue";
+
+  private static final String CONNECTIONS = "/connections";
+  private static final String REDUNDANT_FEED = "/redundant-feed";
+  private static final String LATENCY = "/latency";
+  private static final String JOURNAL = "/journal";
+  private static final String RATE_LIMIT = "/rate-limit";
+  private static final String CLOCK = "/clock";
+  private static final String ORDER_LATENCY = "/order-latency";
+  private static final String LIVENESS = "/liveness";
+
+  private static final double NANOS_PER_MICRO = 1_000.0;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final MexcWebSocketConnectionPool connectionPool;
+  private final MexcFeedLatencyRecorder latencyRecorder;
+  private final MexcFrameRecorder frameRecorder;
+  private final MexcRateLimiter rateLimiter;
+  private final MexcClock clock;
+  private final MexcOrderLatencyTracer orderLatencyTracer;
+  private final MexcFeedLivenessMonitor livenessMonitor;
+
+  @GetMapping(MESSAGE_QUEUE)
+  public ResponseEntity<Map<String, Object>> getMessageQueueMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    for (MexcWebSocketConnection connection : connectionPool.getConnections()) {
+      MexcMessagePipeline pipeline = connection.getPipeline();
+      Map<String, Object> pipelineMetrics = new LinkedHashMap<>();
+      pipelineMetrics.put("backlog", pipeline.getBacklog());
+      pipelineMetrics.put("maxBacklog", pipeline.getMaxBacklog());
+      pipelineMetrics.put("capacity", pipeline.getCapacity());
+      pipelineMetrics.put("received", pipeline.getReceivedCount());
+      pipelineMetrics.put("dropped", pipeline.getDroppedCount());
+      pipelineMetrics.put("overflowPolicy", pipeline.getOverflowPolicy());
+      metrics.put(connection.getName(), pipelineMetrics);
+    }
+    return ResponseEntity.ok(metrics);
+  }
+
+  @GetMapping(CONNECTIONS)
+  public ResponseEntity<Map<String, Object>> getConnectionMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    for (MexcWebSocketConnection connection : connectionPool.getConnections()) {
+      Map<String, Object> connectionMetrics = new LinkedHashMap<>();
+      connectionMetrics.put("open", connection.isOpen());
+      connectionMetrics.put("subscriptions", connection.getStateService().getSubscriptionCount());
+      metrics.put(connection.getName(), connectionMetrics);
+    }
+    return ResponseEntity.ok(metrics);
+  }
+
+  @GetMapping(REDUNDANT_FEED)
+  public ResponseEntity<Map<String, Object>> getRedundantFeedMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    MexcRedundantFeed feed = connectionPool.getRedundantFeed();
+    if (feed == null) {
+      return ResponseEntity.ok(metrics);
+    }
+    for (int i = 0; i < feed.getLegCount(); i++) {
+      MexcRedundantFeed.Leg leg = feed.getLeg(i);
+      Map<String, Object> legMetrics = new LinkedHashMap<>();
+      legMetrics.put("wins", leg.getWins().get());
+      legMetrics.put("duplicates", leg.getDuplicates().get());
+      legMetrics.put("winRate", leg.getWinRate());
+      metrics.put(feed.getName() + "-" + i, legMetrics);
+    }
+    return ResponseEntity.ok(metrics);
+  }
+
+  /** Feed latency percentiles in microseconds, by symbol, channel and stage. */
+  @GetMapping(LATENCY)
+  public ResponseEntity<Map<String, Object>> getLatencyMetrics() {
+    return ResponseEntity.ok(latencyMetrics(latencyRecorder));
+  }
+
+  static Map<String, Object> latencyMetrics(MexcFeedLatencyRecorder latencyRecorder) {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    for (String symbol : latencyRecorder.getSymbols()) {
+      Map<String, Object> symbolMetrics = new LinkedHashMap<>();
+      for (MexcFeedLatencyRecorder.Channel channel : MexcFeedLatencyRecorder.Channel.values()) {
+        Map<String, Object> channelMetrics = new LinkedHashMap<>();
+        for (MexcFeedLatencyRecorder.Stage stage : MexcFeedLatencyRecorder.Stage.values()) {
+          LatencyHistogram histogram = latencyRecorder.getHistogram(symbol, channel, stage);
+          if (histogram != null && histogram.getCount() > 0) {
+            channelMetrics.put(stage.name(), toMicros(histogram));
+          }
+        }
+        if (!channelMetrics.isEmpty()) {
+          symbolMetrics.put(channel.name(), channelMetrics);
+        }
+      }
+      metrics.put(symbol, symbolMetrics);
+    }
+    return metrics;
+  }
+
+  @GetMapping(JOURNAL)
+  public ResponseEntity<Map<String, Object>> getJournalMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    for (MexcFrameRecorder.Tap tap : frameRecorder.getTaps()) {
+      Map<String, Object> tapMetrics = new LinkedHashMap<>();
+      tapMetrics.put("recorded", tap.getRecordedCount().get());
+      tapMetrics.put("dropped", tap.getDroppedCount().get());
+      tapMetrics.put("backlog", tap.getRingBuffer().size());
+      metrics.put(tap.getName(), tapMetrics);
+    }
+    return ResponseEntity.ok(metrics);
+  }
+
+  /** Admission decisions of the REST rate limiter by lane, queueing times in microseconds. */
+  @GetMapping(RATE_LIMIT)
+  public ResponseEntity<Map<String, Object>> getRateLimitMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("throttled", rateLimiter.getThrottledCount().sum());
+    for (MexcRateLimiter.Lane lane : MexcRateLimiter.Lane.values()) {
+      MexcRateLimiter.LaneStats stats = rateLimiter.getStats(lane);
+      long queued = stats.getQueued().sum();
+      Map<String, Object> laneMetrics = new LinkedHashMap<>();
+      laneMetrics.put("availableWeight", rateLimiter.getAvailableWeight(lane));
+      laneMetrics.put("admitted", stats.getAdmitted().sum());
+      laneMetrics.put("queued", queued);
+      laneMetrics.put("rejected", stats.getRejected().sum());
+      laneMetrics.put("queueDepth", stats.getQueueDepth().get());
+      laneMetrics.put(
+          "meanQueuedMicros",
+          queued == 0 ? 0 : stats.getQueuedNanos().sum() / (queued * NANOS_PER_MICRO));
+      metrics.put(lane.name(), laneMetrics);
+    }
+    return ResponseEntity.ok(metrics);
+  }
+
+  /** The estimated offset of the MEXC server clock from the local clock. */
+  @GetMapping(CLOCK)
+  public ResponseEntity<Map<String, Object>> getClockMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("synced", clock.isSynced());
+    metrics.put("offsetMs", clock.getOffsetMs());
+    metrics.put("roundTripMs", clock.getRoundTripMs());
+    metrics.put("lastSyncTime", clock.getLastSyncTime());
+    return ResponseEntity.ok(metrics);
+  }
+
+  /**
+   * Latency distributions of the order path in microseconds, each stage from the point before it
+   * and the exchange's answers from the HTTP send.
+   */
+  @GetMapping(ORDER_LATENCY)
+  public ResponseEntity<Map<String, Object>> getOrderLatencyMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    for (MexcOrderLatencyTracer.Point point : MexcOrderLatencyTracer.Point.values()) {
+      if (point.getFrom() != null) {
+        metrics.put(
+            point.getFrom() + "->" + point, toMicros(orderLatencyTracer.getHistogram(point)));
+      }
+    }
+    metrics.put("TICK_TO_ACK", toMicros(orderLatencyTracer.getTickToAck()));
+    return ResponseEntity.ok(metrics);
+  }
+
+  /**
+   * Liveness of the connections, with their PING to PONG round-trips in microseconds, and of the
+   * market data of each symbol.
+   */
+  @GetMapping(LIVENESS)
+  public ResponseEntity<Map<String, Object>> getLivenessMetrics() {
+    Map<String, Object> connections = new LinkedHashMap<>();
+    for (MexcWebSocketConnection connection : connectionPool.getConnections()) {
+      MexcWebSocketStateService stateService = connection.getStateService();
+      Map<String, Object> connectionMetrics = new LinkedHashMap<>();
+      connectionMetrics.put("alive", stateService.isAlive());
+      connectionMetrics.put(
+          "lastPongRoundTripMicros", stateService.getLastPongRoundTripNanos() / NANOS_PER_MICRO);
+      connectionMetrics.put("pongRoundTrip", toMicros(stateService.getPongRoundTrip()));
+      connections.put(connection.getName(), connectionMetrics);
+    }
+    long now = System.nanoTime();
+    Map<String, Object> symbols = new LinkedHashMap<>();
+    for (MexcFeedLivenessMonitor.SymbolLiveness liveness : livenessMonitor.getSymbols()) {
+      Map<String, Object> symbolMetrics = new LinkedHashMap<>();
+      symbolMetrics.put("stale", liveness.isStale());
+      symbolMetrics.put("silentMs", (now - liveness.getLastFrameNanos()) / NANOS_PER_MILLI);
+      symbolMetrics.put("meanGapMs", liveness.getMeanGapNanos() / NANOS_PER_MILLI);
+      symbolMetrics.put(
+          "silenceBudgetMs", livenessMonitor.getSilenceBudgetNanos(liveness) / NANOS_PER_MILLI);
+      symbols.put(liveness.getSymbol(), symbolMetrics);
+    }
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("connections", connections);
+    metrics.put("symbols", symbols);
+    return ResponseEntity.ok(metrics);
+  }
+
+  static Map<String, Object> toMicros(LatencyHistogram histogram) {
+    Map<String, Object> stageMetrics = new LinkedHashMap<>();
+    stageMetrics.put("count", histogram.getCount());
+    stageMetrics.put("mean", histogram.getMean() / NANOS_PER_MICRO);
+    stageMetrics.put("p50", histogram.getValueAtPercentile(50) / NANOS_PER_MICRO);
+    stageMetrics.put("p90", histogram.getValueAtPercentile(90) / NANOS_PER_MICRO);
+    stageMetrics.put("p99", histogram.getValueAtPercentile(99) / NANOS_PER_MICRO);
+    stageMetrics.put("p99.9", histogram.getValueAtPercentile(99.9) / NANOS_PER_MICRO);
+    stageMetrics.put("max", histogram.getMax() / NANOS_PER_MICRO);
+    return stageMetrics;
+  }
+}
@@ -0,0 +1,61 @@
+package com.crypto.arbitrage.providers.mexc.test_controller;
+
+import com.crypto.arbitrage.providers.mexc.model.replay.MexcReplayRequest;
+import com.crypto.arbitrage.providers.mexc.replay.MexcReplayDriver;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLatencyRecorder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/v1/mexc/replay")
+@RequiredArgsConstructor
+public class MexcReplayController {
+
+  private static final String START = "/start";
+  private static final String STOP = "/stop";
+  private static final String REPORT = "/report";
+
+  private final MexcReplayDriver replayDriver;
+  private final MexcFeedLatencyRecorder latencyRecorder;
+
+  /** Sources outside the replay directory and symbols subscribed live are a bad request. */
+  @PostMapping(START)
+  public ResponseEntity<?> start(@RequestBody MexcReplayRequest request) {
+    if (request.getSource() == null) {
+      return ResponseEntity.badRequest().body("source is required");
+    }
+    if (!replayDriver.start(request)) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body("A replay is already running");
+    }
+    return new ResponseEntity<>(HttpStatus.ACCEPTED);
+  }
+
+  @PostMapping(STOP)
+  public ResponseEntity<?> stop() {
+    replayDriver.stop();
+    return new ResponseEntity<>(HttpStatus.OK);
+  }
+
+  /** Progress and throughput of the current or last replay, latencies in microseconds. */
+  @GetMapping(REPORT)
+  public ResponseEntity<Map<String, Object>> getReport() {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("status", replayDriver.getStatus());
+    report.put("source", replayDriver.getSource());
+    report.put("speed", replayDriver.getSpeed());
+    report.put("failure", replayDriver.getFailure());
+    report.put("totalFrames", replayDriver.getTotalFrames());
+    report.put("skippedFrames", replayDriver.getSkippedFrames());
+    report.put("dispatchedFrames", replayDriver.getDispatchedFrames());
+    report.put("elapsedMillis", replayDriver.getElapsedMillis());
+    report.put("messagesPerSecond", replayDriver.getMessagesPerSecond());
+    report.put("dispatch", MexcMetricsController.toMicros(replayDriver.getDispatchHistogram()));
+    report.put("lag", MexcMetricsController.toMicros(replayDriver.getLagHistogram()));
+    report.put("stages", MexcMetricsController.latencyMetrics(latencyRecorder));
+    return ResponseEntity.ok(report);
+  }
+}
@@ -1,9 +1,13 @@
 package com.crypto.arbitrage.providers.mexc.test_controller;
 
 import com.crypto.arbitrage.providers.mexc.model.order.MexcCancelOrderReq;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcCancelOrderResp;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderResp;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderAck;
 import com.crypto.arbitrage.providers.mexc.service.MexcOrderService;
 import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -21,13 +25,15 @@ public class MexcTestController {
 
   @PostMapping(ORDER_URL)
   @ResponseStatus(code = HttpStatus.CREATED)
-  public void createOrder(@Valid @ModelAttribute MexcNewOrderReq req) {
-    mexcOrderService.sendOrder(req);
+  public CompletableFuture<MexcOrderAck<MexcNewOrderResp>> createOrder(
+      @Valid @ModelAttribute MexcNewOrderReq req) {
+    return mexcOrderService.sendOrder(req);
   }
 
   @DeleteMapping(ORDER_URL)
-  @ResponseStatus(code = HttpStatus.NO_CONTENT)
-  public void cancelOrder(@Valid @ModelAttribute MexcCancelOrderReq req) {
-    mexcOrderService.cancelOrder(req);
+  @ResponseStatus(code = HttpStatus.OK)
+  public CompletableFuture<MexcOrderAck<MexcCancelOrderResp>> cancelOrder(
+      @Valid @ModelAttribute MexcCancelOrderReq req) {
+    return mexcOrderService.cancelOrder(req);
   }
 }
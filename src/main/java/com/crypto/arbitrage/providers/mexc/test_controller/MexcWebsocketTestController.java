@@ -1,6 +1,8 @@
 package com.crypto.arbitrage.providers.mexc.test_controller;
 
 import com.crypto.arbitrage.providers.mexc.MexcProvider;
+import com.crypto.arbitrage.providers.mexc.model.common.MexcStreamFormat;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcLoginData;
 import com.crypto.arbitrage.providers.mexc.websocket.MexcWebSocketManager;
 import lombok.RequiredArgsConstructor;
@@ -62,9 +64,19 @@ public class MexcWebsocketTestController {
 
   @PostMapping(PARTIAL_BOOK_DEPTH_STREAM)
   public ResponseEntity<?> subscribeToPartialBookDepthStream(
-      @RequestParam String req, @RequestParam double pips, @RequestParam double sizeMultiplier) {
+      @RequestParam String req,
+      @RequestParam double pips,
+      @RequestParam double sizeMultiplier,
+      @RequestParam(required = false) String depth,
+      @RequestParam(required = false) String format) {
     SubscribeInfo subscribeInfo = new SubscribeInfoCrypto(req, null, null, pips, sizeMultiplier);
-    mexcProvider.subscribe(subscribeInfo);
+    MexcDepthMode depthMode =
+        depth != null ? MexcDepthMode.fromValue(depth) : mexcWebSocketManager.resolveDepthMode(req);
+    MexcStreamFormat streamFormat =
+        format != null
+            ? MexcStreamFormat.fromValue(format)
+            : mexcWebSocketManager.resolveStreamFormat(req);
+    mexcProvider.subscribe(subscribeInfo, depthMode, streamFormat);
     return new ResponseEntity<>(HttpStatus.OK);
   }
 
@@ -0,0 +1,53 @@
+package com.crypto.arbitrage.providers.mexc.websocket;
+
+import com.crypto.arbitrage.utilite.HashedWheelTimer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The one timer of all MEXC WebSocket connections: pings, heartbeat checks, listenKey keepalives
+ * and reconnects of every connection and account are tasks on this wheel, cancelled when their
+ * session closes, instead of executors per connection recreated on every reconnect.
+ *
+ * <p>Tasks run on a shared pool that only grows while tasks block at the same time, such as a
+ * reconnect or a keepalive waiting for its REST call.
+ */
+@Component
+public class MexcConnectionTimer extends HashedWheelTimer {
+
+  private final ExecutorService taskExecutor;
+
+  @Autowired
+  public MexcConnectionTimer(
+      @Value("${mexc.ws.timer.tickMs:10}") long tickMs,
+      @Value("${mexc.ws.timer.ticksPerWheel:512}") int ticksPerWheel) {
+    this(tickMs, ticksPerWheel, newTaskExecutor());
+  }
+
+  private MexcConnectionTimer(long tickMs, int ticksPerWheel, ExecutorService taskExecutor) {
+    super("MexcConnectionTimer", tickMs, TimeUnit.MILLISECONDS, ticksPerWheel, taskExecutor);
+    this.taskExecutor = taskExecutor;
+  }
+
+  private static ExecutorService newTaskExecutor() {
+    AtomicInteger threadCount = new AtomicInteger();
+    return Executors.newCachedThreadPool(
+        r -> {
+          Thread thread = new Thread(r, "MexcConnectionTask-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  public void onShutdown() {
+    stop();
+    taskExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,119 @@
+package com.crypto.arbitrage.providers.mexc.websocket;
+
+import static com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader.WIRE_LENGTH_DELIMITED;
+import static com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader.fieldNumber;
+import static com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader.wireType;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader;
+
+/**
+ * Computes a 64-bit identity for a MEXC data frame from its channel, exchange event time and
+ * payload identity: the depth version {@code r} where there is one, otherwise a hash of the
+ * payload. The same event received on two connections gets the same key. Control frames such as
+ * subscription acks get {@link #NO_KEY} and are never deduplicated.
+ *
+ * <p>Deals frames get {@link #NO_KEY} as well: connections may batch the same deals into different
+ * frames, so the decoder deduplicates them deal by deal, see {@code MexcDealDeduplicator}.
+ */
+public final class MexcFrameKeys {
+
+  public static final long NO_KEY = 0;
+
+  private static final String CHANNEL_FIELD = "\"c\":\"";
+  private static final String EVENT_TIME_FIELD = "\"t\":";
+  private static final String VERSION_FIELD = "\"r\":\"";
+  private static final String DEALS_CHANNEL = "deals";
+  private static final int PB_CHANNEL_FIELD = 1;
+  private static final int PB_CREATE_TIME_FIELD = 5;
+  private static final int PB_BODY_FIELD_MIN = 300;
+  private static final int PB_PUBLIC_DEALS_FIELD = 301;
+
+  private MexcFrameKeys() {}
+
+  public static long textKey(String message) {
+    int channelStart = message.indexOf(CHANNEL_FIELD);
+    if (channelStart < 0) {
+      return NO_KEY;
+    }
+    channelStart += CHANNEL_FIELD.length();
+    int channelEnd = message.indexOf('"', channelStart);
+    if (channelEnd < 0) {
+      return NO_KEY;
+    }
+    if (message.lastIndexOf(DEALS_CHANNEL, channelEnd) >= channelStart) {
+      return NO_KEY;
+    }
+    int channelHash = 0;
+    for (int i = channelStart; i < channelEnd; i++) {
+      channelHash = 31 * channelHash + message.charAt(i);
+    }
+    int timeStart = message.lastIndexOf(EVENT_TIME_FIELD);
+    long eventTime = timeStart < 0 ? 0 : readDigits(message, timeStart + EVENT_TIME_FIELD.length());
+    int versionStart = message.indexOf(VERSION_FIELD);
+    long identity =
+        versionStart < 0
+            ? message.hashCode()
+            : readDigits(message, versionStart + VERSION_FIELD.length());
+    return combine(channelHash, eventTime, identity);
+  }
+
+  public static long binaryKey(byte[] message) {
+    MexcProtobufReader reader = new MexcProtobufReader(message);
+    int channelHash = 0;
+    long createTime = 0;
+    int bodyHash = 0;
+    for (int tag = reader.readTag(); tag != 0; tag = reader.readTag()) {
+      int field = fieldNumber(tag);
+      if (field == PB_PUBLIC_DEALS_FIELD) {
+        return NO_KEY;
+      }
+      if (wireType(tag) == WIRE_LENGTH_DELIMITED
+          && (field == PB_CHANNEL_FIELD || field > PB_BODY_FIELD_MIN)) {
+        int length = reader.readLength();
+        int start = reader.getPosition();
+        int hash = hash(message, start, length);
+        if (field == PB_CHANNEL_FIELD) {
+          channelHash = hash;
+        } else {
+          bodyHash = 31 * field + hash;
+        }
+        reader.seek(start + length);
+      } else if (field == PB_CREATE_TIME_FIELD) {
+        createTime = reader.readVarint();
+      } else {
+        reader.skipField(tag);
+      }
+    }
+    return bodyHash == 0 ? NO_KEY : combine(channelHash, createTime, bodyHash);
+  }
+
+  private static long readDigits(String message, int from) {
+    long value = 0;
+    for (int i = from; i < message.length(); i++) {
+      int digit = message.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        break;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static int hash(byte[] bytes, int offset, int length) {
+    int hash = 1;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + bytes[i];
+    }
+    return hash;
+  }
+
+  private static long combine(int channelHash, long eventTime, long identity) {
+    long key = mix(mix(channelHash, eventTime), identity);
+    return key == NO_KEY ? 1 : key;
+  }
+
+  private static long mix(long hash, long value) {
+    long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 29);
+  }
+}
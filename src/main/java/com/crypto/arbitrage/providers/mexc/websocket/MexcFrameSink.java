@@ -0,0 +1,12 @@
+package com.crypto.arbitrage.providers.mexc.websocket;
+
+/**
+ * Receives the data frames of a WebSocket session on the container's I/O thread, together with the
+ * {@link System#nanoTime()} at which the frame was read off the socket.
+ */
+public interface MexcFrameSink {
+
+  void onText(String message, long receivedNanos);
+
+  void onBinary(byte[] message, long receivedNanos);
+}
@@ -0,0 +1,178 @@
+package com.crypto.arbitrage.providers.mexc.websocket;
+
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
+import com.crypto.arbitrage.utilite.SpscRingBuffer;
+import com.crypto.arbitrage.utilite.WaitStrategy;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands WebSocket frames from the container's I/O thread to a dedicated consumer thread.
+ *
+ * <p>The I/O thread only enqueues the frame into a {@link SpscRingBuffer}, so decoding, book
+ * maintenance and listener callbacks can no longer hold up the socket or pong handling. When the
+ * buffer is full the configured {@link OverflowPolicy} applies. Only public market data frames are
+ * ever dropped: dropped depth deltas are detected as version gaps by the incremental books, which
+ * then resync from REST. Private order, deal and balance pushes and control frames such as
+ * subscription acks never come back, so they always wait for space. Every pooled connection owns
+ * one pipeline, so frames of different connections are decoded on different threads.
+ */
+@Slf4j
+public class MexcMessagePipeline implements MexcFrameSink {
+
+  public enum OverflowPolicy {
+    /** Discard an incoming public market data frame and count it; other frames wait for space. */
+    DROP_NEWEST,
+    /** Make the I/O thread wait for free space. No data is lost but the socket backs up. */
+    BLOCK
+  }
+
+  private static final int DROP_LOG_INTERVAL = 1000;
+  private static final String PUBLIC_CHANNEL = "\"c\":\"spot@public.";
+
+  @Getter private final String name;
+  private final MexcMessageDispatcher dispatcher;
+  // Holds String text frames and byte[] binary frames
+  private final SpscRingBuffer<Object> ringBuffer;
+  private final WaitStrategy waitStrategy;
+  @Getter private final OverflowPolicy overflowPolicy;
+  private final AtomicLong receivedCount = new AtomicLong();
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final AtomicLong maxBacklog = new AtomicLong();
+  private volatile boolean running;
+  private Thread consumerThread;
+
+  public MexcMessagePipeline(
+      @NonNull String name,
+      @NonNull MexcMessageDispatcher dispatcher,
+      int capacity,
+      @NonNull WaitStrategy waitStrategy,
+      @NonNull OverflowPolicy overflowPolicy) {
+    this.name = name;
+    this.dispatcher = dispatcher;
+    this.ringBuffer = new SpscRingBuffer<>(capacity);
+    this.waitStrategy = waitStrategy;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  public void start() {
+    running = true;
+    consumerThread = new Thread(this::consume, "MexcMessageConsumer-" + name);
+    consumerThread.setDaemon(true);
+    consumerThread.start();
+    log.info(
+        "Method start: message pipeline {} started with capacity {}, {} wait strategy, {}"
+            + " overflow policy",
+        name,
+        ringBuffer.capacity(),
+        waitStrategy,
+        overflowPolicy);
+  }
+
+  /**
+   * Enqueues a text frame. Only one thread may publish at a time: the connection's I/O thread, or
+   * the legs of a {@link MexcRedundantFeed} under its lock.
+   */
+  @Override
+  public void onText(@NonNull String message, long receivedNanos) {
+    enqueue(message, receivedNanos);
+  }
+
+  /** Enqueues a binary frame, see {@link #onText(String, long)}. */
+  @Override
+  public void onBinary(byte[] message, long receivedNanos) {
+    enqueue(message, receivedNanos);
+  }
+
+  private void enqueue(@NonNull Object message, long receivedNanos) {
+    receivedCount.incrementAndGet();
+    if (!ringBuffer.offer(message, receivedNanos)) {
+      if (overflowPolicy == OverflowPolicy.BLOCK || !isPublicData(message)) {
+        int idleCount = 0;
+        while (running && !ringBuffer.offer(message, receivedNanos)) {
+          waitStrategy.idle(idleCount);
+          if (idleCount < Integer.MAX_VALUE) {
+            idleCount++;
+          }
+        }
+      } else {
+        long dropped = droppedCount.incrementAndGet();
+        if (dropped % DROP_LOG_INTERVAL == 1) {
+          log.warn(
+              "Method enqueue: message queue {} is full ({} frames), {} frames dropped so far",
+              name,
+              ringBuffer.capacity(),
+              dropped);
+        }
+        return;
+      }
+    }
+    int backlog = ringBuffer.size();
+    if (backlog > maxBacklog.get()) {
+      maxBacklog.set(backlog);
+    }
+  }
+
+  /** Binary frames are protobuf pushes of the public channels; private pushes arrive as JSON. */
+  private static boolean isPublicData(@NonNull Object message) {
+    return message instanceof byte[] || ((String) message).contains(PUBLIC_CHANNEL);
+  }
+
+  public int getBacklog() {
+    return ringBuffer.size();
+  }
+
+  public int getCapacity() {
+    return ringBuffer.capacity();
+  }
+
+  public long getReceivedCount() {
+    return receivedCount.get();
+  }
+
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  public long getMaxBacklog() {
+    return maxBacklog.get();
+  }
+
+  private void consume() {
+    int idleCount = 0;
+    while (running) {
+      Object message = ringBuffer.poll();
+      if (message == null) {
+        waitStrategy.idle(idleCount);
+        if (idleCount < Integer.MAX_VALUE) {
+          idleCount++;
+        }
+        continue;
+      }
+      idleCount = 0;
+      long receivedNanos = ringBuffer.polledStamp();
+      try {
+        if (message instanceof byte[] binaryMessage) {
+          dispatcher.dispatchBinaryMessage(binaryMessage, receivedNanos);
+        } else {
+          dispatcher.dispatchMessage((String) message, receivedNanos);
+        }
+      } catch (RuntimeException e) {
+        log.error("Method consume: error processing message {}", message, e);
+      }
+    }
+  }
+
+  public void stop() {
+    running = false;
+    if (consumerThread != null) {
+      try {
+        consumerThread.join(1000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.crypto.arbitrage.providers.mexc.websocket;
+
+import com.crypto.arbitrage.utilite.LongFifoSet;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Merges several connections ("legs") that carry the same public channels into one pipeline,
+ * forwarding whichever copy of a frame arrives first.
+ *
+ * <p>Each leg computes the frame's {@link MexcFrameKeys key} on its own I/O thread; the duplicate
+ * check and the hand-off to the shared {@link MexcMessagePipeline} happen under one lock, which
+ * also keeps the pipeline single-producer. Keys of the last {@code dedupWindow} forwarded frames
+ * are remembered. Frames without a key, such as subscription acks, are always forwarded.
+ */
+public class MexcRedundantFeed {
+
+  @Getter private final String name;
+  @Getter private final MexcMessagePipeline pipeline;
+  private final LongFifoSet recentKeys;
+  private final Leg[] legs;
+  private final Object lock = new Object();
+
+  public MexcRedundantFeed(
+      @NonNull String name, @NonNull MexcMessagePipeline pipeline, int legCount, int dedupWindow) {
+    this.name = name;
+    this.pipeline = pipeline;
+    this.recentKeys = new LongFifoSet(dedupWindow);
+    this.legs = new Leg[legCount];
+    for (int i = 0; i < legCount; i++) {
+      legs[i] = new Leg(i);
+    }
+  }
+
+  public Leg getLeg(int index) {
+    return legs[index];
+  }
+
+  public int getLegCount() {
+    return legs.length;
+  }
+
+  @Getter
+  public class Leg implements MexcFrameSink {
+
+    private final int index;
+    private final AtomicLong wins = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    private Leg(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void onText(@NonNull String message, long receivedNanos) {
+      long key = MexcFrameKeys.textKey(message);
+      synchronized (lock) {
+        if (isFirstArrival(key)) {
+          pipeline.onText(message, receivedNanos);
+        }
+      }
+    }
+
+    @Override
+    public void onBinary(byte[] message, long receivedNanos) {
+      long key = MexcFrameKeys.binaryKey(message);
+      synchronized (lock) {
+        if (isFirstArrival(key)) {
+          pipeline.onBinary(message, receivedNanos);
+        }
+      }
+    }
+
+    /** Share of this leg's keyed frames that arrived before the other legs' copies. */
+    public double getWinRate() {
+      long won = wins.get();
+      long total = won + duplicates.get();
+      return total == 0 ? 0 : (double) won / total;
+    }
+
+    private boolean isFirstArrival(long key) {
+      if (key == MexcFrameKeys.NO_KEY) {
+        return true;
+      }
+      if (recentKeys.add(key)) {
+        wins.incrementAndGet();
+        return true;
+      }
+      duplicates.incrementAndGet();
+      return false;
+    }
+  }
+}
@@ -1,53 +1,62 @@
 package com.crypto.arbitrage.providers.mexc.websocket;
 
 import com.crypto.arbitrage.providers.mexc.model.event.MexcWebSocketSessionStatusEvent;
-import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
-import jakarta.annotation.PreDestroy;
+import com.crypto.arbitrage.utilite.HashedWheelTimer;
 import jakarta.websocket.*;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.stereotype.Service;
 
+/**
+ * One MEXC WebSocket session. Instances are created per pooled connection by {@link
+ * MexcWebSocketConnectionFactory}; frames are handed to a {@link MexcFrameSink}, the connection's
+ * {@link MexcMessagePipeline} or a leg of a {@link MexcRedundantFeed}. Only the user data
+ * connection reports session status to the provider.
+ */
 @Slf4j
-@Service
 @ClientEndpoint
 public class MexcWebSocketClient {
 
   private static final String PONG_MESSAGE = "\"msg\":\"PONG\"";
 
-  private final MexcMessageDispatcher dispatcher;
+  @Getter private final String name;
+  private final boolean reportsSessionStatus;
+  private final MexcFrameSink frameSink;
+  // Optional copy of every raw frame, pongs included, for the frame journal
+  @Setter private volatile MexcFrameSink frameRecorder;
   @Setter private String webSocketUrlWithListenKey;
   private final ApplicationEventPublisher publisher;
-  private final MexcWebSocketStateService mexcWebSocketStateService;
+  @Setter private MexcWebSocketStateService mexcWebSocketStateService;
   @Getter private AtomicReference<Session> session = new AtomicReference<>();
-  private final ScheduledExecutorService scheduledExecutorService =
-      Executors.newSingleThreadScheduledExecutor();
+  private final HashedWheelTimer timer;
+  private volatile HashedWheelTimer.Timeout onOpenTimeout;
 
-  @Autowired
   public MexcWebSocketClient(
-      MexcMessageDispatcher dispatcher,
-      @Value("${mexc.api.websocketBaseUrl}") String baseUrl,
-      @Lazy MexcWebSocketStateService mexcWebSocketStateService,
-      ApplicationEventPublisher publisher) {
-    this.dispatcher = dispatcher;
+      @NonNull String name,
+      boolean reportsSessionStatus,
+      @NonNull MexcFrameSink frameSink,
+      @NonNull String baseUrl,
+      @NonNull ApplicationEventPublisher publisher,
+      @NonNull HashedWheelTimer timer) {
+    this.name = name;
+    this.reportsSessionStatus = reportsSessionStatus;
+    this.frameSink = frameSink;
     this.webSocketUrlWithListenKey = baseUrl;
-    this.mexcWebSocketStateService = mexcWebSocketStateService;
     this.publisher = publisher;
+    this.timer = timer;
   }
 
   public void connect() {
-    log.info("Method connect: Connecting to MexcWebSocket at: {}", webSocketUrlWithListenKey);
+    log.info(
+        "Method connect: Connecting {} to MexcWebSocket at: {}", name, webSocketUrlWithListenKey);
     if (isSessionOpen()) {
       log.warn("Method connect: MexcWebSocket session is already open.");
       return;
@@ -57,7 +66,7 @@ public class MexcWebSocketClient {
       Session activeSession = container.connectToServer(this, new URI(webSocketUrlWithListenKey));
       this.session.set(activeSession);
     } catch (DeploymentException | IOException | URISyntaxException e) {
-      publisher.publishEvent(new MexcWebSocketSessionStatusEvent(false));
+      publishSessionInactive();
       throw new RuntimeException(e);
     }
   }
@@ -87,18 +96,36 @@ public class MexcWebSocketClient {
 
   @OnOpen
   public void onOpen() {
-    scheduledExecutorService.schedule(mexcWebSocketStateService::onOpen, 3, TimeUnit.SECONDS);
-    log.info("Method onOpen: MexcWebSocket session opened.");
+    onOpenTimeout = timer.schedule(mexcWebSocketStateService::onOpen, 3, TimeUnit.SECONDS);
+    log.info("Method onOpen: MexcWebSocket session {} opened.", name);
   }
 
   @OnMessage
   public void onMessage(String message) {
+    long receivedNanos = System.nanoTime();
+    MexcFrameSink recorder = frameRecorder;
+    if (recorder != null) {
+      recorder.onText(message, receivedNanos);
+    }
     // Heartbeat message for websocket connection liveness
     if (message.contains(PONG_MESSAGE)) {
-      mexcWebSocketStateService.onPongReceived();
+      mexcWebSocketStateService.onPongReceived(receivedNanos);
       return;
     }
-    dispatcher.dispatchMessage(message);
+    frameSink.onText(message, receivedNanos);
+  }
+
+  @OnMessage
+  public void onBinaryMessage(ByteBuffer message) {
+    long receivedNanos = System.nanoTime();
+    // The container may reuse the buffer once this method returns
+    byte[] bytes = new byte[message.remaining()];
+    message.get(bytes);
+    MexcFrameSink recorder = frameRecorder;
+    if (recorder != null) {
+      recorder.onBinary(bytes, receivedNanos);
+    }
+    frameSink.onBinary(bytes, receivedNanos);
   }
 
   @OnClose
@@ -122,7 +149,7 @@ public class MexcWebSocketClient {
       } finally {
         session.set(null);
       }
-      publisher.publishEvent(new MexcWebSocketSessionStatusEvent(false));
+      publishSessionInactive();
       mexcWebSocketStateService.onClose(closeReason);
     } else {
       log.info("Method onClose: session is already closed.");
@@ -149,7 +176,7 @@ public class MexcWebSocketClient {
       log.warn("Method onError: Session is already null.");
     }
     log.error("Method onError: MexcWebSocket error: {}", thr.getMessage());
-    publisher.publishEvent(new MexcWebSocketSessionStatusEvent(false));
+    publishSessionInactive();
   }
 
   public void sendMessage(@NonNull String message) {
@@ -173,7 +200,7 @@ public class MexcWebSocketClient {
     try {
       session.get().close(closeReason);
       mexcWebSocketStateService.getIsSessionEnabled().set(false);
-      publisher.publishEvent(new MexcWebSocketSessionStatusEvent(false));
+      publishSessionInactive();
       log.info(
           "Method closeSession: MexcWebSocket session closed reason {}, {}",
           closeReason.getCloseCode(),
@@ -186,14 +213,24 @@ public class MexcWebSocketClient {
     }
   }
 
-  private boolean isSessionOpen() {
+  private void publishSessionInactive() {
+    if (reportsSessionStatus) {
+      publisher.publishEvent(new MexcWebSocketSessionStatusEvent(false));
+    }
+  }
+
+  public boolean isSessionOpen() {
     Session session = this.session.get();
     return session != null && session.isOpen();
   }
 
-  @PreDestroy
-  public void onShutdown() {
-    disconnect();
-    scheduledExecutorService.shutdownNow();
+  public void shutdown() {
+    if (isSessionOpen()) {
+      disconnect();
+    }
+    HashedWheelTimer.Timeout timeout = onOpenTimeout;
+    if (timeout != null) {
+      timeout.cancel();
+    }
   }
 }
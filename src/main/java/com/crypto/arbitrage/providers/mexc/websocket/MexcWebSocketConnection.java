@@ -0,0 +1,60 @@
+package com.crypto.arbitrage.providers.mexc.websocket;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * One pooled MEXC WebSocket connection: the session, the state service that keeps it alive and
+ * resubscribes after a reconnect, and the pipeline that decodes its frames on a dedicated thread.
+ */
+@Getter
+public class MexcWebSocketConnection {
+
+  private final String name;
+  private final boolean userData;
+  private final MexcWebSocketClient client;
+  private final MexcWebSocketStateService stateService;
+  private final MexcMessagePipeline pipeline;
+
+  public MexcWebSocketConnection(
+      @NonNull String name,
+      boolean userData,
+      @NonNull MexcWebSocketClient client,
+      @NonNull MexcWebSocketStateService stateService,
+      @NonNull MexcMessagePipeline pipeline) {
+    this.name = name;
+    this.userData = userData;
+    this.client = client;
+    this.stateService = stateService;
+    this.pipeline = pipeline;
+  }
+
+  public boolean isOpen() {
+    return client.isSessionOpen();
+  }
+
+  public void connect(@NonNull String url) {
+    client.setWebSocketUrlWithListenKey(url);
+    client.connect();
+  }
+
+  public void subscribe(@NonNull String channel) {
+    stateService.subscribeToChannel(channel);
+  }
+
+  public void unsubscribe(@NonNull String channel) {
+    stateService.unsubscribeFromChannel(channel);
+  }
+
+  public void disconnect() {
+    if (isOpen()) {
+      client.disconnect();
+    }
+  }
+
+  public void shutdown() {
+    client.shutdown();
+    stateService.shutdown();
+    pipeline.stop();
+  }
+}
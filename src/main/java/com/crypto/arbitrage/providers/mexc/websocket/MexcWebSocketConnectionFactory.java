@@ -0,0 +1,138 @@
+package com.crypto.arbitrage.providers.mexc.websocket;
+
+import com.crypto.arbitrage.providers.mexc.journal.MexcFrameRecorder;
+import com.crypto.arbitrage.providers.mexc.service.MexcClock;
+import com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
+import com.crypto.arbitrage.utilite.WaitStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/** Builds {@link MexcWebSocketConnection}s with the shared beans and configuration they need. */
+@Component
+public class MexcWebSocketConnectionFactory {
+
+  private final String apiUrl;
+  private final String webSocketBaseUrl;
+  private final int queueCapacity;
+  private final WaitStrategy waitStrategy;
+  private final MexcMessagePipeline.OverflowPolicy overflowPolicy;
+  private final MexcMessageDispatcher dispatcher;
+  private final ApplicationEventPublisher publisher;
+  private final RestClient restClient;
+  private final MexcRateLimiter rateLimiter;
+  private final MexcClock clock;
+  private final MexcConnectionTimer timer;
+  private final ObjectMapper objectMapper;
+  private final MexcFrameRecorder frameRecorder;
+
+  private final int dedupWindow;
+  private final long pingIntervalMs;
+  private final long pongTimeoutMs;
+
+  @Autowired
+  public MexcWebSocketConnectionFactory(
+      @Value("${mexc.api.url}") String apiUrl,
+      @Value("${mexc.api.websocketBaseUrl}") String webSocketBaseUrl,
+      @Value("${mexc.ws.queue.capacity:65536}") int queueCapacity,
+      @Value("${mexc.ws.queue.waitStrategy:SLEEPING}") WaitStrategy waitStrategy,
+      @Value("${mexc.ws.queue.overflowPolicy:DROP_NEWEST}")
+          MexcMessagePipeline.OverflowPolicy overflowPolicy,
+      @Value("${mexc.ws.redundant.dedupWindow:65536}") int dedupWindow,
+      @Value("${mexc.ws.liveness.pingIntervalMs:1000}") long pingIntervalMs,
+      @Value("${mexc.ws.liveness.pongTimeoutMs:2000}") long pongTimeoutMs,
+      MexcMessageDispatcher dispatcher,
+      ApplicationEventPublisher publisher,
+      RestClient restClient,
+      MexcRateLimiter rateLimiter,
+      MexcClock clock,
+      MexcConnectionTimer timer,
+      ObjectMapper objectMapper,
+      MexcFrameRecorder frameRecorder) {
+    this.apiUrl = apiUrl;
+    this.webSocketBaseUrl = webSocketBaseUrl;
+    this.queueCapacity = queueCapacity;
+    this.waitStrategy = waitStrategy;
+    this.overflowPolicy = overflowPolicy;
+    this.dedupWindow = dedupWindow;
+    this.pingIntervalMs = pingIntervalMs;
+    this.pongTimeoutMs = pongTimeoutMs;
+    this.dispatcher = dispatcher;
+    this.publisher = publisher;
+    this.restClient = restClient;
+    this.rateLimiter = rateLimiter;
+    this.clock = clock;
+    this.timer = timer;
+    this.objectMapper = objectMapper;
+    this.frameRecorder = frameRecorder;
+  }
+
+  public String getWebSocketBaseUrl() {
+    return webSocketBaseUrl;
+  }
+
+  /**
+   * Creates a connection and starts its pipeline; the session is opened separately.
+   *
+   * @param userData whether the connection carries the private topics and needs a listenKey
+   */
+  public MexcWebSocketConnection create(@NonNull String name, boolean userData) {
+    MexcMessagePipeline pipeline = createPipeline(name, userData);
+    pipeline.start();
+    return createConnection(name, userData, pipeline, pipeline);
+  }
+
+  /** Creates a redundant feed with its shared, started pipeline and no legs connected yet. */
+  public MexcRedundantFeed createRedundantFeed(@NonNull String name, int legCount) {
+    MexcMessagePipeline pipeline = createPipeline(name, false);
+    pipeline.start();
+    return new MexcRedundantFeed(name, pipeline, legCount, dedupWindow);
+  }
+
+  /** Creates the public connection for leg {@code index} of {@code feed}. */
+  public MexcWebSocketConnection createLeg(@NonNull MexcRedundantFeed feed, int index) {
+    return createConnection(
+        feed.getName() + "-" + index, false, feed.getLeg(index), feed.getPipeline());
+  }
+
+  /** The user data connection always blocks: a dropped order, deal or balance push is lost. */
+  private MexcMessagePipeline createPipeline(@NonNull String name, boolean userData) {
+    return new MexcMessagePipeline(
+        name,
+        dispatcher,
+        queueCapacity,
+        waitStrategy,
+        userData ? MexcMessagePipeline.OverflowPolicy.BLOCK : overflowPolicy);
+  }
+
+  private MexcWebSocketConnection createConnection(
+      @NonNull String name,
+      boolean userData,
+      @NonNull MexcFrameSink frameSink,
+      @NonNull MexcMessagePipeline pipeline) {
+    MexcWebSocketClient client =
+        new MexcWebSocketClient(name, userData, frameSink, webSocketBaseUrl, publisher, timer);
+    MexcWebSocketStateService stateService =
+        new MexcWebSocketStateService(
+            name,
+            userData,
+            apiUrl,
+            webSocketBaseUrl,
+            client,
+            restClient,
+            rateLimiter,
+            clock,
+            timer,
+            pingIntervalMs,
+            pongTimeoutMs,
+            objectMapper);
+    client.setMexcWebSocketStateService(stateService);
+    client.setFrameRecorder(frameRecorder.register(name));
+    return new MexcWebSocketConnection(name, userData, client, stateService, pipeline);
+  }
+}
@@ -0,0 +1,175 @@
+package com.crypto.arbitrage.providers.mexc.websocket;
+
+import com.crypto.arbitrage.providers.mexc.model.event.MexcSubscriptionEvent;
+import com.crypto.arbitrage.providers.mexc.model.event.MexcWebSocketSessionStatusEvent;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcLoginData;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Owns the MEXC WebSocket connections: one dedicated user data connection for the private topics
+ * and {@code mexc.ws.publicConnections} market data connections. Public channels of a symbol always
+ * go to the same connection, chosen by the symbol's hash, so one symbol's deals and depth are
+ * decoded in order on one thread while different symbols spread across connections.
+ *
+ * <p>Symbols listed in {@code mexc.ws.redundant.symbols} are instead subscribed on every leg of a
+ * {@link MexcRedundantFeed}: {@code mexc.ws.redundant.legs} extra connections whose frames are
+ * deduplicated into one pipeline, so a slow or reconnecting leg costs neither latency nor data.
+ */
+@Slf4j
+@Service
+public class MexcWebSocketConnectionPool {
+
+  private static final String USER_DATA_CONNECTION = "user";
+  private static final String PUBLIC_CONNECTION = "public-";
+  private static final String REDUNDANT_FEED = "redundant";
+  private static final String PRIVATE_CHANNEL_MARKER = "@private.";
+  private static final char CHANNEL_SEPARATOR = '@';
+
+  private final MexcWebSocketConnectionFactory connectionFactory;
+  private final ApplicationEventPublisher publisher;
+  @Getter private final MexcWebSocketConnection userDataConnection;
+  private final List<MexcWebSocketConnection> publicConnections;
+  private final Set<String> redundantSymbols;
+  @Getter private final MexcRedundantFeed redundantFeed;
+  private final List<MexcWebSocketConnection> redundantConnections;
+
+  @Autowired
+  public MexcWebSocketConnectionPool(
+      MexcWebSocketConnectionFactory connectionFactory,
+      ApplicationEventPublisher publisher,
+      @Value("${mexc.ws.publicConnections:2}") int publicConnectionCount,
+      @Value("${mexc.ws.redundant.symbols:}") String redundantSymbols,
+      @Value("${mexc.ws.redundant.legs:2}") int redundantLegCount) {
+    if (publicConnectionCount < 1) {
+      throw new IllegalArgumentException(
+          "mexc.ws.publicConnections must be at least 1: " + publicConnectionCount);
+    }
+    this.connectionFactory = connectionFactory;
+    this.publisher = publisher;
+    this.userDataConnection = connectionFactory.create(USER_DATA_CONNECTION, true);
+    List<MexcWebSocketConnection> connections = new ArrayList<>(publicConnectionCount);
+    for (int i = 0; i < publicConnectionCount; i++) {
+      connections.add(connectionFactory.create(PUBLIC_CONNECTION + i, false));
+    }
+    this.publicConnections = Collections.unmodifiableList(connections);
+
+    this.redundantSymbols = new HashSet<>();
+    for (String symbol : redundantSymbols.split(",")) {
+      if (!symbol.isBlank()) {
+        this.redundantSymbols.add(symbol.trim());
+      }
+    }
+    if (this.redundantSymbols.isEmpty()) {
+      this.redundantFeed = null;
+      this.redundantConnections = List.of();
+    } else {
+      if (redundantLegCount < 2) {
+        throw new IllegalArgumentException(
+            "mexc.ws.redundant.legs must be at least 2: " + redundantLegCount);
+      }
+      this.redundantFeed = connectionFactory.createRedundantFeed(REDUNDANT_FEED, redundantLegCount);
+      List<MexcWebSocketConnection> legs = new ArrayList<>(redundantLegCount);
+      for (int i = 0; i < redundantLegCount; i++) {
+        legs.add(connectionFactory.createLeg(redundantFeed, i));
+      }
+      this.redundantConnections = Collections.unmodifiableList(legs);
+    }
+  }
+
+  /** Opens the user data connection with a fresh listenKey and all public connections. */
+  public boolean open(@NonNull MexcLoginData loginData) {
+    String baseUrl = connectionFactory.getWebSocketBaseUrl();
+    MexcWebSocketStateService userDataState = userDataConnection.getStateService();
+    userDataState.setLoginData(loginData);
+    if (!userDataConnection.isOpen()) {
+      if (userDataState.getListenKeyFromMexc(loginData) == null) {
+        log.error("Could not obtain a new listenKey, aborting connection.");
+        return false;
+      }
+      String fullUrl = userDataState.buildWebSocketUrlWithListenKey(baseUrl);
+      log.info("Opening User Data WebSocket with URL: {}", fullUrl);
+      userDataConnection.connect(fullUrl);
+    }
+    for (MexcWebSocketConnection connection : getPublicConnections()) {
+      if (!connection.isOpen()) {
+        connection.connect(baseUrl);
+      }
+    }
+    return true;
+  }
+
+  public void close() {
+    userDataConnection.disconnect();
+    getPublicConnections().forEach(MexcWebSocketConnection::disconnect);
+  }
+
+  /** Returns the connections a symbol's public channels are subscribed on. */
+  public List<MexcWebSocketConnection> connectionsForSymbol(@NonNull String symbol) {
+    if (redundantSymbols.contains(symbol)) {
+      return redundantConnections;
+    }
+    return List.of(
+        publicConnections.get(Math.floorMod(symbol.hashCode(), publicConnections.size())));
+  }
+
+  /** Returns the connections a channel is subscribed on, e.g. for a subscription ack. */
+  public List<MexcWebSocketConnection> connectionsForChannel(@NonNull String channel) {
+    if (channel.contains(PRIVATE_CHANNEL_MARKER)) {
+      return List.of(userDataConnection);
+    }
+    // spot@<stream>@<SYMBOL>[@...]
+    int streamStart = channel.indexOf(CHANNEL_SEPARATOR) + 1;
+    int symbolStart = channel.indexOf(CHANNEL_SEPARATOR, streamStart) + 1;
+    if (streamStart == 0 || symbolStart == 0) {
+      return List.of(userDataConnection);
+    }
+    int symbolEnd = channel.indexOf(CHANNEL_SEPARATOR, symbolStart);
+    String symbol =
+        symbolEnd < 0 ? channel.substring(symbolStart) : channel.substring(symbolStart, symbolEnd);
+    return connectionsForSymbol(symbol);
+  }
+
+  public List<MexcWebSocketConnection> getConnections() {
+    List<MexcWebSocketConnection> connections = new ArrayList<>();
+    connections.add(userDataConnection);
+    connections.addAll(getPublicConnections());
+    return connections;
+  }
+
+  private List<MexcWebSocketConnection> getPublicConnections() {
+    List<MexcWebSocketConnection> connections =
+        new ArrayList<>(publicConnections.size() + redundantConnections.size());
+    connections.addAll(publicConnections);
+    connections.addAll(redundantConnections);
+    return connections;
+  }
+
+  @EventListener
+  public void onSubscriptionEvent(@NonNull MexcSubscriptionEvent event) {
+    // An ack does not say which leg it came from, so all legs of a redundant symbol confirm it
+    for (MexcWebSocketConnection connection : connectionsForChannel(event.getChannel())) {
+      connection.getStateService().onSubscriptionConfirmed(event.getChannel());
+      if (connection.isUserData()) {
+        publisher.publishEvent(new MexcWebSocketSessionStatusEvent(true));
+      }
+    }
+  }
+
+  @PreDestroy
+  public void onShutdown() {
+    getConnections().forEach(MexcWebSocketConnection::shutdown);
+  }
+}
@@ -1,10 +1,16 @@
 package com.crypto.arbitrage.providers.mexc.websocket;
 
+import com.crypto.arbitrage.providers.mexc.model.common.MexcStreamFormat;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcLoginData;
-import jakarta.websocket.Session;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -18,26 +24,35 @@ public class MexcWebSocketManager {
 
   @Setter private MexcLoginData loginData;
 
-  private final String baseWebsocketUrl;
-  private static final String BOOK_DEPTH = "5";
-  private static final String DEALS_TOPIC = "spot@public.deals.v3.api@%s";
+  private static final String DEALS_TOPIC = "spot@public.deals.v3.api%s@%s";
   private final Set<String> channelsToSubscribe;
   private static final String USER_ACCOUNT_UPDATE_TOPIC = "spot@private.account.v3.api";
   private static final String USER_ACCOUNT_DEAL_TOPIC = "spot@private.deals.v3.api";
   private static final String USER_ACCOUNT_ORDERS_TOPIC = "spot@private.orders.v3.api";
-  private static final String PARTIAL_DEPTH_TOPIC = "spot@public.limit.depth.v3.api@%s@%s";
+  private static final String PARTIAL_DEPTH_TOPIC = "spot@public.limit.depth.v3.api%s@%s@%s";
+  private static final String INCREMENTAL_DEPTH_TOPIC = "spot@public.increase.depth.v3.api%s@%s";
 
-  private final MexcWebSocketClient mexcWebSocketClient;
-  private final MexcWebSocketStateService webSocketStateService;
+  private final MexcDepthMode defaultDepthMode;
+  private final Map<String, MexcDepthMode> configuredDepthModes;
+  private final MexcStreamFormat defaultStreamFormat;
+  private final Map<String, MexcStreamFormat> configuredStreamFormats;
+  private final Map<String, List<String>> subscribedTopics = new ConcurrentHashMap<>();
+  private final MexcWebSocketConnectionPool connectionPool;
 
   @Autowired
   public MexcWebSocketManager(
-      @Value("${mexc.api.websocketBaseUrl}") String baseWebsocketUrl,
-      MexcWebSocketClient mexcWebSocketClient,
-      MexcWebSocketStateService webSocketStateService) {
-    this.baseWebsocketUrl = baseWebsocketUrl;
-    this.mexcWebSocketClient = mexcWebSocketClient;
-    this.webSocketStateService = webSocketStateService;
+      @Value("${mexc.depth.default:5}") String defaultDepth,
+      @Value("${mexc.depth.symbols:}") String symbolDepths,
+      @Value("${mexc.stream.format:json}") String defaultFormat,
+      @Value("${mexc.stream.symbols:}") String symbolFormats,
+      MexcWebSocketConnectionPool connectionPool) {
+    this.defaultDepthMode = MexcDepthMode.fromValue(defaultDepth);
+    this.configuredDepthModes =
+        parseSymbolConfig("mexc.depth.symbols", symbolDepths, MexcDepthMode::fromValue);
+    this.defaultStreamFormat = MexcStreamFormat.fromValue(defaultFormat);
+    this.configuredStreamFormats =
+        parseSymbolConfig("mexc.stream.symbols", symbolFormats, MexcStreamFormat::fromValue);
+    this.connectionPool = connectionPool;
     this.channelsToSubscribe =
         new HashSet<>(
             Arrays.asList(
@@ -45,59 +60,116 @@ public class MexcWebSocketManager {
   }
 
   public void openWebSocket() {
-    Session session = mexcWebSocketClient.getSession().get();
-    if (session != null && session.isOpen()) {
+    MexcWebSocketConnection userDataConnection = connectionPool.getUserDataConnection();
+    if (userDataConnection.isOpen()) {
       log.info("Method openWebSocket: MexcWebSocket is already open.");
       return;
     }
-
-    String newListenKey = webSocketStateService.getListenKeyFromMexc(loginData);
-    if (newListenKey != null) {
-      String fullUrl = webSocketStateService.buildWebSocketUrlWithListenKey(baseWebsocketUrl);
-      log.info("Opening User Data WebSocket with URL: {}", fullUrl);
-      mexcWebSocketClient.setWebSocketUrlWithListenKey(fullUrl);
-      try {
-        mexcWebSocketClient.connect();
-      } catch (Exception e) {
-        log.error("Failed to open MexcWebSocket", e);
-        throw new RuntimeException(e);
+    try {
+      if (!connectionPool.open(loginData)) {
+        return;
       }
-    } else {
-      log.error("Could not obtain a new listenKey, aborting connection.");
+    } catch (Exception e) {
+      log.error("Failed to open MexcWebSocket", e);
+      throw new RuntimeException(e);
     }
-    channelsToSubscribe.forEach(webSocketStateService::subscribeToChannel);
+    channelsToSubscribe.forEach(userDataConnection::subscribe);
+  }
+
+  /** Returns the depth configured for {@code symbol} in {@code mexc.depth.*}. */
+  public MexcDepthMode resolveDepthMode(@NonNull String symbol) {
+    return configuredDepthModes.getOrDefault(symbol, defaultDepthMode);
+  }
+
+  /** Returns the wire format configured for {@code symbol} in {@code mexc.stream.*}. */
+  public MexcStreamFormat resolveStreamFormat(@NonNull String symbol) {
+    return configuredStreamFormats.getOrDefault(symbol, defaultStreamFormat);
   }
 
   public void subscribeToTopic(@NonNull String symbol) {
-    Session session = mexcWebSocketClient.getSession().get();
-    if (session == null || !session.isOpen()) {
-      log.error("Method subscribeToTopic: WebSocket session is not open");
+    subscribeToTopic(symbol, resolveDepthMode(symbol), resolveStreamFormat(symbol));
+  }
+
+  public void subscribeToTopic(
+      @NonNull String symbol,
+      @NonNull MexcDepthMode depthMode,
+      @NonNull MexcStreamFormat streamFormat) {
+    List<MexcWebSocketConnection> connections = connectionPool.connectionsForSymbol(symbol);
+    if (!isOpen(connections)) {
+      log.error("Method subscribeToTopic: WebSocket session for {} is not open", symbol);
       return;
     }
-    String dealsTopic = String.format(DEALS_TOPIC, symbol);
-    String partialDepthTopic = String.format(PARTIAL_DEPTH_TOPIC, symbol, BOOK_DEPTH);
-    webSocketStateService.subscribeToChannel(dealsTopic);
-    webSocketStateService.subscribeToChannel(partialDepthTopic);
+    String suffix = streamFormat.getChannelSuffix();
+    List<String> topics =
+        List.of(
+            String.format(DEALS_TOPIC, suffix, symbol), getDepthTopic(symbol, depthMode, suffix));
+    subscribedTopics.put(symbol, topics);
+    connections.forEach(connection -> topics.forEach(connection::subscribe));
   }
 
   public void unsubscribeFromTopic(@NonNull String symbol) {
-    Session session = mexcWebSocketClient.getSession().get();
-    if (session == null || !session.isOpen()) {
-      log.error("Method unsubscribeFromTopic: WebSocket session is not open");
+    List<MexcWebSocketConnection> connections = connectionPool.connectionsForSymbol(symbol);
+    if (!isOpen(connections)) {
+      log.error("Method unsubscribeFromTopic: WebSocket session for {} is not open", symbol);
+      return;
+    }
+    List<String> topics = subscribedTopics.remove(symbol);
+    if (topics == null) {
+      log.warn("Method unsubscribeFromTopic: no topics subscribed for {}", symbol);
       return;
     }
-    String dealsTopic = String.format(DEALS_TOPIC, symbol);
-    String partialDepthTopic = String.format(PARTIAL_DEPTH_TOPIC, symbol, BOOK_DEPTH);
-    webSocketStateService.unsubscribeFromChannel(dealsTopic);
-    webSocketStateService.unsubscribeFromChannel(partialDepthTopic);
+    connections.forEach(connection -> topics.forEach(connection::unsubscribe));
+  }
+
+  /**
+   * Subscribes the topics of {@code symbol} again on its open connections, e.g. after its data went
+   * silent while the sessions stayed up. A closed connection resubscribes when it reconnects.
+   */
+  public void resubscribe(@NonNull String symbol) {
+    List<String> topics = subscribedTopics.get(symbol);
+    if (topics == null) {
+      log.warn("Method resubscribe: no topics subscribed for {}", symbol);
+      return;
+    }
+    for (MexcWebSocketConnection connection : connectionPool.connectionsForSymbol(symbol)) {
+      if (connection.isOpen()) {
+        topics.forEach(connection::unsubscribe);
+        topics.forEach(connection::subscribe);
+      }
+    }
+    log.info("Method resubscribe: resubscribed {} to {}", symbol, topics);
   }
 
   public void closeWebSocket() {
-    Session session = mexcWebSocketClient.getSession().get();
-    if (session != null && session.isOpen()) {
-      mexcWebSocketClient.disconnect();
-    } else {
-      log.info("WebSocket is already closed.");
+    connectionPool.close();
+  }
+
+  /** A redundant symbol only needs one open leg; the others resubscribe when they reconnect. */
+  private static boolean isOpen(@NonNull List<MexcWebSocketConnection> connections) {
+    return connections.stream().anyMatch(MexcWebSocketConnection::isOpen);
+  }
+
+  private String getDepthTopic(
+      @NonNull String symbol, @NonNull MexcDepthMode depthMode, @NonNull String suffix) {
+    return depthMode.isIncremental()
+        ? String.format(INCREMENTAL_DEPTH_TOPIC, suffix, symbol)
+        : String.format(PARTIAL_DEPTH_TOPIC, suffix, symbol, depthMode.getValue());
+  }
+
+  /** Parses comma separated {@code SYMBOL:value} pairs, e.g. {@code BTCUSDT:full,ETHUSDT:20}. */
+  private static <T> Map<String, T> parseSymbolConfig(
+      String property, String value, Function<String, T> parser) {
+    Map<String, T> config = new HashMap<>();
+    for (String entry : value.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      String[] parts = entry.split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid " + property + " entry: " + entry);
+      }
+      config.put(parts[0].trim(), parser.apply(parts[1].trim()));
     }
+    return config;
   }
 }
@@ -1,110 +1,155 @@
 package com.crypto.arbitrage.providers.mexc.websocket;
 
-import com.crypto.arbitrage.providers.mexc.common.MexcSignatureUtil;
-import com.crypto.arbitrage.providers.mexc.model.event.MexcSubscriptionEvent;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.LISTEN_KEY;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.LISTEN_KEY_KEEPALIVE;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcRequestSigner;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcLoginData;
+import com.crypto.arbitrage.providers.mexc.service.MexcClock;
+import com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter;
+import com.crypto.arbitrage.utilite.HashedWheelTimer;
+import com.crypto.arbitrage.utilite.LatencyHistogram;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.annotation.PreDestroy;
 import jakarta.websocket.CloseReason;
 import jakarta.websocket.Session;
 import java.io.IOException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.time.Instant;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
-import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+/**
+ * Keeps one pooled MEXC WebSocket connection alive: ping and heartbeat monitoring, reconnect and
+ * resubscribe. The user data connection additionally obtains and renews the listenKey; public
+ * market data connections connect to the base URL without one.
+ *
+ * <p>The periodic tasks of a session are scheduled on the shared {@link MexcConnectionTimer} when
+ * it opens and cancelled when it closes.
+ *
+ * <p>A PING is sent every {@code pingIntervalMs} unless the last one is still unanswered. A
+ * connection whose PING is older than {@code pongTimeoutMs} is taken for dead and reconnected, so
+ * a half-open socket is noticed within about the pong timeout instead of after a minute. The PING
+ * to PONG round-trips are recorded; MEXC's PONG does not say which PING it answers, so keeping one
+ * PING outstanding at a time is what pairs them.
+ */
 @Slf4j
-@Service
 public class MexcWebSocketStateService {
 
   private final int MAX_PING_FAILURES = 3;
-  private static final long PING_INTERVAL = 30;
   private static final long KEEPALIVE_INTERVAL = 30 * 60; // 30 minutes in seconds
   private static final long RECONNECT_DELAY_SECONDS = 10;
-  private static final long HEARTBEAT_TIMEOUT_MS = 60000;
+  // Pong timeout checks per timeout, bounding how late a dead connection is noticed
+  private static final long PONG_CHECKS_PER_TIMEOUT = 4;
   private static final String CONTENT_TYPE_HEADER = "Content-Type";
   private static final String MEXC_API_KEY_HEADER = "X-MEXC-APIKEY";
   private static final String PING_MESSAGE = "{\"method\":\"PING\"}";
-  private static final String USER_DATA_STREAM_URL = "/api/v3/userDataStream?";
+  private static final String USER_DATA_STREAM_URL = "/api/v3/userDataStream";
   private static final String CONTENT_TYPE_APPLICATION_JSON = "application/json";
   private static final String SUBSCRIPTION_TEMPLATE =
       "{\"method\":\"SUBSCRIPTION\",\"params\":[\"%s\"]}";
   private static final String UNSUBSCRIPTION_TEMPLATE =
       "{\"method\":\"UNSUBSCRIPTION\",\"params\":[\"%s\"]}";
 
+  @Getter private final String name;
+  private final boolean userData;
   private final String apiUrl;
   private final RestClient restClient;
+  private final MexcRateLimiter rateLimiter;
+  private final MexcClock clock;
   private final String webSocketBaseUrl;
   private final ObjectMapper objectMapper;
-  private ScheduledExecutorService pingExecutor;
+  private final HashedWheelTimer timer;
   private final AtomicInteger reconnectAttempts;
-  private final Object executorLock = new Object();
+  private final Object timeoutLock = new Object();
   private final MexcWebSocketClient webSocketClient;
-  private ScheduledExecutorService keepaliveExecutor;
-  private ScheduledExecutorService heartbeatExecutor;
-  private final ScheduledExecutorService reconnectExecutor;
+  // The session's periodic tasks, guarded by timeoutLock
+  private HashedWheelTimer.Timeout pingTimeout;
+  private HashedWheelTimer.Timeout keepaliveTimeout;
+  private HashedWheelTimer.Timeout heartbeatTimeout;
+  private volatile HashedWheelTimer.Timeout reconnectTimeout;
+  private volatile boolean shutdown;
   private final AtomicInteger pingFailureCounter = new AtomicInteger(0);
-  private final AtomicLong lastPongTime = new AtomicLong(System.currentTimeMillis());
+  private final long pingIntervalMs;
+  private final long pongTimeoutNanos;
+  // nanoTime of the PING not answered yet, 0 if none is
+  private final AtomicLong pingSentNanos = new AtomicLong();
+  /** PING to PONG round-trips in nanoseconds. */
+  @Getter private final LatencyHistogram pongRoundTrip = new LatencyHistogram();
+  @Getter private volatile long lastPongRoundTripNanos;
+  /** False from a missed PONG until the connection is open again. */
+  @Getter private volatile boolean alive;
   private final AtomicBoolean reconnectInProgress = new AtomicBoolean(false);
   private final ConcurrentSkipListSet<String> subscriptions = new ConcurrentSkipListSet<>();
   @Getter @Setter private AtomicBoolean isSessionEnabled = new AtomicBoolean(false);
 
   @Getter private String listenKey;
-  @Setter private MexcLoginData loginData;
+  private MexcLoginData loginData;
+  private MexcRequestSigner signer;
 
   public MexcWebSocketStateService(
-      @Value("${mexc.api.url}") String apiUrl,
-      @Value("${mexc.api.websocketBaseUrl}") String webSocketBaseUrl,
-      MexcWebSocketClient webSocketClient,
-      RestClient restClient,
-      ObjectMapper objectMapper) {
+      @NonNull String name,
+      boolean userData,
+      @NonNull String apiUrl,
+      @NonNull String webSocketBaseUrl,
+      @NonNull MexcWebSocketClient webSocketClient,
+      @NonNull RestClient restClient,
+      @NonNull MexcRateLimiter rateLimiter,
+      @NonNull MexcClock clock,
+      @NonNull HashedWheelTimer timer,
+      long pingIntervalMs,
+      long pongTimeoutMs,
+      @NonNull ObjectMapper objectMapper) {
+    this.name = name;
+    this.userData = userData;
     this.apiUrl = apiUrl;
     this.objectMapper = objectMapper;
     this.webSocketClient = webSocketClient;
     this.webSocketBaseUrl = webSocketBaseUrl;
     this.restClient = restClient;
+    this.rateLimiter = rateLimiter;
+    this.clock = clock;
+    this.timer = timer;
+    this.pingIntervalMs = pingIntervalMs;
+    this.pongTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(pongTimeoutMs);
     this.reconnectAttempts = new AtomicInteger(0);
-    this.pingExecutor =
-        Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "PingExecutor"));
-    this.keepaliveExecutor =
-        Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "KeepaliveExecutor"));
-    this.heartbeatExecutor =
-        Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "HeartbeatExecutor"));
-    this.reconnectExecutor =
-        Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "ReconnectExecutor"));
+  }
+
+  /** Keys the request signer of the listenKey requests with the account's API key and secret. */
+  public void setLoginData(@NonNull MexcLoginData loginData) {
+    this.loginData = loginData;
+    this.signer =
+        new MexcRequestSigner(
+            loginData.getApiKey(), loginData.getApiSecret(), clock::currentTimeMillis);
   }
 
   public String getListenKeyFromMexc(@NonNull MexcLoginData loginData) {
     if (this.loginData == null) {
-      this.loginData = loginData;
+      setLoginData(loginData);
     }
-    Map<String, String> params = new LinkedHashMap<>();
-    String signedUrl = getSignedUrl(params, loginData);
+    String signedUrl =
+        signer
+            .query(apiUrl + USER_DATA_STREAM_URL)
+            .addTimestamp()
+            .toSignedUrl();
     try {
       ResponseEntity<String> response =
-          restClient
-              .post()
-              .uri(signedUrl)
-              .header(MEXC_API_KEY_HEADER, loginData.getApiKey())
-              .header(CONTENT_TYPE_HEADER, CONTENT_TYPE_APPLICATION_JSON)
-              .retrieve()
-              .toEntity(String.class);
+          rateLimiter.execute(
+              LISTEN_KEY,
+              () ->
+                  restClient
+                      .post()
+                      .uri(signedUrl)
+                      .header(MEXC_API_KEY_HEADER, loginData.getApiKey())
+                      .header(CONTENT_TYPE_HEADER, CONTENT_TYPE_APPLICATION_JSON)
+                      .retrieve()
+                      .toEntity(String.class));
 
       if (response.getStatusCode().value() == 200) {
         JsonNode jsonNode = objectMapper.readTree(response.getBody());
@@ -121,25 +166,38 @@ public class MexcWebSocketStateService {
     } catch (IOException e) {
       log.error("Error creating MexcWebSocket stream: {}", e.getMessage());
       Thread.currentThread().interrupt();
+    } catch (RejectedExecutionException e) {
+      log.error("Method getListenKeyFromMexc: {}", e.getMessage());
     }
     return null;
   }
 
   public void onOpen() {
     reconnectAttempts.set(0);
-    startPingExecutor();
-    startKeepaliveExecutor();
-    startHeartbeatMonitor();
+    synchronized (timeoutLock) {
+      // A reconnect may open a session before the old one's close was handled
+      cancelTimeouts();
+      pingSentNanos.set(0);
+      alive = true;
+      startPingTask();
+      if (userData) {
+        startKeepaliveTask();
+      }
+      startHeartbeatMonitor();
+    }
   }
 
   public void onClose(CloseReason closeReason) {
     if (closeReason != null) {
       CloseReason.CloseCode closeCode = closeReason.getCloseCode();
-      log.info("Method onClose: MexcWebSocket connection closed with reason: {}", closeCode);
+      log.info(
+          "Method onClose: MexcWebSocket connection {} closed with reason: {}", name, closeCode);
       if (!isSessionEnabled.get()) {
         subscriptions.clear();
       }
-      shutdownAndAwaitTerminationExecutors();
+      synchronized (timeoutLock) {
+        cancelTimeouts();
+      }
       if (!isSessionEnabled.get()) {
         scheduleReconnect();
       }
@@ -152,25 +210,26 @@ public class MexcWebSocketStateService {
     scheduleReconnect();
   }
 
-  private void startKeepaliveExecutor() {
+  private void startKeepaliveTask() {
     if (!isSessionOpen()) {
-      log.error("Method startKeepaliveExecutor: User MexcWebSocket session is not open.");
+      log.error("Method startKeepaliveTask: User MexcWebSocket session is not open.");
       return;
     }
 
-    keepaliveExecutor.scheduleAtFixedRate(
-        () -> {
-          try {
-            keepAlive();
-          } catch (Exception e) {
-            log.error(
-                "Method keepAlive: Error during keepalive MexcWebSocket listenKey: {}",
-                e.getMessage());
-          }
-        },
-        KEEPALIVE_INTERVAL,
-        KEEPALIVE_INTERVAL,
-        TimeUnit.SECONDS);
+    keepaliveTimeout =
+        timer.scheduleWithFixedDelay(
+            () -> {
+              try {
+                keepAlive();
+              } catch (Exception e) {
+                log.error(
+                    "Method keepAlive: Error during keepalive MexcWebSocket listenKey: {}",
+                    e.getMessage());
+              }
+            },
+            KEEPALIVE_INTERVAL,
+            KEEPALIVE_INTERVAL,
+            TimeUnit.SECONDS);
   }
 
   private void keepAlive() {
@@ -178,49 +237,37 @@ public class MexcWebSocketStateService {
       log.error("Method keepAlive: MexcLoginData is null.");
       return;
     }
-    Map<String, String> params = new LinkedHashMap<>();
-    params.put("listenKey", listenKey);
-    String signedUrl = getSignedUrl(params, loginData);
+    String signedUrl =
+        signer
+            .query(apiUrl + USER_DATA_STREAM_URL)
+            .add("listenKey", listenKey)
+            .addTimestamp()
+            .toSignedUrl();
     ResponseEntity<String> response =
-        restClient
-            .put()
-            .uri(signedUrl)
-            .header(MEXC_API_KEY_HEADER, loginData.getApiKey())
-            .header(CONTENT_TYPE_HEADER, CONTENT_TYPE_APPLICATION_JSON)
-            .retrieve()
-            .toEntity(String.class);
+        rateLimiter.execute(
+            LISTEN_KEY_KEEPALIVE,
+            () ->
+                restClient
+                    .put()
+                    .uri(signedUrl)
+                    .header(MEXC_API_KEY_HEADER, loginData.getApiKey())
+                    .header(CONTENT_TYPE_HEADER, CONTENT_TYPE_APPLICATION_JSON)
+                    .retrieve()
+                    .toEntity(String.class));
 
     log.info("Keepalive response code: {}", response.getStatusCode());
     log.info("Keepalive response body: {}", response.getBody());
   }
 
-  private String getSignedUrl(
-      @NonNull Map<String, String> params, @NonNull MexcLoginData loginData) {
-    params.put("timestamp", String.valueOf(Instant.now().toEpochMilli()));
-    String rawQueryString =
-        params.entrySet().stream()
-            .map(e -> e.getKey() + "=" + e.getValue())
-            .collect(Collectors.joining("&"));
-    String signature = MexcSignatureUtil.createSignature(loginData.getApiSecret(), rawQueryString);
-    params.put("signature", signature);
-    String encodedQueryString =
-        params.entrySet().stream()
-            .map(
-                e ->
-                    URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8)
-                        + "="
-                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
-            .collect(Collectors.joining("&"));
-    return apiUrl + USER_DATA_STREAM_URL + encodedQueryString;
-  }
-
   private void scheduleReconnect() {
     // Only schedule if not already in progress
-    if (!reconnectInProgress.compareAndSet(false, true)) {
+    if (shutdown || !reconnectInProgress.compareAndSet(false, true)) {
       return;
     }
-    log.info("Scheduling MexcWebSocket reconnection in {} seconds", RECONNECT_DELAY_SECONDS);
-    reconnectExecutor.schedule(this::attemptReconnect, RECONNECT_DELAY_SECONDS, TimeUnit.SECONDS);
+    log.info(
+        "Scheduling MexcWebSocket {} reconnection in {} seconds", name, RECONNECT_DELAY_SECONDS);
+    reconnectTimeout =
+        timer.schedule(this::attemptReconnect, RECONNECT_DELAY_SECONDS, TimeUnit.SECONDS);
   }
 
   private void attemptReconnect() {
@@ -232,30 +279,30 @@ public class MexcWebSocketStateService {
       // Clear session reference
       webSocketClient.getSession().set(null);
 
-      // Renew the listenKey
-      String newListenKey = getListenKeyFromMexc(loginData);
-      if (newListenKey != null) {
-        log.info("Renewed listenKey: {}", newListenKey);
-        String newWsUrl = buildWebSocketUrlWithListenKey(webSocketBaseUrl);
-        log.info("New MexcWebSocket URL: {}", newWsUrl);
+      String newWsUrl = userData ? renewWebSocketUrl() : webSocketBaseUrl;
+      if (newWsUrl != null) {
+        log.info("New MexcWebSocket {} URL: {}", name, newWsUrl);
         webSocketClient.setWebSocketUrlWithListenKey(newWsUrl);
-        resetExecutors();
+        synchronized (timeoutLock) {
+          cancelTimeouts();
+        }
         pingFailureCounter.set(0);
         webSocketClient.connect();
-        reconnectExecutor.schedule(
-            () -> {
-              if (isSessionOpen()) {
-                subscriptions.forEach(this::subscribeToChannel);
-                reconnectInProgress.set(false);
-                reconnectAttempts.set(0);
-              } else {
-                log.error("Reconnection attempt did not result in an open session.");
-                reconnectInProgress.set(false);
-                scheduleReconnect(); // schedule another reconnect if needed
-              }
-            },
-            2,
-            TimeUnit.SECONDS);
+        reconnectTimeout =
+            timer.schedule(
+                () -> {
+                  if (isSessionOpen()) {
+                    subscriptions.forEach(this::subscribeToChannel);
+                    reconnectInProgress.set(false);
+                    reconnectAttempts.set(0);
+                  } else {
+                    log.error("Reconnection attempt did not result in an open session.");
+                    reconnectInProgress.set(false);
+                    scheduleReconnect(); // schedule another reconnect if needed
+                  }
+                },
+                2,
+                TimeUnit.SECONDS);
       } else {
         log.error("Failed to renew listenKey; will retry reconnection.");
         reconnectInProgress.set(false);
@@ -271,15 +318,27 @@ public class MexcWebSocketStateService {
     }
   }
 
+  private String renewWebSocketUrl() {
+    String newListenKey = getListenKeyFromMexc(loginData);
+    if (newListenKey == null) {
+      return null;
+    }
+    log.info("Renewed listenKey: {}", newListenKey);
+    return buildWebSocketUrlWithListenKey(webSocketBaseUrl);
+  }
+
   public String buildWebSocketUrlWithListenKey(@NonNull String baseUrl) {
     return baseUrl + "?listenKey=" + listenKey;
   }
 
   public void subscribeToChannel(@NonNull String channel) {
+    // Kept even while closed, so the channel is subscribed again after a reconnect
+    subscriptions.add(channel);
     if (!isSessionOpen()) {
-      log.error("Method subscribeToChannel: MexcWebSocket Session is not available or not open.");
+      log.error(
+          "Method subscribeToChannel: MexcWebSocket Session {} is not available or not open.",
+          name);
     } else {
-      subscriptions.add(channel);
       String message = String.format(SUBSCRIPTION_TEMPLATE, channel);
       webSocketClient.sendMessage(message);
       log.info("Sent subscription message to MexcWebSocket: {}", message);
@@ -298,26 +357,28 @@ public class MexcWebSocketStateService {
     }
   }
 
-  private void startPingExecutor() {
+  private void startPingTask() {
     if (!isSessionOpen()) {
-      log.error("Method startPingExecutor: MexcWebSocket Session is not available or not open.");
+      log.error("Method startPingTask: MexcWebSocket Session is not available or not open.");
       return;
     }
-    pingExecutor.scheduleAtFixedRate(
-        () -> {
-          try {
-            if (isSessionOpen()) {
-              sendPing();
-            } else {
-              scheduleReconnect();
-            }
-          } catch (Exception e) {
-            log.error("Method sendPing: Error sending ping to MexcWebSocket: {}", e.getMessage());
-          }
-        },
-        PING_INTERVAL,
-        PING_INTERVAL,
-        TimeUnit.SECONDS);
+    pingTimeout =
+        timer.scheduleWithFixedDelay(
+            () -> {
+              try {
+                if (isSessionOpen()) {
+                  sendPing();
+                } else {
+                  scheduleReconnect();
+                }
+              } catch (Exception e) {
+                log.error(
+                    "Method sendPing: Error sending ping to MexcWebSocket: {}", e.getMessage());
+              }
+            },
+            pingIntervalMs,
+            pingIntervalMs,
+            TimeUnit.MILLISECONDS);
   }
 
   private void sendPing() {
@@ -326,6 +387,11 @@ public class MexcWebSocketStateService {
       log.error("Method sendPing: Session is not available or not open.");
       scheduleReconnect();
     } else {
+      long sentNanos = System.nanoTime();
+      if (!pingSentNanos.compareAndSet(0, sentNanos)) {
+        // The last PING is unanswered; checkPong reconnects if it stays so
+        return;
+      }
       String pingMessage = createPingMessage();
       currentSession
           .getAsyncRemote()
@@ -333,6 +399,7 @@ public class MexcWebSocketStateService {
               pingMessage,
               result -> {
                 if (!result.isOK()) {
+                  pingSentNanos.compareAndSet(sentNanos, 0);
                   int failures = pingFailureCounter.incrementAndGet();
                   log.error(
                       "Ping failed ({} consecutive failures): {}",
@@ -348,61 +415,56 @@ public class MexcWebSocketStateService {
     }
   }
 
-  public void onPongReceived() {
-    lastPongTime.set(System.currentTimeMillis());
+  /**
+   * Answers the outstanding PING and records its round-trip.
+   *
+   * @param receivedNanos {@link System#nanoTime()} at which the PONG was read off the socket
+   */
+  public void onPongReceived(long receivedNanos) {
+    long sentNanos = pingSentNanos.getAndSet(0);
+    if (sentNanos != 0) {
+      long roundTrip = receivedNanos - sentNanos;
+      lastPongRoundTripNanos = roundTrip;
+      pongRoundTrip.record(roundTrip);
+    }
   }
 
   private void startHeartbeatMonitor() {
-    heartbeatExecutor.scheduleAtFixedRate(
-        () -> {
-          long elapsed = System.currentTimeMillis() - lastPongTime.get();
-          if (elapsed > HEARTBEAT_TIMEOUT_MS) {
-            log.error("Heartbeat timeout: No PONG received in {} ms", elapsed);
-            scheduleReconnect();
-          }
-        },
-        HEARTBEAT_TIMEOUT_MS,
-        HEARTBEAT_TIMEOUT_MS,
-        TimeUnit.MILLISECONDS);
+    long checkIntervalNanos = Math.max(1, pongTimeoutNanos / PONG_CHECKS_PER_TIMEOUT);
+    heartbeatTimeout =
+        timer.scheduleWithFixedDelay(
+            this::checkPong, checkIntervalNanos, checkIntervalNanos, TimeUnit.NANOSECONDS);
   }
 
-  private String createPingMessage() {
-    return String.format(PING_MESSAGE);
+  private void checkPong() {
+    long sentNanos = pingSentNanos.get();
+    long waitingNanos = System.nanoTime() - sentNanos;
+    if (sentNanos != 0 && waitingNanos > pongTimeoutNanos && alive) {
+      alive = false;
+      log.error(
+          "Heartbeat timeout: No PONG on MexcWebSocket {} in {} ms",
+          name,
+          TimeUnit.NANOSECONDS.toMillis(waitingNanos));
+      scheduleReconnect();
+    }
   }
 
-  private void resetExecutors() {
-    shutdownAndAwaitTerminationExecutors();
-    // Reinitialize executors
-    pingExecutor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "PingExecutor"));
-    keepaliveExecutor =
-        Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "KeepaliveExecutor"));
-    heartbeatExecutor =
-        Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "HeartbeatExecutor"));
+  private String createPingMessage() {
+    return String.format(PING_MESSAGE);
   }
 
-  private void shutdownAndAwaitTermination(@NonNull ExecutorService executor) {
-    if (!executor.isShutdown()) {
-      executor.shutdown();
-      try {
-        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-          executor.shutdownNow();
-          if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-            log.error("Executor did not terminate");
-          }
-        }
-      } catch (InterruptedException ex) {
-        executor.shutdownNow();
-        Thread.currentThread().interrupt();
-      }
-    }
+  /** Cancels the session's periodic tasks; a run already started finishes. Holds timeoutLock. */
+  private void cancelTimeouts() {
+    pingTimeout = cancel(pingTimeout);
+    keepaliveTimeout = cancel(keepaliveTimeout);
+    heartbeatTimeout = cancel(heartbeatTimeout);
   }
 
-  private void shutdownAndAwaitTerminationExecutors() {
-    synchronized (executorLock) {
-      shutdownAndAwaitTermination(pingExecutor);
-      shutdownAndAwaitTermination(keepaliveExecutor);
-      shutdownAndAwaitTermination(heartbeatExecutor);
+  private static HashedWheelTimer.Timeout cancel(HashedWheelTimer.Timeout timeout) {
+    if (timeout != null) {
+      timeout.cancel();
     }
+    return null;
   }
 
   private boolean isSessionOpen() {
@@ -413,15 +475,20 @@ public class MexcWebSocketStateService {
   /**
    * This method add channel to subscriptions set if subscription was confirmed from Mex WebSocket
    */
-  @EventListener
-  public void onSubscriptionEvent(@NonNull MexcSubscriptionEvent event) {
-    subscriptions.add(event.getChannel());
+  public void onSubscriptionConfirmed(@NonNull String channel) {
+    subscriptions.add(channel);
     isSessionEnabled.compareAndExchange(false, true);
   }
 
-  @PreDestroy
-  public void onShutdown() {
-    shutdownAndAwaitTerminationExecutors();
-    shutdownAndAwaitTermination(reconnectExecutor);
+  public int getSubscriptionCount() {
+    return subscriptions.size();
+  }
+
+  public void shutdown() {
+    shutdown = true;
+    synchronized (timeoutLock) {
+      cancelTimeouts();
+    }
+    cancel(reconnectTimeout);
   }
 }
@@ -30,6 +30,8 @@ public class CEXEngine  implements Layer1ApiDataListener, Layer1ApiInstrumentLis
     private volatile int askPrice;
     private volatile int lastTradeAskSize;
     private volatile int lastTradeBidSize;
+    // System.nanoTime() of the update being processed, for the latency of the requests it triggers
+    private long lastUpdateNanos;
     private final PublishSubscribeService publishSubscribeService;
     private final CEXAccountService cexAccountService;
     private DatasourceInfo datasourceInfo;
@@ -55,6 +57,7 @@ public class CEXEngine  implements Layer1ApiDataListener, Layer1ApiInstrumentLis
         if (instrumentInfo == null || !instrumentInfo.symbol.equals(this.alias)  || size == 0) {
             return;
         }
+        lastUpdateNanos = System.nanoTime();
 
         int tradePrice = (int) Math.round(price);
 
@@ -72,6 +75,7 @@ public class CEXEngine  implements Layer1ApiDataListener, Layer1ApiInstrumentLis
         InstrumentInfo instrumentInfo = aliasToInstrumentInfo.get(alias);
         if (instrumentInfo == null || !instrumentInfo.symbol.equals(this.alias))
             return;
+        lastUpdateNanos = System.nanoTime();
 
         orderBook.onUpdate(isBid, price, size);
         updateOrderBookBbo();
@@ -99,8 +103,16 @@ public class CEXEngine  implements Layer1ApiDataListener, Layer1ApiInstrumentLis
     }
 
     @Override
-    public void onMarketMode(String s, MarketMode marketMode) {
-
+    public void onMarketMode(String alias, MarketMode marketMode) {
+        InstrumentInfo instrumentInfo = aliasToInstrumentInfo.get(alias);
+        if (instrumentInfo == null || !instrumentInfo.symbol.equals(this.alias))
+            return;
+        // The book may be out of date while the market is closed, e.g. behind a silent feed;
+        // the next depth update sets the BBO again
+        if (marketMode != MarketMode.OPEN) {
+            bidPrice = 0;
+            askPrice = 0;
+        }
     }
 
     private String normalizeAlias(String alias) {
@@ -123,7 +135,8 @@ public class CEXEngine  implements Layer1ApiDataListener, Layer1ApiInstrumentLis
                     new ExecutionRequest(
                             datasourceInfo.getAlias(),
                             priceToProcess * datasourceInfo.getPipsSize(),
-                            lastTradeSize, isBuyTrade, isTriggeredByBbo)
+                            lastTradeSize, isBuyTrade, isTriggeredByBbo,
+                            lastUpdateNanos, System.nanoTime())
             ));
         }
     }
@@ -0,0 +1,34 @@
+package com.crypto.arbitrage.utilite;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for a {@link System#nanoTime()} deadline more precisely than a plain sleep: the thread
+ * parks until shortly before the deadline and spins for the rest, so paced senders and replays
+ * keep their schedule to a few microseconds. An interrupt ends the wait early, so a thread
+ * stopped by interrupting it does not sit out the rest of its deadline.
+ */
+public final class DeadlineWait {
+    // Below this the park overshoot would exceed the wait
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private DeadlineWait() {
+    }
+
+    // Returns false, with the interrupt status still set, if the thread was interrupted
+    public static boolean until(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+}
@@ -0,0 +1,209 @@
+package com.crypto.arbitrage.utilite;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A hashed wheel timer: one thread serves any number of one-shot and periodic tasks.
+ *
+ * Time is cut into ticks of {@code tickDuration}, and a task waits in the bucket of the
+ * tick it is due in, modulo the number of buckets, counting down the whole turns of the
+ * wheel still ahead of it. Each tick the timer thread looks at one bucket only, so
+ * scheduling and cancelling are O(1) however many tasks wait, at the price of firing up
+ * to one tick late. Cancelling just marks a task; the timer thread drops it from its
+ * bucket the next time it passes, so no thread or queue is ever torn down for it.
+ *
+ * Due tasks are handed to the task executor, so a slow task delays neither the wheel nor
+ * the other tasks. A periodic task is scheduled again with a fixed delay once a run has
+ * finished, so runs of one task never overlap.
+ */
+@Slf4j
+public class HashedWheelTimer {
+    private static final int NEW = 0;
+    private static final int STARTED = 1;
+    private static final int STOPPED = 2;
+
+    private final String name;
+    private final long tickNanos;
+    private final Queue<Timeout>[] buckets;
+    private final int mask;
+    private final Executor taskExecutor;
+    // Scheduled and rescheduled tasks on their way into the buckets
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(NEW);
+    private final Thread worker;
+    private volatile long startNanos;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel,
+                            Executor taskExecutor) {
+        if (tickDuration <= 0 || ticksPerWheel < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid tick duration " + tickDuration + " or wheel size " + ticksPerWheel);
+        }
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.taskExecutor = taskExecutor;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+
+    // Run the task once after the delay. Starts the timer thread on first use
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return add(new Timeout(this, task, 0), unit.toNanos(delay));
+    }
+
+    // Run the task after the initial delay, then again the period after each run has finished
+    public Timeout scheduleWithFixedDelay(Runnable task, long initialDelay, long period,
+                                          TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        return add(new Timeout(this, task, unit.toNanos(period)), unit.toNanos(initialDelay));
+    }
+
+    // Stop the timer thread; tasks still waiting never run. Running tasks are not interrupted
+    public void stop() {
+        if (state.getAndSet(STOPPED) == STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    public boolean isStopped() {
+        return state.get() == STOPPED;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Timeout add(Timeout timeout, long delayNanos) {
+        if (state.get() == NEW && state.compareAndSet(NEW, STARTED)) {
+            startNanos = System.nanoTime();
+            worker.start();
+        }
+        if (state.get() == STOPPED) {
+            throw new RejectedExecutionException("Timer " + name + " is stopped");
+        }
+        timeout.deadline = System.nanoTime() + Math.max(0, delayNanos);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (state.get() == STARTED) {
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long sleepNanos;
+            while ((sleepNanos = tickDeadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                if (state.get() != STARTED) {
+                    return;
+                }
+            }
+            transferPending();
+            expire(buckets[(int) (tick & mask)], tickDeadline);
+            tick++;
+        }
+    }
+
+    // Timer thread only
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            // The tick whose deadline is the first at or after the task's, never one already passed
+            long dueTick = Math.max(tick, (timeout.deadline - startNanos - 1) / tickNanos);
+            timeout.remainingRounds = (dueTick - tick) / buckets.length;
+            buckets[(int) (dueTick & mask)].add(timeout);
+        }
+    }
+
+    // Timer thread only
+    private void expire(Queue<Timeout> bucket, long tickDeadline) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else if (timeout.deadline <= tickDeadline) {
+                iterator.remove();
+                dispatch(timeout);
+            }
+        }
+    }
+
+    private void dispatch(Timeout timeout) {
+        try {
+            taskExecutor.execute(timeout::runTask);
+        } catch (RejectedExecutionException e) {
+            log.error("Method dispatch: timer {} could not run a task: {}", name, e.getMessage());
+        }
+    }
+
+    /** A scheduled task, to be cancelled. */
+    public static final class Timeout {
+        private static final int WAITING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long periodNanos;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        // Written before the task is queued for the timer thread, then only by it
+        private long deadline;
+        private long remainingRounds;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long periodNanos) {
+            this.timer = timer;
+            this.task = task;
+            this.periodNanos = periodNanos;
+        }
+
+        // Keep the task from running again, returns false if it had expired or was cancelled
+        public boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void runTask() {
+            if (periodNanos == 0 && !state.compareAndSet(WAITING, EXPIRED)) {
+                return;
+            }
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("Method run: task of timer {} failed", timer.name, t);
+            }
+            if (periodNanos > 0 && !isCancelled() && !timer.isStopped()) {
+                deadline = System.nanoTime() + periodNanos;
+                timer.pending.add(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.crypto.arbitrage.utilite;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from {@code int} keys to {@code int} values.
+ *
+ * Keys and values are stored in primitive arrays, so lookups and updates do not box
+ * and do not allocate unless the table has to grow. Removal uses backward shifting,
+ * so no tombstones are left behind. Not thread-safe.
+ */
+public class IntIntHashMap {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int resizeThreshold;
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    public IntIntHashMap(int initialCapacity, int missingValue) {
+        this.missingValue = missingValue;
+        allocate(Math.max(8, Integer.highestOneBit(Math.max(1, initialCapacity) - 1) << 2));
+    }
+
+    // Get the value for a key, or the missing value if there is none
+    public int get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? missingValue : values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    // Put a value and return the previous one, or the missing value
+    public int put(int key, int value) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                int previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return missingValue;
+    }
+
+    // Remove a key and return its value, or the missing value
+    public int remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return missingValue;
+        }
+        int previous = values[index];
+        shiftBack(index);
+        size--;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void shiftBack(int freed) {
+        int mask = keys.length - 1;
+        int index = (freed + 1) & mask;
+        while (used[index]) {
+            int home = hash(keys[index]) & mask;
+            // Move the entry into the freed slot if the freed slot lies on its probe path
+            if (((index - home) & mask) >= ((index - freed) & mask)) {
+                keys[freed] = keys[index];
+                values[freed] = values[index];
+                used[freed] = true;
+                freed = index;
+            }
+            index = (index + 1) & mask;
+        }
+        used[freed] = false;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,83 @@
+package com.crypto.arbitrage.utilite;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size log-linear histogram of non-negative {@code long} values, in the style
+ * of HdrHistogram.
+ *
+ * Every power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so a
+ * recorded value is known to within about 3% over the whole {@code long} range with
+ * under two thousand counters. Recording is allocation-free. It is meant for a single
+ * writer thread, while any thread may read percentiles at the same time.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private volatile long totalCount;
+    private volatile long totalValue;
+    private volatile long maxValue;
+
+    // Record one value, negative values are recorded as 0. Single writer only
+    public void record(long value) {
+        long v = Math.max(0, value);
+        int index = bucketIndex(v);
+        counts.lazySet(index, counts.get(index) + 1);
+        totalCount = totalCount + 1;
+        totalValue = totalValue + v;
+        if (v > maxValue) {
+            maxValue = v;
+        }
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return maxValue;
+    }
+
+    public double getMean() {
+        long count = totalCount;
+        return count == 0 ? 0 : (double) totalValue / count;
+    }
+
+    // Value at the given percentile (0-100), reported as the upper bound of its bucket
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount;
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, percentile) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return (shift + 1) * SUB_BUCKETS + subBucket - SUB_BUCKETS;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
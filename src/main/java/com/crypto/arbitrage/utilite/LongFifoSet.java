@@ -0,0 +1,91 @@
+package com.crypto.arbitrage.utilite;
+
+/**
+ * A fixed-size set of the most recently added {@code long} keys.
+ *
+ * Keys live in an open-addressing table next to a FIFO ring; once the set is full,
+ * adding a key evicts the oldest one. Used as a sliding window for deduplication,
+ * so nothing is boxed and nothing is allocated after construction. Not thread-safe.
+ */
+public class LongFifoSet {
+    private final long[] order;
+    private final long[] keys;
+    private final boolean[] used;
+    private final int mask;
+    private int head;
+    private int size;
+
+    public LongFifoSet(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.order = new long[capacity];
+        int tableSize = Math.max(4, Integer.highestOneBit(capacity) << 2);
+        this.keys = new long[tableSize];
+        this.used = new boolean[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    // Add a key, returns false if it is already in the window
+    public boolean add(long key) {
+        if (contains(key)) {
+            return false;
+        }
+        if (size == order.length) {
+            removeFromTable(order[head]);
+            head = (head + 1) % order.length;
+            size--;
+        }
+        int index = hash(key) & mask;
+        while (used[index]) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        used[index] = true;
+        order[(head + size) % order.length] = key;
+        size++;
+        return true;
+    }
+
+    public boolean contains(long key) {
+        int index = hash(key) & mask;
+        while (used[index]) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void removeFromTable(long key) {
+        int index = hash(key) & mask;
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        if (!used[index]) {
+            return;
+        }
+        // Backward-shift the following entries of the probe run
+        int freed = index;
+        int next = (freed + 1) & mask;
+        while (used[next]) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - freed) & mask)) {
+                keys[freed] = keys[next];
+                freed = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[freed] = false;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
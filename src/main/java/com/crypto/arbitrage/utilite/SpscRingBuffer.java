@@ -0,0 +1,88 @@
+package com.crypto.arbitrage.utilite;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded single-producer single-consumer ring buffer.
+ *
+ * Exactly one thread may call {@link #offer} and exactly one other thread may call
+ * {@link #poll}. The capacity is rounded up to a power of two. Each side keeps a
+ * cached copy of the other side's position, so the shared counters are only read
+ * when the buffer looks full or empty. An optional {@code long} stamp, such as a
+ * receive time, can travel with each element without wrapping it in another object.
+ *
+ * @param <E> the type of elements held in the buffer
+ */
+public class SpscRingBuffer<E> {
+    private final Object[] buffer;
+    private final long[] stamps;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private long cachedHead;
+    private long cachedTail;
+    private long polledStamp;
+
+    public SpscRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[size];
+        this.stamps = new long[size];
+        this.mask = size - 1;
+    }
+
+    // Add an element, returns false if the buffer is full. Producer thread only
+    public boolean offer(E element) {
+        return offer(element, 0);
+    }
+
+    // Add an element with a stamp, returns false if the buffer is full. Producer thread only
+    public boolean offer(E element, long stamp) {
+        long currentTail = tail.get();
+        if (currentTail - cachedHead >= buffer.length) {
+            cachedHead = head.get();
+            if (currentTail - cachedHead >= buffer.length) {
+                return false;
+            }
+        }
+        int index = (int) currentTail & mask;
+        buffer[index] = element;
+        stamps[index] = stamp;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    // Remove the oldest element, returns null if the buffer is empty. Consumer thread only
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long currentHead = head.get();
+        if (currentHead >= cachedTail) {
+            cachedTail = tail.get();
+            if (currentHead >= cachedTail) {
+                return null;
+            }
+        }
+        int index = (int) currentHead & mask;
+        E element = (E) buffer[index];
+        buffer[index] = null;
+        polledStamp = stamps[index];
+        head.lazySet(currentHead + 1);
+        return element;
+    }
+
+    // Stamp of the element returned by the last successful poll. Consumer thread only
+    public long polledStamp() {
+        return polledStamp;
+    }
+
+    // Number of queued elements, may be slightly stale when read from a third thread
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+}
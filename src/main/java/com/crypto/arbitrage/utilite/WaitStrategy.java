@@ -0,0 +1,50 @@
+package com.crypto.arbitrage.utilite;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a consumer thread waits when its queue is empty.
+ *
+ * {@code idleCount} is the number of consecutive empty polls and is reset by the
+ * caller once an element is received; callers saturate it rather than let it wrap
+ * after a long idle period. Lower latency strategies burn more CPU.
+ */
+public enum WaitStrategy {
+    // Spin on the queue, lowest latency, keeps one core fully busy
+    BUSY_SPIN {
+        @Override
+        public void idle(int idleCount) {
+            Thread.onSpinWait();
+        }
+    },
+    // Spin briefly, then yield the core to other threads
+    YIELDING {
+        @Override
+        public void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    // Spin, then yield, then park for a short time. Near zero CPU when idle
+    SLEEPING {
+        @Override
+        public void idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    public abstract void idle(int idleCount);
+}
@@ -0,0 +1,109 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.model.trade.MexcTradeDeal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class MexcDecimalTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  /** Trailing fraction zeros are dropped, so equal values pack the same. */
+  @Test
+  void testParse_plainDecimals() {
+    assertThat(MexcDecimal.parse("20290.89")).isEqualTo(MexcDecimal.pack(2029089, 2));
+    assertThat(MexcDecimal.parse("0.00100000")).isEqualTo(MexcDecimal.pack(1, 3));
+    assertThat(MexcDecimal.parse("0.001")).isEqualTo(MexcDecimal.parse("0.00100000"));
+    assertThat(MexcDecimal.parse("100")).isEqualTo(MexcDecimal.pack(100, 0));
+    assertThat(MexcDecimal.parse("+7.50")).isEqualTo(MexcDecimal.pack(75, 1));
+  }
+
+  /** A leading or trailing point is accepted as long as there is a digit. */
+  @Test
+  void testParse_leadingAndTrailingPoint() {
+    assertThat(MexcDecimal.parse(".5")).isEqualTo(MexcDecimal.pack(5, 1));
+    assertThat(MexcDecimal.parse("5.")).isEqualTo(MexcDecimal.pack(5, 0));
+    assertThatThrownBy(() -> MexcDecimal.parse(".")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> MexcDecimal.parse("-")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> MexcDecimal.parse("")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> MexcDecimal.parse("1.2.3"))
+        .isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  void testParse_negativeValue() {
+    long packed = MexcDecimal.parse("-0.25");
+
+    assertThat(MexcDecimal.mantissa(packed)).isEqualTo(-25);
+    assertThat(MexcDecimal.scale(packed)).isEqualTo(2);
+    assertThat(MexcDecimal.toDouble(packed)).isEqualTo(-0.25);
+    assertThat(MexcDecimal.toMantissa(packed, 4)).isEqualTo(-2500);
+  }
+
+  /** JSON numbers may come in exponent form; the point is moved instead of kept as exponent. */
+  @Test
+  void testParse_exponent() {
+    assertThat(MexcDecimal.parse("1.0E-5")).isEqualTo(MexcDecimal.pack(1, 5));
+    assertThat(MexcDecimal.parse("1.5e2")).isEqualTo(MexcDecimal.pack(150, 0));
+    assertThat(MexcDecimal.parse("-2.5E+1")).isEqualTo(MexcDecimal.pack(-25, 0));
+    assertThat(MexcDecimal.parse("25E-1")).isEqualTo(MexcDecimal.parse("2.5"));
+    assertThatThrownBy(() -> MexcDecimal.parse("1E")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> MexcDecimal.parse("E5")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> MexcDecimal.parse("1E5.0"))
+        .isInstanceOf(NumberFormatException.class);
+    // Beyond the mantissa or the scale
+    assertThatThrownBy(() -> MexcDecimal.parse("1E18")).isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> MexcDecimal.parse("1E-32"))
+        .isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> MexcDecimal.parse("1E-1000"))
+        .isInstanceOf(NumberFormatException.class);
+  }
+
+  /** The mantissa keeps 58 bits: 17 digits always fit, 18 may not and 19 never do. */
+  @Test
+  void testParse_manyDigits() {
+    assertThat(MexcDecimal.mantissa(MexcDecimal.parse("12345678901234567")))
+        .isEqualTo(12345678901234567L);
+    assertThat(MexcDecimal.parse("0.0000000000000000000000000000001"))
+        .isEqualTo(MexcDecimal.pack(1, 31));
+    assertThatThrownBy(() -> MexcDecimal.parse("999999999999999999"))
+        .isInstanceOf(NumberFormatException.class)
+        .hasMessageContaining("out of range");
+    assertThatThrownBy(() -> MexcDecimal.parse("1234567890.123456789"))
+        .isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> MexcDecimal.parse("0.00000000000000000000000000000001"))
+        .isInstanceOf(NumberFormatException.class);
+  }
+
+  /** The byte and char parsers agree, also inside a larger buffer. */
+  @Test
+  void testParse_bytesMatchChars() {
+    byte[] bytes = "p=1.0E-5;".getBytes(StandardCharsets.US_ASCII);
+
+    assertThat(MexcDecimal.parse(bytes, 2, 6)).isEqualTo(MexcDecimal.parse("1.0E-5"));
+    assertThatThrownBy(() -> MexcDecimal.parse(bytes, 0, 3))
+        .isInstanceOf(NumberFormatException.class);
+  }
+
+  /** A decimal reads the same from a JSON string and a JSON number, exponent form included. */
+  @Test
+  void testDeserialize_jsonStringAndNumber() throws Exception {
+    MexcTradeDeal fromStrings =
+        objectMapper.readValue(
+            "{\"S\":1,\"p\":\"0.80\",\"t\":1,\"v\":\"0.00001\"}", MexcTradeDeal.class);
+    MexcTradeDeal fromNumbers =
+        objectMapper.readValue("{\"S\":1,\"p\":0.8,\"t\":1,\"v\":1.0E-5}", MexcTradeDeal.class);
+
+    assertThat(fromNumbers.getPrice()).isEqualTo(fromStrings.getPrice());
+    assertThat(fromNumbers.getQuantity()).isEqualTo(fromStrings.getQuantity());
+    assertThat(fromStrings.getQuantity()).isEqualTo(MexcDecimal.pack(1, 5));
+    assertThatThrownBy(
+            () -> objectMapper.readValue("{\"p\":\"0.8x\"}", MexcTradeDeal.class))
+        .hasMessageContaining("Invalid decimal value");
+  }
+}
@@ -0,0 +1,81 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDepthSnapshotDiffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MexcDepthSnapshotDifferTest {
+
+  private final MexcDepthSnapshotDiffer differ = new MexcDepthSnapshotDiffer();
+  private final MexcDepthSnapshot snapshot =
+      new MexcDepthSnapshot("BTCUSDT", new MexcTickScale(0.01, 1000));
+  private final List<String> published = new ArrayList<>();
+
+  /** The first snapshot is published whole. */
+  @Test
+  void testFirstSnapshot_publishesEveryLevel() {
+    addLevel(true, "100.00", "1");
+    addLevel(false, "100.01", "2");
+
+    assertThat(differ.diff(snapshot, this::publish)).isEqualTo(2);
+    assertThat(published).containsExactlyInAnyOrder("bid 10000x1000", "ask 10001x2000");
+  }
+
+  /** Only added, changed and removed levels are published; removed ones with size 0. */
+  @Test
+  void testNextSnapshot_publishesOnlyTheDifference() {
+    addLevel(true, "100.00", "1");
+    addLevel(true, "99.99", "1");
+    addLevel(true, "99.98", "1");
+    addLevel(false, "100.01", "2");
+    differ.diff(snapshot, this::publish);
+    published.clear();
+
+    // 100.00 changes, 99.99 stays, 99.98 is removed, 99.97 is added; the asks stay the same
+    addLevel(true, "99.99", "1");
+    addLevel(true, "100.00", "1.5");
+    addLevel(true, "99.97", "0.5");
+    addLevel(false, "100.01", "2");
+
+    assertThat(differ.diff(snapshot, this::publish)).isEqualTo(3);
+    assertThat(published)
+        .containsExactlyInAnyOrder("bid 9998x0", "bid 10000x1500", "bid 9997x500");
+
+    published.clear();
+    assertThat(differ.diff(snapshot, this::publish)).isEqualTo(4);
+    assertThat(published)
+        .containsExactlyInAnyOrder("bid 9999x0", "bid 10000x0", "bid 9997x0", "ask 10001x0");
+  }
+
+  /**
+   * A price between two ticks is dropped instead of being truncated onto the tick below, where it
+   * would overwrite the size of the level that is really there.
+   */
+  @Test
+  void testPriceBetweenTicks_droppedNotMerged() {
+    addLevel(true, "100.00", "1");
+    assertThat(snapshot.addLevel(true, MexcDecimal.parse("100.005"), MexcDecimal.parse("7")))
+        .isFalse();
+    addLevel(true, "99.99", "2");
+
+    differ.diff(snapshot, this::publish);
+
+    assertThat(published).containsExactlyInAnyOrder("bid 10000x1000", "bid 9999x2000");
+    assertThat(snapshot.getOffTickLevels()).isEqualTo(1);
+  }
+
+  private void addLevel(boolean isBid, String price, String quantity) {
+    assertThat(snapshot.addLevel(isBid, MexcDecimal.parse(price), MexcDecimal.parse(quantity)))
+        .isTrue();
+  }
+
+  private void publish(String symbol, boolean isBid, int price, int size) {
+    published.add((isBid ? "bid " : "ask ") + price + "x" + size);
+  }
+}
@@ -0,0 +1,79 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.crypto.arbitrage.providers.mexc.MexcProvider;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.model.event.MexcFeedStaleEvent;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLivenessMonitor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcInstrumentRegistry;
+import com.crypto.arbitrage.utilite.HashedWheelTimer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MexcFeedLivenessMonitorTest {
+
+  private static final long MILLIS = 1_000_000L;
+
+  private final List<Object> events = new ArrayList<>();
+  private MexcInstrumentRegistry registry;
+  private MexcFeedLivenessMonitor monitor;
+  private int btcId;
+
+  @BeforeEach
+  void setUp() {
+    registry = new MexcInstrumentRegistry();
+    btcId =
+        registry.subscribe(
+            MexcProvider.createInstrumentInfo("BTCUSDT", 0.01, 100_000), MexcDepthMode.LIMIT_5);
+    // Never started, the test runs the checks itself
+    HashedWheelTimer timer =
+        new HashedWheelTimer("TestTimer", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+    monitor = new MexcFeedLivenessMonitor(true, 10, 500, 5000, 100, registry, timer, events::add);
+  }
+
+  /** A symbol silent beyond its learned budget is flagged, and cleared on its next frame. */
+  @Test
+  void testSilentSymbolIsFlaggedAndResumes() {
+    long now = System.nanoTime();
+    // 20 frames 10 ms apart ending 1 s ago: a budget of 100 ms, raised to the 500 ms minimum
+    for (int i = 20; i > 0; i--) {
+      monitor.onFrame(btcId, now - 1000 * MILLIS - i * 10 * MILLIS);
+    }
+    assertThat(monitor.getSilenceBudgetNanos(monitor.getLiveness("BTCUSDT")))
+        .isEqualTo(500 * MILLIS);
+
+    monitor.check();
+    monitor.check();
+    assertThat(monitor.isStale("BTCUSDT")).isTrue();
+    assertThat(events).hasSize(1);
+    assertThat(((MexcFeedStaleEvent) events.get(0)).stale()).isTrue();
+
+    monitor.onFrame(btcId, System.nanoTime());
+    monitor.check();
+    assertThat(monitor.isStale("BTCUSDT")).isFalse();
+    assertThat(events).hasSize(2);
+    assertThat(((MexcFeedStaleEvent) events.get(1)).stale()).isFalse();
+  }
+
+  /** Until a symbol has a rate its budget is the maximum, and unsubscribed symbols are skipped. */
+  @Test
+  void testWarmUpAndUnsubscribedSymbols() {
+    long now = System.nanoTime();
+    monitor.onFrame(btcId, now - 1000 * MILLIS);
+    monitor.check();
+    assertThat(monitor.isStale("BTCUSDT")).isFalse();
+
+    int ethId =
+        registry.subscribe(
+            MexcProvider.createInstrumentInfo("ETHUSDT", 0.01, 10_000), MexcDepthMode.LIMIT_5);
+    monitor.onFrame(ethId, now - 6000 * MILLIS);
+    registry.unsubscribe("ETHUSDT");
+    monitor.check();
+    assertThat(monitor.isStale("ETHUSDT")).isFalse();
+    assertThat(events).isEmpty();
+  }
+}
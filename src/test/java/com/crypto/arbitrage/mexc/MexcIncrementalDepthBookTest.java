@@ -0,0 +1,139 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcIncrementalDepthBook;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcIncrementalDepthBook.State;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MexcIncrementalDepthBookTest {
+
+  private static final String SYMBOL = "BTCUSDT";
+  private static final MexcTickScale TICK_SCALE = new MexcTickScale(0.01, 1);
+
+  private final MexcIncrementalDepthBook book = new MexcIncrementalDepthBook(SYMBOL);
+  private final List<String> published = new ArrayList<>();
+
+  /** Deltas wait for the first snapshot, which is requested once, and are replayed after it. */
+  @Test
+  void testDeltasBufferedUntilSnapshot() {
+    assertThat(book.onDelta(delta(11, bid(100, 2)), this::publish)).isTrue();
+    assertThat(book.getState()).isEqualTo(State.SNAPSHOT_REQUESTED);
+    assertThat(book.onDelta(delta(12, ask(101, 0)), this::publish)).isFalse();
+    assertThat(published).isEmpty();
+
+    assertThat(book.onSnapshot(delta(10, bid(100, 1), ask(101, 1)), this::publish)).isFalse();
+
+    assertThat(published).containsExactly("bid 100x1", "ask 101x1", "bid 100x2", "ask 101x0");
+    assertThat(book.getState()).isEqualTo(State.SYNCED);
+    assertThat(book.getLastVersion()).isEqualTo(12);
+  }
+
+  /** A snapshot older than the buffered deltas leaves a hole, so another one is fetched. */
+  @Test
+  void testStaleSnapshot_fetchesAgain() {
+    book.onDelta(delta(12, bid(100, 2)), this::publish);
+    book.onDelta(delta(13, bid(100, 3)), this::publish);
+
+    assertThat(book.onSnapshot(delta(10, bid(100, 1)), this::publish)).isTrue();
+    assertThat(book.getState()).isEqualTo(State.SNAPSHOT_REQUESTED);
+
+    published.clear();
+    assertThat(book.onSnapshot(delta(11, bid(100, 1)), this::publish)).isFalse();
+    assertThat(published).containsExactly("bid 100x1", "bid 100x2", "bid 100x3");
+    assertThat(book.getLastVersion()).isEqualTo(13);
+  }
+
+  /** Buffered deltas the snapshot already contains are dropped; older deltas after it too. */
+  @Test
+  void testSnapshotNewerThanBufferedDeltas() {
+    book.onDelta(delta(11, bid(100, 2)), this::publish);
+    book.onDelta(delta(12, bid(100, 3)), this::publish);
+
+    assertThat(book.onSnapshot(delta(15, bid(100, 4)), this::publish)).isFalse();
+    assertThat(published).containsExactly("bid 100x4");
+    assertThat(book.getLastVersion()).isEqualTo(15);
+
+    assertThat(book.onDelta(delta(14, bid(100, 5)), this::publish)).isFalse();
+    assertThat(book.onDelta(delta(16, bid(100, 6)), this::publish)).isFalse();
+    assertThat(published).containsExactly("bid 100x4", "bid 100x6");
+  }
+
+  /**
+   * A version gap buffers from the gap on and resyncs; the snapshot reports the levels that
+   * disappeared meanwhile with size 0, but not the ones already removed by a delta.
+   */
+  @Test
+  void testVersionGap_resyncsAndReportsRemovedLevels() {
+    book.onDelta(delta(1), this::publish);
+    book.onSnapshot(delta(10, bid(100, 1), bid(99, 1), bid(98, 1), ask(101, 1)), this::publish);
+    book.onDelta(delta(11, bid(98, 0)), this::publish);
+    published.clear();
+
+    assertThat(book.onDelta(delta(13, ask(102, 1)), this::publish)).isTrue();
+    assertThat(book.getGapCount()).isEqualTo(1);
+    assertThat(book.getState()).isEqualTo(State.SNAPSHOT_REQUESTED);
+    assertThat(book.onDelta(delta(14, ask(101, 0)), this::publish)).isFalse();
+    assertThat(published).isEmpty();
+
+    assertThat(book.onSnapshot(delta(12, bid(100, 2), ask(101, 1)), this::publish)).isFalse();
+
+    assertThat(published)
+        .containsExactly("bid 99x0", "bid 100x2", "ask 101x1", "ask 102x1", "ask 101x0");
+    assertThat(book.getLastVersion()).isEqualTo(14);
+  }
+
+  /** After a failed fetch the next delta asks for a snapshot again, not every delta before it. */
+  @Test
+  void testSnapshotFailed_nextDeltaRequestsAgain() {
+    assertThat(book.onDelta(delta(11), this::publish)).isTrue();
+    assertThat(book.onDelta(delta(12), this::publish)).isFalse();
+
+    book.onSnapshotFailed();
+
+    assertThat(book.getState()).isEqualTo(State.AWAITING_SNAPSHOT);
+    assertThat(book.onDelta(delta(13), this::publish)).isTrue();
+    assertThat(book.onDelta(delta(14), this::publish)).isFalse();
+    assertThat(book.onSnapshot(delta(10, bid(100, 1)), this::publish)).isFalse();
+    assertThat(book.getLastVersion()).isEqualTo(14);
+  }
+
+  /** A failure reported while synced, e.g. a late one, leaves the book alone. */
+  @Test
+  void testSnapshotFailedWhileSynced_ignored() {
+    book.onDelta(delta(1), this::publish);
+    book.onSnapshot(delta(10), this::publish);
+
+    book.onSnapshotFailed();
+
+    assertThat(book.getState()).isEqualTo(State.SYNCED);
+    assertThat(book.onDelta(delta(11, bid(100, 1)), this::publish)).isFalse();
+    assertThat(published).containsExactly("bid 100x1");
+  }
+
+  private void publish(String symbol, boolean isBid, int price, int size) {
+    assertThat(symbol).isEqualTo(SYMBOL);
+    published.add((isBid ? "bid " : "ask ") + price + "x" + size);
+  }
+
+  private static MexcDepthSnapshot delta(long version, int[]... levels) {
+    MexcDepthSnapshot delta = new MexcDepthSnapshot(SYMBOL, TICK_SCALE);
+    delta.setVersion(version);
+    for (int[] level : levels) {
+      delta.side(level[0] == 1).add(level[1], level[2]);
+    }
+    return delta;
+  }
+
+  private static int[] bid(int price, int size) {
+    return new int[] {1, price, size};
+  }
+
+  private static int[] ask(int price, int size) {
+    return new int[] {0, price, size};
+  }
+}
@@ -0,0 +1,86 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.crypto.arbitrage.providers.mexc.journal.MexcJournal;
+import com.crypto.arbitrage.providers.mexc.journal.MexcJournalReader;
+import com.crypto.arbitrage.providers.mexc.journal.MexcJournalWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MexcJournalTest {
+
+  private static final short CONNECTION_ID = 7;
+
+  @TempDir Path directory;
+
+  private record Frame(String connection, long receivedEpochNanos, boolean binary, byte[] bytes) {}
+
+  /**
+   * Frames written across several rolled files read back with their payload and connection name,
+   * since every file starts by announcing the connection.
+   */
+  @Test
+  void testFramesRoundTripAcrossRolledFiles() throws IOException {
+    // Room for a connection record and two small frames per file
+    int fileSize = MexcJournal.FILE_HEADER_LENGTH + 3 * 48;
+    long firstNanos = System.nanoTime();
+    try (MexcJournalWriter writer =
+        new MexcJournalWriter(
+            directory,
+            fileSize,
+            0,
+            w -> w.append(MexcJournal.CONNECTION, CONNECTION_ID, System.nanoTime(), "public-0"))) {
+      for (int i = 0; i < 5; i++) {
+        assertThat(
+                writer.append(
+                    MexcJournal.TEXT_FRAME, CONNECTION_ID, firstNanos + i, "{\"seq\":" + i + "}"))
+            .isTrue();
+      }
+      assertThat(
+              writer.append(
+                  MexcJournal.BINARY_FRAME, CONNECTION_ID, firstNanos + 5, new byte[] {1, 2, 3}))
+          .isTrue();
+      // Larger than a whole file: refused, not truncated
+      assertThat(
+              writer.append(
+                  MexcJournal.BINARY_FRAME, CONNECTION_ID, firstNanos, new byte[fileSize]))
+          .isFalse();
+    }
+
+    List<Frame> frames = new ArrayList<>();
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files = listing.sorted().toList();
+    }
+    assertThat(files).hasSizeGreaterThan(1);
+    long frameCount = 0;
+    for (Path file : files) {
+      frameCount += MexcJournalReader.read(file, (connection, epochNanos, binary, payload) -> {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        frames.add(new Frame(connection, epochNanos, binary, bytes));
+      });
+    }
+
+    assertThat(frameCount).isEqualTo(6);
+    assertThat(frames).extracting(Frame::connection).containsOnly("public-0");
+    for (int i = 0; i < 5; i++) {
+      assertThat(frames.get(i).binary()).isFalse();
+      assertThat(new String(frames.get(i).bytes(), StandardCharsets.UTF_8))
+          .isEqualTo("{\"seq\":" + i + "}");
+    }
+    assertThat(frames.get(5).binary()).isTrue();
+    assertThat(frames.get(5).bytes()).containsExactly(1, 2, 3);
+    // Receive stamps keep their spacing once mapped to wall clock time
+    assertThat(frames.get(1).receivedEpochNanos() - frames.get(0).receivedEpochNanos())
+        .isEqualTo(1);
+  }
+}
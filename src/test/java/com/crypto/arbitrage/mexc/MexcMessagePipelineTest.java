@@ -0,0 +1,96 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcMessagePipeline;
+import com.crypto.arbitrage.utilite.WaitStrategy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MexcMessagePipelineTest {
+
+  private static final String FIRST = "{\"c\":\"spot@public.deals.v3.api@BTCUSDT\",\"t\":1}";
+  private static final String PUBLIC = "{\"c\":\"spot@public.deals.v3.api@BTCUSDT\",\"t\":2}";
+  private static final String PRIVATE = "{\"c\":\"spot@private.deals.v3.api\",\"t\":3}";
+  private static final String ACK =
+      "{\"id\":0,\"code\":0,\"msg\":\"spot@public.deals.v3.api@ETHUSDT\"}";
+
+  private final MexcMessageDispatcher dispatcher = mock(MexcMessageDispatcher.class);
+  private final CountDownLatch consuming = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private MexcMessagePipeline pipeline;
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    // The consumer holds on to the first frame until released, so the ring can be filled
+    doAnswer(
+            invocation -> {
+              consuming.countDown();
+              release.await();
+              return null;
+            })
+        .when(dispatcher)
+        .dispatchMessage(eq(FIRST), anyLong());
+    pipeline =
+        new MexcMessagePipeline(
+            "test",
+            dispatcher,
+            2,
+            WaitStrategy.YIELDING,
+            MexcMessagePipeline.OverflowPolicy.DROP_NEWEST);
+    pipeline.start();
+    pipeline.onText(FIRST, 1);
+    assertThat(consuming.await(5, TimeUnit.SECONDS)).isTrue();
+    pipeline.onText(PUBLIC, 2);
+    pipeline.onText(PUBLIC, 3);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    pipeline.stop();
+  }
+
+  /** A full ring drops public market data frames without holding up the I/O thread. */
+  @Test
+  void testFullRing_dropsPublicData() {
+    pipeline.onText(PUBLIC, 4);
+    pipeline.onBinary(new byte[] {10, 0}, 5);
+
+    assertThat(pipeline.getDroppedCount()).isEqualTo(2);
+    assertThat(pipeline.getReceivedCount()).isEqualTo(5);
+  }
+
+  /** Private pushes and control frames wait for space instead of being dropped. */
+  @Test
+  void testFullRing_privateAndControlFramesWait() throws Exception {
+    Thread producer =
+        new Thread(
+            () -> {
+              pipeline.onText(PRIVATE, 4);
+              pipeline.onText(ACK, 5);
+            });
+    producer.start();
+    producer.join(200);
+    assertThat(producer.isAlive()).isTrue();
+    verify(dispatcher, never()).dispatchMessage(eq(PRIVATE), anyLong());
+
+    release.countDown();
+    producer.join(5000);
+    assertThat(producer.isAlive()).isFalse();
+    verify(dispatcher, timeout(5000)).dispatchMessage(PRIVATE, 4);
+    verify(dispatcher, timeout(5000)).dispatchMessage(ACK, 5);
+    assertThat(pipeline.getDroppedCount()).isZero();
+  }
+}
@@ -0,0 +1,57 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer.Point;
+import org.junit.jupiter.api.Test;
+
+class MexcOrderLatencyTracerTest {
+
+  private final MexcOrderLatencyTracer tracer = new MexcOrderLatencyTracer(true, 50, 60000);
+
+  /** Stages are measured from the upstream stamps; a WS update ahead of the ack still counts. */
+  @Test
+  void testStagesFromBookUpdateToFirstFill() {
+    long now = System.nanoTime();
+    MexcNewOrderReq request =
+        MexcNewOrderReq.builder()
+            .newClientOrderId("c1")
+            .triggerNanos(now - 3_000_000)
+            .requestNanos(now - 2_000_000)
+            .build();
+
+    tracer.onOrderBuilt(request);
+    tracer.stamp("c1", Point.SIGNED);
+    tracer.stamp("c1", Point.WS_ORDER_UPDATE);
+    tracer.stamp("c1", Point.WS_ORDER_UPDATE);
+    tracer.onRestAck("c1", 500_000);
+    tracer.stamp("c1", Point.FIRST_FILL);
+    tracer.stamp("c1", Point.FIRST_FILL);
+
+    assertThat(tracer.getHistogram(Point.EXECUTION_REQUEST).getCount()).isEqualTo(1);
+    assertThat(tracer.getHistogram(Point.EXECUTION_REQUEST).getMax()).isGreaterThan(900_000);
+    for (Point point : new Point[] {Point.SENT, Point.REST_ACK, Point.WS_ORDER_UPDATE}) {
+      assertThat(tracer.getHistogram(point).getCount()).isEqualTo(1);
+    }
+    assertThat(tracer.getHistogram(Point.FIRST_FILL).getCount()).isEqualTo(1);
+    assertThat(tracer.getTickToAck().getCount()).isEqualTo(1);
+    assertThat(tracer.getTickToAck().getMax()).isGreaterThan(2_900_000);
+  }
+
+  /** An order sent without an execution request is traced from its build. */
+  @Test
+  void testOrderWithoutExecutionRequest() {
+    tracer.onOrderBuilt(MexcNewOrderReq.builder().newClientOrderId("c2").build());
+    tracer.stamp("c2", Point.SIGNED);
+    tracer.onRestAck("c2", 0);
+    tracer.stamp("unknown", Point.FIRST_FILL);
+
+    assertThat(tracer.getHistogram(Point.EXECUTION_REQUEST).getCount()).isZero();
+    assertThat(tracer.getHistogram(Point.ORDER_BUILT).getCount()).isZero();
+    assertThat(tracer.getHistogram(Point.SIGNED).getCount()).isEqualTo(1);
+    assertThat(tracer.getHistogram(Point.FIRST_FILL).getCount()).isZero();
+    assertThat(tracer.getTickToAck().getCount()).isEqualTo(1);
+  }
+}
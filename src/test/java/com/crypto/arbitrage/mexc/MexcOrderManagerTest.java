@@ -0,0 +1,160 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcCancelOrderReq;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcExecutionInfo;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderResp;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderResponse;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderSide;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderState;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderType;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderManager;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderRejectedException;
+import com.crypto.arbitrage.providers.mexc.service.MexcTrackedOrder;
+import java.net.http.HttpTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MexcOrderManagerTest {
+
+  private static final long ONE = MexcDecimal.powerOfTen(MexcOrderManager.QUANTITY_SCALE);
+
+  private MexcOrderManager orderManager;
+
+  @BeforeEach
+  void setUp() {
+    orderManager = new MexcOrderManager(60000);
+  }
+
+  /** A push that overtakes the REST ack fills the order; the late ack must not reopen it. */
+  @Test
+  void testPushBeforeAck_lateAckDoesNotRegress() {
+    orderManager.onNewOrder(newOrder("c1", MexcOrderSide.BUY, 2));
+    assertThat(orderManager.getExposure("BTCUSDT").getOpenBuyQuantity()).isEqualTo(2 * ONE);
+
+    orderManager.onOrderUpdate(orderPush("c1", "o1", 2, 2, 2));
+    orderManager.onNewOrderAck("c1", ack("o1", "2"));
+
+    MexcTrackedOrder order = orderManager.getByOrderId("o1");
+    assertThat(order).isSameAs(orderManager.getByClientOrderId("c1"));
+    assertThat(order.getState()).isEqualTo(MexcOrderState.FILLED);
+    assertThat(order.getFilledQuantity()).isEqualTo(2 * ONE);
+    assertThat(orderManager.getExposure("BTCUSDT").getOpenBuyQuantity()).isZero();
+    assertThat(orderManager.getExposure("BTCUSDT").getOpenOrders()).isZero();
+  }
+
+  /** Deals are counted once, and cumulative quantities of order pushes never lower the fill. */
+  @Test
+  void testDealsAndOrderPushes_mergeFills() {
+    orderManager.onNewOrder(newOrder("c2", MexcOrderSide.SELL, 3));
+    orderManager.onNewOrderAck("c2", ack("o2", "3"));
+
+    orderManager.onDeal(deal("c2", "o2", "t1", 1));
+    orderManager.onDeal(deal("c2", "o2", "t1", 1));
+    orderManager.onOrderUpdate(orderPush("c2", "o2", 3, 0, 3));
+
+    MexcTrackedOrder order = orderManager.getByClientOrderId("c2");
+    assertThat(order.getState()).isEqualTo(MexcOrderState.PARTIALLY_FILLED);
+    assertThat(order.getFilledQuantity()).isEqualTo(ONE);
+    assertThat(orderManager.getExposure("BTCUSDT").getOpenSellQuantity()).isEqualTo(2 * ONE);
+    assertThat(orderManager.getExposure("BTCUSDT").getNetOpenQuantity()).isEqualTo(-2 * ONE);
+  }
+
+  /** A deal already reported by an order push's cumulative quantity is not counted twice. */
+  @Test
+  void testOrderPushThenDeal_fillCountedOnce() {
+    orderManager.onNewOrder(newOrder("c6", MexcOrderSide.BUY, 3));
+    orderManager.onNewOrderAck("c6", ack("o6", "3"));
+
+    orderManager.onOrderUpdate(orderPush("c6", "o6", 3, 1, 3));
+    orderManager.onDeal(deal("c6", "o6", "t1", 1));
+
+    MexcTrackedOrder order = orderManager.getByClientOrderId("c6");
+    assertThat(order.getState()).isEqualTo(MexcOrderState.PARTIALLY_FILLED);
+    assertThat(order.getFilledQuantity()).isEqualTo(ONE);
+    assertThat(orderManager.getExposure("BTCUSDT").getOpenBuyQuantity()).isEqualTo(2 * ONE);
+
+    orderManager.onDeal(deal("c6", "o6", "t2", 1));
+    orderManager.onOrderUpdate(orderPush("c6", "o6", 3, 2, 3));
+    assertThat(order.getFilledQuantity()).isEqualTo(2 * ONE);
+    assertThat(orderManager.getExposure("BTCUSDT").getOpenBuyQuantity()).isEqualTo(ONE);
+  }
+
+  /** A failed cancel returns the order to where it was; a refused new order is rejected. */
+  @Test
+  void testFailedCancelAndRejectedOrder() {
+    orderManager.onNewOrder(newOrder("c3", MexcOrderSide.BUY, 1));
+    orderManager.onNewOrderAck("c3", ack("o3", "1"));
+    MexcCancelOrderReq cancel = new MexcCancelOrderReq();
+    cancel.setSymbol("BTCUSDT");
+    cancel.setOrigClientOrderId("c3");
+
+    orderManager.onCancelSent(cancel);
+    assertThat(orderManager.getByClientOrderId("c3").getState())
+        .isEqualTo(MexcOrderState.PENDING_CANCEL);
+    orderManager.onCancelFailed(cancel, new MexcOrderRejectedException(400, "{}"));
+    assertThat(orderManager.getByClientOrderId("c3").getState()).isEqualTo(MexcOrderState.NEW);
+
+    orderManager.onNewOrder(newOrder("c4", MexcOrderSide.BUY, 1));
+    orderManager.onNewOrder(newOrder("c5", MexcOrderSide.BUY, 1));
+    orderManager.onNewOrderFailed("c4", new MexcOrderRejectedException(400, "{}"));
+    orderManager.onNewOrderFailed("c5", new HttpTimeoutException("request timed out"));
+    assertThat(orderManager.getByClientOrderId("c4").getState())
+        .isEqualTo(MexcOrderState.REJECTED);
+    assertThat(orderManager.getByClientOrderId("c5").getState())
+        .isEqualTo(MexcOrderState.PENDING_NEW);
+    assertThat(orderManager.getExposure("BTCUSDT").getOpenBuyQuantity()).isEqualTo(2 * ONE);
+    assertThat(orderManager.getOpenOrders()).hasSize(2);
+  }
+
+  private static MexcNewOrderReq newOrder(String clientOrderId, MexcOrderSide side, int quantity) {
+    return MexcNewOrderReq.builder()
+        .symbol("BTCUSDT")
+        .side(side)
+        .type(MexcOrderType.LIMIT)
+        .quantity(quantity)
+        .price(60000)
+        .newClientOrderId(clientOrderId)
+        .build();
+  }
+
+  private static MexcNewOrderResp ack(String orderId, String quantity) {
+    MexcNewOrderResp response = new MexcNewOrderResp();
+    response.setSymbol("BTCUSDT");
+    response.setOrderId(orderId);
+    response.setOrigQty(quantity);
+    response.setPrice("60000");
+    return response;
+  }
+
+  private static MexcOrderResponse orderPush(
+      String clientOrderId, String orderId, int status, int filled, int quantity) {
+    MexcOrderResponse.MexcOrderInfo info = new MexcOrderResponse.MexcOrderInfo();
+    info.setClientOrderId(clientOrderId);
+    info.setOrderId(orderId);
+    info.setStatus(status);
+    info.setQuantity(MexcDecimal.pack(quantity, 0));
+    info.setCumulativeQuantity(MexcDecimal.pack(filled, 0));
+    info.setRemainQuantity(MexcDecimal.pack(quantity - filled, 0));
+    MexcOrderResponse push = new MexcOrderResponse();
+    push.setSymbol("BTCUSDT");
+    push.setOrderInfo(info);
+    return push;
+  }
+
+  private static MexcExecutionInfo deal(
+      String clientOrderId, String orderId, String tradeId, int quantity) {
+    MexcExecutionInfo.DealsInfo info = new MexcExecutionInfo.DealsInfo();
+    info.setClientOrderId(clientOrderId);
+    info.setOrderId(orderId);
+    info.setTradeId(tradeId);
+    info.setQuantity(MexcDecimal.pack(quantity, 0));
+    MexcExecutionInfo deal = new MexcExecutionInfo();
+    deal.setSymbol("BTCUSDT");
+    deal.setDealsInfo(info);
+    return deal;
+  }
+}
@@ -1,19 +1,38 @@
 package com.crypto.arbitrage.mexc;
 
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.BATCH_ORDERS;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.NEW_ORDER;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import com.crypto.arbitrage.providers.mexc.common.MexcSignatureUtil;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcBatchOrderResp;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcLoginData;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderResp;
+import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderAck;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderSide;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderType;
+import com.crypto.arbitrage.providers.mexc.service.MexcClock;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderGateway;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderManager;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderRejectedException;
 import com.crypto.arbitrage.providers.mexc.service.MexcOrderService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,16 +40,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.RestClient;
 
 @ExtendWith(MockitoExtension.class)
 class MexcOrderServiceTest {
 
-  @Mock private RestClient restClient;
+  @Mock private MexcOrderGateway orderGateway;
 
-  // Mocks for the fluent API chain.
-  @Mock private RestClient.RequestBodyUriSpec requestBodyUriSpec;
-  @Mock private RestClient.ResponseSpec responseSpec;
+  @Mock private MexcClock clock;
 
   private MexcOrderService mexcOrderService;
   private final String testApiUrl = "http://test.api";
@@ -39,14 +55,19 @@ class MexcOrderServiceTest {
 
   @BeforeEach
   void setUp() {
-    // Set up the mocked REST client chain.
-    when(restClient.put()).thenReturn(requestBodyUriSpec);
-    when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodyUriSpec);
-    when(requestBodyUriSpec.header(anyString(), anyString())).thenReturn(requestBodyUriSpec);
-    when(requestBodyUriSpec.retrieve()).thenReturn(responseSpec);
-
-    // Create the order service with the test API URL and mocked RestClient.
-    mexcOrderService = new MexcOrderService(testApiUrl, restClient);
+    // Create the order service with the test API URL, mocked order gateway and clock, and a real
+    // order manager; sent orders stay unanswered.
+    mexcOrderService =
+        new MexcOrderService(
+            testApiUrl,
+            1000,
+            orderGateway,
+            new MexcOrderManager(60000),
+            clock,
+            new MexcOrderLatencyTracer(true, 50, 60000));
+    when(clock.currentTimeMillis()).thenReturn(1644489390087L);
+    when(orderGateway.send(any(), anyString(), anyString(), any()))
+        .thenReturn(new CompletableFuture<>());
     MexcLoginData loginData = new MexcLoginData();
     loginData.setApiKey(testApiKey);
     loginData.setApiSecret(testApiSecret);
@@ -54,11 +75,11 @@ class MexcOrderServiceTest {
   }
 
   /**
-   * This test verifies that sendOrder triggers the full REST client chain and that the URL built
+   * This test verifies that sendOrder hands a POST to the order gateway and that the URL built
    * contains all the expected parameters.
    */
   @Test
-  void testSendOrder_chainTriggeredAndRestClientCalled() {
+  void testSendOrder_gatewayCalledWithSignedUrl() {
     // Create a dummy MARKET order (for MARKET orders, either quantity or quoteOrderQty must be
     // set).
     MexcNewOrderReq orderReq = new MexcNewOrderReq();
@@ -73,9 +94,10 @@ class MexcOrderServiceTest {
     // Act: call sendOrder.
     mexcOrderService.sendOrder(orderReq);
 
-    // Capture the URL passed to the REST client.
+    // Capture the URL passed to the order gateway, which also verifies the method and API key.
     ArgumentCaptor<String> uriCaptor = ArgumentCaptor.forClass(String.class);
-    verify(requestBodyUriSpec, times(1)).uri(uriCaptor.capture());
+    verify(orderGateway, times(1))
+        .send(eq(NEW_ORDER), uriCaptor.capture(), eq(testApiKey), eq(MexcNewOrderResp.class));
     String capturedUrl = uriCaptor.getValue();
 
     // Assert: the URL should include the endpoint and expected parameters.
@@ -85,15 +107,8 @@ class MexcOrderServiceTest {
     assertThat(capturedUrl).contains("type=MARKET");
     assertThat(capturedUrl).contains("quantity=10");
     assertThat(capturedUrl).contains("recvWindow=5000");
-    assertThat(capturedUrl).contains("timestamp=");
+    assertThat(capturedUrl).contains("timestamp=1644489390087");
     assertThat(capturedUrl).contains("signature=");
-
-    // Verify that headers are set correctly.
-    verify(requestBodyUriSpec).header("X-MEXC-APIKEY", testApiKey);
-    verify(requestBodyUriSpec).header("Content-Type", "application/json");
-
-    // Verify that the REST client's retrieve() method was called.
-    verify(requestBodyUriSpec, times(1)).retrieve();
   }
 
   /**
@@ -116,9 +131,9 @@ class MexcOrderServiceTest {
     // Act: call sendOrder.
     mexcOrderService.sendOrder(orderReq);
 
-    // Capture the URL passed to the REST client.
+    // Capture the URL passed to the order gateway.
     ArgumentCaptor<String> uriCaptor = ArgumentCaptor.forClass(String.class);
-    verify(requestBodyUriSpec).uri(uriCaptor.capture());
+    verify(orderGateway).send(any(), uriCaptor.capture(), anyString(), any());
     String capturedUrl = uriCaptor.getValue();
 
     // Parse the URL to extract the query string.
@@ -151,4 +166,85 @@ class MexcOrderServiceTest {
     // Assert that the captured signature matches the expected signature.
     assertThat(capturedSignature).isEqualTo(expectedSignature);
   }
+
+  /**
+   * This test verifies that sendOrders leaves the caller's requests as they are and rejects a
+   * request repeating the client order id of an earlier one instead of batching both.
+   */
+  @Test
+  void testSendOrders_copiesRequestsAndRejectsDuplicateClientOrderIds() throws Exception {
+    MexcNewOrderReq withoutId = limitOrder(null);
+    MexcNewOrderReq first = limitOrder("dup");
+    MexcNewOrderReq second = limitOrder("dup");
+
+    List<CompletableFuture<MexcOrderAck<MexcNewOrderResp>>> results =
+        mexcOrderService.sendOrders(List.of(withoutId, first, second));
+
+    assertThat(withoutId.getNewClientOrderId()).isNull();
+    assertThat(results.get(0)).isNotDone();
+    assertThat(results.get(1)).isNotDone();
+    assertThatThrownBy(() -> results.get(2).get())
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(IllegalArgumentException.class);
+
+    ArgumentCaptor<String> uriCaptor = ArgumentCaptor.forClass(String.class);
+    verify(orderGateway)
+        .send(
+            eq(BATCH_ORDERS), uriCaptor.capture(), eq(testApiKey), eq(MexcBatchOrderResp[].class));
+    JsonNode batchOrders =
+        new ObjectMapper().readTree(batchOrdersParameter(uriCaptor.getValue()));
+    assertThat(batchOrders).hasSize(2);
+    assertThat(batchOrders.get(0).get("newClientOrderId").asText())
+        .isNotEmpty()
+        .isNotEqualTo("dup");
+    assertThat(batchOrders.get(1).get("newClientOrderId").asText()).isEqualTo("dup");
+  }
+
+  /**
+   * This test verifies that the body of a batch entry MEXC rejected stays valid JSON when the
+   * rejection message contains quotes, backslashes or control characters.
+   */
+  @Test
+  void testSendOrders_rejectedEntryMessageIsEscaped() throws Exception {
+    MexcBatchOrderResp entry = new MexcBatchOrderResp();
+    entry.setNewClientOrderId("order1");
+    entry.setCode(30004);
+    entry.setMsg("Insufficient \"balance\" \\ retry\n");
+    when(orderGateway.send(
+            eq(BATCH_ORDERS), anyString(), anyString(), eq(MexcBatchOrderResp[].class)))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new MexcOrderAck<>(new MexcBatchOrderResp[] {entry}, 1000)));
+
+    CompletableFuture<MexcOrderAck<MexcNewOrderResp>> result =
+        mexcOrderService.sendOrders(List.of(limitOrder("order1"))).get(0);
+
+    ExecutionException failure = catchThrowableOfType(result::get, ExecutionException.class);
+    assertThat(failure).hasCauseInstanceOf(MexcOrderRejectedException.class);
+    JsonNode body =
+        new ObjectMapper().readTree(((MexcOrderRejectedException) failure.getCause()).getBody());
+    assertThat(body.get("code").asInt()).isEqualTo(30004);
+    assertThat(body.get("msg").asText()).isEqualTo(entry.getMsg());
+  }
+
+  private static MexcNewOrderReq limitOrder(String clientOrderId) {
+    MexcNewOrderReq orderReq = new MexcNewOrderReq();
+    orderReq.setSymbol("BTCUSDT");
+    orderReq.setSide(MexcOrderSide.BUY);
+    orderReq.setType(MexcOrderType.LIMIT);
+    orderReq.setQuantity(1);
+    orderReq.setPrice(50000);
+    orderReq.setNewClientOrderId(clientOrderId);
+    return orderReq;
+  }
+
+  private static String batchOrdersParameter(String url) throws Exception {
+    for (String pair : new URI(url).getRawQuery().split("&")) {
+      String[] kv = pair.split("=", 2);
+      if (kv[0].equals("batchOrders")) {
+        return URLDecoder.decode(kv[1], StandardCharsets.UTF_8);
+      }
+    }
+    throw new AssertionError("No batchOrders parameter in " + url);
+  }
 }
@@ -0,0 +1,285 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.crypto.arbitrage.providers.mexc.MexcProvider;
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.common.MexcProtobufReader;
+import com.crypto.arbitrage.providers.mexc.common.MexcProtobufWriter;
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthSnapshot;
+import com.crypto.arbitrage.providers.mexc.service.MexcMarketDataService;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderManager;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataListener;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataProcessor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDepthDecoder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDepthSnapshotDiffer;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLatencyRecorder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLivenessMonitor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcIncrementalDepthBook;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcInstrumentRegistry;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcProtobufDecoder;
+import com.crypto.arbitrage.utilite.HashedWheelTimer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import velox.api.layer1.data.TradeInfo;
+
+/** Decodes {@code PushDataV3ApiWrapper} frames built with {@link MexcProtobufWriter}. */
+class MexcProtobufDecoderTest {
+
+  private static final long EVENT_TIME = 1736417034399L;
+  private static final MexcTickScale TICK_SCALE = new MexcTickScale(0.01, 1000);
+
+  private final MexcMarketDataService marketDataService = mock(MexcMarketDataService.class);
+  private final List<String> published = new ArrayList<>();
+  private MexcInstrumentRegistry registry;
+  private MexcMessageDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    registry = new MexcInstrumentRegistry();
+    registry.subscribe(
+        MexcProvider.createInstrumentInfo("BTCUSDT", 0.01, 1000), MexcDepthMode.LIMIT_5);
+    registry.subscribe(
+        MexcProvider.createInstrumentInfo("ETHUSDT", 0.01, 1000), MexcDepthMode.FULL);
+    MexcDataProcessor processor =
+        new MexcDataProcessor(
+            event -> {},
+            new MexcDepthSnapshotDiffer(),
+            marketDataService,
+            registry,
+            new MexcOrderManager(60000),
+            new MexcOrderLatencyTracer(true, 50, 60000));
+    processor.setDataListener(
+        new MexcDataListener() {
+          @Override
+          public void onTrade(String symbol, double price, int size, TradeInfo tradeInfo) {
+            String side = tradeInfo.isBidAggressor ? " buy" : " sell";
+            published.add(symbol + " trade " + (int) price + "x" + size + side);
+          }
+
+          @Override
+          public void onDepth(String symbol, boolean isBid, int price, int size) {
+            published.add(symbol + (isBid ? " bid " : " ask ") + price + "x" + size);
+          }
+        });
+    // Never started, the checks never run
+    HashedWheelTimer timer =
+        new HashedWheelTimer("TestTimer", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+    dispatcher =
+        new MexcMessageDispatcher(
+            new ObjectMapper(),
+            processor,
+            registry,
+            new MexcDepthDecoder(),
+            new MexcProtobufDecoder(),
+            new MexcFeedLatencyRecorder(false, registry),
+            new MexcFeedLivenessMonitor(
+                true, 10, 500, 5000, 100, registry, timer, event -> {}));
+  }
+
+  @Test
+  void testDeals() {
+    MexcProtobufWriter deals = new MexcProtobufWriter();
+    deals.bytes(1, deal("60000.00", "0.00123", 1));
+    deals.bytes(1, deal("60000.01", "0.5", 2));
+    deals.string(2, "spot@public.deals.v3.api.pb");
+
+    dispatcher.dispatchBinaryMessage(
+        wrapper("spot@public.deals.v3.api.pb@BTCUSDT", "BTCUSDT", 301, deals.toByteArray()));
+
+    assertThat(published)
+        .containsExactly("BTCUSDT trade 6000000x1 buy", "BTCUSDT trade 6000001x500 sell");
+  }
+
+  /** Limited depth is diffed against the previous frame of the symbol. */
+  @Test
+  void testLimitDepth() {
+    dispatcher.dispatchBinaryMessage(
+        limitDepth(3407459756L, level("60000.01", "0.2"), level("60000.00", "0.1")));
+    dispatcher.dispatchBinaryMessage(
+        limitDepth(3407459757L, level("60000.02", "0.2"), level("60000.00", "0.3")));
+
+    assertThat(published)
+        .containsExactly(
+            "BTCUSDT ask 6000001x200",
+            "BTCUSDT bid 6000000x100",
+            "BTCUSDT ask 6000001x0",
+            "BTCUSDT ask 6000002x200",
+            "BTCUSDT bid 6000000x300");
+  }
+
+  /** The first incremental frame fetches a snapshot, then is replayed on top of it. */
+  @Test
+  void testIncrementalDepth() {
+    MexcDepthSnapshot restSnapshot = new MexcDepthSnapshot("ETHUSDT", TICK_SCALE);
+    restSnapshot.setVersion(41);
+    restSnapshot.side(true).add(300000, 5000);
+    when(marketDataService.getDepthSnapshotAsync(eq("ETHUSDT"), any()))
+        .thenReturn(CompletableFuture.completedFuture(restSnapshot));
+    MexcProtobufWriter depth = new MexcProtobufWriter();
+    depth.bytes(1, level("3000.01", "1"));
+    depth.bytes(2, level("3000.00", "0"));
+    depth.string(3, "spot@public.increase.depth.v3.api.pb");
+    depth.string(4, "42");
+
+    dispatcher.dispatchBinaryMessage(
+        wrapper(
+            "spot@public.increase.depth.v3.api.pb@ETHUSDT", "ETHUSDT", 302, depth.toByteArray()));
+
+    assertThat(published)
+        .containsExactly(
+            "ETHUSDT bid 300000x5000", "ETHUSDT bid 300000x0", "ETHUSDT ask 300001x1000");
+    MexcIncrementalDepthBook book = registry.getIncrementalBook(registry.idOf("ETHUSDT"));
+    assertThat(book.getState()).isEqualTo(MexcIncrementalDepthBook.State.SYNCED);
+    assertThat(book.getLastVersion()).isEqualTo(42);
+  }
+
+  /** Fields the decoder does not know, of every wire type, are skipped at every level. */
+  @Test
+  void testUnknownFieldsSkipped() {
+    MexcProtobufWriter dealItem = new MexcProtobufWriter();
+    dealItem.varint(9, 123456789);
+    dealItem.string(1, "60000.00");
+    dealItem.bytes(10, new byte[] {1, 2, 3});
+    dealItem.string(2, "1");
+    dealItem.varint(3, 1);
+    dealItem.varint(4, EVENT_TIME);
+    MexcProtobufWriter deals = new MexcProtobufWriter();
+    deals.varint(7, 1);
+    deals.bytes(1, dealItem.toByteArray());
+    byte[] body = deals.toByteArray();
+
+    MexcProtobufWriter wrapper = new MexcProtobufWriter();
+    wrapper.varint(99, Long.MAX_VALUE);
+    wrapper.string(1, "spot@public.deals.v3.api.pb@BTCUSDT");
+    wrapper.string(2, "unknown");
+    wrapper.string(3, "BTCUSDT");
+    wrapper.varint(6, EVENT_TIME);
+    wrapper.bytes(301, body);
+    wrapper.bytes(399, new byte[] {(byte) 0x80, 0x01});
+    byte[] frame = withFixedFields(wrapper.toByteArray());
+
+    dispatcher.dispatchBinaryMessage(frame);
+
+    assertThat(published).containsExactly("BTCUSDT trade 6000000x1000 buy");
+  }
+
+  /** Varints of up to ten bytes round-trip, and broken ones are rejected rather than misread. */
+  @Test
+  void testReader_multiByteVarints() {
+    long[] values = {0, 1, 127, 128, 300, 16_383, 16_384, EVENT_TIME, Long.MAX_VALUE, -1};
+    MexcProtobufWriter writer = new MexcProtobufWriter();
+    for (long value : values) {
+      writer.varint(1000, value);
+    }
+    byte[] bytes = writer.toByteArray();
+
+    MexcProtobufReader reader = new MexcProtobufReader(bytes);
+    for (long value : values) {
+      int tag = reader.readTag();
+      assertThat(MexcProtobufReader.fieldNumber(tag)).isEqualTo(1000);
+      assertThat(MexcProtobufReader.wireType(tag)).isEqualTo(MexcProtobufReader.WIRE_VARINT);
+      assertThat(reader.readVarint()).isEqualTo(value);
+    }
+    assertThat(reader.readTag()).isZero();
+    // 300 is 0xAC 0x02 on the wire
+    assertThat(new MexcProtobufReader(new byte[] {(byte) 0xAC, 0x02}).readVarint()).isEqualTo(300);
+
+    assertThatThrownBy(() -> new MexcProtobufReader(new byte[] {(byte) 0x80}).readVarint())
+        .isInstanceOf(IllegalStateException.class);
+    byte[] tooLong = new byte[11];
+    Arrays.fill(tooLong, (byte) 0x80);
+    assertThatThrownBy(() -> new MexcProtobufReader(tooLong).readVarint())
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  /** Embedded messages are read within their limit; lengths past it are rejected. */
+  @Test
+  void testReader_limits() {
+    MexcProtobufWriter inner = new MexcProtobufWriter();
+    inner.string(1, "60000.00");
+    inner.varint(2, 7);
+    MexcProtobufWriter outer = new MexcProtobufWriter();
+    outer.bytes(1, inner.toByteArray());
+    outer.varint(2, 8);
+
+    MexcProtobufReader reader = new MexcProtobufReader(outer.toByteArray());
+    reader.readTag();
+    int previousLimit = reader.pushLimit();
+    reader.readTag();
+    assertThat(reader.readDecimal()).isEqualTo(MexcDecimal.parse("60000.00"));
+    // Leaving the embedded message skips its unread field 2
+    reader.popLimit(previousLimit);
+    assertThat(MexcProtobufReader.fieldNumber(reader.readTag())).isEqualTo(2);
+    assertThat(reader.readVarint()).isEqualTo(8);
+    assertThat(reader.hasRemaining()).isFalse();
+
+    byte[] truncated = {0x0A, 0x05, 'a', 'b'};
+    MexcProtobufReader truncatedReader = new MexcProtobufReader(truncated);
+    truncatedReader.readTag();
+    assertThatThrownBy(truncatedReader::readString).isInstanceOf(IllegalStateException.class);
+  }
+
+  private static byte[] deal(String price, String quantity, int tradeType) {
+    MexcProtobufWriter deal = new MexcProtobufWriter();
+    deal.string(1, price);
+    deal.string(2, quantity);
+    deal.varint(3, tradeType);
+    deal.varint(4, EVENT_TIME);
+    return deal.toByteArray();
+  }
+
+  private static byte[] level(String price, String quantity) {
+    MexcProtobufWriter level = new MexcProtobufWriter();
+    level.string(1, price);
+    level.string(2, quantity);
+    return level.toByteArray();
+  }
+
+  private static byte[] limitDepth(long version, byte[] ask, byte[] bid) {
+    MexcProtobufWriter depth = new MexcProtobufWriter();
+    depth.bytes(1, ask);
+    depth.bytes(2, bid);
+    depth.string(3, "spot@public.limit.depth.v3.api.pb");
+    depth.string(4, Long.toString(version));
+    return wrapper(
+        "spot@public.limit.depth.v3.api.pb@BTCUSDT@5", "BTCUSDT", 303, depth.toByteArray());
+  }
+
+  private static byte[] wrapper(String channel, String symbol, int bodyField, byte[] body) {
+    MexcProtobufWriter wrapper = new MexcProtobufWriter();
+    wrapper.string(1, channel);
+    wrapper.string(3, symbol);
+    wrapper.varint(6, EVENT_TIME);
+    wrapper.bytes(bodyField, body);
+    return wrapper.toByteArray();
+  }
+
+  /** Prepends a fixed64 field 50 and a fixed32 field 51, which the writer cannot produce. */
+  private static byte[] withFixedFields(byte[] frame) {
+    byte[] fixed = new byte[2 + 8 + 2 + 4];
+    fixed[0] = (byte) (50 << 3 | MexcProtobufReader.WIRE_FIXED64 | 0x80);
+    fixed[1] = (byte) (50 >> 4);
+    fixed[10] = (byte) (51 << 3 | MexcProtobufReader.WIRE_FIXED32 | 0x80);
+    fixed[11] = (byte) (51 >> 4);
+    byte[] result = new byte[fixed.length + frame.length];
+    System.arraycopy(fixed, 0, result, 0, fixed.length);
+    System.arraycopy(frame, 0, result, fixed.length, frame.length);
+    return result;
+  }
+}
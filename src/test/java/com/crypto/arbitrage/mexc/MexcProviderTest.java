@@ -5,17 +5,23 @@ import static org.mockito.Mockito.*;
 
 import com.crypto.arbitrage.providers.mexc.MexcProvider;
 import com.crypto.arbitrage.providers.mexc.common.MexcMapper;
+import com.crypto.arbitrage.providers.mexc.model.event.MexcFeedStaleEvent;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcNewOrderReq;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderSide;
 import com.crypto.arbitrage.providers.mexc.model.order.MexcOrderType;
 import com.crypto.arbitrage.providers.mexc.service.MexcOrderService;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataProcessor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcInstrumentRegistry;
 import com.crypto.arbitrage.providers.mexc.websocket.MexcWebSocketManager;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import velox.api.layer1.Layer1ApiDataListener;
+import velox.api.layer1.data.MarketMode;
 import velox.api.layer1.data.OrderDuration;
 import velox.api.layer1.data.OrderSendParameters;
 import velox.api.layer1.data.SimpleOrderSendParameters;
@@ -29,11 +35,21 @@ class MexcProviderTest {
 
   @Mock private MexcWebSocketManager mexcWebSocketManager;
 
+  @Mock private MexcDataProcessor mexcDataProcessor;
+
+  @Mock private MexcInstrumentRegistry instrumentRegistry;
+
   private MexcProvider mexcProvider;
 
   @BeforeEach
   void setUp() {
-    mexcProvider = new MexcProvider(mexcOrderService, publisher, mexcWebSocketManager);
+    mexcProvider =
+        new MexcProvider(
+            mexcOrderService,
+            publisher,
+            mexcWebSocketManager,
+            mexcDataProcessor,
+            instrumentRegistry);
   }
 
   /**
@@ -53,6 +69,7 @@ class MexcProviderTest {
             .type(MexcOrderType.MARKET)
             .quantity(10)
             .build();
+    when(mexcOrderService.sendOrder(actualNewOrderReq)).thenReturn(new CompletableFuture<>());
 
     // Act: call the method under test.
     mexcProvider.sendOrder(orderSendParameters);
@@ -75,6 +92,26 @@ class MexcProviderTest {
     verifyNoInteractions(mexcOrderService);
   }
 
+  /**
+   * Test that a stale symbol is subscribed again and reported as a closed market, and that its
+   * market is reported open again once its frames resume.
+   */
+  @Test
+  void testFeedStaleEvent_resubscribesAndClosesMarketUntilResumed() {
+    Layer1ApiDataListener listener = mock(Layer1ApiDataListener.class);
+    mexcProvider.addListener(listener);
+
+    mexcProvider.onFeedStaleEvent(new MexcFeedStaleEvent("BTCUSDT", true, 5000));
+
+    verify(mexcWebSocketManager).resubscribe("BTCUSDT");
+    verify(listener).onMarketMode("BTCUSDT", MarketMode.CLOSED);
+
+    mexcProvider.onFeedStaleEvent(new MexcFeedStaleEvent("BTCUSDT", false, 6000));
+
+    verify(listener).onMarketMode("BTCUSDT", MarketMode.OPEN);
+    verifyNoMoreInteractions(mexcWebSocketManager);
+  }
+
   /** Dummy class for an unsupported OrderSendParameters implementation. */
   private static class DummyUnsupportedOrderSendParameters implements OrderSendParameters {}
 }
@@ -0,0 +1,160 @@
+package com.crypto.arbitrage.mexc;
+
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.CANCEL_ORDER;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.DEPTH;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.LISTEN_KEY;
+import static com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Endpoint.NEW_ORDER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter;
+import com.crypto.arbitrage.providers.mexc.service.MexcRateLimiter.Lane;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MexcRateLimiterTest {
+
+  private static final String USED_WEIGHT_HEADER = "X-Used-Weight";
+
+  // Near the wrap of System.nanoTime() values, which the limiter must compare by difference
+  private final AtomicLong now = new AtomicLong(Long.MAX_VALUE - TimeUnit.SECONDS.toNanos(1));
+
+  // 10 weight per second, 100 ms per weight: cancels may use 10, orders 8, the lower lanes 6.
+  // Orders wait up to 200 ms in their queue, market data requests are never queued.
+  private final MexcRateLimiter rateLimiter =
+      new MexcRateLimiter(10, 1000, 2, 2, 1000, 200, 1000, 0, 5000, USED_WEIGHT_HEADER, now::get);
+
+  @AfterEach
+  void tearDown() {
+    rateLimiter.onShutdown();
+  }
+
+  /** Each lane stops at its own limit, leaving the reserved weight to the lanes above it. */
+  @Test
+  void testLanesLeaveTheirReservesToHigherLanes() {
+    assertThat(rateLimiter.getAvailableWeight(Lane.MARKET_DATA)).isEqualTo(6);
+    assertThat(acquireAll(DEPTH)).isEqualTo(6);
+    assertThat(rateLimiter.tryAcquire(LISTEN_KEY)).isFalse();
+    assertThat(rateLimiter.getAvailableWeight(Lane.ORDER)).isEqualTo(2);
+    assertThat(acquireAll(NEW_ORDER)).isEqualTo(2);
+    assertThat(acquireAll(CANCEL_ORDER)).isEqualTo(2);
+
+    assertThat(rateLimiter.getStats(Lane.MARKET_DATA).getAdmitted().sum()).isEqualTo(6);
+    assertThat(rateLimiter.getStats(Lane.MARKET_DATA).getRejected().sum()).isEqualTo(1);
+    assertThat(rateLimiter.getStats(Lane.ACCOUNT).getRejected().sum()).isEqualTo(1);
+
+    // The bucket drains at one weight per 100 ms, first into the highest lane's reserve
+    advanceMillis(300);
+    assertThat(rateLimiter.tryAcquire(DEPTH)).isFalse();
+    assertThat(acquireAll(NEW_ORDER)).isEqualTo(1);
+    assertThat(acquireAll(CANCEL_ORDER)).isEqualTo(2);
+  }
+
+  /** A request that does not fit within its lane's maximum wait is rejected at once. */
+  @Test
+  void testRequestBeyondMaximumWaitIsRejected() {
+    acquireAll(DEPTH);
+
+    CompletableFuture<Void> admission = rateLimiter.acquire(DEPTH);
+
+    assertThat(admission).isCompletedExceptionally();
+    assertThat(rateLimiter.getStats(Lane.MARKET_DATA).getQueued().sum()).isZero();
+  }
+
+  /** A queued request is admitted once the bucket has drained enough. */
+  @Test
+  void testQueuedRequestIsAdmittedWhenWeightFrees() throws Exception {
+    acquireAll(NEW_ORDER);
+
+    CompletableFuture<Void> admission = rateLimiter.acquire(NEW_ORDER);
+    assertThat(admission).isNotDone();
+    advanceMillis(100);
+
+    admission.get(5, TimeUnit.SECONDS);
+    assertThat(rateLimiter.getStats(Lane.ORDER).getQueued().sum()).isEqualTo(1);
+    assertThat(rateLimiter.getStats(Lane.ORDER).getQueuedNanos().sum())
+        .isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThat(rateLimiter.getStats(Lane.ORDER).getQueueDepth().get()).isZero();
+  }
+
+  /** A queued request still waiting at its lane's maximum wait is rejected. */
+  @Test
+  void testQueuedRequestTimesOut() {
+    acquireAll(NEW_ORDER);
+    long rejected = rateLimiter.getStats(Lane.ORDER).getRejected().sum();
+
+    CompletableFuture<Void> admission = rateLimiter.acquire(NEW_ORDER);
+    assertThat(admission).isNotDone();
+    // The order would fit by now, but its deadline has passed
+    advanceMillis(200);
+
+    assertThat(admission)
+        .failsWithin(5, TimeUnit.SECONDS)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(RejectedExecutionException.class);
+    assertThat(rateLimiter.getStats(Lane.ORDER).getRejected().sum()).isEqualTo(rejected + 1);
+    assertThat(rateLimiter.getStats(Lane.ORDER).getQueueDepth().get()).isZero();
+  }
+
+  /** A 429 pauses every lane for the Retry-After seconds. */
+  @Test
+  void testRetryAfterPausesAllLanes() {
+    rateLimiter.onResponse(429, header("Retry-After", "2"));
+
+    assertThat(rateLimiter.getThrottledCount().sum()).isEqualTo(1);
+    assertThat(rateLimiter.tryAcquire(CANCEL_ORDER)).isFalse();
+    assertThat(rateLimiter.getAvailableWeight(Lane.CANCEL)).isZero();
+    advanceMillis(1999);
+    assertThat(rateLimiter.tryAcquire(CANCEL_ORDER)).isFalse();
+    advanceMillis(1);
+    assertThat(rateLimiter.tryAcquire(CANCEL_ORDER)).isTrue();
+    assertThat(rateLimiter.tryAcquire(DEPTH)).isTrue();
+  }
+
+  /** A 418 without Retry-After pauses for the configured throttle pause. */
+  @Test
+  void testThrottleWithoutRetryAfterUsesConfiguredPause() {
+    rateLimiter.onResponse(418, header("Retry-After", null));
+
+    advanceMillis(4999);
+    assertThat(rateLimiter.tryAcquire(CANCEL_ORDER)).isFalse();
+    advanceMillis(1);
+    assertThat(rateLimiter.tryAcquire(CANCEL_ORDER)).isTrue();
+  }
+
+  /** The used weight MEXC reports raises the local count, but never lowers it. */
+  @Test
+  void testUsedWeightHeaderRaisesLocalCount() {
+    rateLimiter.onResponse(200, header(USED_WEIGHT_HEADER, "5"));
+
+    assertThat(rateLimiter.getAvailableWeight(Lane.MARKET_DATA)).isEqualTo(1);
+    assertThat(rateLimiter.getAvailableWeight(Lane.CANCEL)).isEqualTo(5);
+
+    rateLimiter.onResponse(200, header(USED_WEIGHT_HEADER, "1"));
+    assertThat(rateLimiter.getAvailableWeight(Lane.MARKET_DATA)).isEqualTo(1);
+
+    rateLimiter.onResponse(200, header(USED_WEIGHT_HEADER, "many"));
+    assertThat(acquireAll(DEPTH)).isEqualTo(1);
+  }
+
+  private int acquireAll(MexcRateLimiter.Endpoint endpoint) {
+    int admitted = 0;
+    while (rateLimiter.tryAcquire(endpoint)) {
+      admitted++;
+    }
+    return admitted;
+  }
+
+  private void advanceMillis(long millis) {
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  private static Function<String, String> header(String name, String value) {
+    return header -> header.equals(name) ? value : null;
+  }
+}
@@ -0,0 +1,147 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.crypto.arbitrage.providers.mexc.MexcProvider;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.service.MexcMarketDataService;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderLatencyTracer;
+import com.crypto.arbitrage.providers.mexc.service.MexcOrderManager;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataListener;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDataProcessor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDepthDecoder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcDepthSnapshotDiffer;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLatencyRecorder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLivenessMonitor;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcInstrumentRegistry;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcProtobufDecoder;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcFrameKeys;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcMessagePipeline;
+import com.crypto.arbitrage.providers.mexc.websocket.MexcRedundantFeed;
+import com.crypto.arbitrage.utilite.HashedWheelTimer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import velox.api.layer1.data.TradeInfo;
+
+class MexcRedundantFeedTest {
+
+  private static final String SYMBOL = "BTCUSDT";
+
+  private final List<String> trades = new ArrayList<>();
+  private final List<String> depth = new ArrayList<>();
+  private MexcRedundantFeed feed;
+
+  @BeforeEach
+  void setUp() {
+    MexcInstrumentRegistry registry = new MexcInstrumentRegistry(SYMBOL);
+    registry.subscribe(
+        MexcProvider.createInstrumentInfo(SYMBOL, 0.01, 100_000), MexcDepthMode.LIMIT_5);
+    MexcDataProcessor processor =
+        new MexcDataProcessor(
+            event -> {},
+            new MexcDepthSnapshotDiffer(),
+            mock(MexcMarketDataService.class),
+            registry,
+            new MexcOrderManager(60000),
+            new MexcOrderLatencyTracer(true, 50, 60000));
+    processor.setDataListener(
+        new MexcDataListener() {
+          @Override
+          public void onTrade(String symbol, double price, int size, TradeInfo tradeInfo) {
+            trades.add(price + "x" + size + (tradeInfo.isBidAggressor ? " buy" : " sell"));
+          }
+
+          @Override
+          public void onDepth(String symbol, boolean isBid, int price, int size) {
+            depth.add((isBid ? "bid " : "ask ") + price + "x" + size);
+          }
+        });
+    // Never started, frames only pay for the bookkeeping
+    HashedWheelTimer timer =
+        new HashedWheelTimer("TestTimer", 10, TimeUnit.MILLISECONDS, 8, Runnable::run);
+    MexcMessageDispatcher dispatcher =
+        new MexcMessageDispatcher(
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false),
+            processor,
+            registry,
+            new MexcDepthDecoder(),
+            new MexcProtobufDecoder(),
+            new MexcFeedLatencyRecorder(false, registry),
+            new MexcFeedLivenessMonitor(
+                true, 10, 500, 5000, 100, registry, timer, event -> {}));
+    // Decodes on the calling thread, so every frame is published before the next one arrives
+    MexcMessagePipeline pipeline = mock(MexcMessagePipeline.class);
+    doAnswer(
+            invocation -> {
+              dispatcher.dispatchMessage(invocation.getArgument(0), invocation.getArgument(1));
+              return null;
+            })
+        .when(pipeline)
+        .onText(anyString(), anyLong());
+    feed = new MexcRedundantFeed("redundant", pipeline, 2, 1024);
+  }
+
+  /** The same deals batched into different frames by the two legs are each published once. */
+  @Test
+  void testDealsBatchedDifferentlyPerLeg_publishedOnce() {
+    feed.getLeg(0).onText(deals(100, deal(1, "60000.00", "0.5"), deal(2, "60000.01", "0.1")), 1);
+    feed.getLeg(1).onText(deals(101, deal(1, "60000.00", "0.5")), 2);
+    feed.getLeg(1).onText(deals(102, deal(2, "60000.01", "0.1"), deal(1, "60000.02", "0.2")), 3);
+    feed.getLeg(0).onText(deals(103, deal(1, "60000.02", "0.2")), 4);
+
+    assertThat(trades)
+        .containsExactly("6000000.0x50000 buy", "6000001.0x10000 sell", "6000002.0x20000 buy");
+  }
+
+  /** Identical deals in a row are distinct deals, also when the other leg splits them up. */
+  @Test
+  void testIdenticalDealsInARow_keptApart() {
+    feed.getLeg(0).onText(deals(100, deal(1, "60000.00", "0.5"), deal(1, "60000.00", "0.5")), 1);
+    feed.getLeg(1).onText(deals(101, deal(1, "60000.00", "0.5")), 2);
+    feed.getLeg(1).onText(deals(102, deal(1, "60000.00", "0.5")), 3);
+
+    assertThat(trades).containsExactly("6000000.0x50000 buy", "6000000.0x50000 buy");
+  }
+
+  /** Depth frames are still deduplicated as a whole, while deals frames carry no frame key. */
+  @Test
+  void testDepthFramesDeduplicatedAsAWhole() {
+    String depthFrame =
+        "{\"c\":\"spot@public.limit.depth.v3.api@BTCUSDT@5\",\"d\":{\"asks\":[{\"p\":\"60000.01\","
+            + "\"v\":\"0.2\"}],\"bids\":[{\"p\":\"60000.00\",\"v\":\"0.1\"}],"
+            + "\"e\":\"spot@public.limit.depth.v3.api\",\"r\":\"3407459756\"},"
+            + "\"s\":\"BTCUSDT\",\"t\":1736417034399}";
+
+    feed.getLeg(1).onText(depthFrame, 1);
+    feed.getLeg(0).onText(depthFrame, 2);
+
+    assertThat(depth).containsExactlyInAnyOrder("ask 6000001x20000", "bid 6000000x10000");
+    assertThat(feed.getLeg(1).getWins().get()).isEqualTo(1);
+    assertThat(feed.getLeg(0).getDuplicates().get()).isEqualTo(1);
+    assertThat(MexcFrameKeys.textKey(deals(100, deal(1, "60000.00", "0.5"))))
+        .isEqualTo(MexcFrameKeys.NO_KEY);
+  }
+
+  private static String deal(int tradeType, String price, String quantity) {
+    return "{\"S\":" + tradeType + ",\"p\":\"" + price + "\",\"t\":1736417034399,\"v\":\""
+        + quantity + "\"}";
+  }
+
+  private static String deals(long eventTime, String... deals) {
+    return "{\"c\":\"spot@public.deals.v3.api@BTCUSDT\",\"d\":{\"deals\":["
+        + String.join(",", deals)
+        + "],\"e\":\"spot@public.deals.v3.api\"},\"s\":\"BTCUSDT\",\"t\":"
+        + eventTime
+        + "}";
+  }
+}
@@ -0,0 +1,156 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.crypto.arbitrage.providers.mexc.MexcProvider;
+import com.crypto.arbitrage.providers.mexc.model.depth.MexcDepthMode;
+import com.crypto.arbitrage.providers.mexc.model.replay.MexcReplayRequest;
+import com.crypto.arbitrage.providers.mexc.replay.MexcReplayDriver;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcFeedLatencyRecorder;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcInstrumentRegistry;
+import com.crypto.arbitrage.providers.mexc.service.messages.MexcMessageDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MexcReplayDriverTest {
+
+  private static final long MILLIS = 1_000_000L;
+  private static final String DEAL =
+      "{\"c\":\"spot@public.deals.v3.api@BTCUSDT\",\"d\":{\"deals\":[]},\"s\":\"BTCUSDT\"}";
+
+  @Mock private MexcMessageDispatcher dispatcher;
+
+  @Mock private MexcFeedLatencyRecorder latencyRecorder;
+
+  @Mock private MexcProvider mexcProvider;
+
+  @TempDir Path directory;
+
+  private final MexcInstrumentRegistry instrumentRegistry = new MexcInstrumentRegistry();
+
+  private MexcReplayDriver replayDriver;
+
+  @BeforeEach
+  void setUp() {
+    replayDriver =
+        new MexcReplayDriver(
+            dispatcher,
+            latencyRecorder,
+            mexcProvider,
+            new ObjectMapper(),
+            instrumentRegistry,
+            directory.toString());
+  }
+
+  /**
+   * A small NDJSON capture is replayed in order at twice its pace: public frames only, after the
+   * instruments are registered, each due half its captured gap after the previous one.
+   */
+  @Test
+  void testReplayCapturedFeedAtDoubleSpeed() throws IOException, InterruptedException {
+    long ts = 1_736_417_034_000_000_000L;
+    byte[] binaryFrame = {10, 3, 'a', 'b', 'c'};
+    String encoded = Base64.getEncoder().encodeToString(binaryFrame);
+    String pong = "{\"id\":0,\"code\":0,\"msg\":\"PONG\"}";
+    Path capture = directory.resolve("capture.ndjson");
+    Files.write(
+        capture,
+        List.of(
+            line(ts, "\"text\":" + quoted(DEAL)),
+            line(ts + 5 * MILLIS, "\"text\":" + quoted(pong)),
+            line(ts + 10 * MILLIS, "\"bin\":" + quoted(encoded)),
+            line(ts + 30 * MILLIS, "\"text\":" + quoted(DEAL))));
+    MexcReplayRequest request = request(capture.getFileName().toString());
+    request.setSpeed(2);
+
+    assertThat(replayDriver.start(request)).isTrue();
+    long deadline = System.nanoTime() + 5000 * MILLIS;
+    while (replayDriver.getStatus() != MexcReplayDriver.Status.FINISHED
+        && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+
+    assertThat(replayDriver.getStatus()).isEqualTo(MexcReplayDriver.Status.FINISHED);
+    assertThat(replayDriver.getTotalFrames()).isEqualTo(3);
+    assertThat(replayDriver.getSkippedFrames()).isEqualTo(1);
+    assertThat(replayDriver.getDispatchedFrames()).isEqualTo(3);
+
+    InOrder inOrder = inOrder(mexcProvider, latencyRecorder, dispatcher);
+    inOrder.verify(mexcProvider).addOfflineInstrument(any(), eq(MexcDepthMode.LIMIT_5));
+    inOrder.verify(latencyRecorder).reset();
+    ArgumentCaptor<Long> textNanos = ArgumentCaptor.forClass(Long.class);
+    ArgumentCaptor<Long> binaryNanos = ArgumentCaptor.forClass(Long.class);
+    inOrder.verify(dispatcher).dispatchMessage(eq(DEAL), textNanos.capture());
+    inOrder.verify(dispatcher).dispatchBinaryMessage(eq(binaryFrame), binaryNanos.capture());
+    inOrder.verify(dispatcher).dispatchMessage(eq(DEAL), textNanos.capture());
+
+    long first = textNanos.getAllValues().get(0);
+    assertThat(binaryNanos.getValue() - first).isEqualTo(5 * MILLIS);
+    assertThat(textNanos.getAllValues().get(1) - first).isEqualTo(15 * MILLIS);
+  }
+
+  /** Paths that leave the capture directory are refused, also through a link. */
+  @Test
+  void testSourceOutsideCaptureDirectory_refused(@TempDir Path elsewhere) throws IOException {
+    Path outside = Files.writeString(elsewhere.resolve("capture.ndjson"), "");
+    Files.createSymbolicLink(directory.resolve("link.ndjson"), outside);
+
+    for (String source :
+        List.of(outside.toString(), "../" + outside.getFileName(), "link.ndjson", "missing")) {
+      assertThatThrownBy(() -> replayDriver.start(request(source)))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+    assertThat(replayDriver.getStatus()).isEqualTo(MexcReplayDriver.Status.IDLE);
+    verifyNoInteractions(dispatcher, mexcProvider);
+  }
+
+  @Test
+  void testLiveSymbol_refused() throws IOException {
+    Files.writeString(directory.resolve("capture.ndjson"), "");
+    instrumentRegistry.subscribe(
+        MexcProvider.createInstrumentInfo("BTCUSDT", 0.01, 100_000), MexcDepthMode.LIMIT_5);
+
+    assertThatThrownBy(() -> replayDriver.start(request("capture.ndjson")))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("BTCUSDT");
+    assertThat(replayDriver.getStatus()).isEqualTo(MexcReplayDriver.Status.IDLE);
+    verifyNoInteractions(dispatcher, mexcProvider);
+  }
+
+  private static MexcReplayRequest request(String source) {
+    MexcReplayRequest request = new MexcReplayRequest();
+    request.setSource(source);
+    MexcReplayRequest.Instrument instrument = new MexcReplayRequest.Instrument();
+    instrument.setSymbol("BTCUSDT");
+    instrument.setPips(0.01);
+    instrument.setSizeMultiplier(100_000);
+    instrument.setDepth("5");
+    request.getInstruments().add(instrument);
+    return request;
+  }
+
+  private static String line(long ts, String frameField) {
+    return "{\"ts\":" + ts + ",\"conn\":\"public-0\"," + frameField + "}";
+  }
+
+  private static String quoted(String text) {
+    return "\"" + text.replace("\"", "\\\"") + "\"";
+  }
+}
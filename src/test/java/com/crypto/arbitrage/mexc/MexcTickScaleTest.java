@@ -0,0 +1,106 @@
+package com.crypto.arbitrage.mexc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.crypto.arbitrage.providers.mexc.common.MexcDecimal;
+import com.crypto.arbitrage.providers.mexc.common.MexcTickScale;
+import org.junit.jupiter.api.Test;
+
+class MexcTickScaleTest {
+
+  private final MexcTickScale tickScale = new MexcTickScale(0.01, 100_000);
+
+  /** 0.29 * 100000 is 28999.999999999996 as doubles, which the old casts truncated to 28999. */
+  @Test
+  void testExactWhereDoublesAreNot() {
+    assertThat((int) (0.29 * 100_000)).isEqualTo(28999);
+    assertThat(tickScale.toSizeUnits(MexcDecimal.parse("0.29"))).isEqualTo(29000);
+    assertThat((int) (0.29 / 0.01)).isEqualTo(28);
+    assertThat(tickScale.toPriceTicks(MexcDecimal.parse("0.29"))).isEqualTo(29);
+  }
+
+  @Test
+  void testPriceTicks() {
+    assertThat(tickScale.toPriceTicks(MexcDecimal.parse("20290.89"))).isEqualTo(2029089);
+    assertThat(tickScale.toPriceTicks(MexcDecimal.parse("20290.8"))).isEqualTo(2029080);
+    assertThat(tickScale.toPriceTicks(MexcDecimal.parse("20290"))).isEqualTo(2029000);
+    assertThat(new MexcTickScale(5, 1).toPriceTicks(MexcDecimal.parse("25"))).isEqualTo(5);
+    assertThat(new MexcTickScale(0.25, 1).toPriceTicks(MexcDecimal.parse("1.5"))).isEqualTo(6);
+  }
+
+  /** Sub-tick digits are truncated towards zero, for negative values as well. */
+  @Test
+  void testTruncatesTowardsZero() {
+    assertThat(tickScale.toPriceTicks(MexcDecimal.parse("100.019"))).isEqualTo(10001);
+    assertThat(tickScale.toPriceTicks(MexcDecimal.parse("-100.019"))).isEqualTo(-10001);
+    assertThat(tickScale.toSizeUnits(MexcDecimal.parse("0.0000123"))).isEqualTo(1);
+    assertThat(tickScale.toSizeUnits(MexcDecimal.parse("0.000009"))).isZero();
+    assertThat(tickScale.toSizeUnits(MexcDecimal.parse("-0.0000123"))).isEqualTo(-1);
+  }
+
+  /** A price is on a tick only when it converts without truncation, however it is written. */
+  @Test
+  void testIsOnTick() {
+    assertThat(tickScale.isOnTick(MexcDecimal.parse("100.01"))).isTrue();
+    assertThat(tickScale.isOnTick(MexcDecimal.parse("100.010000"))).isTrue();
+    assertThat(tickScale.isOnTick(MexcDecimal.parse("100"))).isTrue();
+    assertThat(tickScale.isOnTick(MexcDecimal.parse("100.019"))).isFalse();
+    assertThat(tickScale.isOnTick(MexcDecimal.parse("-0.005"))).isFalse();
+    assertThat(new MexcTickScale(0.25, 1).isOnTick(MexcDecimal.parse("1.75"))).isTrue();
+    assertThat(new MexcTickScale(0.25, 1).isOnTick(MexcDecimal.parse("1.7"))).isFalse();
+    assertThat(new MexcTickScale(5, 1).isOnTick(MexcDecimal.parse("12"))).isFalse();
+    // Through the exact BigDecimal path
+    MexcTickScale tinyPips = new MexcTickScale(3e-20, 1);
+    assertThat(tinyPips.isOnTick(MexcDecimal.parse("0.3"))).isTrue();
+    assertThat(tinyPips.isOnTick(MexcDecimal.parse("0.00000000000000000001"))).isFalse();
+  }
+
+  @Test
+  void testSizeUnits() {
+    assertThat(tickScale.toSizeUnits(MexcDecimal.parse("1.5"))).isEqualTo(150_000);
+    assertThat(tickScale.toSizeUnits(MexcDecimal.parse("0.00001"))).isEqualTo(1);
+    assertThat(new MexcTickScale(0.01, 0.5).toSizeUnits(MexcDecimal.parse("3"))).isEqualTo(1);
+    assertThat(new MexcTickScale(0.01, 2.5).toSizeUnits(MexcDecimal.parse("0.4"))).isEqualTo(1);
+  }
+
+  /** Results beyond the int range saturate instead of wrapping. */
+  @Test
+  void testSaturatesAtIntRange() {
+    assertThat(tickScale.toPriceTicks(MexcDecimal.parse("100000000"))).isEqualTo(Integer.MAX_VALUE);
+    assertThat(tickScale.toPriceTicks(MexcDecimal.parse("-100000000")))
+        .isEqualTo(Integer.MIN_VALUE);
+    assertThat(tickScale.toSizeUnits(MexcDecimal.parse("100000"))).isEqualTo(Integer.MAX_VALUE);
+    assertThat(tickScale.toSizeUnits(MexcDecimal.parse("-100000"))).isEqualTo(Integer.MIN_VALUE);
+  }
+
+  /** Arithmetic beyond a long takes the exact BigDecimal path and still saturates. */
+  @Test
+  void testBeyondLongArithmetic() {
+    MexcTickScale tinyPips = new MexcTickScale(1e-20, 1e-10);
+    MexcTickScale hugeMultiplier = new MexcTickScale(0.01, 1e10);
+
+    assertThat(tinyPips.toPriceTicks(MexcDecimal.parse("0.00000000000000000005"))).isEqualTo(5);
+    assertThat(tinyPips.toPriceTicks(MexcDecimal.parse("0.5"))).isEqualTo(Integer.MAX_VALUE);
+    assertThat(tinyPips.toPriceTicks(MexcDecimal.parse("0"))).isZero();
+    assertThat(tinyPips.toSizeUnits(MexcDecimal.parse("0.0000000001"))).isZero();
+    assertThat(hugeMultiplier.toSizeUnits(MexcDecimal.parse("1000000000")))
+        .isEqualTo(Integer.MAX_VALUE);
+    assertThat(hugeMultiplier.toSizeUnits(MexcDecimal.parse("-1000000000")))
+        .isEqualTo(Integer.MIN_VALUE);
+  }
+
+  @Test
+  void testRejectsUnsupportedScales() {
+    assertThatThrownBy(() -> new MexcTickScale(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MexcTickScale(0.01, -1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MexcTickScale(Double.NaN, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    // Beyond what a packed decimal holds
+    assertThatThrownBy(() -> new MexcTickScale(0.01, 1e20))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new MexcTickScale(1e-40, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,131 @@
+package com.crypto.arbitrage.providers.mexc.simulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Frames exchanged with the JDK WebSocket client, which masks what it sends. */
+class MexcSimulatorWebSocketServerTest {
+
+  private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+  private final CountDownLatch closed = new CountDownLatch(1);
+  private MexcSimulatorWebSocketServer server;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server =
+        new MexcSimulatorWebSocketServer(
+            0,
+            new MexcSimulatorWebSocketServer.Listener() {
+              @Override
+              public void onOpen(MexcSimulatorSession session) {}
+
+              @Override
+              public void onText(MexcSimulatorSession session, String message) {
+                session.sendText(message);
+              }
+
+              @Override
+              public void onClose(MexcSimulatorSession session) {
+                closed.countDown();
+              }
+            });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop();
+  }
+
+  /**
+   * Text echoed back unchanged for payloads in each of the 7-bit, 16-bit and 64-bit length
+   * encodings, and a ping answered with its payload.
+   */
+  @Test
+  void testFramesRoundTripInEveryLengthEncoding() throws Exception {
+    BlockingQueue<ByteBuffer> pongs = new LinkedBlockingQueue<>();
+    WebSocket webSocket =
+        HttpClient.newHttpClient()
+            .newWebSocketBuilder()
+            .buildAsync(
+                URI.create("ws://localhost:" + server.getPort() + "/ws"),
+                new WebSocket.Listener() {
+                  private final StringBuilder message = new StringBuilder();
+
+                  @Override
+                  public CompletionStage<?> onText(
+                      WebSocket webSocket, CharSequence data, boolean last) {
+                    message.append(data);
+                    if (last) {
+                      received.add(message.toString());
+                      message.setLength(0);
+                    }
+                    webSocket.request(1);
+                    return null;
+                  }
+
+                  @Override
+                  public CompletionStage<?> onPong(WebSocket webSocket, ByteBuffer message) {
+                    pongs.add(message);
+                    webSocket.request(1);
+                    return null;
+                  }
+                })
+            .get(5, TimeUnit.SECONDS);
+
+    for (int length : new int[] {5, 125, 126, 65_535, 65_536, 300_000}) {
+      String text = "x".repeat(length);
+      webSocket.sendText(text, true).get(5, TimeUnit.SECONDS);
+      assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(text);
+    }
+
+    webSocket.sendPing(ByteBuffer.wrap("ping".getBytes(StandardCharsets.UTF_8)));
+    ByteBuffer pong = pongs.poll(5, TimeUnit.SECONDS);
+    assertThat(pong).isNotNull();
+    assertThat(StandardCharsets.UTF_8.decode(pong).toString()).isEqualTo("ping");
+
+    webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "").get(5, TimeUnit.SECONDS);
+    assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  /** A 64-bit length with its top bit set is rejected and the connection closed. */
+  @Test
+  void testNegativeFrameLengthClosesConnection() throws Exception {
+    try (Socket socket = new Socket("localhost", server.getPort())) {
+      socket.setSoTimeout(5000);
+      OutputStream out = socket.getOutputStream();
+      out.write(
+          ("GET /ws HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                  + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                  + "Sec-WebSocket-Version: 13\r\n\r\n")
+              .getBytes(StandardCharsets.US_ASCII));
+      out.write(new byte[] {(byte) 0x81, 127, (byte) 0x80, 0, 0, 0, 0, 0, 0, 0});
+      out.flush();
+
+      InputStream in = socket.getInputStream();
+      String response = new String(in.readNBytes(12), StandardCharsets.US_ASCII);
+      assertThat(response).isEqualTo("HTTP/1.1 101");
+      while (in.read() >= 0) {
+        // Skip the rest of the handshake answer until the server closes
+      }
+    }
+    assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+}
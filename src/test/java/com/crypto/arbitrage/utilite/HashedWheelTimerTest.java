@@ -0,0 +1,83 @@
+package com.crypto.arbitrage.utilite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+    // A wheel of 8 ticks of 5 ms, so 100 ms delays span several turns
+    private final HashedWheelTimer timer =
+            new HashedWheelTimer("TestTimer", 5, TimeUnit.MILLISECONDS, 8, Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    /** A delay longer than one turn of the wheel fires neither early nor much late. */
+    @Test
+    void testScheduleAcrossWheelTurns() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.schedule(fired::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(100).isLessThan(1000);
+    }
+
+    /** Cancelled tasks never run, and a periodic task stops once cancelled. */
+    @Test
+    void testCancel() throws InterruptedException {
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        HashedWheelTimer.Timeout cancelled =
+                timer.schedule(cancelledRuns::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+
+        AtomicInteger periodicRuns = new AtomicInteger();
+        CountDownLatch threeRuns = new CountDownLatch(3);
+        HashedWheelTimer.Timeout periodic = timer.scheduleWithFixedDelay(() -> {
+            periodicRuns.incrementAndGet();
+            threeRuns.countDown();
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        assertThat(threeRuns.await(2, TimeUnit.SECONDS)).isTrue();
+        periodic.cancel();
+        int runsAtCancel = periodicRuns.get();
+        Thread.sleep(100);
+
+        assertThat(periodicRuns.get()).isLessThanOrEqualTo(runsAtCancel + 1);
+        assertThat(cancelledRuns.get()).isZero();
+    }
+
+    /** A task that blocks its executor thread does not hold up the others. */
+    @Test
+    void testSlowTaskDoesNotDelayWheel() throws InterruptedException {
+        Executor executor = task -> new Thread(task).start();
+        HashedWheelTimer threaded =
+                new HashedWheelTimer("ThreadedTimer", 5, TimeUnit.MILLISECONDS, 8, executor);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch fired = new CountDownLatch(1);
+            threaded.schedule(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 0, TimeUnit.MILLISECONDS);
+            threaded.schedule(fired::countDown, 20, TimeUnit.MILLISECONDS);
+
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+        } finally {
+            threaded.stop();
+        }
+    }
+}
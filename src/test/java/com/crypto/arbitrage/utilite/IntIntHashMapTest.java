@@ -0,0 +1,109 @@
+package com.crypto.arbitrage.utilite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntIntHashMapTest {
+
+    private static final int MISSING = -1;
+
+    @Test
+    void testPutGetRemove() {
+        IntIntHashMap map = new IntIntHashMap(4, MISSING);
+
+        assertThat(map.put(100, 1)).isEqualTo(MISSING);
+        assertThat(map.put(100, 2)).isEqualTo(1);
+        assertThat(map.get(100)).isEqualTo(2);
+        assertThat(map.get(101)).isEqualTo(MISSING);
+        assertThat(map.containsKey(100)).isTrue();
+        assertThat(map.size()).isEqualTo(1);
+
+        assertThat(map.remove(100)).isEqualTo(2);
+        assertThat(map.remove(100)).isEqualTo(MISSING);
+        assertThat(map.containsKey(100)).isFalse();
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    /** Negative and zero keys are ordinary keys; a value equal to the missing value is kept. */
+    @Test
+    void testUnusualKeysAndValues() {
+        IntIntHashMap map = new IntIntHashMap(4, 0);
+
+        map.put(0, 5);
+        map.put(-7, 0);
+        map.put(Integer.MIN_VALUE, 9);
+
+        assertThat(map.get(0)).isEqualTo(5);
+        assertThat(map.containsKey(-7)).isTrue();
+        assertThat(map.get(Integer.MIN_VALUE)).isEqualTo(9);
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    /**
+     * Removing from the middle of a probe chain shifts the rest of the chain back, so keys
+     * after the removed one are still found. A tiny table with many keys forces long chains.
+     */
+    @Test
+    void testRemovalKeepsCollidingKeysReachable() {
+        IntIntHashMap map = new IntIntHashMap(1, MISSING);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            // Keys from a small range, so both puts and removes often hit existing keys
+            int key = random.nextInt(64) - 32;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.getOrDefault(key, MISSING));
+                expected.remove(key);
+            } else {
+                assertThat(map.put(key, i)).isEqualTo(expected.getOrDefault(key, MISSING));
+                expected.put(key, i);
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (int key = -32; key < 32; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, MISSING));
+        }
+    }
+
+    /** Growing keeps every entry, and forEach visits each one exactly once. */
+    @Test
+    void testGrowAndForEach() {
+        IntIntHashMap map = new IntIntHashMap(2, MISSING);
+        for (int key = 0; key < 1000; key++) {
+            map.put(key * 1024, key);
+        }
+        for (int key = 0; key < 1000; key += 2) {
+            map.remove(key * 1024);
+        }
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> assertThat(visited.put(key, value)).isNull());
+
+        assertThat(visited).hasSize(500);
+        for (int key = 1; key < 1000; key += 2) {
+            assertThat(visited.get(key * 1024)).isEqualTo(key);
+        }
+    }
+
+    @Test
+    void testClear() {
+        IntIntHashMap map = new IntIntHashMap(8, MISSING);
+        map.put(1, 1);
+        map.put(2, 2);
+
+        map.clear();
+
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(1)).isEqualTo(MISSING);
+        map.forEach((key, value) -> {
+            throw new AssertionError("Entry left after clear: " + key);
+        });
+        map.put(1, 3);
+        assertThat(map.get(1)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,140 @@
+package com.crypto.arbitrage.utilite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class SpscRingBufferTest {
+
+    @Test
+    void testCapacityRoundedUpToPowerOfTwo() {
+        assertThat(new SpscRingBuffer<Integer>(2).capacity()).isEqualTo(2);
+        assertThat(new SpscRingBuffer<Integer>(5).capacity()).isEqualTo(8);
+        assertThat(new SpscRingBuffer<Integer>(8).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new SpscRingBuffer<Integer>(1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /** Offer fails exactly at capacity and poll exactly when empty, and both recover. */
+    @Test
+    void testFullAndEmptyBoundaries() {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(4);
+        assertThat(buffer.poll()).isNull();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isFalse();
+
+        for (int i = 1; i <= 4; i++) {
+            assertThat(buffer.poll()).isEqualTo(i);
+        }
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.size()).isZero();
+    }
+
+    /** Indexes wrap around the array many times; order and stamps stay with their elements. */
+    @Test
+    void testWraparoundKeepsOrderAndStamps() {
+        SpscRingBuffer<String> buffer = new SpscRingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 1000; round++) {
+            // Uneven batches so head and tail cross the end of the array at different slots
+            for (int i = 0; i < 1 + round % 4; i++) {
+                assertThat(buffer.offer("e" + next, 1000L + next)).isTrue();
+                next++;
+            }
+            while (buffer.size() > round % 2) {
+                assertThat(buffer.poll()).isEqualTo("e" + expected);
+                assertThat(buffer.polledStamp()).isEqualTo(1000L + expected);
+                expected++;
+            }
+        }
+    }
+
+    /** A failed poll leaves the stamp of the last element received. */
+    @Test
+    void testPolledStampAfterEmptyPoll() {
+        SpscRingBuffer<String> buffer = new SpscRingBuffer<>(2);
+        buffer.offer("a", 7);
+        buffer.offer("b");
+
+        buffer.poll();
+        assertThat(buffer.polledStamp()).isEqualTo(7);
+        buffer.poll();
+        assertThat(buffer.polledStamp()).isZero();
+        buffer.offer("c", 9);
+        buffer.poll();
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.polledStamp()).isEqualTo(9);
+    }
+
+    /**
+     * A producer and a consumer thread hand over more elements than fit, so both sides hit the
+     * full and empty boundaries and wait with the strategy under test.
+     */
+    @ParameterizedTest
+    @EnumSource(WaitStrategy.class)
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void testCrossThreadHandOff(WaitStrategy waitStrategy) throws Exception {
+        // Two spinning threads on one core only make progress when the scheduler preempts them
+        assumeTrue(waitStrategy != WaitStrategy.BUSY_SPIN
+                || Runtime.getRuntime().availableProcessors() > 1,
+                "BUSY_SPIN needs a core per thread");
+        int count = 200_000;
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(64);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread consumer = new Thread(() -> {
+            int idleCount = 0;
+            for (int expected = 0; expected < count; ) {
+                Integer element = buffer.poll();
+                if (element == null) {
+                    waitStrategy.idle(idleCount);
+                    if (idleCount < Integer.MAX_VALUE) {
+                        idleCount++;
+                    }
+                    continue;
+                }
+                idleCount = 0;
+                if (element != expected || buffer.polledStamp() != -expected) {
+                    failure.compareAndSet(null, "Expected " + expected + " but got " + element
+                            + " stamped " + buffer.polledStamp());
+                    return;
+                }
+                expected++;
+            }
+        }, "SpscConsumer");
+        consumer.start();
+
+        int idleCount = 0;
+        for (int i = 0; i < count; ) {
+            if (buffer.offer(i, -i)) {
+                i++;
+                idleCount = 0;
+            } else {
+                waitStrategy.idle(idleCount);
+                if (idleCount < Integer.MAX_VALUE) {
+                    idleCount++;
+                }
+            }
+        }
+        consumer.join();
+
+        assertThat(failure.get()).isNull();
+        assertThat(buffer.size()).isZero();
+    }
+}